@@ -0,0 +1,55 @@
+import benchmark.Bench;
+import benchmark.Benchmarks;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Point d'entrée des mesures de performances (modèles, listes avec jointure, tableau)
+ * Usage : java BenchmarkMain [--tailles=1000,100000,1000000] [--prechauffe=ms] [--mesure=ms]
+ *                            [--filtre=texte] [--csv=fichier] [--sans-base]
+ * Les mesures sur la base ajoutent des lignes de test : elles ne s'exécutent que sur une base
+ * indiquée explicitement (-Dcartegrise.db.url=jdbc:mysql://localhost:3306/carte_grise_bench...).
+ */
+public class BenchmarkMain {
+
+    private static final String USAGE = "Usage : java BenchmarkMain [--tailles=1000,100000,1000000] [--prechauffe=ms]"
+            + " [--mesure=ms] [--filtre=texte] [--csv=fichier] [--sans-base]";
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> sizes = new ArrayList<>(List.of(1_000, 100_000, 1_000_000));
+        long warmupMs = 2_000;
+        long measureMs = 5_000;
+        String filter = null;
+        String csv = null;
+        boolean database = true;
+        for (String arg : args) {
+            if (arg.startsWith("--tailles=")) {
+                sizes.clear();
+                for (String s : arg.substring(10).split(",")) sizes.add(Integer.parseInt(s.trim()));
+            }
+            else if (arg.startsWith("--prechauffe=")) warmupMs = Long.parseLong(arg.substring(13));
+            else if (arg.startsWith("--mesure=")) measureMs = Long.parseLong(arg.substring(9));
+            else if (arg.startsWith("--filtre=")) filter = arg.substring(9);
+            else if (arg.startsWith("--csv=")) csv = arg.substring(6);
+            else if (arg.equals("--sans-base")) database = false;
+            else {
+                System.err.println(USAGE);
+                System.exit(1);
+            }
+        }
+        if (database && System.getProperty("cartegrise.db.url") == null) {
+            System.err.println("Base de test non indiquée (-Dcartegrise.db.url=...) : mesures du tableau seulement.");
+            database = false;
+        }
+
+        Bench bench = new Bench(warmupMs, measureMs, filter, System.out);
+        Benchmarks.run(bench, sizes, database);
+        if (csv != null) {
+            bench.writeCsv(Paths.get(csv));
+            System.out.println("Résultats écrits dans " + csv);
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,62 @@
+import exportation.RegistryExporter;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+
+/**
+ * Point d'entrée en ligne de commande pour l'export du registre
+ * Usage : java ExportMain vehicules|possessions fichier [csv|jsonl] [--gzip] [--tampon=octets] [--file=N]
+ */
+public class ExportMain {
+
+    private static final String USAGE =
+            "Usage : java ExportMain vehicules|possessions fichier [csv|jsonl] [--gzip] [--tampon=octets] [--file=N]";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        RegistryExporter.Dataset dataset;
+        if (args[0].equalsIgnoreCase("vehicules")) dataset = RegistryExporter.Dataset.VEHICULES;
+        else if (args[0].equalsIgnoreCase("possessions")) dataset = RegistryExporter.Dataset.POSSESSIONS;
+        else {
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+
+        Path file = Paths.get(args[1]);
+        RegistryExporter.Format format = RegistryExporter.Format.CSV;
+        boolean gzip = false;
+        int bufferSize = RegistryExporter.DEFAULT_BUFFER_SIZE;
+        int queueCapacity = RegistryExporter.DEFAULT_QUEUE_CAPACITY;
+        for (int i = 2; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equalsIgnoreCase("csv")) format = RegistryExporter.Format.CSV;
+            else if (arg.equalsIgnoreCase("jsonl")) format = RegistryExporter.Format.JSONL;
+            else if (arg.equals("--gzip")) gzip = true;
+            else if (arg.startsWith("--tampon=")) bufferSize = Integer.parseInt(arg.substring(9));
+            else if (arg.startsWith("--file=")) queueCapacity = Integer.parseInt(arg.substring(7));
+            else System.err.println("Option ignorée : " + arg);
+        }
+
+        RegistryExporter exporter = new RegistryExporter(file, dataset, format, gzip, bufferSize, queueCapacity);
+        long start = System.nanoTime();
+        long rows;
+        try {
+            rows = exporter.run();
+        } catch (SQLException e) {
+            System.err.println("Export annulé (erreur base de données) : " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Export terminé : %d lignes, %d octets vers %s (%.1f s)%n",
+                rows, exporter.getBytesWritten(), exporter.getFile(), seconds);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,67 @@
+import importation.CsvImporter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+
+/**
+ * Point d'entrée en ligne de commande pour l'import d'un fichier d'immatriculations
+ * Usage : java ImportMain fichier.csv [--threads=N] [--lot=N] [--bloc=octets] [--separateur=;]
+ * Relancer la même commande reprend l'import là où il s'était arrêté.
+ */
+public class ImportMain {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage : java ImportMain fichier.csv [--threads=N] [--lot=N] [--bloc=octets] [--separateur=;]");
+            System.exit(1);
+        }
+
+        Path file = Paths.get(args[0]);
+        if (!Files.isRegularFile(file)) {
+            System.err.println("Fichier introuvable : " + file);
+            System.exit(1);
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        int batchSize = config.DBConnection.DEFAULT_BATCH_SIZE;
+        int chunkSize = CsvImporter.DEFAULT_CHUNK_SIZE;
+        char separator = ';';
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--threads=")) threads = Integer.parseInt(arg.substring(10));
+            else if (arg.startsWith("--lot=")) batchSize = Integer.parseInt(arg.substring(6));
+            else if (arg.startsWith("--bloc=")) chunkSize = Integer.parseInt(arg.substring(7));
+            else if (arg.startsWith("--separateur=") && arg.length() > 13) separator = arg.charAt(13);
+            else System.err.println("Option ignorée : " + arg);
+        }
+
+        // les doublons de matricule sont écartés grâce à la contrainte d'unicité
+        if (config.MigrationRunner.migrate() < 0) {
+            System.err.println("Schéma non à jour : import annulé.");
+            System.exit(1);
+        }
+
+        CsvImporter importer = new CsvImporter(file, separator, threads, chunkSize, batchSize);
+        long start = System.nanoTime();
+        importer.setProgressListener((done, total, imported, rejected) -> {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%5.1f %% - %d lignes importées, %d rejetées (%.0f lignes/s)%n",
+                    total == 0 ? 100.0 : done * 100.0 / total, imported, rejected, imported / Math.max(seconds, 0.001));
+        });
+
+        try {
+            importer.run();
+        } catch (SQLException e) {
+            System.err.println("Import interrompu (erreur base de données) : " + e.getMessage());
+            System.err.println("Relancer la même commande pour reprendre au dernier bloc importé.");
+            System.exit(1);
+        }
+
+        System.out.println("Import terminé : " + importer.getRowsImported() + " lignes importées, "
+                + importer.getRowsRejected() + " rejetées.");
+        if (importer.getRowsRejected() > 0) System.out.println("Rejets : " + importer.getRejectFile());
+        System.exit(0);
+    }
+}
@@ -1,3 +1,4 @@
+import config.MigrationRunner;
 import views.MainView;
 import controllers.*;
 
@@ -6,6 +7,9 @@ import javax.swing.SwingUtilities;
 public class Main {
 
     public static void main(String[] args) {
+        // Mise à niveau du schéma (index, contraintes) avant d'ouvrir l'interface
+        MigrationRunner.migrate();
+
         // Pour que l'interface Swing se lance dans le bon thread
         SwingUtilities.invokeLater(() -> {
             // Création des contrôleurs
@@ -0,0 +1,34 @@
+import config.MigrationRunner;
+import server.ApiServer;
+
+/**
+ * Point d'entrée du serveur HTTP/JSON (sans interface Swing)
+ * Usage : java ServerMain [--port=8080] [--threads=N] [--file=N]
+ *   --threads : requêtes traitées en même temps, --file : requêtes en attente au-delà (sinon 503)
+ *   Index et tables de référence relus toutes les 5 minutes (-Dcartegrise.api.refreshMs=...)
+ */
+public class ServerMain {
+
+    public static void main(String[] args) throws Exception {
+        int port = ApiServer.DEFAULT_PORT;
+        int maxConcurrent = ApiServer.DEFAULT_MAX_CONCURRENT;
+        int queueCapacity = ApiServer.DEFAULT_QUEUE_CAPACITY;
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) port = Integer.parseInt(arg.substring(7));
+            else if (arg.startsWith("--threads=")) maxConcurrent = Integer.parseInt(arg.substring(10));
+            else if (arg.startsWith("--file=")) queueCapacity = Integer.parseInt(arg.substring(7));
+            else System.err.println("Option ignorée : " + arg);
+        }
+
+        // Mise à niveau du schéma (index, contraintes) avant d'accepter des requêtes
+        MigrationRunner.migrate();
+
+        ApiServer server = new ApiServer(port, maxConcurrent, queueCapacity);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(2), "api-arret"));
+
+        System.out.printf("Serveur démarré sur le port %d (%s, %d requêtes simultanées, file de %d)%n",
+                server.getPort(), server.usesVirtualThreads() ? "threads virtuels" : "pool de threads",
+                maxConcurrent, queueCapacity);
+    }
+}
@@ -0,0 +1,10 @@
+package analyse;
+
+/** Colonnes numériques de VEHICULE disponibles pour les filtres et agrégats */
+public enum Colonne {
+    ANNEE_SORTIE,
+    POIDS,
+    PUISSANCE_CHEVAUX,
+    PUISSANCE_FISCALE,
+    ID_MODELE
+}
@@ -0,0 +1,53 @@
+package analyse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Critères de sélection appliqués au stockage en colonnes
+ * --------------------------------------------------------
+ * Les critères se cumulent (ET logique), bornes incluses :
+ *   new Filtre().entre(Colonne.ANNEE_SORTIE, 2010, 2015).egal(Colonne.ID_MODELE, 3)
+ */
+public class Filtre {
+
+    /** Un critère : min <= colonne <= max */
+    static final class Critere {
+        final Colonne colonne;
+        final double min;
+        final double max;
+
+        Critere(Colonne colonne, double min, double max) {
+            this.colonne = colonne;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    private final List<Critere> criteres = new ArrayList<>();
+
+    /** Valeur de la colonne comprise entre min et max (inclus) */
+    public Filtre entre(Colonne colonne, double min, double max) {
+        criteres.add(new Critere(colonne, min, max));
+        return this;
+    }
+
+    /** Valeur de la colonne égale à value */
+    public Filtre egal(Colonne colonne, double value) {
+        return entre(colonne, value, value);
+    }
+
+    /** Valeur de la colonne supérieure ou égale à min */
+    public Filtre auMoins(Colonne colonne, double min) {
+        return entre(colonne, min, Double.POSITIVE_INFINITY);
+    }
+
+    /** Valeur de la colonne inférieure ou égale à max */
+    public Filtre auPlus(Colonne colonne, double max) {
+        return entre(colonne, Double.NEGATIVE_INFINITY, max);
+    }
+
+    List<Critere> criteres() {
+        return criteres;
+    }
+}
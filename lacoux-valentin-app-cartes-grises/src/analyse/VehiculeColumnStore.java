@@ -0,0 +1,348 @@
+package analyse;
+
+import models.Vehicule;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Copie en mémoire de la table VEHICULE, stockée par colonnes
+ * -----------------------------------------------------------
+ * - Une colonne numérique = un tableau primitif (int[] / double[]) : pas d'objet par véhicule,
+ *   et les parcours d'une colonne lisent une zone mémoire contiguë.
+ * - Les matricules (tous différents, contrainte UNIQUE) sont gardés dans un simple String[] :
+ *   un dictionnaire n'y ferait rien gagner.
+ * - Les lignes sont triées par id_vehicule (recherche par dichotomie).
+ * - Une suppression marque la ligne comme supprimée ; le stockage est
+ *   compacté quand plus d'un quart des lignes sont supprimées.
+ * - Lectures concurrentes, écritures exclusives (ReentrantReadWriteLock).
+ *
+ * Chargement : load() parcourt la table en flux (Vehicule.streamVehicules) ;
+ * une erreur de lecture est propagée, aucun stockage incomplet n'est renvoyé.
+ * Mise à jour incrémentale : upsert(v) après un ajout ou une modification,
+ * remove(id) après une suppression.
+ */
+public class VehiculeColumnStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int rows;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] annees = new int[INITIAL_CAPACITY];
+    private double[] poids = new double[INITIAL_CAPACITY];
+    private int[] chevaux = new int[INITIAL_CAPACITY];
+    private int[] fiscales = new int[INITIAL_CAPACITY];
+    private int[] modeles = new int[INITIAL_CAPACITY];
+    private String[] plaques = new String[INITIAL_CAPACITY];
+
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+
+    /** Construire le stockage à partir de toute la table (lecture en flux) */
+    public static VehiculeColumnStore load() throws SQLException {
+        VehiculeColumnStore store = new VehiculeColumnStore();
+        store.lock.writeLock().lock();
+        try {
+            Vehicule.streamVehicules(store::append);
+        } finally {
+            store.lock.writeLock().unlock();
+        }
+        return store;
+    }
+
+    // ================== MISE À JOUR INCRÉMENTALE ==================
+
+    /** Ajouter ou remplacer un véhicule (après addVehicule / updateVehicule) */
+    public void upsert(Vehicule v) {
+        lock.writeLock().lock();
+        try {
+            int pos = Arrays.binarySearch(ids, 0, rows, v.getIdVehicule());
+            if (pos >= 0) {
+                if (deleted.get(pos)) {
+                    deleted.clear(pos);
+                    deletedCount--;
+                }
+                set(pos, v);
+            } else if (-(pos + 1) == rows) {
+                append(v);
+            } else {
+                insertAt(-(pos + 1), v);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Retirer un véhicule (après deleteVehicule) */
+    public void remove(int idVehicule) {
+        lock.writeLock().lock();
+        try {
+            int pos = Arrays.binarySearch(ids, 0, rows, idVehicule);
+            if (pos < 0 || deleted.get(pos)) return;
+            deleted.set(pos);
+            deletedCount++;
+            if (deletedCount > 1024 && deletedCount > rows / 4) compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ================== REQUÊTES ==================
+
+    /** Nombre de véhicules */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Nombre de véhicules satisfaisant le filtre */
+    public int count(Filtre filtre) {
+        lock.readLock().lock();
+        try {
+            return select(filtre).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Identifiants (triés) des véhicules satisfaisant le filtre */
+    public int[] ids(Filtre filtre) {
+        lock.readLock().lock();
+        try {
+            BitSet sel = select(filtre);
+            int[] result = new int[sel.cardinality()];
+            int k = 0;
+            for (int i = sel.nextSetBit(0); i >= 0; i = sel.nextSetBit(i + 1)) result[k++] = ids[i];
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Matricules des véhicules satisfaisant le filtre (ordre des identifiants) */
+    public List<String> matricules(Filtre filtre) {
+        lock.readLock().lock();
+        try {
+            BitSet sel = select(filtre);
+            List<String> result = new ArrayList<>(sel.cardinality());
+            for (int i = sel.nextSetBit(0); i >= 0; i = sel.nextSetBit(i + 1)) result.add(plaques[i]);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Somme d'une colonne sur les véhicules du filtre */
+    public double sum(Filtre filtre, Colonne colonne) {
+        lock.readLock().lock();
+        try {
+            BitSet sel = select(filtre);
+            double sum = 0;
+            if (colonne == Colonne.POIDS) {
+                for (int i = sel.nextSetBit(0); i >= 0; i = sel.nextSetBit(i + 1)) sum += poids[i];
+            } else {
+                int[] col = intColumn(colonne);
+                long s = 0;
+                for (int i = sel.nextSetBit(0); i >= 0; i = sel.nextSetBit(i + 1)) s += col[i];
+                sum = s;
+            }
+            return sum;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Moyenne d'une colonne (NaN si aucun véhicule) */
+    public double average(Filtre filtre, Colonne colonne) {
+        lock.readLock().lock(); // réentrant : count et sum voient le même état
+        try {
+            int n = count(filtre);
+            return n == 0 ? Double.NaN : sum(filtre, colonne) / n;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Minimum d'une colonne (NaN si aucun véhicule) */
+    public double min(Filtre filtre, Colonne colonne) {
+        return extreme(filtre, colonne, true);
+    }
+
+    /** Maximum d'une colonne (NaN si aucun véhicule) */
+    public double max(Filtre filtre, Colonne colonne) {
+        return extreme(filtre, colonne, false);
+    }
+
+    /**
+     * Nombre de véhicules par valeur d'une colonne entière (ex : par année, par modèle)
+     * @return valeur -> nombre de véhicules, trié par valeur
+     */
+    public Map<Integer, Integer> countBy(Filtre filtre, Colonne colonne) {
+        if (colonne == Colonne.POIDS) throw new IllegalArgumentException("Regroupement impossible sur une colonne décimale : " + colonne);
+        lock.readLock().lock();
+        try {
+            BitSet sel = select(filtre);
+            int[] col = intColumn(colonne);
+            // comptage sur un tableau quand les valeurs sont peu dispersées (années, puissances)
+            int lo = Integer.MAX_VALUE, hi = Integer.MIN_VALUE;
+            for (int i = sel.nextSetBit(0); i >= 0; i = sel.nextSetBit(i + 1)) {
+                lo = Math.min(lo, col[i]);
+                hi = Math.max(hi, col[i]);
+            }
+            Map<Integer, Integer> result = new TreeMap<>();
+            if (lo > hi) return result;
+
+            if ((long) hi - lo < 1 << 20) {
+                int[] counts = new int[hi - lo + 1];
+                for (int i = sel.nextSetBit(0); i >= 0; i = sel.nextSetBit(i + 1)) counts[col[i] - lo]++;
+                for (int k = 0; k < counts.length; k++) if (counts[k] > 0) result.put(lo + k, counts[k]);
+            } else {
+                for (int i = sel.nextSetBit(0); i >= 0; i = sel.nextSetBit(i + 1)) result.merge(col[i], 1, Integer::sum);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Mémoire approximative occupée par les colonnes numériques (octets, hors matricules) */
+    public long estimateBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) ids.length * (6 * Integer.BYTES + Double.BYTES) + deleted.size() / 8;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ================== ÉVALUATION (sous verrou) ==================
+
+    /** Lignes vivantes satisfaisant tous les critères */
+    private BitSet select(Filtre filtre) {
+        BitSet sel = new BitSet(rows);
+        sel.set(0, rows);
+        sel.andNot(deleted);
+        if (filtre == null) return sel;
+
+        for (Filtre.Critere c : filtre.criteres()) {
+            if (c.colonne == Colonne.POIDS) {
+                for (int i = 0; i < rows; i++) {
+                    double v = poids[i];
+                    if (v < c.min || v > c.max) sel.clear(i);
+                }
+            } else {
+                int[] col = intColumn(c.colonne);
+                for (int i = 0; i < rows; i++) {
+                    int v = col[i];
+                    if (v < c.min || v > c.max) sel.clear(i);
+                }
+            }
+        }
+        return sel;
+    }
+
+    private double extreme(Filtre filtre, Colonne colonne, boolean min) {
+        lock.readLock().lock();
+        try {
+            BitSet sel = select(filtre);
+            double best = Double.NaN;
+            for (int i = sel.nextSetBit(0); i >= 0; i = sel.nextSetBit(i + 1)) {
+                double v = colonne == Colonne.POIDS ? poids[i] : intColumn(colonne)[i];
+                if (Double.isNaN(best) || (min ? v < best : v > best)) best = v;
+            }
+            return best;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] intColumn(Colonne colonne) {
+        switch (colonne) {
+            case ANNEE_SORTIE: return annees;
+            case PUISSANCE_CHEVAUX: return chevaux;
+            case PUISSANCE_FISCALE: return fiscales;
+            case ID_MODELE: return modeles;
+            default: throw new IllegalArgumentException("Colonne décimale : " + colonne);
+        }
+    }
+
+    // ================== STOCKAGE (sous verrou d'écriture) ==================
+
+    private void append(Vehicule v) {
+        ensureCapacity(rows + 1);
+        set(rows++, v);
+    }
+
+    private void insertAt(int pos, Vehicule v) {
+        ensureCapacity(rows + 1);
+        int len = rows - pos;
+        System.arraycopy(ids, pos, ids, pos + 1, len);
+        System.arraycopy(annees, pos, annees, pos + 1, len);
+        System.arraycopy(poids, pos, poids, pos + 1, len);
+        System.arraycopy(chevaux, pos, chevaux, pos + 1, len);
+        System.arraycopy(fiscales, pos, fiscales, pos + 1, len);
+        System.arraycopy(modeles, pos, modeles, pos + 1, len);
+        System.arraycopy(plaques, pos, plaques, pos + 1, len);
+        // décaler aussi les marques de suppression
+        for (int i = deleted.previousSetBit(rows - 1); i >= pos; i = deleted.previousSetBit(i - 1)) {
+            deleted.clear(i);
+            deleted.set(i + 1);
+        }
+        rows++;
+        set(pos, v);
+    }
+
+    private void set(int pos, Vehicule v) {
+        ids[pos] = v.getIdVehicule();
+        annees[pos] = v.getAnneeSortie();
+        poids[pos] = v.getPoids();
+        chevaux[pos] = v.getPuissanceChevaux();
+        fiscales[pos] = v.getPuissanceFiscale();
+        modeles[pos] = v.getIdModele();
+        plaques[pos] = v.getMatricule();
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) return;
+        int capacity = Math.max(needed, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        annees = Arrays.copyOf(annees, capacity);
+        poids = Arrays.copyOf(poids, capacity);
+        chevaux = Arrays.copyOf(chevaux, capacity);
+        fiscales = Arrays.copyOf(fiscales, capacity);
+        modeles = Arrays.copyOf(modeles, capacity);
+        plaques = Arrays.copyOf(plaques, capacity);
+    }
+
+    /** Supprimer physiquement les lignes marquées */
+    private void compact() {
+        int k = 0;
+        for (int i = 0; i < rows; i++) {
+            if (deleted.get(i)) continue;
+            ids[k] = ids[i];
+            annees[k] = annees[i];
+            poids[k] = poids[i];
+            chevaux[k] = chevaux[i];
+            fiscales[k] = fiscales[i];
+            modeles[k] = modeles[i];
+            plaques[k] = plaques[i];
+            k++;
+        }
+        Arrays.fill(plaques, k, rows, null); // matricules des lignes supprimées libérés
+        rows = k;
+        deleted.clear();
+        deletedCount = 0;
+    }
+}
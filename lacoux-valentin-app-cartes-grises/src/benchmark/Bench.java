@@ -0,0 +1,181 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Mesure de performances minimale (sans dépendance externe)
+ * ---------------------------------------------------------
+ * Pour chaque opération :
+ * 1. Préchauffage pendant warmupMs (compilation JIT, caches, pool de connexions) : non mesuré.
+ * 2. Mesure pendant measureMs (ou maxOps opérations) : chaque appel est chronométré
+ *    (System.nanoTime) pour en tirer le débit (ops/s) et les latences p50 / p99.
+ * 3. Allocation : octets alloués par la JVM pendant la mesure (compteurs par thread
+ *    de com.sun.management.ThreadMXBean), rapportés à l'opération et à la seconde.
+ *    Le travail fait sur d'autres threads (EDT, AsyncExecutor) est compté aussi.
+ *
+ * Les résultats s'affichent en tableau et peuvent être écrits en CSV
+ * pour comparer deux versions du code.
+ */
+public final class Bench {
+
+    /** Opération mesurée ; i = numéro de l'appel (pour varier les identifiants) */
+    public interface Operation {
+        void run(int i) throws Exception;
+    }
+
+    /** Résultat d'une opération */
+    public static final class Result {
+        final String name;
+        final int size;
+        final long ops;
+        final double opsPerSecond;
+        final double p50Micros;
+        final double p99Micros;
+        final double bytesPerOp;
+        final double allocMbPerSecond;
+
+        Result(String name, int size, long ops, double seconds, long[] latencies, int samples, long allocatedBytes) {
+            this.name = name;
+            this.size = size;
+            this.ops = ops;
+            this.opsPerSecond = ops / seconds;
+            Arrays.sort(latencies, 0, samples);
+            this.p50Micros = percentile(latencies, samples, 0.50) / 1_000.0;
+            this.p99Micros = percentile(latencies, samples, 0.99) / 1_000.0;
+            this.bytesPerOp = allocatedBytes < 0 ? Double.NaN : (double) allocatedBytes / ops;
+            this.allocMbPerSecond = allocatedBytes < 0 ? Double.NaN : allocatedBytes / seconds / (1024 * 1024);
+        }
+
+        private static long percentile(long[] sorted, int samples, double p) {
+            if (samples == 0) return 0;
+            int index = (int) Math.ceil(p * samples) - 1;
+            return sorted[Math.max(0, Math.min(samples - 1, index))];
+        }
+    }
+
+    private static final int MAX_SAMPLES = 1_000_000;
+    private static final String HEADER = String.format(Locale.ROOT, "%-42s %9s %12s %12s %12s %14s %12s",
+            "benchmark", "lignes", "ops/s", "p50 (µs)", "p99 (µs)", "octets/op", "alloc Mo/s");
+
+    private final long warmupMs;
+    private final long measureMs;
+    private final String filter;
+    private final PrintStream out;
+    private final List<Result> results = new ArrayList<>();
+    private final long[] latencies = new long[MAX_SAMPLES]; // réutilisé : pas d'allocation pendant la mesure
+
+    public Bench(long warmupMs, long measureMs, String filter, PrintStream out) {
+        this.warmupMs = warmupMs;
+        this.measureMs = measureMs;
+        this.filter = filter;
+        this.out = out;
+        out.println(HEADER);
+    }
+
+    public List<Result> getResults() { return results; }
+
+    /**
+     * Mesurer une opération
+     * @param name nom affiché (ex : "Vehicule.getVehiculeById")
+     * @param size nombre de lignes de la base (ou de la source) pendant la mesure
+     * @param maxOps nombre maximum d'appels mesurés (opérations lentes : parcours complet...)
+     * @param op opération
+     */
+    public void run(String name, int size, long maxOps, Operation op) {
+        if (filter != null && !name.toLowerCase(Locale.ROOT).contains(filter.toLowerCase(Locale.ROOT))) return;
+        try {
+            // 1. Préchauffage
+            int i = 0;
+            long end = System.nanoTime() + warmupMs * 1_000_000;
+            for (long n = 0; n < maxOps && System.nanoTime() < end; n++) op.run(i++);
+
+            // 2. Mesure
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            end = start + measureMs * 1_000_000;
+            long ops = 0;
+            long now = start;
+            while (ops < maxOps && (ops == 0 || now < end)) {
+                long t0 = now;
+                op.run(i++);
+                now = System.nanoTime();
+                latencies[(int) (ops % MAX_SAMPLES)] = now - t0;
+                ops++;
+            }
+            double seconds = (now - start) / 1e9;
+            long allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+
+            Result r = new Result(name, size, ops, seconds, latencies, (int) Math.min(ops, MAX_SAMPLES), allocated);
+            results.add(r);
+            out.println(format(r));
+        } catch (Exception e) {
+            out.println(String.format(Locale.ROOT, "%-42s %9d   échec : %s", name, size, e));
+        }
+    }
+
+    private static String format(Result r) {
+        return String.format(Locale.ROOT, "%-42s %9d %12.1f %12.1f %12.1f %14.0f %12.1f",
+                r.name, r.size, r.opsPerSecond, r.p50Micros, r.p99Micros, r.bytesPerOp, r.allocMbPerSecond);
+    }
+
+    /** Écrire les résultats en CSV (séparateur ';') */
+    public void writeCsv(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("benchmark;lignes;operations;ops_par_s;p50_us;p99_us;octets_par_op;alloc_mo_par_s");
+        for (Result r : results) {
+            lines.add(String.format(Locale.ROOT, "%s;%d;%d;%.1f;%.1f;%.1f;%.0f;%.1f",
+                    r.name, r.size, r.ops, r.opsPerSecond, r.p50Micros, r.p99Micros, r.bytesPerOp, r.allocMbPerSecond));
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    // ================== ALLOCATION ==================
+
+    /**
+     * Octets alloués depuis le démarrage par tous les threads, ou -1 si la JVM ne le mesure pas.
+     * Java 21 : getTotalThreadAllocatedBytes() (threads terminés et threads virtuels compris) ;
+     * sinon somme des threads vivants.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return -1;
+        com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+        if (!sun.isThreadAllocatedMemorySupported() || !sun.isThreadAllocatedMemoryEnabled()) return -1;
+
+        Method total = TOTAL_ALLOCATED;
+        if (total != null) {
+            try {
+                return (long) total.invoke(sun);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // méthode présente mais indisponible : somme des threads vivants
+            }
+        }
+        long sum = 0;
+        for (long bytes : sun.getThreadAllocatedBytes(sun.getAllThreadIds())) {
+            if (bytes > 0) sum += bytes;
+        }
+        return sum;
+    }
+
+    // appel par réflexion : le code doit rester compilable en Java 17
+    private static final Method TOTAL_ALLOCATED = findTotalAllocated();
+
+    private static Method findTotalAllocated() {
+        try {
+            return com.sun.management.ThreadMXBean.class.getMethod("getTotalThreadAllocatedBytes");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
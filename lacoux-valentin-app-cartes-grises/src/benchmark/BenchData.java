@@ -0,0 +1,148 @@
+package benchmark;
+
+import config.DBConnection;
+import models.Marque;
+import models.ModeDoublon;
+import models.Modele;
+import models.Posseder;
+import models.Proprietaire;
+import models.Vehicule;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Données de test des benchmarks (base de test uniquement)
+ * --------------------------------------------------------
+ * - Véhicules "BN-0000001"..., un propriétaire "Banc" par véhicule et une possession
+ *   en cours pour chacun, sous une marque et un modèle dédiés.
+ * - seed(n) complète jusqu'à n véhicules : enchaîner 1 000, 100 000 puis 1 000 000
+ *   n'insère que les lignes manquantes (insertions en masse des modèles).
+ * - Les identifiants insérés sont relus pour tirer des recherches au hasard.
+ */
+final class BenchData {
+
+    static final String PREFIX = "BN-";
+    static final String NOM = "Banc";
+    private static final LocalDate DEBUT = LocalDate.of(2000, 1, 1);
+
+    int idMarque;
+    int idModele;
+    int[] vehicules = new int[0];
+    int[] proprietaires = new int[0];
+    int vehiculeLibre; // véhicule sans possession (ajout / suppression de possessions)
+
+    /** Compléter la base jusqu'à size véhicules de test */
+    void seed(int size, int batchSize) throws SQLException {
+        if (idMarque == 0) createReferences();
+
+        int existing = countRows("SELECT COUNT(*) FROM VEHICULE WHERE matricule LIKE 'BN-%'");
+        for (int from = existing; from < size; from += batchSize) {
+            int to = Math.min(size, from + batchSize);
+            List<Vehicule> vs = new ArrayList<>();
+            List<Proprietaire> ps = new ArrayList<>();
+            for (int n = from; n < to; n++) {
+                Vehicule v = new Vehicule();
+                v.setMatricule(plate(n + 1));
+                v.setAnneeSortie(1990 + n % 35);
+                v.setPoids(900 + n % 1200);
+                v.setPuissanceChevaux(60 + n % 250);
+                v.setPuissanceFiscale(3 + n % 15);
+                v.setIdModele(idModele);
+                vs.add(v);
+
+                Proprietaire p = new Proprietaire();
+                p.setNom(NOM);
+                p.setPrenom("P" + (n + 1));
+                p.setAdresse((n % 200 + 1) + " rue des Tests");
+                p.setCp(String.format("%05d", 1000 + n % 95000));
+                p.setVille("Bancville");
+                ps.add(p);
+            }
+            Vehicule.insertVehicules(vs, batchSize, ModeDoublon.REJETER);
+            Proprietaire.insertProprietaires(ps, batchSize);
+
+            List<Posseder> possessions = new ArrayList<>();
+            for (int k = 0; k < vs.size(); k++) {
+                Posseder p = new Posseder();
+                p.setIdProprietaire(ps.get(k).getIdProprietaire());
+                p.setIdVehicule(vs.get(k).getIdVehicule());
+                p.setDateDebut(Date.valueOf(DEBUT.plusDays((from + k) % 8000)));
+                possessions.add(p);
+            }
+            Posseder.insertPossessions(possessions, batchSize, ModeDoublon.REJETER, null);
+            System.out.printf("  données de test : %d / %d véhicules%n", to, size);
+        }
+
+        vehicules = readIds("SELECT id_vehicule FROM VEHICULE WHERE matricule LIKE 'BN-%' AND matricule <> 'BN-LIBRE' ORDER BY id_vehicule");
+        proprietaires = readIds("SELECT id_proprietaire FROM PROPRIETAIRE WHERE nom = 'Banc' ORDER BY id_proprietaire");
+    }
+
+    static String plate(int n) {
+        return PREFIX + String.format("%07d", n);
+    }
+
+    /** Marque, modèle et véhicule libre des benchmarks (créés s'ils n'existent pas) */
+    private void createReferences() throws SQLException {
+        for (Marque m : Marque.getAllMarques()) {
+            if (m.getNomMarque().equals("BancMarque")) idMarque = m.getIdMarque();
+        }
+        if (idMarque == 0) {
+            Marque m = new Marque();
+            m.setNomMarque("BancMarque");
+            if (!Marque.addMarque(m)) throw new SQLException("marque de test non créée");
+            idMarque = m.getIdMarque();
+        }
+        for (Modele m : Modele.getAllModeles()) {
+            if (m.getIdMarque() == idMarque && m.getNomModele().equals("BancModele")) idModele = m.getIdModele();
+        }
+        if (idModele == 0) {
+            Modele m = new Modele();
+            m.setNomModele("BancModele");
+            m.setIdMarque(idMarque);
+            if (!Modele.addModele(m)) throw new SQLException("modèle de test non créé");
+            idModele = m.getIdModele();
+        }
+
+        int[] libre = readIds("SELECT id_vehicule FROM VEHICULE WHERE matricule = 'BN-LIBRE'");
+        if (libre.length > 0) {
+            vehiculeLibre = libre[0];
+        } else {
+            Vehicule v = new Vehicule();
+            v.setMatricule("BN-LIBRE");
+            v.setAnneeSortie(2020);
+            v.setPoids(1000);
+            v.setPuissanceChevaux(90);
+            v.setPuissanceFiscale(5);
+            v.setIdModele(idModele);
+            if (!Vehicule.addVehicule(v)) throw new SQLException("véhicule libre non créé");
+            vehiculeLibre = v.getIdVehicule();
+        }
+    }
+
+    private static int countRows(String sql) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static int[] readIds(String sql) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = DBConnection.prepareStreaming(conn, sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) ids.add(rs.getInt(1));
+        }
+        int[] result = new int[ids.size()];
+        for (int i = 0; i < result.length; i++) result[i] = ids.get(i);
+        return result;
+    }
+}
@@ -0,0 +1,35 @@
+package benchmark;
+
+import config.DBConnection;
+import config.MigrationRunner;
+
+import java.util.List;
+
+/**
+ * Enchaînement des mesures, taille par taille
+ * -------------------------------------------
+ * Pour chaque taille (1 000, 100 000, 1 000 000 lignes par défaut) :
+ * 1. tableau des véhicules sur une source en mémoire de cette taille ;
+ * 2. si une base de test est indiquée : données de test complétées jusqu'à cette taille,
+ *    puis méthodes d'accès aux données des modèles.
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    public static void run(Bench bench, List<Integer> sizes, boolean database) throws Exception {
+        BenchData data = null;
+        if (database) {
+            MigrationRunner.migrate();
+            data = new BenchData();
+        }
+        for (int size : sizes) {
+            TableModelBenchmarks.run(bench, size);
+            if (data != null) {
+                data.seed(size, DBConnection.DEFAULT_BATCH_SIZE);
+                DaoBenchmarks.run(bench, data, size);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package benchmark;
+
+import models.Marque;
+import models.Modele;
+import models.Posseder;
+import models.PossessionRow;
+import models.Proprietaire;
+import models.Vehicule;
+import models.VehiculeRow;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Méthodes d'accès aux données des modèles, sur la base de test
+ * -------------------------------------------------------------
+ * - Lectures par identifiant (tirés au hasard parmi les lignes de test).
+ * - Cycles ajout / modification / suppression : la base revient à son état initial
+ *   après chaque opération, la taille mesurée reste celle annoncée.
+ * - Listes avec jointure (pages de 200 lignes, parcours complet en flux)
+ *   et listes complètes (getAll*) : peu d'appels mesurés quand la table est grande.
+ * Les contrôleurs (caches, index) ne sont pas utilisés : on mesure les requêtes.
+ * Variantes load* / stream* (erreur propagée) ou résultat vérifié : une requête en échec
+ * est signalée "échec" au lieu d'être comptée comme une opération rapide, et une
+ * suppression manquée ne fait pas grossir les tables.
+ */
+final class DaoBenchmarks {
+
+    private static final int PAGE = 200;
+
+    private DaoBenchmarks() {
+    }
+
+    static void run(Bench bench, BenchData data, int size) {
+        int[] vehicules = data.vehicules;
+        int[] proprietaires = data.proprietaires;
+        long fullScans = Math.max(3, 10_000_000L / Math.max(1, size)); // parcours complets : borné par la taille
+
+        // ---------- Marque ----------
+        bench.run("Marque.getAllMarques", size, Long.MAX_VALUE, i -> Marque.loadAllMarques());
+        bench.run("Marque.getMarqueById", size, Long.MAX_VALUE, i -> check(Marque.loadMarqueById(data.idMarque) != null, "getMarqueById"));
+        bench.run("Marque.add+update+delete", size, Long.MAX_VALUE, i -> {
+            Marque m = new Marque();
+            m.setNomMarque("BancTmp-" + i);
+            if (!Marque.addMarque(m)) throw new IllegalStateException("addMarque");
+            check(Marque.updateMarque(m.getIdMarque(), "BancTmp-" + i + "b"), "updateMarque");
+            check(Marque.deleteMarque(m.getIdMarque()), "deleteMarque");
+        });
+
+        // ---------- Modele ----------
+        bench.run("Modele.getAllModeles", size, Long.MAX_VALUE, i -> Modele.loadAllModeles());
+        bench.run("Modele.getModeleById", size, Long.MAX_VALUE, i -> check(Modele.loadModeleById(data.idModele) != null, "getModeleById"));
+        bench.run("Modele.add+update+delete", size, Long.MAX_VALUE, i -> {
+            Modele m = new Modele();
+            m.setNomModele("BancTmp-" + i);
+            m.setIdMarque(data.idMarque);
+            if (!Modele.addModele(m)) throw new IllegalStateException("addModele");
+            check(Modele.updateModele(m.getIdModele(), "BancTmp-" + i + "b", data.idMarque), "updateModele");
+            check(Modele.deleteModele(m.getIdModele()), "deleteModele");
+        });
+
+        // ---------- Vehicule ----------
+        bench.run("Vehicule.getVehiculeById", size, Long.MAX_VALUE, i -> check(Vehicule.loadVehiculeById(random(vehicules)) != null, "getVehiculeById"));
+        bench.run("Vehicule.countVehicules", size, Long.MAX_VALUE, i -> check(Vehicule.countVehicules() >= size, "countVehicules"));
+        bench.run("Vehicule.getAllVehicules", size, fullScans, i -> check(Vehicule.getAllVehicules().size() >= size, "getAllVehicules"));
+        bench.run("Vehicule.forEachVehicule", size, fullScans, i -> Vehicule.streamVehicules(v -> { }));
+        bench.run("Vehicule.add+update+delete", size, Long.MAX_VALUE, i -> {
+            Vehicule v = new Vehicule();
+            v.setMatricule("BN-TMP-" + i);
+            v.setAnneeSortie(2021);
+            v.setPoids(1200);
+            v.setPuissanceChevaux(110);
+            v.setPuissanceFiscale(6);
+            v.setIdModele(data.idModele);
+            if (!Vehicule.addVehicule(v)) throw new IllegalStateException("addVehicule");
+            check(Vehicule.updateVehicule(v.getIdVehicule(), "BN-TMP-" + i, 2022, 1250, 115, 6, data.idModele), "updateVehicule");
+            check(Vehicule.deleteVehicule(v.getIdVehicule()), "deleteVehicule");
+        });
+
+        // ---------- Proprietaire ----------
+        bench.run("Proprietaire.getProprietaireById", size, Long.MAX_VALUE, i -> check(Proprietaire.loadProprietaireById(random(proprietaires)) != null, "getProprietaireById"));
+        bench.run("Proprietaire.getProprietairesAfter", size, Long.MAX_VALUE, i -> Proprietaire.loadProprietairesAfter(random(proprietaires), PAGE));
+        bench.run("Proprietaire.add+update+delete", size, Long.MAX_VALUE, i -> {
+            Proprietaire p = new Proprietaire();
+            p.setNom("BancTmp");
+            p.setPrenom("T" + i);
+            p.setAdresse("1 rue des Tests");
+            p.setCp("75001");
+            p.setVille("Paris");
+            if (!Proprietaire.addProprietaire(p)) throw new IllegalStateException("addProprietaire");
+            check(Proprietaire.updateProprietaire(p.getIdProprietaire(), "BancTmp", "T" + i, "2 rue des Tests", "75002", "Paris"),
+                    "updateProprietaire");
+            check(Proprietaire.deleteProprietaire(p.getIdProprietaire()), "deleteProprietaire");
+        });
+
+        // ---------- Posseder ----------
+        bench.run("Posseder.getPossession", size, Long.MAX_VALUE, i -> {
+            int k = ThreadLocalRandom.current().nextInt(Math.min(vehicules.length, proprietaires.length));
+            Posseder.loadPossession(proprietaires[k], vehicules[k]);
+        });
+        Date today = Date.valueOf(LocalDate.now());
+        bench.run("Posseder.getOwnerAt", size, Long.MAX_VALUE, i -> Posseder.loadOwnerAt(random(vehicules), today));
+        bench.run("Posseder.addPossession+delete", size, Long.MAX_VALUE, i -> {
+            int owner = random(proprietaires);
+            // véhicule sans possession : le contrôle de chevauchement accepte la période
+            if (!Posseder.addPossession(owner, data.vehiculeLibre, Date.valueOf("2020-01-01"), null)) {
+                throw new IllegalStateException("addPossession");
+            }
+            check(Posseder.deletePossession(owner, data.vehiculeLibre), "deletePossession");
+        });
+
+        // ---------- Listes avec jointure ----------
+        bench.run("VehiculeRow.getVehiculeRowsAfter", size, Long.MAX_VALUE, i -> VehiculeRow.loadVehiculeRowsAfter(random(vehicules), PAGE));
+        bench.run("VehiculeRow.forEachVehiculeRow", size, fullScans, i -> VehiculeRow.streamVehiculeRows(r -> { }));
+        bench.run("PossessionRow.getPossessionRowsAfter", size, Long.MAX_VALUE, i ->
+                PossessionRow.loadPossessionRowsAfter(random(proprietaires), 0, PAGE));
+        bench.run("PossessionRow.forEachPossessionRow", size, fullScans, i -> PossessionRow.streamPossessionRows(r -> { }));
+    }
+
+    /** Résultat d'une méthode qui ne propage pas l'erreur (false, null, 0...) : échec de la mesure */
+    private static void check(boolean ok, String operation) {
+        if (!ok) throw new IllegalStateException(operation);
+    }
+
+    private static int random(int[] ids) {
+        return ids.length == 0 ? 0 : ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,176 @@
+package benchmark;
+
+import models.Marque;
+import models.Modele;
+import models.Vehicule;
+import models.VehiculeRow;
+import views.PagedTableModel;
+
+import javax.swing.SwingUtilities;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Remplissage du tableau des véhicules (PagedTableModel), sans base de données
+ * ----------------------------------------------------------------------------
+ * La source de lignes est simulée en mémoire (identifiants 1..N, lignes construites
+ * à la demande comme le ferait le ResultSet) : on mesure le coût du modèle de table
+ * lui-même (pages, passages par l'EDT, lecture des cellules), pas celui de MySQL.
+ *
+ * - ouverture  : nouveau modèle, comptage puis premier écran (50 lignes) chargé
+ * - defilement : saut à une position au hasard, écran chargé (pages évincées du cache)
+ * - cellules   : lecture de toutes les colonnes d'un écran déjà chargé (rendu du JTable)
+ * - patch      : remplacement d'une ligne chargée (rowUpdated après un événement)
+ */
+public final class TableModelBenchmarks {
+
+    private static final String[] COLUMNS = {
+            "ID", "Matricule", "Année", "Poids", "Chevaux", "Fiscale", "Modèle", "Marque", "Modifier", "Supprimer"
+    };
+    private static final int SCREEN = 50; // lignes visibles dans la fenêtre
+
+    private TableModelBenchmarks() {
+    }
+
+    public static void run(Bench bench, int size) throws Exception {
+        MemorySource source = new MemorySource(size);
+
+        bench.run("VehiculeTable.ouverture", size, Long.MAX_VALUE, i -> {
+            PagedTableModel<VehiculeRow, Integer> model = onEdt(() -> newModel(source));
+            showScreen(model, 0);
+            onEdt(() -> { model.dispose(); return null; });
+        });
+
+        PagedTableModel<VehiculeRow, Integer> model = onEdt(() -> newModel(source));
+        showScreen(model, 0);
+
+        bench.run("VehiculeTable.defilement", size, Long.MAX_VALUE, i ->
+                showScreen(model, ThreadLocalRandom.current().nextInt(Math.max(1, size - SCREEN))));
+
+        int first = Math.max(0, size / 2 - SCREEN);
+        showScreen(model, first);
+        bench.run("VehiculeTable.cellules (1 écran)", size, Long.MAX_VALUE, i -> onEdt(() -> {
+            int cells = 0;
+            for (int row = first; row < first + SCREEN && row < size; row++) {
+                for (int col = 0; col < COLUMNS.length; col++) {
+                    if (model.getValueAt(row, col) != null) cells++;
+                }
+            }
+            return cells;
+        }));
+
+        bench.run("VehiculeTable.patch ligne", size, Long.MAX_VALUE, i -> onEdt(() -> {
+            model.rowUpdated(source.row(first + 1 + i % SCREEN));
+            return null;
+        }));
+
+        onEdt(() -> { model.dispose(); return null; });
+    }
+
+    /** Même modèle que VehiculeView (colonnes et valeurs affichées) */
+    private static PagedTableModel<VehiculeRow, Integer> newModel(MemorySource source) {
+        return new PagedTableModel<VehiculeRow, Integer>(COLUMNS, source) {
+            @Override
+            protected Object valueAt(VehiculeRow v, int column) {
+                switch (column) {
+                    case 0: return v.getIdVehicule();
+                    case 1: return v.getMatricule();
+                    case 2: return v.getAnneeSortie();
+                    case 3: return v.getPoids();
+                    case 4: return v.getPuissanceChevaux();
+                    case 5: return v.getPuissanceFiscale();
+                    case 6: return v.getNomModele() != null ? v.getNomModele() : "";
+                    case 7: return v.getNomMarque() != null ? v.getNomMarque() : "";
+                    case 8: return "Modifier";
+                    default: return "Supprimer";
+                }
+            }
+        };
+    }
+
+    /** Afficher un écran à partir de la ligne first et attendre que toutes ses lignes soient chargées */
+    private static void showScreen(PagedTableModel<VehiculeRow, Integer> model, int first) throws Exception {
+        while (true) {
+            boolean complete = onEdt(() -> {
+                int count = model.getRowCount();
+                if (count == 0) return false; // comptage en cours
+                boolean all = true;
+                for (int row = first; row < first + SCREEN && row < count; row++) {
+                    if (model.getRow(row) == null) all = false; // lance le chargement de la page
+                }
+                return all;
+            });
+            if (complete) return;
+            LockSupport.parkNanos(20_000);
+        }
+    }
+
+    /** Exécuter sur l'EDT et attendre le résultat (le modèle ne se manipule que sur l'EDT) */
+    private static <T> T onEdt(Callable<T> task) throws Exception {
+        AtomicReference<T> result = new AtomicReference<>();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        try {
+            SwingUtilities.invokeAndWait(() -> {
+                try {
+                    result.set(task.call());
+                } catch (Exception e) {
+                    error.set(e);
+                }
+            });
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        if (error.get() != null) throw error.get();
+        return result.get();
+    }
+
+    /** Source simulée : véhicules 1..size, triés par identifiant */
+    private static final class MemorySource implements PagedTableModel.PageSource<VehiculeRow, Integer> {
+        private final int size;
+        private final Marque marque = new Marque();
+        private final Modele modele = new Modele();
+
+        MemorySource(int size) {
+            this.size = size;
+            marque.setIdMarque(1);
+            marque.setNomMarque("Peugeot");
+            modele.setIdModele(1);
+            modele.setNomModele("208");
+            modele.setIdMarque(1);
+        }
+
+        VehiculeRow row(int id) {
+            Vehicule v = new Vehicule();
+            v.setIdVehicule(id);
+            v.setMatricule(String.format("AB-%03d-CD", id % 1000));
+            v.setAnneeSortie(2000 + id % 25);
+            v.setPoids(1000 + id % 900);
+            v.setPuissanceChevaux(70 + id % 200);
+            v.setPuissanceFiscale(4 + id % 12);
+            v.setIdModele(1);
+            return VehiculeRow.of(v, modele, marque);
+        }
+
+        @Override
+        public int count() { return size; }
+
+        @Override
+        public List<VehiculeRow> loadPage(Integer after, int limit) {
+            int from = after == null ? 1 : after + 1;
+            List<VehiculeRow> rows = new ArrayList<>(limit);
+            for (int id = from; id <= size && rows.size() < limit; id++) rows.add(row(id));
+            return rows;
+        }
+
+        @Override
+        public Integer keyAt(int index) { return index < size ? index + 1 : null; }
+
+        @Override
+        public Integer keyOf(VehiculeRow row) { return row.getIdVehicule(); }
+    }
+}
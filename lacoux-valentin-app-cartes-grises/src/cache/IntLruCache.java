@@ -0,0 +1,355 @@
+package cache;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+
+/**
+ * Cache borné d'entités indexées par une clé primaire int
+ * -------------------------------------------------------
+ * - Clés primitives : table de hachage à adressage ouvert (int[]), aucun Integer créé.
+ * - Découpé en segments, chacun protégé par son propre verrou, pour limiter
+ *   la contention entre threads ; chaque segment évince sa ligne la moins
+ *   récemment utilisée (LRU) quand il est plein.
+ * - Durée de vie (TTL) : une entrée plus ancienne que ttlMillis est relue en base.
+ * - invalidate(id) après chaque modification / suppression ; un chargement
+ *   commencé avant une invalidation n'est pas remis en cache.
+ * - Les résultats absents (null) ne sont pas mis en cache.
+ *
+ * @param <V> type d'entité
+ */
+public class IntLruCache<V> {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final String name;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param name nom affiché dans les statistiques
+     * @param maxSize nombre maximum d'entrées (réparti entre les segments)
+     * @param ttlMillis durée de vie d'une entrée (0 : illimitée)
+     */
+    public IntLruCache(String name, int maxSize, long ttlMillis) {
+        this(name, maxSize, ttlMillis, DEFAULT_SEGMENTS);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // tableau de classe interne générique : création brute
+    public IntLruCache(String name, int maxSize, long ttlMillis, int segmentCount) {
+        int count = 1;
+        while (count < segmentCount && count < maxSize) count <<= 1;
+        this.name = name;
+        this.segments = (Segment[]) new IntLruCache.Segment[count];
+        this.segmentMask = count - 1;
+        this.ttlNanos = ttlMillis <= 0 ? 0 : ttlMillis * 1_000_000L;
+        int perSegment = Math.max(1, (maxSize + count - 1) / count);
+        for (int i = 0; i < count; i++) segments[i] = new Segment(perSegment);
+    }
+
+    // ================== ACCÈS ==================
+
+    /** Entrée en cache, ou null si absente ou expirée */
+    public V getIfPresent(int key) {
+        V value = segmentFor(key).get(key, System.nanoTime());
+        if (value != null) hits.increment();
+        else misses.increment();
+        return value;
+    }
+
+    /**
+     * Entrée en cache, ou chargée avec loader en cas d'absence
+     * (le chargement se fait hors verrou ; null n'est pas mis en cache)
+     */
+    public V get(int key, IntFunction<V> loader) {
+        Segment segment = segmentFor(key);
+        V value = segment.get(key, System.nanoTime());
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+
+        long stamp = segment.invalidationStamp();
+        value = loader.apply(key);
+        if (value != null) segment.putIfUnchanged(key, value, System.nanoTime(), stamp);
+        return value;
+    }
+
+    /** Lecture d'une entrée absente du cache (null si la ligne n'existe pas) */
+    public interface Loader<V> {
+        V load(int key) throws SQLException;
+    }
+
+    /**
+     * Entrée en cache, ou chargée avec loader en cas d'absence ;
+     * l'erreur de lecture est propagée (rien n'est mis en cache)
+     */
+    public V load(int key, Loader<V> loader) throws SQLException {
+        Segment segment = segmentFor(key);
+        V value = segment.get(key, System.nanoTime());
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+
+        long stamp = segment.invalidationStamp();
+        value = loader.load(key);
+        if (value != null) segment.putIfUnchanged(key, value, System.nanoTime(), stamp);
+        return value;
+    }
+
+    /** Mettre une entrée en cache (remplace l'éventuelle entrée existante) */
+    public void put(int key, V value) {
+        if (value == null) {
+            invalidate(key);
+            return;
+        }
+        segmentFor(key).putIfUnchanged(key, value, System.nanoTime(), -1);
+    }
+
+    /** Retirer une entrée (à appeler après modification ou suppression de la ligne) */
+    public void invalidate(int key) {
+        segmentFor(key).remove(key);
+    }
+
+    /** Vider tout le cache */
+    public void invalidateAll() {
+        for (Segment s : segments) s.clear();
+    }
+
+    // ================== STATISTIQUES ==================
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+    public long getExpirations() { return expirations.sum(); }
+
+    public double getHitRate() {
+        long h = hits.sum(), total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /** Nombre d'entrées actuellement en cache */
+    public int size() {
+        int size = 0;
+        for (Segment s : segments) size += s.size();
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s : %d entrées, succès=%d, échecs=%d, évictions=%d, expirations=%d, taux de succès=%.1f %%",
+                name, size(), getHits(), getMisses(), getEvictions(), getExpirations(), getHitRate() * 100);
+    }
+
+    // ================== SEGMENTS ==================
+
+    private Segment segmentFor(int key) {
+        return segments[mix(key) >>> 16 & segmentMask];
+    }
+
+    /** Mélange des bits de la clé (identifiants consécutifs -> positions dispersées) */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 15);
+    }
+
+    /**
+     * Un segment : entrées stockées dans des tableaux parallèles (indice d'entrée),
+     * liste doublement chaînée LRU (prev/next) et table de hachage d'indices.
+     */
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int capacity;
+
+        // entrées
+        private final int[] keys;
+        private final Object[] values;
+        private final long[] loadedAt;
+        private final int[] prev;
+        private final int[] next;
+        private int head = -1; // plus récemment utilisée
+        private int tail = -1; // moins récemment utilisée
+        private int size;
+        private final int[] free;
+        private int freeCount;
+
+        // table de hachage : indice d'entrée + 1 (0 = case vide), sondage linéaire
+        private final int[] table;
+        private final int mask;
+
+        private long invalidations;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            keys = new int[capacity];
+            values = new Object[capacity];
+            loadedAt = new long[capacity];
+            prev = new int[capacity];
+            next = new int[capacity];
+            free = new int[capacity];
+            for (int i = 0; i < capacity; i++) free[i] = capacity - 1 - i;
+            freeCount = capacity;
+
+            int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+            table = new int[tableSize];
+            mask = tableSize - 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        V get(int key, long now) {
+            lock.lock();
+            try {
+                int slot = find(key);
+                if (slot < 0) return null;
+                int e = table[slot] - 1;
+                if (ttlNanos > 0 && now - loadedAt[e] > ttlNanos) {
+                    removeSlot(slot);
+                    expirations.increment();
+                    return null;
+                }
+                moveToFront(e);
+                return (V) values[e];
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long invalidationStamp() {
+            lock.lock();
+            try {
+                return invalidations;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Insérer ou remplacer, sauf si une invalidation a eu lieu depuis stamp (-1 : toujours) */
+        void putIfUnchanged(int key, V value, long now, long stamp) {
+            lock.lock();
+            try {
+                if (stamp >= 0 && stamp != invalidations) return;
+
+                int slot = find(key);
+                if (slot >= 0) {
+                    int e = table[slot] - 1;
+                    values[e] = value;
+                    loadedAt[e] = now;
+                    moveToFront(e);
+                    return;
+                }
+                if (size == capacity) {
+                    removeSlot(find(keys[tail]));
+                    evictions.increment();
+                }
+                int e = free[--freeCount];
+                keys[e] = key;
+                values[e] = value;
+                loadedAt[e] = now;
+                linkFront(e);
+                size++;
+
+                int i = mix(key) & mask;
+                while (table[i] != 0) i = (i + 1) & mask;
+                table[i] = e + 1;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(int key) {
+            lock.lock();
+            try {
+                invalidations++;
+                int slot = find(key);
+                if (slot >= 0) removeSlot(slot);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                invalidations++;
+                while (tail >= 0) removeSlot(find(keys[tail]));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // ---------- table de hachage (appelé sous verrou) ----------
+
+        private int find(int key) {
+            int i = mix(key) & mask;
+            while (table[i] != 0) {
+                if (keys[table[i] - 1] == key) return i;
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        /** Supprimer l'entrée d'une case, puis recompacter la séquence de sondage */
+        private void removeSlot(int slot) {
+            int e = table[slot] - 1;
+            unlink(e);
+            values[e] = null;
+            free[freeCount++] = e;
+            size--;
+
+            int i = slot;
+            int j = slot;
+            while (true) {
+                j = (j + 1) & mask;
+                if (table[j] == 0) break;
+                int ideal = mix(keys[table[j] - 1]) & mask;
+                // l'entrée en j reste en place si sa case idéale est dans ]i, j] (circulairement)
+                boolean stays = i <= j ? (i < ideal && ideal <= j) : (i < ideal || ideal <= j);
+                if (stays) continue;
+                table[i] = table[j];
+                i = j;
+            }
+            table[i] = 0;
+        }
+
+        // ---------- liste LRU (appelé sous verrou) ----------
+
+        private void linkFront(int e) {
+            prev[e] = -1;
+            next[e] = head;
+            if (head >= 0) prev[head] = e;
+            head = e;
+            if (tail < 0) tail = e;
+        }
+
+        private void unlink(int e) {
+            if (prev[e] >= 0) next[prev[e]] = next[e];
+            else head = next[e];
+            if (next[e] >= 0) prev[next[e]] = prev[e];
+            else tail = prev[e];
+        }
+
+        private void moveToFront(int e) {
+            if (head == e) return;
+            unlink(e);
+            linkFront(e);
+        }
+    }
+}
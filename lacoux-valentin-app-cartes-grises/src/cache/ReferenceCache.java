@@ -0,0 +1,187 @@
+package cache;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cache en mémoire d'une table de référence (marques, modèles)
+ * -------------------------------------------------------------
+ * - Toute la table est chargée en une requête au premier accès,
+ *   puis rechargée immédiatement après chaque modification (reload()).
+ *   Une erreur de lecture n'est pas mémorisée : la table est relue au prochain accès.
+ *   getAll() la signale par une liste vide, loadAll() la propage (SQLException).
+ * - Les recherches par identifiant se font dans une HashMap (O(1)) ;
+ *   la base n'est interrogée que si l'identifiant est absent du cache.
+ * - Les lectures ne prennent pas de verrou : elles lisent un instantané
+ *   immuable remplacé d'un bloc à chaque rechargement.
+ *
+ * Les objets renvoyés sont partagés : ils ne doivent pas être modifiés.
+ *
+ * @param <T> type d'entité
+ */
+public class ReferenceCache<T> {
+
+    /** Lecture de toute la table */
+    public interface Loader<T> {
+        List<T> load() throws SQLException;
+    }
+
+    /** Lecture d'une ligne par identifiant (null si absente) */
+    public interface RowLoader<T> {
+        T load(int id) throws SQLException;
+    }
+
+    /** Instantané immuable de la table */
+    private static final class Snapshot<T> {
+        final List<T> all;
+        final Map<Integer, T> byId;
+
+        Snapshot(List<T> all, Map<Integer, T> byId) {
+            this.all = all;
+            this.byId = byId;
+        }
+    }
+
+    private final String name;
+    private final Loader<T> loader;
+    private final RowLoader<T> loadOne;
+    private final ToIntFunction<T> idOf;
+
+    private volatile Snapshot<T> snapshot;
+    private final Object loadLock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * @param name nom affiché dans les statistiques
+     * @param loader lecture de toute la table
+     * @param loadOne lecture d'une ligne par identifiant (null si absente)
+     * @param idOf identifiant d'une entité
+     */
+    public ReferenceCache(String name, Loader<T> loader, RowLoader<T> loadOne, ToIntFunction<T> idOf) {
+        this.name = name;
+        this.loader = loader;
+        this.loadOne = loadOne;
+        this.idOf = idOf;
+    }
+
+    // ================== LECTURE ==================
+
+    /** Toutes les lignes (liste non modifiable ; vide en cas d'erreur de lecture) */
+    public List<T> getAll() {
+        try {
+            return loadAll();
+        } catch (SQLException e) {
+            System.err.println("Erreur chargement " + name + " : " + e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /** Toutes les lignes (liste non modifiable) ; l'erreur de lecture est propagée */
+    public List<T> loadAll() throws SQLException {
+        Snapshot<T> s = snapshot;
+        if (s != null) {
+            hits.increment();
+            return s.all;
+        }
+        misses.increment();
+        return load().all;
+    }
+
+    /** Ligne par identifiant ; la base n'est interrogée qu'en cas d'absence du cache (null en cas d'erreur) */
+    public T get(int id) {
+        try {
+            return loadById(id);
+        } catch (SQLException e) {
+            System.err.println("Erreur lecture " + name + " n°" + id + " : " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Ligne par identifiant (null si absente) ; l'erreur de lecture est propagée */
+    public T loadById(int id) throws SQLException {
+        Snapshot<T> s = snapshot;
+        if (s == null) {
+            try {
+                s = load();
+            } catch (SQLException e) {
+                System.err.println("Erreur chargement " + name + " : " + e.getMessage());
+                misses.increment();
+                return loadOne.load(id); // table illisible : lecture de la seule ligne demandée
+            }
+        }
+        T value = s.byId.get(id);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        value = loadOne.load(id);
+        // ligne ajoutée par un autre client : l'instantané n'est plus complet
+        if (value != null) invalidate();
+        return value;
+    }
+
+    // ================== INVALIDATION ==================
+
+    /** Recharger la table immédiatement (après un ajout, une modification ou une suppression) */
+    public void reload() {
+        synchronized (loadLock) {
+            snapshot = null;
+            try {
+                load();
+            } catch (SQLException e) {
+                System.err.println("Erreur chargement " + name + " : " + e.getMessage());
+            }
+        }
+    }
+
+    /** Oublier le contenu : la table sera relue au prochain accès */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private Snapshot<T> load() throws SQLException {
+        synchronized (loadLock) {
+            Snapshot<T> s = snapshot;
+            if (s != null) return s; // déjà chargé par un autre thread
+
+            List<T> rows = loader.load(); // erreur : rien n'est mémorisé
+            Map<Integer, T> byId = new HashMap<>(rows.size() * 2);
+            for (T row : rows) byId.put(idOf.applyAsInt(row), row);
+            snapshot = s = new Snapshot<>(Collections.unmodifiableList(rows), byId);
+            loads.increment();
+            return s;
+        }
+    }
+
+    // ================== STATISTIQUES ==================
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getLoads() { return loads.sum(); }
+
+    /** Proportion d'accès servis par le cache (0 si aucun accès) */
+    public double getHitRate() {
+        long h = hits.sum(), total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /** Nombre de lignes en cache (0 si non chargé) */
+    public int size() {
+        Snapshot<T> s = snapshot;
+        return s == null ? 0 : s.all.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s : %d lignes, succès=%d, échecs=%d, chargements=%d, taux de succès=%.1f %%",
+                name, size(), getHits(), getMisses(), getLoads(), getHitRate() * 100);
+    }
+}
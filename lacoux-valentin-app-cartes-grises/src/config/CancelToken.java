@@ -0,0 +1,81 @@
+package config;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+/**
+ * Annulation d'un traitement en arrière-plan, requête SQL en cours comprise
+ * -------------------------------------------------------------------------
+ * - Le traitement s'exécute "sous" le jeton (bind) : les connexions empruntées
+ *   au pool par ce thread y enregistrent leurs Statement.
+ * - cancel() appelle Statement.cancel() sur ces requêtes (MySQL : KILL QUERY) :
+ *   la requête s'arrête côté serveur et la connexion est rendue au pool aussitôt.
+ * - Une connexion rendue au pool retire ses Statement du jeton (sous le même verrou) :
+ *   on ne risque pas d'annuler la requête d'un autre thread qui l'aurait empruntée ensuite.
+ * - Après cancel(), toute nouvelle requête préparée sous ce jeton échoue.
+ */
+public final class CancelToken {
+
+    private static final ThreadLocal<CancelToken> CURRENT = new ThreadLocal<>();
+
+    private volatile boolean cancelled;
+    private final List<Statement> statements = new ArrayList<>(); // protégé par this
+
+    /** Jeton du traitement en cours sur ce thread, ou null */
+    public static CancelToken current() {
+        return CURRENT.get();
+    }
+
+    /** Envelopper un traitement pour qu'il s'exécute sous ce jeton (sur le thread qui l'exécutera) */
+    public <T> Supplier<T> bind(Supplier<T> task) {
+        return () -> {
+            CancelToken previous = CURRENT.get();
+            CURRENT.set(this);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) CURRENT.remove();
+                else CURRENT.set(previous);
+            }
+        };
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** Interrompre un parcours (ex : dans un Consumer de forEach*) si le jeton est annulé */
+    public void throwIfCancelled() {
+        if (cancelled) throw new CancellationException("Traitement annulé");
+    }
+
+    /** Annuler : les requêtes en cours sous ce jeton sont interrompues côté serveur */
+    public synchronized void cancel() {
+        if (cancelled) return;
+        cancelled = true;
+        for (Statement st : statements) {
+            try {
+                if (!st.isClosed()) st.cancel();
+            } catch (SQLException e) {
+                System.err.println("Erreur cancel : " + e.getMessage());
+            }
+        }
+    }
+
+    // ================== APPELÉ PAR LE POOL ==================
+
+    /** Enregistrer un Statement préparé sous ce jeton */
+    synchronized void register(Statement st) throws SQLException {
+        if (cancelled) throw new SQLException("Traitement annulé");
+        statements.add(st);
+    }
+
+    /** Retirer les Statement d'une connexion rendue au pool */
+    synchronized void unregister(List<Statement> released) {
+        statements.removeAll(released);
+    }
+}
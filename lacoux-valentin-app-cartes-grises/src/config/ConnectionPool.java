@@ -0,0 +1,341 @@
+package config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool de connexions JDBC borné
+ * -----------------------------
+ * - Les connexions physiques sont ouvertes une seule fois puis réutilisées :
+ *   on évite ainsi la poignée de main TCP + authentification MySQL à chaque requête.
+ * - Le nombre de connexions est borné (maxSize) : au-delà, l'appelant attend
+ *   qu'une connexion soit rendue (au plus maxWaitMillis).
+ * - Une connexion inactive depuis plus de idleTimeoutMillis est fermée,
+ *   sans descendre sous minSize.
+ * - Une connexion restée inactive plus de validationIntervalMillis est validée
+ *   (isValid) avant d'être prêtée.
+ *
+ * Les connexions prêtées sont des proxys : close() rend la connexion au pool
+ * au lieu de la fermer, les DAO existants n'ont donc rien à changer.
+ * Chaque connexion physique garde ses PreparedStatement dans un {@link StatementCache}.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>(); // LIFO : la plus récente d'abord
+    private int total;   // connexions physiques ouvertes (ou en cours d'ouverture)
+    private int waiting; // threads en attente d'une connexion
+    private boolean closed;
+
+    // ================== STATISTIQUES ==================
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong waitNanosTotal = new AtomicLong();
+    private final AtomicLong waitNanosMax = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    private final ScheduledExecutorService evictor;
+
+    public ConnectionPool(String url, String user, String password,
+                          int minSize, int maxSize,
+                          long maxWaitMillis, long idleTimeoutMillis, long validationIntervalMillis,
+                          int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Tailles de pool invalides : min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.statementCacheSize = statementCacheSize;
+
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis / 2, 30_000));
+        evictor.scheduleWithFixedDelay(this::evictAndFill, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    // ================== EMPRUNT / RESTITUTION ==================
+
+    /** Emprunter une connexion (à fermer avec close() pour la rendre au pool) */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) throw new SQLException("Le pool de connexions est fermé.");
+                    if (!idle.isEmpty()) {
+                        candidate = idle.pollFirst();
+                        break;
+                    }
+                    if (total < maxSize) {
+                        total++; // réservation de la place avant l'ouverture (hors verrou)
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLException("Délai d'attente dépassé : aucune connexion disponible (max=" + maxSize + ").");
+                    }
+                    waiting++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Attente d'une connexion interrompue.", e);
+                    } finally {
+                        waiting--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    candidate = new PooledConnection(this, DriverManager.getConnection(url, user, password), statementCacheSize);
+                    createdCount.incrementAndGet();
+                } catch (SQLException e) {
+                    discarded();
+                    throw e;
+                }
+            } else if (!validate(candidate)) {
+                closePhysical(candidate);
+                discarded();
+                continue; // on retente avec une autre connexion
+            }
+
+            recordWait(System.nanoTime() - start);
+            return candidate.lease();
+        }
+    }
+
+    /** Appelé par le proxy lors du close() d'une connexion empruntée */
+    void release(PooledConnection pc) {
+        if (!pc.reset()) {
+            closePhysical(pc);
+            discarded();
+            return;
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                total--;
+            } else {
+                pc.touch();
+                idle.addFirst(pc);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        closePhysical(pc);
+    }
+
+    private boolean validate(PooledConnection pc) {
+        if (System.currentTimeMillis() - pc.getLastUsed() < validationIntervalMillis) return true;
+        try {
+            return pc.getPhysical().isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discarded() {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closePhysical(PooledConnection pc) {
+        pc.closePhysical();
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.incrementAndGet();
+        waitNanosTotal.addAndGet(nanos);
+        waitNanosMax.accumulateAndGet(nanos, Math::max);
+    }
+
+    // ================== ÉVICTION DES CONNEXIONS INACTIVES ==================
+
+    /** Ferme les connexions inactives trop anciennes puis complète jusqu'à minSize */
+    private void evictAndFill() {
+        List<PooledConnection> toClose = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            if (closed) return;
+            // les plus anciennes sont en fin de file
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && total - toClose.size() > minSize) {
+                PooledConnection pc = it.next();
+                if (now - pc.getLastUsed() < idleTimeoutMillis) break;
+                it.remove();
+                toClose.add(pc);
+            }
+            total -= toClose.size();
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pc : toClose) {
+            closePhysical(pc);
+            evictedCount.incrementAndGet();
+        }
+
+        // pré-chauffage jusqu'à minSize (les erreurs seront remontées au prochain emprunt)
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || total >= minSize) return;
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                PooledConnection pc = new PooledConnection(this, DriverManager.getConnection(url, user, password), statementCacheSize);
+                createdCount.incrementAndGet();
+                lock.lock();
+                try {
+                    // pool fermé pendant l'ouverture : la connexion n'est jamais mise à disposition
+                    if (!closed) {
+                        idle.addLast(pc);
+                        available.signal();
+                        continue;
+                    }
+                    total--;
+                } finally {
+                    lock.unlock();
+                }
+                closePhysical(pc);
+                return;
+            } catch (SQLException e) {
+                discarded();
+                return;
+            }
+        }
+    }
+
+    /** Fermer le pool et toutes les connexions inactives */
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            total -= toClose.size();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        evictor.shutdownNow();
+        for (PooledConnection pc : toClose) closePhysical(pc);
+    }
+
+    // ================== STATISTIQUES ==================
+
+    /** Photographie de l'état du pool */
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            long borrows = borrowCount.get();
+            return new PoolStats(
+                    total - idle.size(),
+                    idle.size(),
+                    waiting,
+                    borrows,
+                    borrows == 0 ? 0 : waitNanosTotal.get() / borrows / 1_000_000.0,
+                    waitNanosMax.get() / 1_000_000.0,
+                    createdCount.get(),
+                    evictedCount.get()
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Statistiques du pool à un instant donné */
+    public static class PoolStats {
+        private final int active;
+        private final int idle;
+        private final int waiting;
+        private final long borrowCount;
+        private final double averageWaitMillis;
+        private final double maxWaitMillis;
+        private final long createdCount;
+        private final long evictedCount;
+
+        PoolStats(int active, int idle, int waiting, long borrowCount,
+                  double averageWaitMillis, double maxWaitMillis, long createdCount, long evictedCount) {
+            this.active = active;
+            this.idle = idle;
+            this.waiting = waiting;
+            this.borrowCount = borrowCount;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.createdCount = createdCount;
+            this.evictedCount = evictedCount;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getWaiting() { return waiting; }
+        public long getBorrowCount() { return borrowCount; }
+        public double getAverageWaitMillis() { return averageWaitMillis; }
+        public double getMaxWaitMillis() { return maxWaitMillis; }
+        public long getCreatedCount() { return createdCount; }
+        public long getEvictedCount() { return evictedCount; }
+
+        @Override
+        public String toString() {
+            return String.format("actives=%d, inactives=%d, en attente=%d, emprunts=%d, attente moy=%.3f ms, attente max=%.3f ms, créées=%d, évincées=%d",
+                    active, idle, waiting, borrowCount, averageWaitMillis, maxWaitMillis, createdCount, evictedCount);
+        }
+    }
+}
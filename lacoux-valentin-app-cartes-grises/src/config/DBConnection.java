@@ -1,14 +1,44 @@
 package config;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 public class DBConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/lacoux_valentin_carte_grise";
-    private static final String USER = "root"; // Remplacer par votre utilisateur MySQL
-    private static final String PASSWORD = "root"; // Remplacer par votre mot de passe MySQL
+    // useServerPrepStmts : les requêtes préparées (et mises en cache) ne sont analysées qu'une fois par le serveur
+    // useCursorFetch : les requêtes avec un fetchSize > 0 sont lues par paquets via un curseur serveur
+    // rewriteBatchedStatements : un lot d'INSERT est envoyé en un seul INSERT multi-lignes
+    // -Dcartegrise.db.url / .user / .password : autre base (ex : base de test des benchmarks)
+    private static final String URL = System.getProperty("cartegrise.db.url",
+            "jdbc:mysql://localhost:3306/lacoux_valentin_carte_grise"
+            + "?useServerPrepStmts=true&useCursorFetch=true&rewriteBatchedStatements=true");
+    private static final String USER = System.getProperty("cartegrise.db.user", "root"); // Remplacer par votre utilisateur MySQL
+    private static final String PASSWORD = System.getProperty("cartegrise.db.password", "root"); // Remplacer par votre mot de passe MySQL
+
+    // Réglages du pool (surchargeables au lancement, ex : -Dcartegrise.pool.max=20)
+    private static final int POOL_MIN = Integer.getInteger("cartegrise.pool.min", 2);
+    private static final int POOL_MAX = Integer.getInteger("cartegrise.pool.max", 10);
+    private static final long POOL_MAX_WAIT_MS = Long.getLong("cartegrise.pool.maxWaitMs", 10_000L);
+    private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("cartegrise.pool.idleTimeoutMs", 300_000L);
+    private static final long POOL_VALIDATION_INTERVAL_MS = Long.getLong("cartegrise.pool.validationIntervalMs", 5_000L);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("cartegrise.statementCache.size", 64);
+
+    // Nombre de lignes lues par aller-retour lors d'un parcours en flux (forEach*)
+    private static final int STREAM_FETCH_SIZE = Integer.getInteger("cartegrise.stream.fetchSize", 1000);
+
+    /** Taille de lot par défaut des insertions en masse (une transaction par lot) */
+    public static final int DEFAULT_BATCH_SIZE = Integer.getInteger("cartegrise.batch.size", 1000);
+
+    // Alertes en pop-up : au plus une par intervalle (une panne du serveur fait échouer toutes les requêtes)
+    private static final long ALERT_INTERVAL_MS = Long.getLong("cartegrise.alert.intervalMs", 30_000L);
+    private static final AtomicLong LAST_ALERT = new AtomicLong(-ALERT_INTERVAL_MS);
+
+    private static final ConnectionPool POOL;
 
     static {
         try {
@@ -16,18 +46,107 @@ public class DBConnection {
             Class.forName("com.mysql.cj.jdbc.Driver");
         } catch (ClassNotFoundException e) {
             // Affichage d'une alerte en pop-up
-            JOptionPane.showMessageDialog(null, "Erreur : Le driver MySQL n'a pas pu être chargé.", "Erreur", JOptionPane.ERROR_MESSAGE);
+            alert("Erreur : Le driver MySQL n'a pas pu être chargé.");
             throw new RuntimeException("Driver MySQL introuvable.", e);
         }
+
+        POOL = new ConnectionPool(URL, USER, PASSWORD,
+                POOL_MIN, POOL_MAX, POOL_MAX_WAIT_MS, POOL_IDLE_TIMEOUT_MS, POOL_VALIDATION_INTERVAL_MS,
+                STATEMENT_CACHE_SIZE);
+        Runtime.getRuntime().addShutdownHook(new Thread(POOL::close, "connection-pool-shutdown"));
     }
 
+    /**
+     * Emprunter une connexion au pool.
+     * Le close() (try-with-resources) la rend au pool au lieu de la fermer.
+     */
     public static Connection getConnection() throws SQLException {
         try {
-            return DriverManager.getConnection(URL, USER, PASSWORD);
+            return POOL.borrow();
         } catch (SQLException e) {
             // Affichage d'une alerte en pop-up
-            JOptionPane.showMessageDialog(null, "Erreur : Impossible de se connecter à la base de données.\nVérifiez vos identifiants ou l'état du serveur MySQL.", "Erreur", JOptionPane.ERROR_MESSAGE);
+            alert("Erreur : Impossible de se connecter à la base de données.\nVérifiez vos identifiants ou l'état du serveur MySQL.");
             throw e;
         }
     }
+
+    /**
+     * Afficher une alerte sans bloquer l'appelant : la fenêtre est ouverte plus tard sur l'EDT
+     * (l'appelant peut être un thread de fond ou l'EDT lui-même).
+     * Rien en mode sans écran (import, export, serveur) : l'erreur est déjà écrite sur System.err.
+     */
+    private static void alert(String message) {
+        if (GraphicsEnvironment.isHeadless()) return;
+        long now = System.currentTimeMillis();
+        long last = LAST_ALERT.get();
+        if (now - last < ALERT_INTERVAL_MS || !LAST_ALERT.compareAndSet(last, now)) return;
+        SwingUtilities.invokeLater(() ->
+                JOptionPane.showMessageDialog(null, message, "Erreur", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Préparer une requête de parcours en flux : curseur en avant seulement,
+     * lecture seule, lignes lues par paquets de STREAM_FETCH_SIZE.
+     * La mémoire utilisée ne dépend donc pas du nombre de lignes du résultat.
+     */
+    public static PreparedStatement prepareStreaming(Connection conn, String sql) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(STREAM_FETCH_SIZE);
+        return ps;
+    }
+
+    /**
+     * Préparer une requête hors du cache de statements de la connexion.
+     * À utiliser pour le SQL construit avec une liste IN de taille variable :
+     * chaque taille donnerait une entrée de cache différente, jamais réutilisée,
+     * qui évincerait les requêtes fréquentes.
+     */
+    public static PreparedStatement prepareUncached(Connection conn, String sql) throws SQLException {
+        // la signature à 3 arguments n'est pas interceptée par PooledConnection
+        return conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    }
+
+    /** Annuler la transaction en cours sans masquer l'erreur qui en est la cause */
+    public static void rollback(Connection conn, SQLException cause) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /** Construire la liste de paramètres "?, ?, ..., ?" d'une clause IN */
+    public static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) sb.append(i == 0 ? "?" : ", ?");
+        return sb.toString();
+    }
+
+    /**
+     * L'erreur vient-elle d'une contrainte d'unicité (clé primaire ou UNIQUE) ?
+     * Codes MySQL : 1062 (ER_DUP_ENTRY), 1586 (ER_DUP_ENTRY_WITH_KEY_NAME).
+     */
+    public static boolean isDuplicateKey(SQLException e) {
+        return e.getErrorCode() == 1062 || e.getErrorCode() == 1586;
+    }
+
+    /**
+     * La transaction a-t-elle été annulée par le serveur pour sortir d'un interblocage ?
+     * Code MySQL : 1213 (ER_LOCK_DEADLOCK) ; la transaction peut être rejouée.
+     */
+    public static boolean isDeadlock(SQLException e) {
+        return e.getErrorCode() == 1213;
+    }
+
+    /** Statistiques du pool (connexions actives, inactives, temps d'attente) */
+    public static ConnectionPool.PoolStats getPoolStats() {
+        return POOL.getStats();
+    }
+
+    /** Statistiques du cache de PreparedStatement (toutes connexions confondues) */
+    public static String getStatementCacheStats() {
+        return String.format("succès=%d, échecs=%d, évictions=%d, taux de succès=%.1f %%",
+                StatementCache.getHits(), StatementCache.getMisses(), StatementCache.getEvictions(),
+                StatementCache.getHitRate() * 100);
+    }
 }
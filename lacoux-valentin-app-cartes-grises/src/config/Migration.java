@@ -0,0 +1,132 @@
+package config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Une migration du schéma : numéro de version, description et étapes
+ * ------------------------------------------------------------------
+ * - Les étapes sont idempotentes : chacune vérifie dans information_schema
+ *   si elle est déjà faite. MySQL valide chaque ordre DDL immédiatement
+ *   (pas de transaction), une migration interrompue peut donc être relancée.
+ * - Le checksum (SHA-256 du SQL des étapes) est enregistré dans SCHEMA_VERSION :
+ *   une migration déjà appliquée ne doit plus être modifiée, on en ajoute une nouvelle.
+ */
+public final class Migration {
+
+    /** Étape d'une migration */
+    interface Step {
+        /** SQL de l'étape (sert au checksum et aux messages) */
+        String sql();
+
+        /** Appliquer l'étape si elle ne l'est pas déjà */
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private final int version;
+    private final String description;
+    private final List<Step> steps;
+
+    Migration(int version, String description, Step... steps) {
+        this.version = version;
+        this.description = description;
+        this.steps = List.of(steps);
+    }
+
+    public int getVersion() { return version; }
+    public String getDescription() { return description; }
+    List<Step> getSteps() { return steps; }
+
+    /** SHA-256 (hexadécimal) du SQL des étapes */
+    public String checksum() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Step step : steps) {
+                digest.update(step.sql().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e); // toujours présent dans le JDK
+        }
+    }
+
+    // ================== ÉTAPES ==================
+
+    /** Créer un index s'il n'existe pas encore */
+    static Step index(String table, String name, String... columns) {
+        String sql = "CREATE INDEX " + name + " ON " + table + " (" + String.join(", ", columns) + ")";
+        return new Step() {
+            public String sql() { return sql; }
+
+            public void apply(Connection conn) throws SQLException {
+                if (!indexExists(conn, table, name)) execute(conn, sql);
+            }
+        };
+    }
+
+    /**
+     * Ajouter une contrainte d'unicité si elle n'existe pas encore.
+     * Les doublons déjà présents empêchent la création : ils sont signalés
+     * (à corriger à la main) et la migration s'arrête sans rien supprimer.
+     */
+    static Step unique(String table, String name, String... columns) {
+        String cols = String.join(", ", columns);
+        String sql = "ALTER TABLE " + table + " ADD CONSTRAINT " + name + " UNIQUE (" + cols + ")";
+        return new Step() {
+            public String sql() { return sql; }
+
+            public void apply(Connection conn) throws SQLException {
+                if (indexExists(conn, table, name)) return;
+                List<String> duplicates = findDuplicates(conn, table, cols);
+                if (!duplicates.isEmpty()) {
+                    throw new SQLException("Doublons dans " + table + " (" + cols + ") : " + String.join(", ", duplicates)
+                            + (duplicates.size() == 10 ? "..." : "") + " - contrainte " + name + " non créée.");
+                }
+                execute(conn, sql);
+            }
+        };
+    }
+
+    // ================== OUTILS ==================
+
+    static boolean indexExists(Connection conn, String table, String name) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM information_schema.STATISTICS"
+                + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            ps.setString(2, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    /** Au plus 10 valeurs en double, pour le message d'erreur */
+    private static List<String> findDuplicates(Connection conn, String table, String cols) throws SQLException {
+        String sql = "SELECT CONCAT_WS(' / ', " + cols + ") FROM " + table
+                + " GROUP BY " + cols + " HAVING COUNT(*) > 1 LIMIT 10";
+        List<String> values = new ArrayList<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) values.add(rs.getString(1));
+        }
+        return values;
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mise à jour du schéma au démarrage (migrations versionnées)
+ * -----------------------------------------------------------
+ * - carte_grise.sql recrée la base (et efface les données) : il ne sert qu'à l'installation.
+ *   Une base existante est mise à niveau par les migrations ci-dessous, sans perte de données.
+ * - La table SCHEMA_VERSION garde les migrations appliquées (version, checksum, date, durée).
+ *   Seules les migrations absentes sont appliquées, dans l'ordre des versions.
+ * - Un checksum différent signale une migration modifiée après coup : rien n'est appliqué.
+ * - Un verrou MySQL (GET_LOCK) évite que deux instances migrent en même temps.
+ * - Une nouvelle évolution du schéma = une nouvelle migration en fin de liste.
+ */
+public final class MigrationRunner {
+
+    private static final String LOCK_NAME = "lacoux_valentin_carte_grise.migrations";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            // contraintes ajoutées à carte_grise.sql : aussi sur les bases déjà installées
+            new Migration(1, "Contraintes d'unicité (marque, modèle, matricule)",
+                    Migration.unique("MARQUE", "uk_marque_nom", "nom_marque"),
+                    Migration.unique("MODELE", "uk_modele_marque_nom", "id_marque", "nom_modele"),
+                    Migration.unique("VEHICULE", "uk_vehicule_matricule", "matricule")),
+            // recherche des propriétaires par nom, possession en cours d'un véhicule
+            new Migration(2, "Index de recherche (propriétaire, possession en cours)",
+                    Migration.index("PROPRIETAIRE", "idx_proprietaire_nom_prenom", "nom", "prenom"),
+                    Migration.index("POSSEDER", "idx_posseder_vehicule_fin", "id_vehicule", "date_fin_propriete")),
+            // propriétaire d'un véhicule à une date (Posseder.getOwnerAt)
+            new Migration(3, "Index de l'historique des possessions par véhicule",
+                    Migration.index("POSSEDER", "idx_posseder_vehicule_debut", "id_vehicule", "date_debut_propriete"))
+    );
+
+    private MigrationRunner() {
+    }
+
+    /** Migrations connues de l'application, par version croissante */
+    public static List<Migration> getMigrations() {
+        return MIGRATIONS;
+    }
+
+    /**
+     * Appliquer les migrations manquantes
+     * @return nombre de migrations appliquées, ou -1 en cas d'erreur
+     */
+    public static int migrate() {
+        try (Connection conn = DBConnection.getConnection()) {
+            execute(conn, "CREATE TABLE IF NOT EXISTS SCHEMA_VERSION ("
+                    + " version INT PRIMARY KEY,"
+                    + " description VARCHAR(255) NOT NULL,"
+                    + " checksum CHAR(64) NOT NULL,"
+                    + " applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,"
+                    + " duration_ms BIGINT NOT NULL)");
+
+            if (!acquireLock(conn)) {
+                System.err.println("Erreur migrate : une autre instance met déjà à jour le schéma.");
+                return -1;
+            }
+            try {
+                return applyPending(conn);
+            } finally {
+                releaseLock(conn);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur migrate : " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static int applyPending(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, checksum FROM SCHEMA_VERSION")) {
+            while (rs.next()) applied.put(rs.getInt(1), rs.getString(2));
+        }
+
+        // vérifier toutes les migrations déjà appliquées avant d'en appliquer une nouvelle
+        for (Migration m : MIGRATIONS) {
+            String checksum = applied.get(m.getVersion());
+            if (checksum != null && !checksum.equals(m.checksum())) {
+                System.err.println("Erreur migrate : la migration " + m.getVersion() + " (" + m.getDescription()
+                        + ") a été modifiée depuis son application (checksum différent).");
+                return -1;
+            }
+        }
+
+        int count = 0;
+        for (Migration m : MIGRATIONS) {
+            if (applied.containsKey(m.getVersion())) continue;
+
+            long start = System.nanoTime();
+            for (Migration.Step step : m.getSteps()) {
+                try {
+                    step.apply(conn);
+                } catch (SQLException e) {
+                    throw new SQLException("migration " + m.getVersion() + " (" + step.sql() + ") : " + e.getMessage(), e);
+                }
+            }
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+
+            String sql = "INSERT INTO SCHEMA_VERSION (version, description, checksum, duration_ms) VALUES (?, ?, ?, ?)";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, m.getVersion());
+                ps.setString(2, m.getDescription());
+                ps.setString(3, m.checksum());
+                ps.setLong(4, durationMs);
+                ps.executeUpdate();
+            }
+            System.out.println("Migration " + m.getVersion() + " appliquée : " + m.getDescription() + " (" + durationMs + " ms)");
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Erreur releaseLock : " + e.getMessage());
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(sql);
+        }
+    }
+}
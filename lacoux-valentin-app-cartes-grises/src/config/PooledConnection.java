@@ -0,0 +1,136 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connexion physique gérée par le {@link ConnectionPool}
+ * -------------------------------------------------------
+ * Chaque emprunt renvoie un nouveau proxy {@link Connection} : son close()
+ * rend la connexion au pool (une seule fois) et toute utilisation après
+ * close() lève une SQLException, comme pour une vraie connexion fermée.
+ * Un emprunt fait sous un {@link CancelToken} y enregistre ses Statement
+ * (annulables) jusqu'à sa restitution.
+ */
+class PooledConnection {
+
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final StatementCache statementCache;
+    private volatile long lastUsed = System.currentTimeMillis();
+
+    PooledConnection(ConnectionPool pool, Connection physical, int statementCacheSize) {
+        this.pool = pool;
+        this.physical = physical;
+        this.statementCache = new StatementCache(physical, statementCacheSize);
+    }
+
+    Connection getPhysical() { return physical; }
+    long getLastUsed() { return lastUsed; }
+    void touch() { lastUsed = System.currentTimeMillis(); }
+
+    /** Créer le proxy remis à l'appelant pour cet emprunt */
+    Connection lease() {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Lease(CancelToken.current()));
+    }
+
+    /**
+     * Remettre la connexion dans un état neutre avant de la rendre au pool
+     * (transaction en cours annulée, auto-commit réactivé).
+     * @return false si la connexion est inutilisable et doit être fermée
+     */
+    boolean reset() {
+        try {
+            if (physical.isClosed()) return false;
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) physical.setReadOnly(false);
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closePhysical() {
+        statementCache.closeAll();
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            System.err.println("Erreur fermeture connexion : " + e.getMessage());
+        }
+    }
+
+    /** Gestionnaire du proxy pour un emprunt donné */
+    private class Lease implements InvocationHandler {
+        private volatile boolean closed;
+        private final CancelToken token; // null : emprunt non annulable
+        private final List<Statement> statements = new ArrayList<>();
+
+        Lease(CancelToken token) {
+            this.token = token;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (token != null) token.unregister(statements);
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    break;
+            }
+            if (closed) throw new SQLException("Connexion déjà rendue au pool.");
+
+            Object result;
+            // prepareStatement(sql) et prepareStatement(sql, autoGeneratedKeys) passent par le cache
+            if (name.equals("prepareStatement") && args.length == 1) {
+                result = statementCache.prepare((String) args[0], null);
+            } else if (name.equals("prepareStatement") && args.length == 2 && args[1] instanceof Integer) {
+                result = statementCache.prepare((String) args[0], (Integer) args[1]);
+            } else {
+                try {
+                    result = method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+            if (token != null && result instanceof Statement) {
+                Statement st = (Statement) result;
+                try {
+                    token.register(st);
+                } catch (SQLException e) {
+                    st.close(); // jeton déjà annulé : rendu au cache sans être exécuté
+                    throw e;
+                }
+                statements.add(st);
+            }
+            return result;
+        }
+    }
+}
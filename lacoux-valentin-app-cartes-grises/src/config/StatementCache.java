@@ -0,0 +1,204 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de PreparedStatement attaché à une connexion du pool
+ * ----------------------------------------------------------
+ * - Clé : texte SQL (+ demande éventuelle des clés générées).
+ * - Éviction LRU au-delà de maxSize requêtes distinctes.
+ * - close() sur le PreparedStatement renvoyé ne le ferme pas : ses paramètres
+ *   sont effacés, ses réglages (fetchSize, maxRows, queryTimeout) remis à leur
+ *   valeur d'origine, et il redevient disponible pour le prochain appel avec le même SQL.
+ * - Les requêtes à liste IN de taille variable ne passent pas par le cache
+ *   (voir DBConnection.prepareUncached) : une clé par taille de liste évincerait
+ *   les requêtes utiles.
+ *
+ * Les compteurs succès / échecs sont globaux (toutes connexions confondues).
+ */
+public class StatementCache {
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong EVICTIONS = new AtomicLong();
+
+    private final Connection physical;
+    private final int maxSize;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    StatementCache(Connection physical, int maxSize) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= StatementCache.this.maxSize) return false;
+                eldest.getValue().evict();
+                EVICTIONS.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Obtenir un PreparedStatement pour ce SQL, depuis le cache si possible.
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS / NO_GENERATED_KEYS, ou null
+     */
+    synchronized PreparedStatement prepare(String sql, Integer autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == null ? sql : sql + "#keys=" + autoGeneratedKeys;
+
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            HITS.incrementAndGet();
+            cached.inUse = true;
+            return cached.lease();
+        }
+
+        MISSES.incrementAndGet();
+        PreparedStatement ps = autoGeneratedKeys == null
+                ? physical.prepareStatement(sql)
+                : physical.prepareStatement(sql, autoGeneratedKeys);
+
+        // Déjà utilisé sur cette connexion (requêtes imbriquées) : statement ordinaire, non mis en cache
+        if (cached != null || maxSize <= 0) return ps;
+
+        try {
+            cached = new CachedStatement(ps);
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+        cached.inUse = true;
+        statements.put(key, cached);
+        return cached.lease();
+    }
+
+    /** Fermer tous les statements (appelé à la fermeture de la connexion physique) */
+    synchronized void closeAll() {
+        List<CachedStatement> all = new ArrayList<>(statements.values());
+        statements.clear();
+        for (CachedStatement cs : all) cs.evict();
+    }
+
+    // ================== STATISTIQUES ==================
+
+    public static long getHits() { return HITS.get(); }
+    public static long getMisses() { return MISSES.get(); }
+    public static long getEvictions() { return EVICTIONS.get(); }
+
+    public static double getHitRate() {
+        long hits = HITS.get();
+        long total = hits + MISSES.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    // ================== STATEMENT MIS EN CACHE ==================
+
+    private class CachedStatement {
+        private final PreparedStatement ps;
+        // réglages à la création : un appelant qui les modifie ne doit pas les imposer au suivant
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(PreparedStatement ps) throws SQLException {
+            this.ps = ps;
+            this.fetchSize = ps.getFetchSize();
+            this.maxRows = ps.getMaxRows();
+            this.queryTimeout = ps.getQueryTimeout();
+        }
+
+        PreparedStatement lease() {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new Lease());
+        }
+
+        /** Retiré du cache : fermeture réelle, immédiate si libre, sinon au prochain close() */
+        void evict() {
+            evicted = true;
+            if (!inUse) closeQuietly();
+        }
+
+        void giveBack() {
+            synchronized (StatementCache.this) {
+                if (evicted) {
+                    inUse = false;
+                    closeQuietly();
+                    return;
+                }
+            }
+            try {
+                ps.clearParameters();
+                ps.clearBatch();
+                ps.clearWarnings();
+                if (ps.getFetchSize() != fetchSize) ps.setFetchSize(fetchSize);
+                if (ps.getMaxRows() != maxRows) ps.setMaxRows(maxRows);
+                if (ps.getQueryTimeout() != queryTimeout) ps.setQueryTimeout(queryTimeout);
+            } catch (SQLException e) {
+                synchronized (StatementCache.this) {
+                    statements.values().remove(this);
+                    evicted = true;
+                    inUse = false;
+                }
+                closeQuietly();
+                return;
+            }
+            synchronized (StatementCache.this) {
+                inUse = false;
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                ps.close();
+            } catch (SQLException e) {
+                System.err.println("Erreur fermeture statement : " + e.getMessage());
+            }
+        }
+
+        private class Lease implements InvocationHandler {
+            private volatile boolean closed;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!closed) {
+                            closed = true;
+                            giveBack();
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed || ps.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+                if (closed) throw new SQLException("PreparedStatement déjà fermé.");
+                try {
+                    return method.invoke(ps, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+    }
+}
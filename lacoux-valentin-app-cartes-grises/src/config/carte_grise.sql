@@ -10,7 +10,8 @@ USE carte_grise;
 -- Table MARQUE
 CREATE TABLE MARQUE (
     id_marque INT AUTO_INCREMENT PRIMARY KEY,
-    nom_marque VARCHAR(255) NOT NULL
+    nom_marque VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_marque_nom UNIQUE (nom_marque)
 );
 
 -- Table MODELE
@@ -18,6 +19,7 @@ CREATE TABLE MODELE (
     id_modele INT AUTO_INCREMENT PRIMARY KEY,
     nom_modele VARCHAR(255) NOT NULL,
     id_marque INT NOT NULL,
+    CONSTRAINT uk_modele_marque_nom UNIQUE (id_marque, nom_modele),
     FOREIGN KEY (id_marque) REFERENCES MARQUE(id_marque) ON DELETE CASCADE
 );
 
@@ -28,7 +30,8 @@ CREATE TABLE PROPRIETAIRE (
     prenom VARCHAR(255) NOT NULL,
     adresse VARCHAR(255) NOT NULL,
     cp VARCHAR(10) NOT NULL,
-    ville VARCHAR(255) NOT NULL
+    ville VARCHAR(255) NOT NULL,
+    INDEX idx_proprietaire_nom_prenom (nom, prenom)
 );
 
 -- Table VEHICULE
@@ -40,6 +43,7 @@ CREATE TABLE VEHICULE (
     puissance_chevaux INT NOT NULL,
     puissance_fiscale INT NOT NULL,
     id_modele INT NOT NULL,
+    CONSTRAINT uk_vehicule_matricule UNIQUE (matricule),
     FOREIGN KEY (id_modele) REFERENCES MODELE(id_modele) ON DELETE CASCADE
 );
 
@@ -50,6 +54,8 @@ CREATE TABLE POSSEDER (
     date_debut_propriete DATE NOT NULL,
     date_fin_propriete DATE,
     PRIMARY KEY (id_proprietaire, id_vehicule),
+    INDEX idx_posseder_vehicule_fin (id_vehicule, date_fin_propriete),
+    INDEX idx_posseder_vehicule_debut (id_vehicule, date_debut_propriete),
     FOREIGN KEY (id_proprietaire) REFERENCES PROPRIETAIRE(id_proprietaire) ON DELETE CASCADE,
     FOREIGN KEY (id_vehicule) REFERENCES VEHICULE(id_vehicule) ON DELETE CASCADE
 );
@@ -0,0 +1,64 @@
+package controllers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Exécution des appels aux contrôleurs hors du thread Swing (EDT)
+ * ---------------------------------------------------------------
+ * - Les méthodes ...Async des contrôleurs renvoient un CompletableFuture
+ *   exécuté ici : l'interface reste réactive pendant les requêtes.
+ * - Java 21 et plus : un thread virtuel par tâche (attendre une connexion
+ *   du pool ou une réponse MySQL ne bloque aucun thread système).
+ * - Java 17 : pool de threads démons de taille fixe
+ *   (-Dcartegrise.async.threads, par défaut la taille maximale du pool de connexions).
+ * - Le résultat arrive sur un thread de fond : la vue doit le repasser
+ *   à l'EDT (SwingUtilities.invokeLater) avant de toucher aux composants.
+ */
+public final class AsyncExecutor {
+
+    private static final ExecutorService EXECUTOR = create();
+
+    private AsyncExecutor() {
+    }
+
+    /** Exécuter un traitement en arrière-plan */
+    public static <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, EXECUTOR);
+    }
+
+    /** Exécuteur partagé (pour enchaîner d'autres étapes en arrière-plan) */
+    public static ExecutorService executor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Nouvel exécuteur "un thread virtuel par tâche" si la JVM le permet, sinon null
+     * (appel par réflexion : le code doit rester compilable en Java 17)
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService create() {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        if (virtual != null) return virtual;
+
+        int threads = Integer.getInteger("cartegrise.async.threads", Integer.getInteger("cartegrise.pool.max", 10));
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "dao-async-" + counter.incrementAndGet());
+            t.setDaemon(true); // ne retient pas la fermeture de l'application
+            return t;
+        };
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+}
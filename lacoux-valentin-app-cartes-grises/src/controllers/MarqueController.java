@@ -1,7 +1,15 @@
 package controllers;
 
+import cache.ReferenceCache;
+import events.DomainEvent.MarqueCreated;
+import events.DomainEvent.MarqueDeleted;
+import events.DomainEvent.MarqueEvent;
+import events.DomainEvent.MarqueUpdated;
+import events.EventBus;
 import models.Marque;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Contrôleur pour gérer les marques
@@ -11,34 +19,64 @@ import java.util.List;
  *    - Il sert d'intermédiaire entre la vue et le modèle.
  * 2. Savoir appeler les méthodes du modèle depuis le contrôleur.
  * 3. Savoir créer, modifier, supprimer et récupérer des données via un contrôleur.
+ * 4. Les marques changent rarement : elles sont lues depuis un cache en mémoire,
+ *    rechargé à chaque événement MarqueEvent (ajout, modification, suppression).
+ * 5. Appels depuis les vues hors du thread Swing (...Async) ; les modifications sont
+ *    annoncées sur l'{@link EventBus} pour que les fenêtres ouvertes se mettent à jour.
  */
 public class MarqueController {
 
+    // Cache partagé par toutes les instances du contrôleur
+    private static final ReferenceCache<Marque> CACHE =
+            new ReferenceCache<>("marques", Marque::loadAllMarques, Marque::loadMarqueById, Marque::getIdMarque);
+
+    static {
+        EventBus.getDefault().subscribe(MarqueEvent.class, e -> CACHE.reload());
+    }
+
     /**
-     * Récupérer toutes les marques depuis le modèle
-     * @return liste de toutes les marques
+     * Récupérer toutes les marques (depuis le cache)
+     * @return liste non modifiable de toutes les marques
      */
     public List<Marque> fetchAllMarques() {
-        return Marque.getAllMarques();
+        return CACHE.getAll();
+    }
+
+    /**
+     * Récupérer toutes les marques (depuis le cache) en signalant l'erreur de lecture
+     * @return liste non modifiable de toutes les marques
+     * @throws SQLException table illisible (une liste vide veut alors dire : aucune ligne)
+     */
+    public List<Marque> loadAllMarques() throws SQLException {
+        return CACHE.loadAll();
     }
 
     /**
      * Ajouter une nouvelle marque
      * @param nom nom de la marque
-     * @return true si l'ajout a réussi, false sinon
+     * @return la marque créée (avec son identifiant), ou null en cas d'échec
      */
-    public boolean createMarque(String nom) {
-        return Marque.addMarque(nom);
+    public Marque createMarque(String nom) {
+        Marque m = new Marque();
+        m.setNomMarque(nom);
+        if (!Marque.addMarque(m)) return null;
+        EventBus.getDefault().publish(new MarqueCreated(m));
+        return m;
     }
 
     /**
      * Modifier une marque existante
      * @param id identifiant de la marque
      * @param nom nouveau nom de la marque
-     * @return true si la modification a réussi, false sinon
+     * @return la marque modifiée, ou null en cas d'échec
      */
-    public boolean modifyMarque(int id, String nom) {
-        return Marque.updateMarque(id, nom);
+    public Marque modifyMarque(int id, String nom) {
+        if (!Marque.updateMarque(id, nom)) return null;
+        Marque m = new Marque();
+        m.setIdMarque(id);
+        m.setNomMarque(nom);
+        EventBus.getDefault().publish(new MarqueUpdated(m));
+        return m;
     }
 
     /**
@@ -47,7 +85,9 @@ public class MarqueController {
      * @return true si la suppression a réussi, false sinon
      */
     public boolean removeMarque(int id) {
-        return Marque.deleteMarque(id);
+        boolean success = Marque.deleteMarque(id);
+        if (success) EventBus.getDefault().publish(new MarqueDeleted(id));
+        return success;
     }
 
     /**
@@ -56,6 +96,51 @@ public class MarqueController {
      * @return objet Marque correspondant ou null si non trouvé
      */
     public Marque findMarqueById(int id) {
-        return Marque.getMarqueById(id);
+        return CACHE.get(id);
+    }
+
+    /**
+     * Rechercher une marque par son identifiant en signalant l'erreur de lecture
+     * @param id identifiant de la marque
+     * @return objet Marque correspondant ou null si non trouvé
+     * @throws SQLException lecture impossible (null veut alors dire : marque absente)
+     */
+    public Marque loadMarqueById(int id) throws SQLException {
+        return CACHE.loadById(id);
+    }
+
+    /**
+     * Statistiques du cache des marques (taux de succès, chargements)
+     * @return cache des marques
+     */
+    public static ReferenceCache<Marque> getCache() {
+        return CACHE;
+    }
+
+    // ================== VERSIONS ASYNCHRONES (hors EDT) ==================
+
+    /** {@link #fetchAllMarques} exécuté en arrière-plan */
+    public CompletableFuture<List<Marque>> fetchAllMarquesAsync() {
+        return AsyncExecutor.supply(() -> fetchAllMarques());
+    }
+
+    /** {@link #createMarque} exécuté en arrière-plan */
+    public CompletableFuture<Marque> createMarqueAsync(String nom) {
+        return AsyncExecutor.supply(() -> createMarque(nom));
+    }
+
+    /** {@link #modifyMarque} exécuté en arrière-plan */
+    public CompletableFuture<Marque> modifyMarqueAsync(int id, String nom) {
+        return AsyncExecutor.supply(() -> modifyMarque(id, nom));
+    }
+
+    /** {@link #removeMarque} exécuté en arrière-plan */
+    public CompletableFuture<Boolean> removeMarqueAsync(int id) {
+        return AsyncExecutor.supply(() -> removeMarque(id));
+    }
+
+    /** {@link #findMarqueById} exécuté en arrière-plan */
+    public CompletableFuture<Marque> findMarqueByIdAsync(int id) {
+        return AsyncExecutor.supply(() -> findMarqueById(id));
     }
 }
@@ -1,7 +1,15 @@
 package controllers;
 
+import cache.ReferenceCache;
+import events.DomainEvent.ModeleCreated;
+import events.DomainEvent.ModeleDeleted;
+import events.DomainEvent.ModeleEvent;
+import events.DomainEvent.ModeleUpdated;
+import events.EventBus;
 import models.Modele;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Contrôleur pour gérer les modèles
@@ -11,25 +19,51 @@ import java.util.List;
  *    - Il sert d'intermédiaire entre la vue et le modèle.
  * 2. Gérer les relations entre objets (ici, un modèle appartient à une marque).
  * 3. Savoir créer, modifier, supprimer et récupérer des données via le contrôleur.
+ * 4. Les modèles changent rarement : ils sont lus depuis un cache en mémoire,
+ *    rechargé à chaque événement ModeleEvent (ajout, modification, suppression).
+ * 5. Versions ...Async pour les vues ({@link AsyncExecutor}) et publication de chaque
+ *    modification sur l'{@link EventBus}.
  */
 public class ModeleController {
 
+    // Cache partagé par toutes les instances du contrôleur
+    private static final ReferenceCache<Modele> CACHE =
+            new ReferenceCache<>("modèles", Modele::loadAllModeles, Modele::loadModeleById, Modele::getIdModele);
+
+    static {
+        EventBus.getDefault().subscribe(ModeleEvent.class, e -> CACHE.reload());
+    }
+
     /**
-     * Récupérer tous les modèles depuis le modèle
-     * @return liste de tous les modèles
+     * Récupérer tous les modèles (depuis le cache)
+     * @return liste non modifiable de tous les modèles
      */
     public List<Modele> fetchAllModeles() {
-        return Modele.getAllModeles();
+        return CACHE.getAll();
+    }
+
+    /**
+     * Récupérer tous les modèles (depuis le cache) en signalant l'erreur de lecture
+     * @return liste non modifiable de tous les modèles
+     * @throws SQLException table illisible (une liste vide veut alors dire : aucune ligne)
+     */
+    public List<Modele> loadAllModeles() throws SQLException {
+        return CACHE.loadAll();
     }
 
     /**
      * Ajouter un nouveau modèle
      * @param nom nom du modèle
      * @param idMarque identifiant de la marque associée
-     * @return true si l'ajout a réussi, false sinon
+     * @return le modèle créé (avec son identifiant), ou null en cas d'échec
      */
-    public boolean createModele(String nom, int idMarque) {
-        return Modele.addModele(nom, idMarque);
+    public Modele createModele(String nom, int idMarque) {
+        Modele m = new Modele();
+        m.setNomModele(nom);
+        m.setIdMarque(idMarque);
+        if (!Modele.addModele(m)) return null;
+        EventBus.getDefault().publish(new ModeleCreated(m));
+        return m;
     }
 
     /**
@@ -37,10 +71,16 @@ public class ModeleController {
      * @param id identifiant du modèle
      * @param nom nouveau nom du modèle
      * @param idMarque identifiant de la marque associée
-     * @return true si la modification a réussi, false sinon
+     * @return le modèle modifié, ou null en cas d'échec
      */
-    public boolean modifyModele(int id, String nom, int idMarque) {
-        return Modele.updateModele(id, nom, idMarque);
+    public Modele modifyModele(int id, String nom, int idMarque) {
+        if (!Modele.updateModele(id, nom, idMarque)) return null;
+        Modele m = new Modele();
+        m.setIdModele(id);
+        m.setNomModele(nom);
+        m.setIdMarque(idMarque);
+        EventBus.getDefault().publish(new ModeleUpdated(m));
+        return m;
     }
 
     /**
@@ -49,7 +89,9 @@ public class ModeleController {
      * @return true si la suppression a réussi, false sinon
      */
     public boolean removeModele(int id) {
-        return Modele.deleteModele(id);
+        boolean success = Modele.deleteModele(id);
+        if (success) EventBus.getDefault().publish(new ModeleDeleted(id));
+        return success;
     }
 
     /**
@@ -58,6 +100,51 @@ public class ModeleController {
      * @return objet Modele correspondant ou null si non trouvé
      */
     public Modele findModeleById(int id) {
-        return Modele.getModeleById(id);
+        return CACHE.get(id);
+    }
+
+    /**
+     * Rechercher un modèle par son identifiant en signalant l'erreur de lecture
+     * @param id identifiant du modèle
+     * @return objet Modele correspondant ou null si non trouvé
+     * @throws SQLException lecture impossible (null veut alors dire : modèle absent)
+     */
+    public Modele loadModeleById(int id) throws SQLException {
+        return CACHE.loadById(id);
+    }
+
+    /**
+     * Statistiques du cache des modèles (taux de succès, chargements)
+     * @return cache des modèles
+     */
+    public static ReferenceCache<Modele> getCache() {
+        return CACHE;
+    }
+
+    // ================== VERSIONS ASYNCHRONES (hors EDT) ==================
+
+    /** {@link #fetchAllModeles} exécuté en arrière-plan */
+    public CompletableFuture<List<Modele>> fetchAllModelesAsync() {
+        return AsyncExecutor.supply(() -> fetchAllModeles());
+    }
+
+    /** {@link #createModele} exécuté en arrière-plan */
+    public CompletableFuture<Modele> createModeleAsync(String nom, int idMarque) {
+        return AsyncExecutor.supply(() -> createModele(nom, idMarque));
+    }
+
+    /** {@link #modifyModele} exécuté en arrière-plan */
+    public CompletableFuture<Modele> modifyModeleAsync(int id, String nom, int idMarque) {
+        return AsyncExecutor.supply(() -> modifyModele(id, nom, idMarque));
+    }
+
+    /** {@link #removeModele} exécuté en arrière-plan */
+    public CompletableFuture<Boolean> removeModeleAsync(int id) {
+        return AsyncExecutor.supply(() -> removeModele(id));
+    }
+
+    /** {@link #findModeleById} exécuté en arrière-plan */
+    public CompletableFuture<Modele> findModeleByIdAsync(int id) {
+        return AsyncExecutor.supply(() -> findModeleById(id));
     }
 }
@@ -1,8 +1,25 @@
 package controllers;
 
+import events.DomainEvent;
+import events.DomainEvent.PossessionCreated;
+import events.DomainEvent.PossessionDeleted;
+import events.DomainEvent.PossessionEvent;
+import events.DomainEvent.PossessionUpdated;
+import events.DomainEvent.ProprietaireDeleted;
+import events.DomainEvent.VehiculeDeleted;
+import events.EventBus;
+import events.LazyProjection;
+import index.OwnershipIndex;
+import models.ModeDoublon;
 import models.Posseder;
+import models.PossessionRow;
+import models.Proprietaire;
+import models.Vehicule;
 import java.sql.Date;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Contrôleur pour gérer les possessions de véhicules par les propriétaires
@@ -13,9 +30,27 @@ import java.util.List;
  * 2. Gérer les relations entre objets (Posséder : lien entre Propriétaire et Véhicule).
  * 3. Savoir créer, modifier, supprimer et récupérer des données via le contrôleur.
  * 4. Manipulation des dates en Java (java.sql.Date) pour gérer les périodes de possession.
+ * 5. Les vues passent par les versions ...Async ; chaque modification réussie, unitaire
+ *    ou en masse, est publiée sur l'{@link EventBus}.
+ * 6. "Qui possédait ce véhicule à telle date ?" : index en mémoire des périodes de chaque
+ *    véhicule ({@link OwnershipIndex}), chargé à la première demande ({@link LazyProjection}).
+ * 7. Une période incohérente ou qui chevauche celle d'un autre propriétaire est refusée ;
+ *    {@link #checkPossession} et {@link #validatePossessions} donnent le motif du refus.
  */
 public class PossederController {
 
+    // Périodes de possession par véhicule (chargées à la première recherche par date)
+    private static final LazyProjection<OwnershipIndex, DomainEvent> OWNERSHIP_INDEX =
+            new LazyProjection<>("index des périodes de possession", PossederController::loadOwnershipIndex, PossederController::applyTo);
+
+    static {
+        EventBus bus = EventBus.getDefault();
+        bus.subscribe(PossessionEvent.class, OWNERSHIP_INDEX::apply);
+        // ON DELETE CASCADE : les possessions disparaissent avec le véhicule ou le propriétaire
+        bus.subscribe(VehiculeDeleted.class, OWNERSHIP_INDEX::apply);
+        bus.subscribe(ProprietaireDeleted.class, OWNERSHIP_INDEX::apply);
+    }
+
     /**
      * Récupérer toutes les possessions
      * @return liste de toutes les possessions
@@ -24,16 +59,29 @@ public class PossederController {
         return Posseder.getAllPossessions();
     }
 
+    /**
+     * Parcourir toutes les possessions avec le nom du propriétaire et le matricule
+     * (une seule requête avec jointure, sans construire de liste intermédiaire)
+     * @param consumer traitement appliqué à chaque ligne
+     * @return nombre de lignes parcourues
+     */
+    public int forEachPossessionRow(Consumer<PossessionRow> consumer) {
+        return PossessionRow.forEachPossessionRow(consumer);
+    }
+
     /**
      * Ajouter une possession
      * @param idProprietaire identifiant du propriétaire
      * @param idVehicule identifiant du véhicule
      * @param dateDebut date de début de possession
      * @param dateFin date de fin de possession
-     * @return true si l'ajout a réussi, false sinon
+     * @return la possession créée, ou null en cas d'échec
      */
-    public boolean createPossession(int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) {
-        return Posseder.addPossession(idProprietaire, idVehicule, dateDebut, dateFin);
+    public Posseder createPossession(int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) {
+        if (!Posseder.addPossession(idProprietaire, idVehicule, dateDebut, dateFin)) return null;
+        Posseder p = toPosseder(idProprietaire, idVehicule, dateDebut, dateFin);
+        EventBus.getDefault().publish(new PossessionCreated(p));
+        return p;
     }
 
     /**
@@ -42,10 +90,13 @@ public class PossederController {
      * @param idVehicule identifiant du véhicule
      * @param dateDebut nouvelle date de début
      * @param dateFin nouvelle date de fin
-     * @return true si la modification a réussi, false sinon
+     * @return la possession modifiée, ou null en cas d'échec
      */
-    public boolean modifyPossession(int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) {
-        return Posseder.updatePossession(idProprietaire, idVehicule, dateDebut, dateFin);
+    public Posseder modifyPossession(int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) {
+        if (!Posseder.updatePossession(idProprietaire, idVehicule, dateDebut, dateFin)) return null;
+        Posseder p = toPosseder(idProprietaire, idVehicule, dateDebut, dateFin);
+        EventBus.getDefault().publish(new PossessionUpdated(p));
+        return p;
     }
 
     /**
@@ -55,6 +106,310 @@ public class PossederController {
      * @return true si la suppression a réussi, false sinon
      */
     public boolean removePossession(int idProprietaire, int idVehicule) {
-        return Posseder.deletePossession(idProprietaire, idVehicule);
+        boolean success = Posseder.deletePossession(idProprietaire, idVehicule);
+        if (success) EventBus.getDefault().publish(new PossessionDeleted(idProprietaire, idVehicule));
+        return success;
+    }
+
+    /**
+     * Trouver une possession par sa clé composée
+     * @param idProprietaire identifiant du propriétaire
+     * @param idVehicule identifiant du véhicule
+     * @return l'objet Posseder correspondant, ou null si non trouvé
+     */
+    public Posseder findPossession(int idProprietaire, int idVehicule) {
+        return Posseder.getPossession(idProprietaire, idVehicule);
+    }
+
+    /**
+     * Trouver une possession par sa clé composée en signalant l'erreur de lecture
+     * @param idProprietaire identifiant du propriétaire
+     * @param idVehicule identifiant du véhicule
+     * @return l'objet Posseder correspondant, ou null si non trouvé
+     * @throws SQLException lecture impossible (null veut alors dire : possession absente)
+     */
+    public Posseder loadPossession(int idProprietaire, int idVehicule) throws SQLException {
+        return Posseder.loadPossession(idProprietaire, idVehicule);
+    }
+
+    /**
+     * Ligne d'affichage d'une possession, sans requête de jointure :
+     * propriétaire et véhicule viennent des caches de leurs contrôleurs
+     * @param p possession (peut être null)
+     * @return ligne d'affichage, ou null si p est null
+     */
+    public PossessionRow toPossessionRow(Posseder p) {
+        if (p == null) return null;
+        Proprietaire proprietaire = new ProprietaireController().findProprietaireById(p.getIdProprietaire());
+        Vehicule vehicule = new VehiculeController().findVehiculeById(p.getIdVehicule());
+        return PossessionRow.of(p, proprietaire, vehicule);
+    }
+
+    /**
+     * Ligne d'affichage d'une possession (comme toPossessionRow) en signalant l'erreur de lecture
+     * @param p possession (peut être null)
+     * @return ligne d'affichage, ou null si p est null
+     * @throws SQLException lecture du propriétaire ou du véhicule impossible
+     */
+    public PossessionRow loadPossessionRow(Posseder p) throws SQLException {
+        if (p == null) return null;
+        Proprietaire proprietaire = new ProprietaireController().loadProprietaireById(p.getIdProprietaire());
+        Vehicule vehicule = new VehiculeController().loadVehiculeById(p.getIdVehicule());
+        return PossessionRow.of(p, proprietaire, vehicule);
+    }
+
+    /**
+     * Récupérer une page de possessions pour l'affichage (pagination sur la clé composée)
+     * @param afterIdProprietaire propriétaire de la dernière ligne déjà lue (0 pour la première page)
+     * @param afterIdVehicule véhicule de la dernière ligne déjà lue (0 pour la première page)
+     * @param limit nombre maximum de lignes
+     * @return lignes d'affichage triées par (id_proprietaire, id_vehicule)
+     */
+    public List<PossessionRow> fetchPossessionRowsAfter(int afterIdProprietaire, int afterIdVehicule, int limit) {
+        return PossessionRow.getPossessionRowsAfter(afterIdProprietaire, afterIdVehicule, limit);
+    }
+
+    /**
+     * Récupérer une page de possessions en signalant l'erreur de lecture
+     * @param afterIdProprietaire propriétaire de la dernière ligne déjà lue (0 pour la première page)
+     * @param afterIdVehicule véhicule de la dernière ligne déjà lue (0 pour la première page)
+     * @param limit nombre maximum de lignes
+     * @return lignes d'affichage triées par (id_proprietaire, id_vehicule) (liste vide : plus aucune ligne)
+     * @throws SQLException lecture impossible
+     */
+    public List<PossessionRow> loadPossessionRowsAfter(int afterIdProprietaire, int afterIdVehicule, int limit) throws SQLException {
+        return PossessionRow.loadPossessionRowsAfter(afterIdProprietaire, afterIdVehicule, limit);
+    }
+
+    /**
+     * Compter les possessions
+     * @return nombre total de possessions
+     */
+    public int countPossessions() {
+        return Posseder.countPossessions();
+    }
+
+    /**
+     * Clé composée de la possession à une position donnée
+     * @param index position (à partir de 0) dans l'ordre (id_proprietaire, id_vehicule)
+     * @return tableau {idProprietaire, idVehicule}, ou null si hors limites
+     */
+    public int[] findPossessionKeyAt(int index) {
+        return Posseder.getKeyAt(index);
+    }
+
+    /**
+     * Parcourir toutes les possessions en flux, sans les charger toutes en mémoire
+     * @param consumer traitement appliqué à chaque possession
+     * @return nombre de possessions parcourues
+     */
+    public int forEachPossession(Consumer<Posseder> consumer) {
+        return Posseder.forEachPossession(consumer);
+    }
+
+    /**
+     * Ajouter des possessions en masse (insertions par lots, doublons ignorés)
+     * @param possessions possessions à ajouter
+     * @return pour chaque possession : true si elle a été insérée
+     */
+    public boolean[] createPossessions(List<Posseder> possessions) {
+        return publishSaved(possessions, Posseder.addPossessions(possessions), ModeDoublon.REJETER);
+    }
+
+    /**
+     * Ajouter des possessions en masse avec une taille de lot donnée
+     * @param possessions possessions à ajouter
+     * @param batchSize nombre de lignes par lot (et par transaction)
+     * @return pour chaque possession : true si elle a été insérée
+     */
+    public boolean[] createPossessions(List<Posseder> possessions, int batchSize) {
+        return publishSaved(possessions, Posseder.addPossessions(possessions, batchSize), ModeDoublon.REJETER);
+    }
+
+    /**
+     * Ajouter des possessions en masse en choisissant le traitement des doublons
+     * @param possessions possessions à ajouter
+     * @param batchSize nombre de lignes par lot (et par transaction)
+     * @param mode rejeter, ignorer ou mettre à jour les possessions déjà enregistrées
+     * @return pour chaque possession : true si elle a été insérée (ou mise à jour)
+     */
+    public boolean[] createPossessions(List<Posseder> possessions, int batchSize, ModeDoublon mode) {
+        return publishSaved(possessions, Posseder.addPossessions(possessions, batchSize, mode), mode);
+    }
+
+    /**
+     * Propriétaire d'un véhicule à une date (index en mémoire, sans requête SQL)
+     * @param idVehicule identifiant du véhicule
+     * @param date date recherchée
+     * @return le propriétaire, ou null si personne ne possédait le véhicule ce jour-là
+     */
+    public Proprietaire findOwnerAt(int idVehicule, Date date) {
+        int idProprietaire = findOwnerIdAt(idVehicule, date);
+        return idProprietaire < 0 ? null : new ProprietaireController().findProprietaireById(idProprietaire);
+    }
+
+    /**
+     * Propriétaire d'un véhicule à une date en signalant l'erreur de lecture
+     * (aucun dans l'index : période cherchée en base, elle a pu être enregistrée par un autre processus)
+     * @param idVehicule identifiant du véhicule
+     * @param date date recherchée
+     * @return le propriétaire, ou null si personne ne possédait le véhicule ce jour-là
+     * @throws SQLException lecture du propriétaire ou de la période impossible
+     * @throws IllegalStateException chargement de l'index des périodes impossible
+     */
+    public Proprietaire loadOwnerAt(int idVehicule, Date date) throws SQLException {
+        int idProprietaire = findOwnerIdAt(idVehicule, date);
+        if (idProprietaire < 0) idProprietaire = Posseder.loadOwnerAt(idVehicule, date);
+        return idProprietaire < 0 ? null : new ProprietaireController().loadProprietaireById(idProprietaire);
+    }
+
+    /**
+     * Identifiant du propriétaire d'un véhicule à une date (index en mémoire)
+     * @param idVehicule identifiant du véhicule
+     * @param date date recherchée
+     * @return id_proprietaire, ou -1 si personne ne possédait le véhicule ce jour-là
+     * @throws IllegalStateException chargement de l'index des périodes impossible
+     */
+    public int findOwnerIdAt(int idVehicule, Date date) {
+        return getOwnershipIndex().ownerAt(idVehicule, date.toLocalDate());
+    }
+
+    /**
+     * Identifiant du propriétaire d'un véhicule à une date, lu en base
+     * (pour une recherche isolée, sans charger l'index en mémoire)
+     * @param idVehicule identifiant du véhicule
+     * @param date date recherchée
+     * @return id_proprietaire, ou -1 si personne ne possédait le véhicule ce jour-là
+     */
+    public int fetchOwnerIdAt(int idVehicule, Date date) {
+        return Posseder.getOwnerAt(idVehicule, date);
+    }
+
+    /**
+     * Relire l'index des périodes déjà chargé (possessions modifiées par un autre processus)
+     * @throws IllegalStateException lecture de la table impossible (l'ancien index est gardé)
+     */
+    public void refresh() {
+        OWNERSHIP_INDEX.refresh();
+    }
+
+    /** Index des périodes (IllegalStateException si la table ne peut pas être lue) */
+    private static OwnershipIndex getOwnershipIndex() {
+        return OWNERSHIP_INDEX.get();
+    }
+
+    private static OwnershipIndex loadOwnershipIndex() throws SQLException {
+        OwnershipIndex index = new OwnershipIndex();
+        Posseder.streamPossessions(p -> index.put(p.getIdProprietaire(), p.getIdVehicule(), p.getDateDebut(), p.getDateFin()));
+        return index;
+    }
+
+    /** Répercuter un événement sur l'index des périodes (rejouable) */
+    private static void applyTo(OwnershipIndex index, DomainEvent e) {
+        if (e instanceof VehiculeDeleted) {
+            index.removeVehicule(((VehiculeDeleted) e).getIdVehicule());
+            return;
+        }
+        if (e instanceof ProprietaireDeleted) {
+            index.removeProprietaire(((ProprietaireDeleted) e).getIdProprietaire());
+            return;
+        }
+        if (!(e instanceof PossessionEvent)) return;
+        if (e instanceof PossessionDeleted) {
+            index.remove(((PossessionDeleted) e).getIdProprietaire(), ((PossessionDeleted) e).getIdVehicule());
+            return;
+        }
+        Posseder p = e instanceof PossessionCreated ? ((PossessionCreated) e).getPossession() : ((PossessionUpdated) e).getPossession();
+        index.put(p.getIdProprietaire(), p.getIdVehicule(), p.getDateDebut(), p.getDateFin());
+    }
+
+    /**
+     * Ajouter des possessions en masse en récupérant le motif de chaque refus
+     * @param possessions possessions à ajouter
+     * @param batchSize nombre de lignes par lot (et par transaction)
+     * @param mode rejeter, ignorer ou mettre à jour les possessions déjà enregistrées
+     * @param motifs tableau de même taille, rempli avec le motif de chaque refus (null si acceptée)
+     * @return pour chaque possession : true si elle a été insérée (ou mise à jour)
+     */
+    public boolean[] createPossessions(List<Posseder> possessions, int batchSize, ModeDoublon mode, String[] motifs) {
+        return publishSaved(possessions, Posseder.addPossessions(possessions, batchSize, mode, motifs), mode);
+    }
+
+    /**
+     * Vérifier une période avant de l'enregistrer (dates, chevauchement avec un autre propriétaire)
+     * @param idProprietaire identifiant du propriétaire
+     * @param idVehicule identifiant du véhicule
+     * @param dateDebut date de début
+     * @param dateFin date de fin (null = possession en cours)
+     * @return le motif du refus, ou null si la période est acceptable
+     */
+    public String checkPossession(int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) {
+        return Posseder.checkPossession(idProprietaire, idVehicule, dateDebut, dateFin);
+    }
+
+    /**
+     * Vérifier les périodes d'un lot sans l'enregistrer (une requête par paquet de véhicules)
+     * @param possessions possessions à vérifier
+     * @return pour chaque possession : le motif du refus, ou null si elle est acceptable
+     */
+    public String[] validatePossessions(List<Posseder> possessions) {
+        return Posseder.validatePossessions(possessions, config.DBConnection.DEFAULT_BATCH_SIZE);
+    }
+
+    private static boolean[] publishSaved(List<Posseder> possessions, boolean[] results, ModeDoublon mode) {
+        EventBus bus = EventBus.getDefault();
+        for (int i = 0; i < results.length; i++) {
+            if (!results[i]) continue;
+            // METTRE_A_JOUR : insertion ou mise à jour, publiée comme une mise à jour
+            if (mode == ModeDoublon.METTRE_A_JOUR) bus.publish(new PossessionUpdated(possessions.get(i)));
+            else bus.publish(new PossessionCreated(possessions.get(i)));
+        }
+        return results;
+    }
+
+    private static Posseder toPosseder(int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) {
+        Posseder p = new Posseder();
+        p.setIdProprietaire(idProprietaire);
+        p.setIdVehicule(idVehicule);
+        p.setDateDebut(dateDebut);
+        p.setDateFin(dateFin);
+        return p;
+    }
+
+    // ================== VERSIONS ASYNCHRONES (hors EDT) ==================
+
+    /** {@link #fetchAllPossessions} exécuté en arrière-plan */
+    public CompletableFuture<List<Posseder>> fetchAllPossessionsAsync() {
+        return AsyncExecutor.supply(() -> fetchAllPossessions());
+    }
+
+    /** {@link #createPossession} exécuté en arrière-plan */
+    public CompletableFuture<Posseder> createPossessionAsync(int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) {
+        return AsyncExecutor.supply(() -> createPossession(idProprietaire, idVehicule, dateDebut, dateFin));
+    }
+
+    /** {@link #modifyPossession} exécuté en arrière-plan */
+    public CompletableFuture<Posseder> modifyPossessionAsync(int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) {
+        return AsyncExecutor.supply(() -> modifyPossession(idProprietaire, idVehicule, dateDebut, dateFin));
+    }
+
+    /** {@link #removePossession} exécuté en arrière-plan */
+    public CompletableFuture<Boolean> removePossessionAsync(int idProprietaire, int idVehicule) {
+        return AsyncExecutor.supply(() -> removePossession(idProprietaire, idVehicule));
+    }
+
+    /** {@link #findOwnerAt} exécuté en arrière-plan (chargement de l'index à la première demande) */
+    public CompletableFuture<Proprietaire> findOwnerAtAsync(int idVehicule, Date date) {
+        return AsyncExecutor.supply(() -> findOwnerAt(idVehicule, date));
+    }
+
+    /** {@link #checkPossession} exécuté en arrière-plan */
+    public CompletableFuture<String> checkPossessionAsync(int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) {
+        return AsyncExecutor.supply(() -> checkPossession(idProprietaire, idVehicule, dateDebut, dateFin));
+    }
+
+    /** {@link #findPossession} exécuté en arrière-plan */
+    public CompletableFuture<Posseder> findPossessionAsync(int idProprietaire, int idVehicule) {
+        return AsyncExecutor.supply(() -> findPossession(idProprietaire, idVehicule));
     }
 }
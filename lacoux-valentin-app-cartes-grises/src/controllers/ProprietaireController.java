@@ -1,7 +1,20 @@
 package controllers;
 
+import cache.IntLruCache;
+import events.DomainEvent.ProprietaireCreated;
+import events.DomainEvent.ProprietaireDeleted;
+import events.DomainEvent.ProprietaireEvent;
+import events.DomainEvent.ProprietaireUpdated;
+import events.EventBus;
+import events.LazyProjection;
+import index.OwnerSearchIndex;
 import models.Proprietaire;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Contrôleur pour gérer les propriétaires
@@ -12,9 +25,28 @@ import java.util.List;
  * 2. Savoir récupérer, ajouter, modifier et supprimer des données d’un modèle.
  * 3. Manipulation des objets et listes pour affichage dans une JTable.
  * 4. Gestion des identifiants pour retrouver ou modifier un propriétaire précis.
+ * 5. Les recherches par identifiant passent par un cache borné (LRU + durée de vie),
+ *    invalidé à chaque événement ProprietaireUpdated ou ProprietaireDeleted.
+ * 6. Recherche approchée (nom, prénom, ville, code postal) par un index de trigrammes,
+ *    tenu à jour par les événements ProprietaireEvent (y compris ceux reçus pendant son chargement).
+ * 7. Les vues l'appellent en arrière-plan (...Async) ; ajouts, modifications et suppressions
+ *    sont publiés sur l'{@link EventBus}.
  */
 public class ProprietaireController {
 
+    // Cache partagé par toutes les instances du contrôleur
+    private static final IntLruCache<Proprietaire> CACHE = new IntLruCache<>("propriétaires",
+            Integer.getInteger("cartegrise.cache.proprietaires.size", 10_000),
+            Long.getLong("cartegrise.cache.ttlMs", 300_000L));
+
+    // Index de recherche approchée (chargé à la première recherche)
+    private static final LazyProjection<OwnerSearchIndex, ProprietaireEvent> SEARCH_INDEX =
+            new LazyProjection<>("index de recherche des propriétaires", ProprietaireController::loadSearchIndex, ProprietaireController::applyTo);
+
+    static {
+        EventBus.getDefault().subscribe(ProprietaireEvent.class, ProprietaireController::apply);
+    }
+
     /**
      * Récupérer tous les propriétaires
      * @return liste de tous les propriétaires
@@ -30,10 +62,18 @@ public class ProprietaireController {
      * @param adresse adresse complète
      * @param cp code postal
      * @param ville ville
-     * @return true si l'ajout a réussi, false sinon
+     * @return le propriétaire créé (avec son identifiant), ou null en cas d'échec
      */
-    public boolean createProprietaire(String nom, String prenom, String adresse, String cp, String ville) {
-        return Proprietaire.addProprietaire(nom, prenom, adresse, cp, ville);
+    public Proprietaire createProprietaire(String nom, String prenom, String adresse, String cp, String ville) {
+        Proprietaire p = new Proprietaire();
+        p.setNom(nom);
+        p.setPrenom(prenom);
+        p.setAdresse(adresse);
+        p.setCp(cp);
+        p.setVille(ville);
+        if (!Proprietaire.addProprietaire(p)) return null;
+        EventBus.getDefault().publish(new ProprietaireCreated(p));
+        return p;
     }
 
     /**
@@ -44,10 +84,19 @@ public class ProprietaireController {
      * @param adresse nouvelle adresse
      * @param cp nouveau code postal
      * @param ville nouvelle ville
-     * @return true si la modification a réussi, false sinon
+     * @return le propriétaire modifié, ou null en cas d'échec
      */
-    public boolean modifyProprietaire(int id, String nom, String prenom, String adresse, String cp, String ville) {
-        return Proprietaire.updateProprietaire(id, nom, prenom, adresse, cp, ville);
+    public Proprietaire modifyProprietaire(int id, String nom, String prenom, String adresse, String cp, String ville) {
+        if (!Proprietaire.updateProprietaire(id, nom, prenom, adresse, cp, ville)) return null;
+        Proprietaire p = new Proprietaire();
+        p.setIdProprietaire(id);
+        p.setNom(nom);
+        p.setPrenom(prenom);
+        p.setAdresse(adresse);
+        p.setCp(cp);
+        p.setVille(ville);
+        EventBus.getDefault().publish(new ProprietaireUpdated(p));
+        return p;
     }
 
     /**
@@ -56,7 +105,9 @@ public class ProprietaireController {
      * @return true si la suppression a réussi, false sinon
      */
     public boolean removeProprietaire(int id) {
-        return Proprietaire.deleteProprietaire(id);
+        boolean success = Proprietaire.deleteProprietaire(id);
+        if (success) EventBus.getDefault().publish(new ProprietaireDeleted(id));
+        return success;
     }
 
     /**
@@ -65,6 +116,209 @@ public class ProprietaireController {
      * @return l'objet Proprietaire correspondant, ou null si non trouvé
      */
     public Proprietaire findProprietaireById(int id) {
-        return Proprietaire.getProprietaireById(id);
+        return CACHE.get(id, Proprietaire::getProprietaireById);
+    }
+
+    /**
+     * Trouver un propriétaire par son identifiant en signalant l'erreur de lecture
+     * @param id identifiant du propriétaire
+     * @return l'objet Proprietaire correspondant, ou null si non trouvé
+     * @throws SQLException lecture impossible (null veut alors dire : propriétaire absent)
+     */
+    public Proprietaire loadProprietaireById(int id) throws SQLException {
+        return CACHE.load(id, Proprietaire::loadProprietaireById);
+    }
+
+    /**
+     * Récupérer une page de propriétaires (pagination par clé)
+     * @param afterId identifiant après lequel commencer (0 pour la première page)
+     * @param limit nombre maximum de lignes
+     * @return propriétaires triés par identifiant
+     */
+    public List<Proprietaire> fetchProprietairesAfter(int afterId, int limit) {
+        return Proprietaire.getProprietairesAfter(afterId, limit);
+    }
+
+    /**
+     * Récupérer une page de propriétaires en signalant l'erreur de lecture
+     * @param afterId identifiant après lequel commencer (0 pour la première page)
+     * @param limit nombre maximum de lignes
+     * @return propriétaires triés par identifiant (liste vide : plus aucune ligne)
+     * @throws SQLException lecture impossible
+     */
+    public List<Proprietaire> loadProprietairesAfter(int afterId, int limit) throws SQLException {
+        return Proprietaire.loadProprietairesAfter(afterId, limit);
+    }
+
+    /**
+     * Compter les propriétaires
+     * @return nombre total de propriétaires
+     */
+    public int countProprietaires() {
+        return Proprietaire.countProprietaires();
+    }
+
+    /**
+     * Identifiant du propriétaire à une position donnée (ordre des identifiants)
+     * @param index position (à partir de 0)
+     * @return identifiant, ou -1 si hors limites
+     */
+    public int findIdProprietaireAt(int index) {
+        return Proprietaire.getIdProprietaireAt(index);
+    }
+
+    /**
+     * Parcourir tous les propriétaires en flux, sans les charger tous en mémoire
+     * @param consumer traitement appliqué à chaque propriétaire
+     * @return nombre de propriétaires parcourus
+     */
+    public int forEachProprietaire(Consumer<Proprietaire> consumer) {
+        return Proprietaire.forEachProprietaire(consumer);
+    }
+
+    /**
+     * Ajouter des propriétaires en masse (insertions par lots)
+     * @param proprietaires propriétaires à ajouter (l'identifiant généré y est renseigné)
+     * @return pour chaque propriétaire : true s'il a été inséré
+     */
+    public boolean[] createProprietaires(List<Proprietaire> proprietaires) {
+        return publishCreated(proprietaires, Proprietaire.addProprietaires(proprietaires));
+    }
+
+    /**
+     * Ajouter des propriétaires en masse avec une taille de lot donnée
+     * @param proprietaires propriétaires à ajouter
+     * @param batchSize nombre de lignes par lot (et par transaction)
+     * @return pour chaque propriétaire : true s'il a été inséré
+     */
+    public boolean[] createProprietaires(List<Proprietaire> proprietaires, int batchSize) {
+        return publishCreated(proprietaires, Proprietaire.addProprietaires(proprietaires, batchSize));
+    }
+
+    private static boolean[] publishCreated(List<Proprietaire> proprietaires, boolean[] results) {
+        for (int i = 0; i < results.length; i++) {
+            if (results[i]) EventBus.getDefault().publish(new ProprietaireCreated(proprietaires.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Rechercher des propriétaires par nom, prénom, ville ou code postal,
+     * même incomplets ou mal orthographiés
+     * @param saisie texte recherché
+     * @param limit nombre maximum de résultats
+     * @return propriétaires du plus pertinent au moins pertinent
+     */
+    public List<Proprietaire> searchProprietaires(String saisie, int limit) {
+        try {
+            return loadProprietairesMatching(saisie, limit);
+        } catch (SQLException e) {
+            System.err.println("Erreur searchProprietaires : " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Rechercher des propriétaires (comme searchProprietaires) en signalant l'erreur de lecture
+     * @param saisie texte recherché
+     * @param limit nombre maximum de résultats
+     * @return propriétaires du plus pertinent au moins pertinent (liste vide : aucun résultat)
+     * @throws SQLException lecture des propriétaires trouvés impossible
+     * @throws IllegalStateException chargement de l'index de recherche impossible
+     */
+    public List<Proprietaire> loadProprietairesMatching(String saisie, int limit) throws SQLException {
+        List<OwnerSearchIndex.Hit> hits = getSearchIndex().search(saisie, limit);
+
+        // propriétaires absents du cache : lus en une seule requête
+        List<Integer> missing = new ArrayList<>();
+        for (OwnerSearchIndex.Hit h : hits) {
+            if (CACHE.getIfPresent(h.getIdProprietaire()) == null) missing.add(h.getIdProprietaire());
+        }
+        Map<Integer, Proprietaire> loaded = Proprietaire.loadProprietairesByIds(missing);
+        for (Proprietaire p : loaded.values()) CACHE.put(p.getIdProprietaire(), p);
+
+        List<Proprietaire> result = new ArrayList<>();
+        for (OwnerSearchIndex.Hit h : hits) {
+            Proprietaire p = loaded.get(h.getIdProprietaire());
+            if (p == null) p = CACHE.getIfPresent(h.getIdProprietaire());
+            if (p != null) result.add(p);
+        }
+        return result;
+    }
+
+    /** Répercuter un événement sur le cache et l'index de recherche (chargé ou en cours de chargement) */
+    private static void apply(ProprietaireEvent e) {
+        if (!(e instanceof ProprietaireCreated)) CACHE.invalidate(e.getIdProprietaire());
+        SEARCH_INDEX.apply(e);
+    }
+
+    /** Répercuter un événement sur l'index de recherche (rejouable) */
+    private static void applyTo(OwnerSearchIndex index, ProprietaireEvent e) {
+        if (e instanceof ProprietaireDeleted) {
+            index.remove(e.getIdProprietaire());
+            return;
+        }
+        Proprietaire p = e instanceof ProprietaireCreated
+                ? ((ProprietaireCreated) e).getProprietaire() : ((ProprietaireUpdated) e).getProprietaire();
+        index.put(p.getIdProprietaire(), p.getNom(), p.getPrenom(), p.getVille(), p.getCp());
+    }
+
+    /**
+     * Relire l'index de recherche déjà chargé (propriétaires modifiés par un autre processus)
+     * @throws IllegalStateException lecture de la table impossible (l'ancien index est gardé)
+     */
+    public void refresh() {
+        SEARCH_INDEX.refresh();
+    }
+
+    /** Index de recherche (IllegalStateException si la table ne peut pas être lue) */
+    private static OwnerSearchIndex getSearchIndex() {
+        return SEARCH_INDEX.get();
+    }
+
+    private static OwnerSearchIndex loadSearchIndex() throws SQLException {
+        OwnerSearchIndex index = new OwnerSearchIndex();
+        Proprietaire.streamProprietaires(p -> index.put(p.getIdProprietaire(), p.getNom(), p.getPrenom(), p.getVille(), p.getCp()));
+        return index;
+    }
+
+    /**
+     * Statistiques du cache des propriétaires (succès, évictions, expirations)
+     * @return cache des propriétaires
+     */
+    public static IntLruCache<Proprietaire> getCache() {
+        return CACHE;
+    }
+
+    // ================== VERSIONS ASYNCHRONES (hors EDT) ==================
+
+    /** {@link #fetchAllProprietaires} exécuté en arrière-plan */
+    public CompletableFuture<List<Proprietaire>> fetchAllProprietairesAsync() {
+        return AsyncExecutor.supply(() -> fetchAllProprietaires());
+    }
+
+    /** {@link #createProprietaire} exécuté en arrière-plan */
+    public CompletableFuture<Proprietaire> createProprietaireAsync(String nom, String prenom, String adresse, String cp, String ville) {
+        return AsyncExecutor.supply(() -> createProprietaire(nom, prenom, adresse, cp, ville));
+    }
+
+    /** {@link #modifyProprietaire} exécuté en arrière-plan */
+    public CompletableFuture<Proprietaire> modifyProprietaireAsync(int id, String nom, String prenom, String adresse, String cp, String ville) {
+        return AsyncExecutor.supply(() -> modifyProprietaire(id, nom, prenom, adresse, cp, ville));
+    }
+
+    /** {@link #removeProprietaire} exécuté en arrière-plan */
+    public CompletableFuture<Boolean> removeProprietaireAsync(int id) {
+        return AsyncExecutor.supply(() -> removeProprietaire(id));
+    }
+
+    /** {@link #findProprietaireById} exécuté en arrière-plan */
+    public CompletableFuture<Proprietaire> findProprietaireByIdAsync(int id) {
+        return AsyncExecutor.supply(() -> findProprietaireById(id));
+    }
+
+    /** {@link #searchProprietaires} exécuté en arrière-plan */
+    public CompletableFuture<List<Proprietaire>> searchProprietairesAsync(String saisie, int limit) {
+        return AsyncExecutor.supply(() -> searchProprietaires(saisie, limit));
     }
 }
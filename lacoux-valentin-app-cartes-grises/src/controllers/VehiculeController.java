@@ -1,7 +1,27 @@
 package controllers;
 
+import analyse.VehiculeColumnStore;
+import cache.IntLruCache;
+import events.DomainEvent.VehiculeCreated;
+import events.DomainEvent.VehiculeDeleted;
+import events.DomainEvent.VehiculeEvent;
+import events.DomainEvent.VehiculeUpdated;
+import events.EventBus;
+import events.LazyProjection;
+import index.PlateIndex;
+import models.Marque;
+import models.ModeDoublon;
+import models.Modele;
 import models.Vehicule;
+import models.VehiculeRow;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Contrôleur pour gérer les véhicules
@@ -13,9 +33,32 @@ import java.util.List;
  * 3. Manipulation des objets et listes pour affichage dans une JTable.
  * 4. Gestion des relations entre véhicules et modèles (via idModele).
  * 5. Validation des saisies numériques (année, poids, chevaux, fiscale) côté vue.
+ * 6. Les recherches par identifiant passent par un cache borné (LRU + durée de vie),
+ *    invalidé à chaque événement VehiculeUpdated ou VehiculeDeleted.
+ * 7. Statistiques de parc et recherche par matricule : structures en mémoire (copie en colonnes,
+ *    index des matricules) chargées à la première demande ({@link LazyProjection}).
+ * 8. Les vues l'appellent hors du thread Swing (versions ...Async, {@link AsyncExecutor}) ;
+ *    chaque modification réussie est publiée sur l'{@link EventBus}.
  */
 public class VehiculeController {
 
+    // Cache partagé par toutes les instances du contrôleur
+    private static final IntLruCache<Vehicule> CACHE = new IntLruCache<>("véhicules",
+            Integer.getInteger("cartegrise.cache.vehicules.size", 10_000),
+            Long.getLong("cartegrise.cache.ttlMs", 300_000L));
+
+    // Copie en colonnes pour les statistiques (chargée à la première demande)
+    private static final LazyProjection<VehiculeColumnStore, VehiculeEvent> COLUMN_STORE =
+            new LazyProjection<>("copie en colonnes des véhicules", VehiculeColumnStore::load, VehiculeController::applyTo);
+
+    // Index des matricules (chargé à la première recherche)
+    private static final LazyProjection<PlateIndex, VehiculeEvent> PLATE_INDEX =
+            new LazyProjection<>("index des matricules", VehiculeController::loadPlateIndex, VehiculeController::applyTo);
+
+    static {
+        EventBus.getDefault().subscribe(VehiculeEvent.class, VehiculeController::apply);
+    }
+
     /**
      * Récupérer tous les véhicules
      * @return liste de tous les véhicules
@@ -24,6 +67,15 @@ public class VehiculeController {
         return Vehicule.getAllVehicules();
     }
 
+    /**
+     * Récupérer tous les véhicules avec les noms du modèle et de la marque
+     * (une seule requête avec jointure, pour l'affichage en tableau)
+     * @return liste des lignes d'affichage
+     */
+    public List<VehiculeRow> fetchAllVehiculeRows() {
+        return VehiculeRow.getAllVehiculeRows();
+    }
+
     /**
      * Ajouter un véhicule
      * @param matricule numéro d'immatriculation
@@ -32,10 +84,13 @@ public class VehiculeController {
      * @param chevaux puissance en chevaux
      * @param fiscale puissance fiscale
      * @param idModele identifiant du modèle associé
-     * @return true si l'ajout a réussi, false sinon
+     * @return le véhicule créé (avec son identifiant), ou null en cas d'échec
      */
-    public boolean createVehicule(String matricule, int annee, double poids, int chevaux, int fiscale, int idModele) {
-        return Vehicule.addVehicule(matricule, annee, poids, chevaux, fiscale, idModele);
+    public Vehicule createVehicule(String matricule, int annee, double poids, int chevaux, int fiscale, int idModele) {
+        Vehicule v = toVehicule(0, matricule, annee, poids, chevaux, fiscale, idModele);
+        if (!Vehicule.addVehicule(v)) return null;
+        EventBus.getDefault().publish(new VehiculeCreated(v));
+        return v;
     }
 
     /**
@@ -47,10 +102,13 @@ public class VehiculeController {
      * @param chevaux nouvelle puissance
      * @param fiscale nouvelle puissance fiscale
      * @param idModele identifiant du nouveau modèle associé
-     * @return true si la modification a réussi, false sinon
+     * @return le véhicule modifié, ou null en cas d'échec
      */
-    public boolean modifyVehicule(int id, String matricule, int annee, double poids, int chevaux, int fiscale, int idModele) {
-        return Vehicule.updateVehicule(id, matricule, annee, poids, chevaux, fiscale, idModele);
+    public Vehicule modifyVehicule(int id, String matricule, int annee, double poids, int chevaux, int fiscale, int idModele) {
+        if (!Vehicule.updateVehicule(id, matricule, annee, poids, chevaux, fiscale, idModele)) return null;
+        Vehicule v = toVehicule(id, matricule, annee, poids, chevaux, fiscale, idModele);
+        EventBus.getDefault().publish(new VehiculeUpdated(v));
+        return v;
     }
 
     /**
@@ -59,7 +117,35 @@ public class VehiculeController {
      * @return true si la suppression a réussi, false sinon
      */
     public boolean removeVehicule(int id) {
-        return Vehicule.deleteVehicule(id);
+        boolean success = Vehicule.deleteVehicule(id);
+        if (success) EventBus.getDefault().publish(new VehiculeDeleted(id));
+        return success;
+    }
+
+    /**
+     * Ligne d'affichage d'un véhicule, sans requête de jointure :
+     * le modèle et la marque viennent des caches de référence
+     * @param v véhicule (peut être null)
+     * @return ligne d'affichage, ou null si v est null
+     */
+    public VehiculeRow toVehiculeRow(Vehicule v) {
+        if (v == null) return null;
+        Modele modele = new ModeleController().findModeleById(v.getIdModele());
+        Marque marque = modele != null ? new MarqueController().findMarqueById(modele.getIdMarque()) : null;
+        return VehiculeRow.of(v, modele, marque);
+    }
+
+    /**
+     * Ligne d'affichage d'un véhicule (comme toVehiculeRow) en signalant l'erreur de lecture
+     * @param v véhicule (peut être null)
+     * @return ligne d'affichage, ou null si v est null
+     * @throws SQLException lecture du modèle ou de la marque impossible
+     */
+    public VehiculeRow loadVehiculeRow(Vehicule v) throws SQLException {
+        if (v == null) return null;
+        Modele modele = new ModeleController().loadModeleById(v.getIdModele());
+        Marque marque = modele != null ? new MarqueController().loadMarqueById(modele.getIdMarque()) : null;
+        return VehiculeRow.of(v, modele, marque);
     }
 
     /**
@@ -68,6 +154,293 @@ public class VehiculeController {
      * @return l'objet Vehicule correspondant, ou null si non trouvé
      */
     public Vehicule findVehiculeById(int id) {
-        return Vehicule.getVehiculeById(id);
+        return CACHE.get(id, Vehicule::getVehiculeById);
+    }
+
+    /**
+     * Trouver un véhicule par son identifiant en signalant l'erreur de lecture
+     * @param id identifiant du véhicule
+     * @return l'objet Vehicule correspondant, ou null si non trouvé
+     * @throws SQLException lecture impossible (null veut alors dire : véhicule absent)
+     */
+    public Vehicule loadVehiculeById(int id) throws SQLException {
+        return CACHE.load(id, Vehicule::loadVehiculeById);
+    }
+
+    /**
+     * Récupérer une page de véhicules pour l'affichage (pagination par clé)
+     * @param afterId identifiant après lequel commencer (0 pour la première page)
+     * @param limit nombre maximum de lignes
+     * @return lignes d'affichage triées par identifiant
+     */
+    public List<VehiculeRow> fetchVehiculeRowsAfter(int afterId, int limit) {
+        return VehiculeRow.getVehiculeRowsAfter(afterId, limit);
+    }
+
+    /**
+     * Récupérer une page de véhicules en signalant l'erreur de lecture
+     * @param afterId identifiant après lequel commencer (0 pour la première page)
+     * @param limit nombre maximum de lignes
+     * @return lignes d'affichage triées par identifiant (liste vide : plus aucune ligne)
+     * @throws SQLException lecture impossible
+     */
+    public List<VehiculeRow> loadVehiculeRowsAfter(int afterId, int limit) throws SQLException {
+        return VehiculeRow.loadVehiculeRowsAfter(afterId, limit);
+    }
+
+    /**
+     * Compter les véhicules
+     * @return nombre total de véhicules
+     */
+    public int countVehicules() {
+        return Vehicule.countVehicules();
+    }
+
+    /**
+     * Identifiant du véhicule à une position donnée (ordre des identifiants)
+     * @param index position (à partir de 0)
+     * @return identifiant, ou -1 si hors limites
+     */
+    public int findIdVehiculeAt(int index) {
+        return Vehicule.getIdVehiculeAt(index);
+    }
+
+    /**
+     * Parcourir tous les véhicules en flux, sans les charger tous en mémoire
+     * (exports, traitements par lots)
+     * @param consumer traitement appliqué à chaque véhicule
+     * @return nombre de véhicules parcourus
+     */
+    public int forEachVehicule(Consumer<Vehicule> consumer) {
+        return Vehicule.forEachVehicule(consumer);
+    }
+
+    /**
+     * Ajouter des véhicules en masse (insertions par lots, doublons de matricule ignorés)
+     * @param vehicules véhicules à ajouter (l'identifiant généré y est renseigné)
+     * @return pour chaque véhicule : true s'il a été inséré
+     */
+    public boolean[] createVehicules(List<Vehicule> vehicules) {
+        return createVehicules(vehicules, config.DBConnection.DEFAULT_BATCH_SIZE, ModeDoublon.REJETER);
+    }
+
+    /**
+     * Ajouter des véhicules en masse avec une taille de lot donnée
+     * @param vehicules véhicules à ajouter
+     * @param batchSize nombre de lignes par lot (et par transaction)
+     * @return pour chaque véhicule : true s'il a été inséré
+     */
+    public boolean[] createVehicules(List<Vehicule> vehicules, int batchSize) {
+        return createVehicules(vehicules, batchSize, ModeDoublon.REJETER);
+    }
+
+    /**
+     * Ajouter des véhicules en masse en choisissant le traitement des doublons
+     * @param vehicules véhicules à ajouter
+     * @param batchSize nombre de lignes par lot (et par transaction)
+     * @param mode rejeter, ignorer ou mettre à jour les matricules déjà enregistrés
+     * @return pour chaque véhicule : true s'il a été inséré (ou mis à jour)
+     */
+    public boolean[] createVehicules(List<Vehicule> vehicules, int batchSize, ModeDoublon mode) {
+        boolean[] results = Vehicule.addVehicules(vehicules, batchSize, mode);
+        EventBus bus = EventBus.getDefault();
+        for (int i = 0; i < results.length; i++) {
+            if (!results[i]) continue;
+            // METTRE_A_JOUR : insertion ou mise à jour, publiée comme une mise à jour
+            if (mode == ModeDoublon.METTRE_A_JOUR) bus.publish(new VehiculeUpdated(vehicules.get(i)));
+            else bus.publish(new VehiculeCreated(vehicules.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Parcourir tous les véhicules avec modèle et marque en flux (exports)
+     * @param consumer traitement appliqué à chaque ligne
+     * @return nombre de lignes parcourues
+     */
+    public int forEachVehiculeRow(Consumer<VehiculeRow> consumer) {
+        return VehiculeRow.forEachVehiculeRow(consumer);
+    }
+
+    /**
+     * Statistiques du cache des véhicules (succès, évictions, expirations)
+     * @return cache des véhicules
+     */
+    public static IntLruCache<Vehicule> getCache() {
+        return CACHE;
+    }
+
+    /**
+     * Copie en colonnes de la table VEHICULE pour les statistiques de parc
+     * (chargée en flux au premier appel, puis tenue à jour par ce contrôleur)
+     * @return stockage en colonnes
+     * @throws IllegalStateException lecture de la table impossible (rien n'est gardé en mémoire)
+     */
+    public VehiculeColumnStore getColumnStore() {
+        return COLUMN_STORE.get();
+    }
+
+    /**
+     * Relire entièrement la copie en colonnes (modifications faites hors de l'application)
+     * @throws IllegalStateException lecture de la table impossible (l'ancienne copie est gardée)
+     */
+    public void reloadColumnStore() {
+        COLUMN_STORE.reload();
+    }
+
+    /**
+     * Relire la copie en colonnes et l'index des matricules déjà chargés
+     * (véhicules ajoutés ou modifiés par un autre processus)
+     * @throws IllegalStateException lecture de la table impossible (les anciennes structures sont gardées)
+     */
+    public void refresh() {
+        COLUMN_STORE.refresh();
+        PLATE_INDEX.refresh();
+    }
+
+    /**
+     * Rechercher un véhicule par matricule (tirets, espaces et casse ignorés)
+     * @param matricule matricule saisi, au format SIV ou FNI
+     * @return le véhicule, ou null si aucun ne correspond
+     */
+    public Vehicule findByMatricule(String matricule) {
+        for (int id : getPlateIndex().find(matricule)) {
+            Vehicule v = findVehiculeById(id);
+            if (v != null) return v;
+        }
+        return null;
+    }
+
+    /**
+     * Rechercher un véhicule par matricule en signalant l'erreur de lecture
+     * (absent de l'index : matricule cherché en base, il a pu être enregistré par un autre processus)
+     * @param matricule matricule saisi, au format SIV ou FNI
+     * @return le véhicule, ou null si aucun ne correspond
+     * @throws SQLException lecture du véhicule impossible
+     * @throws IllegalStateException chargement de l'index des matricules impossible
+     */
+    public Vehicule loadByMatricule(String matricule) throws SQLException {
+        PlateIndex index = getPlateIndex();
+        for (int id : index.find(matricule)) {
+            Vehicule v = loadVehiculeById(id);
+            if (v != null) return v;
+        }
+        for (Map.Entry<String, Integer> e : Vehicule.loadIdsByMatricules(spellings(matricule)).entrySet()) {
+            Vehicule v = loadVehiculeById(e.getValue());
+            if (v == null) continue;
+            index.put(v.getIdVehicule(), v.getMatricule());
+            return v;
+        }
+        return null;
+    }
+
+    /** Écritures possibles d'un matricule en base : telle que saisie, sans séparateurs, et SIV avec tirets */
+    private static Set<String> spellings(String matricule) {
+        Set<String> result = new LinkedHashSet<>();
+        if (matricule == null || matricule.isBlank()) return result;
+        String key = PlateIndex.normalize(matricule);
+        result.add(matricule.trim());
+        result.add(key);
+        if (key.matches("[A-Z]{2}[0-9]{3}[A-Z]{2}")) {
+            result.add(key.substring(0, 2) + "-" + key.substring(2, 5) + "-" + key.substring(5));
+        }
+        return result;
+    }
+
+    /**
+     * Rechercher les véhicules dont le matricule commence par un préfixe
+     * @param prefix début du matricule (tirets, espaces et casse ignorés)
+     * @param limit nombre maximum de résultats
+     * @return véhicules triés par matricule
+     */
+    public List<Vehicule> findByMatriculePrefix(String prefix, int limit) {
+        List<Vehicule> result = new ArrayList<>();
+        for (int id : getPlateIndex().findByPrefix(prefix, limit)) {
+            Vehicule v = findVehiculeById(id);
+            if (v != null) result.add(v);
+        }
+        return result;
+    }
+
+    /** Index des matricules (IllegalStateException si la table ne peut pas être lue) */
+    private static PlateIndex getPlateIndex() {
+        return PLATE_INDEX.get();
+    }
+
+    private static PlateIndex loadPlateIndex() throws SQLException {
+        PlateIndex index = new PlateIndex();
+        Vehicule.streamVehicules(v -> index.put(v.getIdVehicule(), v.getMatricule()));
+        return index;
+    }
+
+    /** Répercuter un événement sur le cache et les structures en mémoire déjà chargées */
+    private static void apply(VehiculeEvent e) {
+        if (!(e instanceof VehiculeCreated)) CACHE.invalidate(e.getIdVehicule());
+        COLUMN_STORE.apply(e);
+        PLATE_INDEX.apply(e);
+    }
+
+    /** Répercuter un événement sur l'index des matricules (rejouable) */
+    private static void applyTo(PlateIndex index, VehiculeEvent e) {
+        if (e instanceof VehiculeDeleted) index.remove(e.getIdVehicule());
+        else {
+            Vehicule v = e instanceof VehiculeCreated ? ((VehiculeCreated) e).getVehicule() : ((VehiculeUpdated) e).getVehicule();
+            index.put(v.getIdVehicule(), v.getMatricule());
+        }
+    }
+
+    /** Répercuter un événement sur la copie en colonnes (ajout ou remplacement : rejouable) */
+    private static void applyTo(VehiculeColumnStore store, VehiculeEvent e) {
+        if (e instanceof VehiculeDeleted) store.remove(e.getIdVehicule());
+        else store.upsert(e instanceof VehiculeCreated ? ((VehiculeCreated) e).getVehicule() : ((VehiculeUpdated) e).getVehicule());
+    }
+
+    private static Vehicule toVehicule(int id, String matricule, int annee, double poids, int chevaux, int fiscale, int idModele) {
+        Vehicule v = new Vehicule();
+        v.setIdVehicule(id);
+        v.setMatricule(matricule);
+        v.setAnneeSortie(annee);
+        v.setPoids(poids);
+        v.setPuissanceChevaux(chevaux);
+        v.setPuissanceFiscale(fiscale);
+        v.setIdModele(idModele);
+        return v;
+    }
+
+    // ================== VERSIONS ASYNCHRONES (hors EDT) ==================
+
+    /** {@link #fetchAllVehicules} exécuté en arrière-plan */
+    public CompletableFuture<List<Vehicule>> fetchAllVehiculesAsync() {
+        return AsyncExecutor.supply(() -> fetchAllVehicules());
+    }
+
+    /** {@link #createVehicule} exécuté en arrière-plan */
+    public CompletableFuture<Vehicule> createVehiculeAsync(String matricule, int annee, double poids, int chevaux, int fiscale, int idModele) {
+        return AsyncExecutor.supply(() -> createVehicule(matricule, annee, poids, chevaux, fiscale, idModele));
+    }
+
+    /** {@link #modifyVehicule} exécuté en arrière-plan */
+    public CompletableFuture<Vehicule> modifyVehiculeAsync(int id, String matricule, int annee, double poids, int chevaux, int fiscale, int idModele) {
+        return AsyncExecutor.supply(() -> modifyVehicule(id, matricule, annee, poids, chevaux, fiscale, idModele));
+    }
+
+    /** {@link #removeVehicule} exécuté en arrière-plan */
+    public CompletableFuture<Boolean> removeVehiculeAsync(int id) {
+        return AsyncExecutor.supply(() -> removeVehicule(id));
+    }
+
+    /** {@link #findVehiculeById} exécuté en arrière-plan */
+    public CompletableFuture<Vehicule> findVehiculeByIdAsync(int id) {
+        return AsyncExecutor.supply(() -> findVehiculeById(id));
+    }
+
+    /** {@link #findByMatricule} exécuté en arrière-plan */
+    public CompletableFuture<Vehicule> findByMatriculeAsync(String matricule) {
+        return AsyncExecutor.supply(() -> findByMatricule(matricule));
+    }
+
+    /** {@link #findByMatriculePrefix} exécuté en arrière-plan */
+    public CompletableFuture<List<Vehicule>> findByMatriculePrefixAsync(String prefix, int limit) {
+        return AsyncExecutor.supply(() -> findByMatriculePrefix(prefix, limit));
     }
 }
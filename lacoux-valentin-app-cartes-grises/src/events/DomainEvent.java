@@ -0,0 +1,206 @@
+package events;
+
+import models.Marque;
+import models.Modele;
+import models.Posseder;
+import models.Proprietaire;
+import models.Vehicule;
+
+/**
+ * Événements du domaine, publiés par les contrôleurs sur l'{@link EventBus}
+ * -------------------------------------------------------------------------
+ * - Un événement est publié après chaque modification réussie en base
+ *   (ajout, modification, suppression) et porte l'entité enregistrée
+ *   ou l'identifiant supprimé : l'abonné applique le changement sans relire la table.
+ * - Chaque table a sa classe mère (MarqueEvent, VehiculeEvent...) : s'abonner
+ *   à la classe mère permet de recevoir ajouts, modifications et suppressions
+ *   dans l'ordre où ils ont eu lieu.
+ * - Les événements sont immuables ; l'entité transportée ne doit pas être modifiée.
+ */
+public abstract class DomainEvent {
+
+    // ================== MARQUES ==================
+
+    public abstract static class MarqueEvent extends DomainEvent {
+        private final int idMarque;
+
+        MarqueEvent(int idMarque) { this.idMarque = idMarque; }
+
+        public int getIdMarque() { return idMarque; }
+    }
+
+    public static final class MarqueCreated extends MarqueEvent {
+        private final Marque marque;
+
+        public MarqueCreated(Marque marque) {
+            super(marque.getIdMarque());
+            this.marque = marque;
+        }
+
+        public Marque getMarque() { return marque; }
+    }
+
+    public static final class MarqueUpdated extends MarqueEvent {
+        private final Marque marque;
+
+        public MarqueUpdated(Marque marque) {
+            super(marque.getIdMarque());
+            this.marque = marque;
+        }
+
+        public Marque getMarque() { return marque; }
+    }
+
+    public static final class MarqueDeleted extends MarqueEvent {
+        public MarqueDeleted(int idMarque) { super(idMarque); }
+    }
+
+    // ================== MODÈLES ==================
+
+    public abstract static class ModeleEvent extends DomainEvent {
+        private final int idModele;
+
+        ModeleEvent(int idModele) { this.idModele = idModele; }
+
+        public int getIdModele() { return idModele; }
+    }
+
+    public static final class ModeleCreated extends ModeleEvent {
+        private final Modele modele;
+
+        public ModeleCreated(Modele modele) {
+            super(modele.getIdModele());
+            this.modele = modele;
+        }
+
+        public Modele getModele() { return modele; }
+    }
+
+    public static final class ModeleUpdated extends ModeleEvent {
+        private final Modele modele;
+
+        public ModeleUpdated(Modele modele) {
+            super(modele.getIdModele());
+            this.modele = modele;
+        }
+
+        public Modele getModele() { return modele; }
+    }
+
+    public static final class ModeleDeleted extends ModeleEvent {
+        public ModeleDeleted(int idModele) { super(idModele); }
+    }
+
+    // ================== VÉHICULES ==================
+
+    public abstract static class VehiculeEvent extends DomainEvent {
+        private final int idVehicule;
+
+        VehiculeEvent(int idVehicule) { this.idVehicule = idVehicule; }
+
+        public int getIdVehicule() { return idVehicule; }
+    }
+
+    public static final class VehiculeCreated extends VehiculeEvent {
+        private final Vehicule vehicule;
+
+        public VehiculeCreated(Vehicule vehicule) {
+            super(vehicule.getIdVehicule());
+            this.vehicule = vehicule;
+        }
+
+        public Vehicule getVehicule() { return vehicule; }
+    }
+
+    public static final class VehiculeUpdated extends VehiculeEvent {
+        private final Vehicule vehicule;
+
+        public VehiculeUpdated(Vehicule vehicule) {
+            super(vehicule.getIdVehicule());
+            this.vehicule = vehicule;
+        }
+
+        public Vehicule getVehicule() { return vehicule; }
+    }
+
+    public static final class VehiculeDeleted extends VehiculeEvent {
+        public VehiculeDeleted(int idVehicule) { super(idVehicule); }
+    }
+
+    // ================== PROPRIÉTAIRES ==================
+
+    public abstract static class ProprietaireEvent extends DomainEvent {
+        private final int idProprietaire;
+
+        ProprietaireEvent(int idProprietaire) { this.idProprietaire = idProprietaire; }
+
+        public int getIdProprietaire() { return idProprietaire; }
+    }
+
+    public static final class ProprietaireCreated extends ProprietaireEvent {
+        private final Proprietaire proprietaire;
+
+        public ProprietaireCreated(Proprietaire proprietaire) {
+            super(proprietaire.getIdProprietaire());
+            this.proprietaire = proprietaire;
+        }
+
+        public Proprietaire getProprietaire() { return proprietaire; }
+    }
+
+    public static final class ProprietaireUpdated extends ProprietaireEvent {
+        private final Proprietaire proprietaire;
+
+        public ProprietaireUpdated(Proprietaire proprietaire) {
+            super(proprietaire.getIdProprietaire());
+            this.proprietaire = proprietaire;
+        }
+
+        public Proprietaire getProprietaire() { return proprietaire; }
+    }
+
+    public static final class ProprietaireDeleted extends ProprietaireEvent {
+        public ProprietaireDeleted(int idProprietaire) { super(idProprietaire); }
+    }
+
+    // ================== POSSESSIONS ==================
+
+    public abstract static class PossessionEvent extends DomainEvent {
+        private final int idProprietaire;
+        private final int idVehicule;
+
+        PossessionEvent(int idProprietaire, int idVehicule) {
+            this.idProprietaire = idProprietaire;
+            this.idVehicule = idVehicule;
+        }
+
+        public int getIdProprietaire() { return idProprietaire; }
+        public int getIdVehicule() { return idVehicule; }
+    }
+
+    public static final class PossessionCreated extends PossessionEvent {
+        private final Posseder possession;
+
+        public PossessionCreated(Posseder possession) {
+            super(possession.getIdProprietaire(), possession.getIdVehicule());
+            this.possession = possession;
+        }
+
+        public Posseder getPossession() { return possession; }
+    }
+
+    public static final class PossessionUpdated extends PossessionEvent {
+        private final Posseder possession;
+
+        public PossessionUpdated(Posseder possession) {
+            super(possession.getIdProprietaire(), possession.getIdVehicule());
+            this.possession = possession;
+        }
+
+        public Posseder getPossession() { return possession; }
+    }
+
+    public static final class PossessionDeleted extends PossessionEvent {
+        public PossessionDeleted(int idProprietaire, int idVehicule) { super(idProprietaire, idVehicule); }
+    }
+}
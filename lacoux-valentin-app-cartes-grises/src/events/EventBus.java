@@ -0,0 +1,137 @@
+package events;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Bus d'événements du domaine (dans le processus)
+ * -----------------------------------------------
+ * - Les contrôleurs publient un {@link DomainEvent} après chaque modification réussie.
+ * - subscribe() : l'abonné est appelé tout de suite, sur le thread qui publie
+ *   (caches et index : ils sont à jour quand le contrôleur rend la main).
+ * - subscribeOnEdt() : pour les vues. Les événements sont regroupés pendant
+ *   COALESCE_MS (-Dcartegrise.events.coalesceMs, 50 ms par défaut) puis remis
+ *   en une seule liste sur l'EDT : une rafale de modifications = un seul rafraîchissement.
+ * - Sans abonné EDT (import en ligne de commande), rien n'est mis en attente.
+ * - Une vue doit se désabonner à sa fermeture (Subscription.unsubscribe()).
+ * - Chaque fenêtre reçoit aussi les modifications faites dans les autres fenêtres et
+ *   ne met à jour que les lignes concernées, sans relire son tableau.
+ */
+public final class EventBus {
+
+    /** Abonnement, à annuler à la fermeture de la vue */
+    public interface Subscription {
+        void unsubscribe();
+    }
+
+    private static final EventBus DEFAULT = new EventBus();
+    private static final int COALESCE_MS = Integer.getInteger("cartegrise.events.coalesceMs", 50);
+
+    /** Abonné : synchrone (sync) ou regroupé sur l'EDT (batch) */
+    private static final class Subscriber<E extends DomainEvent> {
+        final Class<E> type;
+        final Consumer<? super E> sync;
+        final Consumer<List<E>> batch;
+
+        Subscriber(Class<E> type, Consumer<? super E> sync, Consumer<List<E>> batch) {
+            this.type = type;
+            this.sync = sync;
+            this.batch = batch;
+        }
+
+        void deliver(DomainEvent event) {
+            sync.accept(type.cast(event));
+        }
+
+        void deliver(List<DomainEvent> events) {
+            List<E> matching = new ArrayList<>();
+            for (DomainEvent e : events) {
+                if (type.isInstance(e)) matching.add(type.cast(e));
+            }
+            if (!matching.isEmpty()) batch.accept(matching);
+        }
+    }
+
+    private final List<Subscriber<?>> syncSubscribers = new CopyOnWriteArrayList<>();
+    private final List<Subscriber<?>> edtSubscribers = new CopyOnWriteArrayList<>();
+    private final List<DomainEvent> pending = new ArrayList<>(); // protégé par pending
+    private Timer flushTimer; // créé et manipulé sur l'EDT
+
+    /** Bus partagé par les contrôleurs et les vues de l'application */
+    public static EventBus getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * S'abonner à un type d'événement (et ses sous-classes), appelé sur le thread qui publie
+     * @param type classe d'événement (ex : VehiculeEvent.class pour ajouts, modifications et suppressions)
+     * @param listener traitement de chaque événement (doit être rapide et ne pas toucher à Swing)
+     * @return abonnement
+     */
+    public <E extends DomainEvent> Subscription subscribe(Class<E> type, Consumer<? super E> listener) {
+        Subscriber<E> s = new Subscriber<>(type, listener, null);
+        syncSubscribers.add(s);
+        return () -> syncSubscribers.remove(s);
+    }
+
+    /**
+     * S'abonner sur l'EDT : les événements d'une rafale arrivent ensemble, dans l'ordre de publication
+     * @param type classe d'événement (et ses sous-classes)
+     * @param listener traitement d'une liste d'événements, sur l'EDT
+     * @return abonnement
+     */
+    public <E extends DomainEvent> Subscription subscribeOnEdt(Class<E> type, Consumer<List<E>> listener) {
+        Subscriber<E> s = new Subscriber<>(type, null, listener);
+        edtSubscribers.add(s);
+        return () -> edtSubscribers.remove(s);
+    }
+
+    /** Publier un événement (après la modification réussie en base) */
+    public void publish(DomainEvent event) {
+        for (Subscriber<?> s : syncSubscribers) {
+            if (!s.type.isInstance(event)) continue;
+            try {
+                s.deliver(event);
+            } catch (RuntimeException e) {
+                System.err.println("Erreur abonné " + event.getClass().getSimpleName() + " : " + e.getMessage());
+            }
+        }
+        if (edtSubscribers.isEmpty()) return;
+
+        boolean first;
+        synchronized (pending) {
+            pending.add(event);
+            first = pending.size() == 1;
+        }
+        if (first) SwingUtilities.invokeLater(this::scheduleFlush);
+    }
+
+    private void scheduleFlush() {
+        if (flushTimer == null) {
+            flushTimer = new Timer(COALESCE_MS, e -> flush());
+            flushTimer.setRepeats(false);
+        }
+        if (!flushTimer.isRunning()) flushTimer.start();
+    }
+
+    /** Remettre les événements en attente aux abonnés EDT (sur l'EDT) */
+    private void flush() {
+        List<DomainEvent> events;
+        synchronized (pending) {
+            events = new ArrayList<>(pending);
+            pending.clear();
+        }
+        if (events.isEmpty()) return;
+        for (Subscriber<?> s : edtSubscribers) {
+            try {
+                s.deliver(events);
+            } catch (RuntimeException e) {
+                System.err.println("Erreur abonné (EDT) : " + e.getMessage());
+            }
+        }
+    }
+}
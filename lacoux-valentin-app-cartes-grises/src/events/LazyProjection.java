@@ -0,0 +1,112 @@
+package events;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Structure en mémoire chargée à la première demande, puis tenue à jour par les événements
+ * ---------------------------------------------------------------------------------------
+ * (index, copie en colonnes... construits à partir d'un parcours de table)
+ * - Les événements reçus pendant un chargement sont mis de côté, puis rejoués dans
+ *   l'ordre sur la structure chargée avant de la publier : une modification faite
+ *   pendant le parcours n'est jamais perdue (le rejeu doit donc être idempotent).
+ * - Avant le premier chargement, les événements sont ignorés : le parcours lira l'état à jour.
+ * - Une erreur de chargement n'est pas publiée : get() échoue (IllegalStateException)
+ *   et l'appel suivant recommence le chargement ; reload() garde l'ancienne structure.
+ * - Les événements ne viennent que du processus courant : les modifications faites par
+ *   un autre processus ne sont vues qu'après reload() ou refresh().
+ *
+ * @param <T> structure chargée
+ * @param <E> événement appliqué à la structure
+ */
+public final class LazyProjection<T, E> {
+
+    /** Parcours de la base qui construit la structure */
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    private final String name;
+    private final Loader<T> loader;
+    private final BiConsumer<T, E> applier;
+
+    private final Object loadLock = new Object(); // un seul chargement à la fois
+    private final Object lock = new Object();     // protège value / loading / pending
+    private volatile T value;
+    private boolean loading;
+    private final List<E> pending = new ArrayList<>();
+
+    /**
+     * @param name nom affiché dans les messages d'erreur (ex : "index des matricules")
+     * @param loader parcours de la base
+     * @param applier application d'un événement à la structure
+     */
+    public LazyProjection(String name, Loader<T> loader, BiConsumer<T, E> applier) {
+        this.name = name;
+        this.loader = loader;
+        this.applier = applier;
+    }
+
+    /** Structure chargée (chargée au premier appel) */
+    public T get() {
+        T v = value;
+        if (v != null) return v;
+        synchronized (loadLock) {
+            v = value;
+            return v != null ? v : load();
+        }
+    }
+
+    /** Structure déjà chargée, ou null (sans déclencher de chargement) */
+    public T getIfLoaded() {
+        return value;
+    }
+
+    /** Recharger entièrement la structure (modifications faites hors de l'application) */
+    public T reload() {
+        synchronized (loadLock) {
+            return load();
+        }
+    }
+
+    /** Recharger la structure si elle a déjà été chargée (sinon rien à faire), null sinon */
+    public T refresh() {
+        synchronized (loadLock) {
+            return value != null ? load() : null;
+        }
+    }
+
+    /** Appliquer un événement à la structure chargée, ou le garder pour le chargement en cours */
+    public void apply(E event) {
+        synchronized (lock) {
+            if (loading) pending.add(event);
+            T v = value;
+            if (v != null) applier.accept(v, event);
+        }
+    }
+
+    private T load() {
+        synchronized (lock) {
+            loading = true;
+            pending.clear();
+        }
+        T loaded = null;
+        try {
+            loaded = loader.load();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Chargement impossible (" + name + ") : " + e.getMessage(), e);
+        } finally {
+            synchronized (lock) {
+                if (loaded != null) {
+                    for (E event : pending) applier.accept(loaded, event);
+                    value = loaded;
+                }
+                loading = false;
+                pending.clear();
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,85 @@
+package exportation;
+
+/**
+ * Écriture minimale de JSON (sans dépendance externe)
+ * ---------------------------------------------------
+ * Construit un objet JSON plat champ par champ :
+ *   new Json.Obj(sb).field("id", 1).field("nom", "Doe").end();
+ */
+public final class Json {
+
+    private Json() { }
+
+    /** Ajouter une chaîne JSON échappée (avec guillemets) */
+    public static void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    /** Objet JSON en cours d'écriture */
+    public static class Obj {
+        private final StringBuilder sb;
+        private boolean first = true;
+
+        public Obj(StringBuilder sb) {
+            this.sb = sb;
+            sb.append('{');
+        }
+
+        private StringBuilder name(String name) {
+            if (!first) sb.append(',');
+            first = false;
+            appendString(sb, name);
+            return sb.append(':');
+        }
+
+        public Obj field(String name, String value) {
+            appendString(name(name), value);
+            return this;
+        }
+
+        public Obj field(String name, long value) {
+            name(name).append(value);
+            return this;
+        }
+
+        public Obj field(String name, double value) {
+            name(name).append(value);
+            return this;
+        }
+
+        public Obj field(String name, Object value) {
+            if (value == null) name(name).append("null");
+            else if (value instanceof Number || value instanceof Boolean) name(name).append(value);
+            else appendString(name(name), value.toString());
+            return this;
+        }
+
+        /** Insérer une valeur JSON déjà écrite (objet ou tableau) */
+        public Obj raw(String name, CharSequence json) {
+            name(name).append(json);
+            return this;
+        }
+
+        public StringBuilder end() {
+            return sb.append('}');
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package exportation;
+
+import models.PossessionRow;
+import models.VehiculeRow;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export en flux du registre vers un fichier CSV ou JSON Lines
+ * ------------------------------------------------------------
+ * - Les lignes sont lues par un curseur (jointure faite par la base) et
+ *   formatées dans un tampon texte.
+ * - Chaque tampon plein est encodé en UTF-8 et déposé dans une file bornée ;
+ *   un thread d'écriture le vide vers un FileChannel (gzip facultatif).
+ * - La mémoire utilisée ne dépend pas de la taille du registre :
+ *   au plus (capacité de la file + 1) tampons à la fois.
+ *
+ * Jeux de données :
+ *   VEHICULES   : VEHICULE + MODELE + MARQUE
+ *   POSSESSIONS : POSSEDER + PROPRIETAIRE (+ matricule du véhicule)
+ *
+ * En cas d'erreur (écriture ou base de données), le fichier partiel est supprimé.
+ */
+public class RegistryExporter {
+
+    /** Données exportées */
+    public enum Dataset { VEHICULES, POSSESSIONS }
+
+    /** Format du fichier */
+    public enum Format { CSV, JSONL }
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    private static final char SEPARATOR = ';';
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final Path file;
+    private final Dataset dataset;
+    private final Format format;
+    private final boolean gzip;
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> queue;
+
+    private final StringBuilder text;
+    private volatile IOException writeError;
+    private volatile long bytesWritten;
+    private long rowsExported;
+
+    public RegistryExporter(Path file, Dataset dataset, Format format, boolean gzip) {
+        this(file, dataset, format, gzip, DEFAULT_BUFFER_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public RegistryExporter(Path file, Dataset dataset, Format format, boolean gzip, int bufferSize, int queueCapacity) {
+        this.file = file;
+        this.dataset = dataset;
+        this.format = format;
+        this.gzip = gzip;
+        this.bufferSize = Math.max(1024, bufferSize);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.text = new StringBuilder(this.bufferSize + 1024);
+    }
+
+    // ================== ACCESSEURS ==================
+    public long getRowsExported() { return rowsExported; }
+    /** Octets écrits dans le fichier (avant compression) */
+    public long getBytesWritten() { return bytesWritten; }
+    public Path getFile() { return file; }
+
+    // ================== EXPORT ==================
+
+    /**
+     * Lancer l'export (bloquant)
+     * @return nombre de lignes exportées
+     * @throws SQLException lecture du registre interrompue : le fichier partiel est supprimé
+     */
+    public long run() throws IOException, SQLException {
+        rowsExported = 0;
+        bytesWritten = 0;
+        writeError = null;
+        queue.clear();
+        text.setLength(0);
+
+        WritableByteChannel channel = open();
+        Thread writer = new Thread(() -> drain(channel), "export-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        boolean ok = false;
+        try {
+            writeHeader();
+            if (dataset == Dataset.VEHICULES) {
+                VehiculeRow.streamVehiculeRows(this::append);
+            } else {
+                PossessionRow.streamPossessionRows(this::append);
+            }
+            flush();
+            ok = true;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            finish(writer, ok);
+        }
+        return rowsExported;
+    }
+
+    private WritableByteChannel open() throws IOException {
+        FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (!gzip) return fc;
+        return Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(fc), bufferSize));
+    }
+
+    /** Attendre la fin du thread d'écriture, fermer le fichier et le supprimer si l'export a échoué */
+    private void finish(Thread writer, boolean ok) throws IOException {
+        IOException error = null;
+        try {
+            if (ok) {
+                enqueue(END);
+            } else {
+                writer.interrupt();
+            }
+            writer.join();
+            if (ok) error = writeError;
+        } catch (UncheckedIOException e) {
+            error = e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writer.interrupt();
+            error = new IOException("Export interrompu");
+        }
+        if (!ok || error != null) Files.deleteIfExists(file);
+        if (error != null) throw error;
+    }
+
+    // ================== THREAD D'ÉCRITURE ==================
+    private void drain(WritableByteChannel channel) {
+        try (WritableByteChannel out = channel) {
+            while (true) {
+                ByteBuffer buffer = queue.take();
+                if (buffer == END) break;
+                int size = buffer.remaining();
+                while (buffer.hasRemaining()) out.write(buffer);
+                bytesWritten += size;
+            }
+        } catch (IOException e) {
+            writeError = e;
+        } catch (InterruptedException e) {
+            // export abandonné : le fichier est fermé puis supprimé
+        }
+    }
+
+    /** Déposer un tampon sans rester bloqué si le thread d'écriture s'est arrêté */
+    private void enqueue(ByteBuffer buffer) {
+        try {
+            while (!queue.offer(buffer, 200, TimeUnit.MILLISECONDS)) {
+                if (writeError != null) throw new UncheckedIOException(writeError);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new IOException("Export interrompu"));
+        }
+        if (writeError != null) throw new UncheckedIOException(writeError);
+    }
+
+    private void flush() {
+        if (text.length() == 0) return;
+        enqueue(StandardCharsets.UTF_8.encode(CharBuffer.wrap(text)));
+        text.setLength(0);
+    }
+
+    // ================== FORMATAGE ==================
+    private void writeHeader() {
+        if (format != Format.CSV) return;
+        if (dataset == Dataset.VEHICULES) {
+            text.append("id_vehicule;matricule;annee_sortie;poids;puissance_chevaux;puissance_fiscale;id_modele;nom_modele;id_marque;nom_marque\n");
+        } else {
+            text.append("id_proprietaire;proprietaire;id_vehicule;matricule;date_debut_propriete;date_fin_propriete\n");
+        }
+    }
+
+    private void append(VehiculeRow v) {
+        if (format == Format.CSV) {
+            text.append(v.getIdVehicule()).append(SEPARATOR);
+            csv(v.getMatricule()).append(SEPARATOR);
+            text.append(v.getAnneeSortie()).append(SEPARATOR)
+                .append(v.getPoids()).append(SEPARATOR)
+                .append(v.getPuissanceChevaux()).append(SEPARATOR)
+                .append(v.getPuissanceFiscale()).append(SEPARATOR)
+                .append(v.getIdModele()).append(SEPARATOR);
+            csv(v.getNomModele()).append(SEPARATOR);
+            text.append(v.getIdMarque()).append(SEPARATOR);
+            csv(v.getNomMarque()).append('\n');
+        } else {
+            new Json.Obj(text)
+                    .field("id_vehicule", v.getIdVehicule())
+                    .field("matricule", v.getMatricule())
+                    .field("annee_sortie", v.getAnneeSortie())
+                    .field("poids", v.getPoids())
+                    .field("puissance_chevaux", v.getPuissanceChevaux())
+                    .field("puissance_fiscale", v.getPuissanceFiscale())
+                    .field("id_modele", v.getIdModele())
+                    .field("nom_modele", v.getNomModele())
+                    .field("id_marque", v.getIdMarque())
+                    .field("nom_marque", v.getNomMarque())
+                    .end().append('\n');
+        }
+        rowDone();
+    }
+
+    private void append(PossessionRow p) {
+        String debut = p.getDateDebut() != null ? p.getDateDebut().toString() : null;
+        String fin = p.getDateFin() != null ? p.getDateFin().toString() : null;
+        if (format == Format.CSV) {
+            text.append(p.getIdProprietaire()).append(SEPARATOR);
+            csv(p.getNomProprietaire()).append(SEPARATOR);
+            text.append(p.getIdVehicule()).append(SEPARATOR);
+            csv(p.getMatricule()).append(SEPARATOR);
+            csv(debut).append(SEPARATOR);
+            csv(fin).append('\n');
+        } else {
+            new Json.Obj(text)
+                    .field("id_proprietaire", p.getIdProprietaire())
+                    .field("proprietaire", p.getNomProprietaire())
+                    .field("id_vehicule", p.getIdVehicule())
+                    .field("matricule", p.getMatricule())
+                    .field("date_debut_propriete", debut)
+                    .field("date_fin_propriete", fin)
+                    .end().append('\n');
+        }
+        rowDone();
+    }
+
+    private void rowDone() {
+        rowsExported++;
+        if (text.length() >= bufferSize) flush();
+    }
+
+    /** Champ CSV : entre guillemets seulement s'il contient le séparateur, un guillemet ou un saut de ligne */
+    private StringBuilder csv(String value) {
+        if (value == null) return text;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == SEPARATOR || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) return text.append(value);
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') text.append('"');
+            text.append(c);
+        }
+        return text.append('"');
+    }
+}
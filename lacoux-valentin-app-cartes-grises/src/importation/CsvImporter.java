@@ -0,0 +1,480 @@
+package importation;
+
+import config.DBConnection;
+import models.Marque;
+import models.ModeDoublon;
+import models.Modele;
+import models.Posseder;
+import models.Proprietaire;
+import models.Vehicule;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Import en masse d'un fichier d'immatriculations (CSV)
+ * ------------------------------------------------------
+ * Format attendu (séparateur ';' par défaut, UTF-8, en-tête facultatif) :
+ *   matricule;annee;poids;chevaux;fiscale;marque;modele;nom;prenom;adresse;cp;ville;date_debut[;date_fin]
+ * Dates au format JJ/MM/AAAA ou AAAA-MM-JJ.
+ *
+ * Déroulement :
+ * 1. Le fichier est découpé en blocs (alignés sur les fins de ligne) lus via NIO
+ *    et analysés en parallèle (validation + résolution marque/modèle en mémoire).
+ * 2. Les blocs sont écrits dans l'ordre par le thread appelant, avec les insertions
+ *    en masse des modèles (VEHICULE, PROPRIETAIRE puis POSSEDER).
+ * 3. Chaque bloc terminé est noté dans un fichier de reprise (.checkpoint) :
+ *    une relance ignore les blocs déjà importés. Le début de chaque bloc y est noté aussi :
+ *    un bloc interrompu a pu enregistrer une partie de ses possessions (une transaction par lot),
+ *    qui sont comptées comme importées à la relance, et non comme doublons rejetés.
+ * 4. Les lignes refusées sont écrites avec leur motif dans un fichier de rejets (.rejets.csv).
+ *    Seules les données invalides ou refusées (période, doublon) y vont : une erreur de la base
+ *    arrête l'import (SQLException) sans noter le bloc en cours, qui sera repris à la relance.
+ */
+public class CsvImporter {
+
+    /** Suivi de l'avancement */
+    public interface ProgressListener {
+        void onProgress(long bytesDone, long bytesTotal, long rowsImported, long rowsRejected);
+    }
+
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private static final DateTimeFormatter FR_DATE = DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+    private static final DateTimeFormatter ISO_DATE = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    private final Path file;
+    private final char separator;
+    private final int threads;
+    private final int chunkSize;
+    private final int batchSize;
+    private ProgressListener listener = (done, total, imported, rejected) -> { };
+
+    // Dictionnaires en mémoire (lecture seule pendant l'analyse parallèle)
+    private final Map<String, Integer> marques = new HashMap<>();
+    private final Map<String, Integer> modeles = new HashMap<>();
+    // Propriétaires connus (identité complète -> id), complété au fil de l'import
+    private final Map<String, Integer> proprietaires = new HashMap<>();
+
+    private long rowsImported;
+    private long rowsRejected;
+
+    public CsvImporter(Path file, char separator, int threads, int chunkSize, int batchSize) {
+        this.file = file;
+        this.separator = separator;
+        this.threads = Math.max(1, threads);
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+    }
+
+    public CsvImporter(Path file) {
+        this(file, ';', Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE, DBConnection.DEFAULT_BATCH_SIZE);
+    }
+
+    public void setProgressListener(ProgressListener listener) { this.listener = listener; }
+
+    public long getRowsImported() { return rowsImported; }
+    public long getRowsRejected() { return rowsRejected; }
+
+    public Path getCheckpointFile() { return file.resolveSibling(file.getFileName() + ".checkpoint"); }
+    public Path getRejectFile() { return file.resolveSibling(file.getFileName() + ".rejets.csv"); }
+
+    // ================== IMPORT ==================
+
+    /**
+     * Lancer (ou reprendre) l'import
+     * @throws SQLException erreur de la base : import arrêté, le bloc en cours n'est pas noté comme importé
+     */
+    public void run() throws IOException, SQLException {
+        loadDictionaries();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<long[]> chunks = splitChunks(channel, size);
+            Set<Integer> started = new HashSet<>();
+            Set<Integer> done = readCheckpoint(size, started);
+
+            StandardOpenOption mode = done.isEmpty() ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND;
+            ExecutorService parsers = Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "import-parser");
+                t.setDaemon(true);
+                return t;
+            });
+
+            try (BufferedWriter rejects = Files.newBufferedWriter(getRejectFile(), StandardCharsets.UTF_8,
+                         StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode);
+                 BufferedWriter checkpoint = Files.newBufferedWriter(getCheckpointFile(), StandardCharsets.UTF_8,
+                         StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+
+                if (done.isEmpty()) {
+                    checkpoint.write("taille=" + size + ";bloc=" + chunkSize);
+                    checkpoint.newLine();
+                    checkpoint.flush();
+                }
+
+                long bytesDone = 0;
+                for (int i : done) bytesDone += chunks.get(i)[1] - chunks.get(i)[0];
+
+                // Analyse en parallèle, au plus 2 blocs d'avance par thread
+                Deque<Future<ParsedChunk>> pending = new ArrayDeque<>();
+                int next = 0;
+                while (next < chunks.size() || !pending.isEmpty()) {
+                    while (next < chunks.size() && pending.size() < threads * 2) {
+                        int index = next++;
+                        if (done.contains(index)) continue;
+                        long[] range = chunks.get(index);
+                        pending.add(parsers.submit(() -> parseChunk(channel, index, range[0], range[1])));
+                    }
+                    if (pending.isEmpty()) break;
+
+                    ParsedChunk parsed = await(pending.poll());
+                    checkpoint.write("debut=" + parsed.index);
+                    checkpoint.newLine();
+                    checkpoint.flush();
+                    List<String> refused = writeChunk(parsed, started.contains(parsed.index));
+
+                    // bloc entièrement écrit en base : ses rejets puis sa ligne de reprise
+                    for (String reject : refused) {
+                        rejects.write(reject);
+                        rejects.newLine();
+                    }
+                    rowsRejected += refused.size();
+                    rejects.flush();
+                    checkpoint.write(String.valueOf(parsed.index));
+                    checkpoint.newLine();
+                    checkpoint.flush();
+
+                    bytesDone += parsed.bytes;
+                    listener.onProgress(bytesDone, size, rowsImported, rowsRejected);
+                }
+            } finally {
+                parsers.shutdownNow();
+            }
+        }
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrompu.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Erreur d'analyse du fichier : " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // ================== DÉCOUPAGE ET REPRISE ==================
+
+    /** Découper le fichier en blocs [début, fin[ alignés sur les fins de ligne */
+    private List<long[]> splitChunks(FileChannel channel, long size) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long start = 0;
+
+        while (start < size) {
+            long end = Math.min(start + chunkSize, size);
+            // avancer jusqu'au prochain '\n' inclus
+            while (end < size) {
+                probe.clear();
+                int n = channel.read(probe, end);
+                if (n <= 0) { end = size; break; }
+                int i = 0;
+                while (i < n && probe.get(i) != '\n') i++;
+                if (i < n) { end += i + 1; break; }
+                end += n;
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Blocs déjà importés d'après le fichier de reprise (vide si absent ou pour un autre fichier) ;
+     * started reçoit les blocs commencés mais pas terminés
+     */
+    private Set<Integer> readCheckpoint(long size, Set<Integer> started) throws IOException {
+        Set<Integer> done = new HashSet<>();
+        Path checkpoint = getCheckpointFile();
+        if (!Files.exists(checkpoint)) return done;
+
+        List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !lines.get(0).equals("taille=" + size + ";bloc=" + chunkSize)) {
+            System.err.println("Fichier de reprise ignoré (fichier ou découpage différent) : import complet.");
+            return done;
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            line = line.trim();
+            if (line.startsWith("debut=")) started.add(Integer.parseInt(line.substring("debut=".length())));
+            else if (!line.isEmpty()) done.add(Integer.parseInt(line));
+        }
+        started.removeAll(done);
+        return done;
+    }
+
+    // ================== ANALYSE (parallèle) ==================
+
+    private ParsedChunk parseChunk(FileChannel channel, int index, long start, long end) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        CharBuffer chars = StandardCharsets.UTF_8.decode(buffer);
+        ParsedChunk chunk = new ParsedChunk(index, end - start);
+
+        int lineStart = 0;
+        for (int i = 0; i <= chars.length(); i++) {
+            if (i < chars.length() && chars.charAt(i) != '\n') continue;
+            int lineEnd = i;
+            if (lineEnd > lineStart && chars.charAt(lineEnd - 1) == '\r') lineEnd--;
+            String line = chars.subSequence(lineStart, lineEnd).toString();
+            lineStart = i + 1;
+
+            if (line.startsWith("\uFEFF")) line = line.substring(1); // BOM UTF-8
+            if (line.isBlank()) continue;
+            if (start == 0 && chunk.records.isEmpty() && chunk.rejects.isEmpty()
+                    && line.toLowerCase(Locale.ROOT).startsWith("matricule")) continue; // en-tête
+
+            try {
+                chunk.records.add(parseLine(line));
+            } catch (IllegalArgumentException e) {
+                chunk.rejects.add(line + separator + e.getMessage());
+            }
+        }
+        return chunk;
+    }
+
+    private Record parseLine(String line) {
+        String[] f = line.split(String.valueOf(separator), -1);
+        if (f.length < 13 || f.length > 14) throw new IllegalArgumentException("nombre de colonnes invalide (" + f.length + ")");
+        for (int i = 0; i < f.length; i++) f[i] = f[i].trim();
+
+        Record r = new Record();
+        r.line = line;
+        r.matricule = required(f[0], "matricule");
+        if (r.matricule.length() > 50) throw new IllegalArgumentException("matricule trop long");
+        r.annee = number(f[1], "année");
+        if (r.annee < 1886 || r.annee > Year.now().getValue() + 1) throw new IllegalArgumentException("année invalide");
+        try {
+            r.poids = Double.parseDouble(f[2].replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("poids invalide");
+        }
+        if (r.poids <= 0) throw new IllegalArgumentException("poids invalide");
+        r.chevaux = number(f[3], "puissance (ch)");
+        r.fiscale = number(f[4], "puissance fiscale");
+        if (r.chevaux <= 0 || r.fiscale <= 0) throw new IllegalArgumentException("puissance invalide");
+
+        Integer idMarque = marques.get(normalize(required(f[5], "marque")));
+        if (idMarque == null) throw new IllegalArgumentException("marque inconnue");
+        Integer idModele = modeles.get(idMarque + "|" + normalize(required(f[6], "modèle")));
+        if (idModele == null) throw new IllegalArgumentException("modèle inconnu pour cette marque");
+        r.idModele = idModele;
+
+        r.nom = required(f[7], "nom");
+        r.prenom = required(f[8], "prénom");
+        r.adresse = required(f[9], "adresse");
+        r.cp = required(f[10], "code postal");
+        if (r.cp.length() > 10) throw new IllegalArgumentException("code postal invalide");
+        r.ville = required(f[11], "ville");
+
+        LocalDate debut = date(required(f[12], "date de début"));
+        LocalDate fin = f.length == 14 && !f[13].isEmpty() ? date(f[13]) : null;
+        if (fin != null && fin.isBefore(debut)) throw new IllegalArgumentException("date de fin antérieure à la date de début");
+        r.dateDebut = Date.valueOf(debut);
+        r.dateFin = fin != null ? Date.valueOf(fin) : null;
+        return r;
+    }
+
+    private static String required(String value, String field) {
+        if (value.isEmpty()) throw new IllegalArgumentException(field + " manquant");
+        return value;
+    }
+
+    private static int number(String value, String field) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " invalide");
+        }
+    }
+
+    private static LocalDate date(String value) {
+        try {
+            return value.indexOf('/') >= 0 ? LocalDate.parse(value, FR_DATE) : LocalDate.parse(value, ISO_DATE);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("date invalide : " + value);
+        }
+    }
+
+    private static String normalize(String s) {
+        return s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ================== ÉCRITURE (séquentielle) ==================
+
+    /**
+     * Écrire un bloc en base
+     * @param resumed bloc interrompu lors d'un import précédent : ses possessions déjà enregistrées
+     *                l'ont été par cet import, elles sont comptées comme importées
+     * @return les lignes refusées du bloc (avec leur motif), à écrire dans le fichier de rejets
+     * @throws SQLException erreur de la base (pas un refus) : le bloc devra être repris
+     */
+    private List<String> writeChunk(ParsedChunk chunk, boolean resumed) throws SQLException {
+        List<String> rejects = new ArrayList<>(chunk.rejects);
+        List<Record> records = chunk.records;
+        if (records.isEmpty()) return rejects;
+
+        // 1. Véhicules : ceux déjà connus sont réutilisés, les autres insérés en masse
+        Map<String, Integer> vehiculeIds = new HashMap<>();
+        List<String> plates = new ArrayList<>();
+        for (Record r : records) {
+            if (vehiculeIds.containsKey(r.matricule)) continue;
+            vehiculeIds.put(r.matricule, null);
+            plates.add(r.matricule);
+        }
+        for (int i = 0; i < plates.size(); i += batchSize) {
+            vehiculeIds.putAll(Vehicule.loadIdsByMatricules(plates.subList(i, Math.min(i + batchSize, plates.size()))));
+        }
+
+        Map<String, Vehicule> nouveaux = new LinkedHashMap<>();
+        for (Record r : records) {
+            if (vehiculeIds.get(r.matricule) != null || nouveaux.containsKey(r.matricule)) continue;
+            Vehicule v = new Vehicule();
+            v.setMatricule(r.matricule);
+            v.setAnneeSortie(r.annee);
+            v.setPoids(r.poids);
+            v.setPuissanceChevaux(r.chevaux);
+            v.setPuissanceFiscale(r.fiscale);
+            v.setIdModele(r.idModele);
+            nouveaux.put(r.matricule, v);
+        }
+        List<Vehicule> vehicules = new ArrayList<>(nouveaux.values());
+        // IGNORER : un matricule enregistré entre-temps par un autre client est relu au lieu d'annuler le lot
+        boolean[] vehiculesOk = Vehicule.insertVehicules(vehicules, batchSize, ModeDoublon.IGNORER);
+        for (int i = 0; i < vehicules.size(); i++) {
+            // doublon ignoré (résultat false) : l'identifiant du véhicule déjà enregistré est renseigné
+            Vehicule v = vehicules.get(i);
+            if (vehiculesOk[i] || v.getIdVehicule() > 0) vehiculeIds.put(v.getMatricule(), v.getIdVehicule());
+        }
+
+        // 2. Propriétaires : dédoublonnés sur leur identité complète
+        Map<String, Proprietaire> nouveauxProprietaires = new LinkedHashMap<>();
+        for (Record r : records) {
+            String key = ownerKey(r.nom, r.prenom, r.adresse, r.cp, r.ville);
+            if (proprietaires.containsKey(key) || nouveauxProprietaires.containsKey(key)) continue;
+            Proprietaire p = new Proprietaire();
+            p.setNom(r.nom);
+            p.setPrenom(r.prenom);
+            p.setAdresse(r.adresse);
+            p.setCp(r.cp);
+            p.setVille(r.ville);
+            nouveauxProprietaires.put(key, p);
+        }
+        List<Proprietaire> owners = new ArrayList<>(nouveauxProprietaires.values());
+        boolean[] ownersOk = Proprietaire.insertProprietaires(owners, batchSize);
+        for (int i = 0; i < owners.size(); i++) {
+            Proprietaire p = owners.get(i);
+            if (ownersOk[i]) proprietaires.put(ownerKey(p.getNom(), p.getPrenom(), p.getAdresse(), p.getCp(), p.getVille()), p.getIdProprietaire());
+        }
+
+        // 3. Possessions
+        List<Posseder> possessions = new ArrayList<>();
+        List<Record> sources = new ArrayList<>();
+        for (Record r : records) {
+            Integer idVehicule = vehiculeIds.get(r.matricule);
+            Integer idProprietaire = proprietaires.get(ownerKey(r.nom, r.prenom, r.adresse, r.cp, r.ville));
+            if (idVehicule == null) { reject(rejects, r, "véhicule non enregistré"); continue; }
+            if (idProprietaire == null) { reject(rejects, r, "propriétaire non enregistré"); continue; }
+
+            Posseder p = new Posseder();
+            p.setIdProprietaire(idProprietaire);
+            p.setIdVehicule(idVehicule);
+            p.setDateDebut(r.dateDebut);
+            p.setDateFin(r.dateFin);
+            possessions.add(p);
+            sources.add(r);
+        }
+        // périodes vérifiées en masse (fin avant début, chevauchement) : motif de chaque refus ;
+        // bloc repris : les possessions déjà en base sont ignorées (enregistrées avant l'interruption)
+        String[] motifs = new String[possessions.size()];
+        ModeDoublon mode = resumed ? ModeDoublon.IGNORER : ModeDoublon.REJETER;
+        boolean[] possessionsOk = Posseder.insertPossessions(possessions, batchSize, mode, motifs);
+        for (int i = 0; i < possessions.size(); i++) {
+            if (possessionsOk[i] || (resumed && Posseder.MOTIF_DEJA_ENREGISTREE.equals(motifs[i]))) rowsImported++;
+            else reject(rejects, sources.get(i), motifs[i] != null ? motifs[i] : "possession refusée");
+        }
+        return rejects;
+    }
+
+    private void reject(List<String> rejects, Record r, String reason) {
+        rejects.add(r.line + separator + reason);
+    }
+
+    // ================== DICTIONNAIRES ==================
+
+    /** Dictionnaires complets ou erreur : un dictionnaire vide ferait rejeter ou réinsérer toutes les lignes */
+    private void loadDictionaries() throws SQLException {
+        for (Marque m : Marque.loadAllMarques()) marques.put(normalize(m.getNomMarque()), m.getIdMarque());
+        for (Modele m : Modele.loadAllModeles()) modeles.put(m.getIdMarque() + "|" + normalize(m.getNomModele()), m.getIdModele());
+        Proprietaire.streamProprietaires(p ->
+                proprietaires.put(ownerKey(p.getNom(), p.getPrenom(), p.getAdresse(), p.getCp(), p.getVille()), p.getIdProprietaire()));
+    }
+
+    private static String ownerKey(String nom, String prenom, String adresse, String cp, String ville) {
+        return normalize(nom) + '|' + normalize(prenom) + '|' + normalize(adresse) + '|' + normalize(cp) + '|' + normalize(ville);
+    }
+
+    // ================== STRUCTURES INTERNES ==================
+
+    private static class ParsedChunk {
+        final int index;
+        final long bytes;
+        final List<Record> records = new ArrayList<>();
+        final List<String> rejects = new ArrayList<>();
+
+        ParsedChunk(int index, long bytes) {
+            this.index = index;
+            this.bytes = bytes;
+        }
+    }
+
+    private static class Record {
+        String line;
+        String matricule;
+        int annee;
+        double poids;
+        int chevaux;
+        int fiscale;
+        int idModele;
+        String nom, prenom, adresse, cp, ville;
+        Date dateDebut, dateFin;
+    }
+}
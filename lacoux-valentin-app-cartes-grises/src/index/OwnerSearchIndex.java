@@ -0,0 +1,275 @@
+package index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de recherche approchée des propriétaires (trigrammes)
+ * ------------------------------------------------------------
+ * - Le texte indexé (nom, prénom, ville, code postal) est normalisé :
+ *   minuscules, accents retirés, ponctuation remplacée par des espaces.
+ * - Chaque mot est découpé en trigrammes, bordures comprises
+ *   ("dupont" -> " du", "dup", "upo", "pon", "ont", "nt ").
+ * - Index inversé : trigramme -> liste triée des id_proprietaire.
+ *   Les 37 symboles (a-z, 0-9, espace) donnent au plus 37^3 trigrammes :
+ *   les listes sont rangées dans un tableau, sans table de hachage.
+ * - Une recherche garde les propriétaires qui partagent au moins la moitié
+ *   des trigrammes de la saisie (tolère les fautes de frappe), classés
+ *   par nombre de trigrammes communs.
+ * - Les listes des trigrammes de la saisie sont parcourues en incrémentant un
+ *   compteur par propriétaire (tampon réutilisé, sans tri ni table de hachage).
+ *   Seules les listes les plus courtes produisent des candidats (un résultat valide
+ *   y figure forcément) ; les plus longues ne font que compléter leurs comptes.
+ *   Un tas borné garde les meilleurs résultats.
+ *
+ * Les identifiants sont supposés compacts (AUTO_INCREMENT) : les trigrammes
+ * de chaque propriétaire sont rangés dans un tableau indexé par identifiant.
+ */
+public class OwnerSearchIndex {
+
+    private static final int ALPHABET = 37;
+    private static final char[] NONE = new char[0];
+    private static final int MAX_QUERY_GRAMS = 120;
+
+    /** Résultat de recherche : identifiant et score (proportion des trigrammes de la saisie trouvés) */
+    public static final class Hit {
+        private final int idProprietaire;
+        private final double score;
+
+        Hit(int idProprietaire, double score) {
+            this.idProprietaire = idProprietaire;
+            this.score = score;
+        }
+
+        public int getIdProprietaire() { return idProprietaire; }
+        public double getScore() { return score; }
+    }
+
+    /** Liste triée d'identifiants */
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == 0 || ids[size - 1] < id) {
+                if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+                ids[size++] = id;
+                return;
+            }
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) return;
+            pos = -(pos + 1);
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) return;
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    /** Ordre des résultats : score décroissant, puis identifiant croissant */
+    private static final Comparator<Hit> RANKING = (a, b) -> a.score != b.score
+            ? Double.compare(b.score, a.score) : Integer.compare(a.idProprietaire, b.idProprietaire);
+
+    // tampons de comptage réutilisés par thread (remis à zéro après chaque recherche)
+    private static final ThreadLocal<byte[]> COUNTS = ThreadLocal.withInitial(() -> new byte[0]);
+    private static final ThreadLocal<int[]> TOUCHED = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Postings[] postings = new Postings[ALPHABET * ALPHABET * ALPHABET];
+    // trigrammes (triés, sans doublon) de chaque propriétaire, indexés par identifiant
+    private char[][] gramsById = new char[1024][];
+    private int size;
+
+    // ================== MISE À JOUR ==================
+
+    /** Indexer (ou réindexer) un propriétaire */
+    public void put(int idProprietaire, String nom, String prenom, String ville, String cp) {
+        char[] grams = trigrams(nom + " " + prenom + " " + ville + " " + cp);
+        lock.writeLock().lock();
+        try {
+            detach(idProprietaire);
+            if (idProprietaire >= gramsById.length) {
+                gramsById = Arrays.copyOf(gramsById, Math.max(idProprietaire + 1, gramsById.length + (gramsById.length >> 1)));
+            }
+            gramsById[idProprietaire] = grams;
+            size++;
+            for (char g : grams) {
+                Postings p = postings[g];
+                if (p == null) postings[g] = p = new Postings();
+                p.add(idProprietaire);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Retirer un propriétaire de l'index */
+    public void remove(int idProprietaire) {
+        lock.writeLock().lock();
+        try {
+            detach(idProprietaire);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void detach(int id) {
+        if (id < 0 || id >= gramsById.length || gramsById[id] == null) return;
+        for (char g : gramsById[id]) postings[g].remove(id);
+        gramsById[id] = null;
+        size--;
+    }
+
+    // ================== RECHERCHE ==================
+
+    /**
+     * Rechercher des propriétaires
+     * @param saisie texte libre (nom, prénom, ville, code postal, éventuellement incomplet ou mal orthographié)
+     * @param limit nombre maximum de résultats
+     * @return résultats du plus pertinent au moins pertinent
+     */
+    public List<Hit> search(String saisie, int limit) {
+        char[] query = trigrams(saisie);
+        if (query.length == 0 || limit <= 0) return new ArrayList<>();
+        if (query.length > MAX_QUERY_GRAMS) query = Arrays.copyOf(query, MAX_QUERY_GRAMS); // compteurs sur un octet
+        int threshold = Math.max(1, (query.length + 1) / 2);
+
+        lock.readLock().lock();
+        try {
+            // listes de la saisie, de la plus courte à la plus longue
+            Postings[] lists = new Postings[query.length];
+            int k = 0;
+            for (char g : query) if (postings[g] != null && postings[g].size > 0) lists[k++] = postings[g];
+            Arrays.sort(lists, 0, k, Comparator.comparingInt((Postings p) -> p.size));
+            // un résultat partage au moins "threshold" trigrammes : il figure forcément
+            // dans l'une des (query.length - threshold + 1) listes les plus courtes
+            int shortCount = Math.min(k, query.length - threshold + 1);
+
+            byte[] counts = COUNTS.get();
+            if (counts.length < gramsById.length) COUNTS.set(counts = new byte[gramsById.length]);
+            int total = 0;
+            for (int j = 0; j < shortCount; j++) total += lists[j].size;
+            int[] touched = TOUCHED.get();
+            if (touched.length < total) TOUCHED.set(touched = new int[total]);
+
+            // 1. listes courtes : elles seules produisent des candidats
+            int n = 0;
+            for (int j = 0; j < shortCount; j++) {
+                int[] ids = lists[j].ids;
+                for (int i = 0, size = lists[j].size; i < size; i++) {
+                    int id = ids[i];
+                    if (counts[id]++ == 0) touched[n++] = id;
+                }
+            }
+
+            // 2. listes longues : on complète le compte des candidats seulement,
+            //    par dichotomie s'il y a peu de candidats, sinon par parcours
+            for (int j = shortCount; j < k; j++) {
+                Postings p = lists[j];
+                int log = 32 - Integer.numberOfLeadingZeros(p.size);
+                if ((long) n * log < p.size) {
+                    for (int i = 0; i < n; i++) if (p.contains(touched[i])) counts[touched[i]]++;
+                } else {
+                    int[] ids = p.ids;
+                    for (int i = 0, size = p.size; i < size; i++) if (counts[ids[i]] != 0) counts[ids[i]]++;
+                }
+            }
+
+            // sélection des meilleurs : tas borné dont la tête est le moins bon résultat retenu
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            for (int i = 0; i < n; i++) {
+                int id = touched[i];
+                int matches = counts[id];
+                counts[id] = 0; // tampon remis à zéro pour la recherche suivante
+                if (matches < threshold) continue;
+                // départage : à nombre égal de trigrammes communs, le texte le plus court d'abord
+                double score = (double) matches / query.length - gramsById[id].length * 1e-6;
+                if (best.size() == limit && score < best.peek().score) continue;
+                best.add(new Hit(id, score));
+                if (best.size() > limit) best.poll();
+            }
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Nombre de propriétaires indexés */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ================== TRIGRAMMES ==================
+
+    /** Trigrammes distincts d'un texte, triés (codés sur un char : < 37^3) */
+    static char[] trigrams(String text) {
+        if (text == null) return NONE;
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        char[] grams = new char[normalized.length() * 2 + 2];
+        int n = 0;
+
+        int prev2 = 0, prev1 = 0; // 0 = espace
+        boolean inWord = false;
+        for (int i = 0; i <= normalized.length(); i++) {
+            int c = i < normalized.length() ? symbol(normalized.charAt(i)) : 0;
+            if (c < 0) continue; // accent (diacritique combinant) : ignoré
+            if (c == 0 && !inWord) continue;
+            if (c != 0 && !inWord) { // début de mot : bordure
+                inWord = true;
+                prev2 = 0;
+                prev1 = 0;
+            }
+            grams[n++] = (char) (prev2 * ALPHABET * ALPHABET + prev1 * ALPHABET + c);
+            if (c == 0) inWord = false; // fin de mot : le trigramme de bordure vient d'être ajouté
+            prev2 = prev1;
+            prev1 = c;
+        }
+
+        // le premier trigramme d'un mot est "  x" (deux espaces) : on garde " xy" à la place
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (grams[i] / (ALPHABET * ALPHABET) == 0 && (grams[i] / ALPHABET) % ALPHABET == 0) continue;
+            grams[m++] = grams[i];
+        }
+        char[] result = Arrays.copyOf(grams, m);
+        Arrays.sort(result);
+        int k = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (i == 0 || result[i] != result[i - 1]) result[k++] = result[i];
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    /** Code d'un caractère : 1-26 lettres, 27-36 chiffres, 0 séparateur, -1 diacritique ignoré */
+    private static int symbol(char ch) {
+        if (Character.getType(ch) == Character.NON_SPACING_MARK) return -1;
+        char c = Character.toLowerCase(ch);
+        if (c >= 'a' && c <= 'z') return c - 'a' + 1;
+        if (c >= '0' && c <= '9') return c - '0' + 27;
+        return 0;
+    }
+}
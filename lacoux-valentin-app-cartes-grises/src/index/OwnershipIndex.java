@@ -0,0 +1,193 @@
+package index;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index en mémoire des périodes de possession, véhicule par véhicule
+ * ------------------------------------------------------------------
+ * Répond à "qui possédait le véhicule X à la date D ?" sans requête SQL.
+ *
+ * - Pour chaque véhicule : ses périodes triées par date de début, avec pour chaque
+ *   position la plus grande date de fin rencontrée jusque-là (arbre d'intervalles
+ *   "aplati" dans un tableau trié).
+ * - Recherche : dichotomie sur la date de début (dernière période commencée à D),
+ *   puis retour en arrière tant qu'une période précédente peut encore couvrir D
+ *   (plus grande date de fin >= D) : O(log n) pour un historique sans chevauchement.
+ * - Dates stockées en jours depuis 1970 (int) ; date de fin absente = possession en cours.
+ *   Les bornes sont incluses : le jour d'une vente, le nouveau propriétaire
+ *   (période commencée le plus tard) est retenu.
+ * - Chaque véhicule a ses propres tableaux, remplacés d'un bloc à chaque modification :
+ *   les lectures ne prennent pas de verrou.
+ * - findOverlap() : même parcours pour vérifier qu'une nouvelle période ne chevauche
+ *   pas celle d'un autre propriétaire (un jour commun, celui de la vente, est admis,
+ *   sauf si l'une des deux périodes ne dure que ce jour-là : elle serait entièrement partagée).
+ */
+public class OwnershipIndex {
+
+    private static final int OPEN = Integer.MAX_VALUE; // possession en cours
+
+    /** Périodes de possession d'un véhicule (immuable) */
+    private static final class Periods {
+        final int[] owners;
+        final int[] starts;
+        final int[] ends;
+        final int[] maxEnds; // maxEnds[i] = plus grande date de fin parmi les périodes 0..i
+
+        Periods(int[] owners, int[] starts, int[] ends) {
+            this.owners = owners;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new int[ends.length];
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        int indexOfOwner(int idProprietaire) {
+            for (int i = 0; i < owners.length; i++) {
+                if (owners[i] == idProprietaire) return i;
+            }
+            return -1;
+        }
+    }
+
+    private final Map<Integer, Periods> byVehicule = new ConcurrentHashMap<>();
+
+    // ================== MISE À JOUR ==================
+
+    /** Ajouter ou remplacer la période d'un propriétaire pour un véhicule */
+    public void put(int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) {
+        int start = toDay(dateDebut.toLocalDate());
+        int end = dateFin == null ? OPEN : toDay(dateFin.toLocalDate());
+        byVehicule.compute(idVehicule, (id, old) -> {
+            int[] owners = old == null ? new int[0] : old.owners;
+            int[] starts = old == null ? new int[0] : old.starts;
+            int[] ends = old == null ? new int[0] : old.ends;
+
+            int existing = old == null ? -1 : old.indexOfOwner(idProprietaire);
+            if (existing >= 0) { // modification : retirer l'ancienne période
+                owners = removeAt(owners, existing);
+                starts = removeAt(starts, existing);
+                ends = removeAt(ends, existing);
+            }
+            // position d'insertion (ordre des dates de début, stable)
+            int pos = 0;
+            while (pos < starts.length && starts[pos] <= start) pos++;
+            return new Periods(insertAt(owners, pos, idProprietaire), insertAt(starts, pos, start), insertAt(ends, pos, end));
+        });
+    }
+
+    /** Retirer la période d'un propriétaire pour un véhicule */
+    public void remove(int idProprietaire, int idVehicule) {
+        byVehicule.computeIfPresent(idVehicule, (id, old) -> {
+            int i = old.indexOfOwner(idProprietaire);
+            if (i < 0) return old;
+            if (old.owners.length == 1) return null;
+            return new Periods(removeAt(old.owners, i), removeAt(old.starts, i), removeAt(old.ends, i));
+        });
+    }
+
+    /** Retirer toutes les périodes d'un véhicule (véhicule supprimé : ON DELETE CASCADE) */
+    public void removeVehicule(int idVehicule) {
+        byVehicule.remove(idVehicule);
+    }
+
+    /** Retirer toutes les périodes d'un propriétaire (propriétaire supprimé : parcours complet, rare) */
+    public void removeProprietaire(int idProprietaire) {
+        for (Integer idVehicule : byVehicule.keySet()) {
+            remove(idProprietaire, idVehicule);
+        }
+    }
+
+    // ================== RECHERCHE ==================
+
+    /**
+     * Propriétaire d'un véhicule à une date
+     * @return id_proprietaire, ou -1 si personne ne possédait le véhicule ce jour-là
+     */
+    public int ownerAt(int idVehicule, LocalDate date) {
+        Periods p = byVehicule.get(idVehicule);
+        if (p == null) return -1;
+        int day = toDay(date);
+
+        // dernière période commencée au plus tard ce jour-là
+        int i = lastStartAtOrBefore(p.starts, day);
+        // en remontant : la première qui couvre le jour est celle commencée le plus tard
+        for (; i >= 0 && p.maxEnds[i] >= day; i--) {
+            if (p.ends[i] >= day) return p.owners[i];
+        }
+        return -1;
+    }
+
+    /**
+     * Période d'un autre propriétaire qui chevauche [dateDebut, dateFin]
+     * (le jour de fin de l'une peut être le jour de début de l'autre, sauf si l'une des deux
+     * commence et finit ce jour-là : deux propriétaires le posséderaient alors toute la journée)
+     * @param idVehicule identifiant du véhicule
+     * @param exceptProprietaire propriétaire dont la période est remplacée (ignorée), -1 pour aucun
+     * @param dateDebut début de la nouvelle période
+     * @param dateFin fin de la nouvelle période (null = en cours)
+     * @return id_proprietaire en conflit, ou -1 si la période est libre
+     */
+    public int findOverlap(int idVehicule, int exceptProprietaire, Date dateDebut, Date dateFin) {
+        Periods p = byVehicule.get(idVehicule);
+        if (p == null) return -1;
+        int start = toDay(dateDebut.toLocalDate());
+        int end = dateFin == null ? OPEN : toDay(dateFin.toLocalDate());
+
+        // périodes qui ont au moins un jour commun avec la nouvelle (bornes incluses)
+        int i = lastStartAtOrBefore(p.starts, end);
+        for (; i >= 0 && p.maxEnds[i] >= start; i--) {
+            if (p.ends[i] < start || p.owners[i] == exceptProprietaire) continue;
+            boolean strict = p.starts[i] < end && p.ends[i] > start;
+            boolean singleDay = start == end || p.starts[i] == p.ends[i];
+            if (strict || singleDay) return p.owners[i];
+        }
+        return -1;
+    }
+
+    /** Nombre de véhicules ayant au moins une période */
+    public int size() {
+        return byVehicule.size();
+    }
+
+    private static int lastStartAtOrBefore(int[] starts, int day) {
+        int lo = 0;
+        int hi = starts.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] <= day) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private static int toDay(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    private static int[] insertAt(int[] a, int pos, int value) {
+        int[] r = new int[a.length + 1];
+        System.arraycopy(a, 0, r, 0, pos);
+        r[pos] = value;
+        System.arraycopy(a, pos, r, pos + 1, a.length - pos);
+        return r;
+    }
+
+    private static int[] removeAt(int[] a, int pos) {
+        int[] r = Arrays.copyOf(a, a.length - 1);
+        System.arraycopy(a, pos + 1, r, pos, a.length - pos - 1);
+        return r;
+    }
+}
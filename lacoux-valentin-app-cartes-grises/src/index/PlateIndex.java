@@ -0,0 +1,112 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index en mémoire des matricules
+ * -------------------------------
+ * - Les matricules sont normalisés (majuscules, sans tirets ni espaces) :
+ *   "ab-123-cd", "AB 123 CD" et "AB123CD" (SIV), "1234 ab 75" et "1234AB75" (FNI)
+ *   désignent la même clé.
+ * - Clés triées (ConcurrentSkipListMap) : recherche exacte et par préfixe
+ *   sans accès à la base, lectures sans verrou.
+ * - Plusieurs véhicules peuvent partager une clé normalisée (matricules saisis
+ *   avec des séparateurs différents) : chaque clé porte la liste de leurs identifiants.
+ */
+public class PlateIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final ConcurrentSkipListMap<String, int[]> byPlate = new ConcurrentSkipListMap<>();
+    // id_vehicule -> clé normalisée (pour retirer l'ancienne clé lors d'une modification)
+    private final Map<Integer, String> plateOf = new ConcurrentHashMap<>();
+
+    /** Normaliser un matricule : lettres et chiffres seulement, en majuscules */
+    public static String normalize(String matricule) {
+        if (matricule == null) return "";
+        StringBuilder sb = new StringBuilder(matricule.length());
+        for (int i = 0; i < matricule.length(); i++) {
+            char c = matricule.charAt(i);
+            if (Character.isLetterOrDigit(c)) sb.append(Character.toUpperCase(c));
+        }
+        return sb.toString();
+    }
+
+    // ================== MISE À JOUR ==================
+
+    /** Ajouter ou déplacer un véhicule (après un ajout ou une modification de matricule) */
+    public synchronized void put(int idVehicule, String matricule) {
+        String key = normalize(matricule);
+        String old = plateOf.put(idVehicule, key);
+        if (key.equals(old)) return;
+        if (old != null) detach(old, idVehicule);
+        byPlate.merge(key, new int[]{idVehicule}, PlateIndex::concat);
+    }
+
+    /** Retirer un véhicule (après une suppression) */
+    public synchronized void remove(int idVehicule) {
+        String old = plateOf.remove(idVehicule);
+        if (old != null) detach(old, idVehicule);
+    }
+
+    private void detach(String key, int idVehicule) {
+        byPlate.computeIfPresent(key, (k, ids) -> {
+            int[] rest = new int[ids.length];
+            int n = 0;
+            for (int id : ids) if (id != idVehicule) rest[n++] = id;
+            return n == 0 ? null : Arrays.copyOf(rest, n);
+        });
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] r = new int[a.length + b.length];
+        System.arraycopy(a, 0, r, 0, a.length);
+        System.arraycopy(b, 0, r, a.length, b.length);
+        return r;
+    }
+
+    // ================== RECHERCHE ==================
+
+    /** Identifiants des véhicules dont le matricule normalisé est exactement celui-ci */
+    public int[] find(String matricule) {
+        int[] ids = byPlate.get(normalize(matricule));
+        return ids == null ? EMPTY : ids.clone();
+    }
+
+    /**
+     * Identifiants des véhicules dont le matricule normalisé commence par prefix,
+     * dans l'ordre alphabétique des matricules
+     * @param limit nombre maximum de résultats
+     */
+    public int[] findByPrefix(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) return EMPTY;
+
+        List<int[]> found = new ArrayList<>();
+        int total = 0;
+        for (int[] ids : byPlate.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            found.add(ids);
+            total += ids.length;
+            if (total >= limit) break;
+        }
+        int[] result = new int[Math.min(total, limit)];
+        int n = 0;
+        for (int[] ids : found) {
+            for (int id : ids) {
+                if (n == result.length) return result;
+                result[n++] = id;
+            }
+        }
+        return result;
+    }
+
+    /** Nombre de véhicules indexés */
+    public int size() {
+        return plateOf.size();
+    }
+}
@@ -15,7 +15,7 @@ import java.util.Objects;
  * 3. Comprendre l’usage de PreparedStatement pour sécuriser les requêtes SQL.
  * 4. Gérer les relations avec d’autres tables (ex: MODELE -> MARQUE).
  * 5. Manipuler des objets et des listes pour l’affichage dans une JTable.
- * 6. Gestion des doublons avant insertion ou modification.
+ * 6. Gestion des doublons par la base (contrainte UNIQUE sur nom_marque).
  */
 public class Marque {
 
@@ -44,8 +44,18 @@ public class Marque {
 
     // ================== DAO / CRUD ==================
 
-    /** Récupérer toutes les marques */
+    /** Récupérer toutes les marques (liste vide en cas d'erreur) */
     public static List<Marque> getAllMarques() {
+        try {
+            return loadAllMarques();
+        } catch (SQLException e) {
+            System.err.println("Erreur getAllMarques : " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /** Récupérer toutes les marques ; l'erreur est propagée (une liste vide veut dire : aucune marque) */
+    public static List<Marque> loadAllMarques() throws SQLException {
         List<Marque> marques = new ArrayList<>();
         String sql = "SELECT * FROM MARQUE";
 
@@ -59,8 +69,6 @@ public class Marque {
                 m.setNomMarque(rs.getString("nom_marque"));
                 marques.add(m);
             }
-        } catch (SQLException e) {
-            System.err.println("Erreur getAllMarques : " + e.getMessage());
         }
         return marques;
     }
@@ -85,10 +93,8 @@ public class Marque {
         return false;
     }
 
-    /** Ajouter une nouvelle marque */
+    /** Ajouter une nouvelle marque (false si le nom existe déjà) */
     public static boolean addMarque(String nom) {
-        if (exists(nom, null)) return false;
-
         String sql = "INSERT INTO MARQUE (nom_marque) VALUES (?)";
 
         try (Connection conn = DBConnection.getConnection();
@@ -96,15 +102,36 @@ public class Marque {
             ps.setString(1, nom);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
-            System.err.println("Erreur addMarque : " + e.getMessage());
+            if (DBConnection.isDuplicateKey(e)) System.err.println("Erreur addMarque : la marque existe déjà.");
+            else System.err.println("Erreur addMarque : " + e.getMessage());
             return false;
         }
     }
 
-    /** Modifier une marque existante */
-    public static boolean updateMarque(int id, String nom) {
-        if (exists(nom, id)) return false;
+    /**
+     * Ajouter une marque et renseigner l'identifiant généré
+     * @return true si l'ajout a réussi (m.getIdMarque() contient alors le nouvel identifiant)
+     */
+    public static boolean addMarque(Marque m) {
+        String sql = "INSERT INTO MARQUE (nom_marque) VALUES (?)";
 
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, m.getNomMarque());
+            if (ps.executeUpdate() == 0) return false;
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) m.setIdMarque(keys.getInt(1));
+            }
+            return true;
+        } catch (SQLException e) {
+            if (DBConnection.isDuplicateKey(e)) System.err.println("Erreur addMarque : la marque existe déjà.");
+            else System.err.println("Erreur addMarque : " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** Modifier une marque existante (false si le nom est déjà pris par une autre marque) */
+    public static boolean updateMarque(int id, String nom) {
         String sql = "UPDATE MARQUE SET nom_marque = ? WHERE id_marque = ?";
 
         try (Connection conn = DBConnection.getConnection();
@@ -113,7 +140,8 @@ public class Marque {
             ps.setInt(2, id);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
-            System.err.println("Erreur updateMarque : " + e.getMessage());
+            if (DBConnection.isDuplicateKey(e)) System.err.println("Erreur updateMarque : la marque existe déjà.");
+            else System.err.println("Erreur updateMarque : " + e.getMessage());
             return false;
         }
     }
@@ -152,6 +180,16 @@ public class Marque {
 
     /** Récupérer une marque par son identifiant */
     public static Marque getMarqueById(int id) {
+        try {
+            return loadMarqueById(id);
+        } catch (SQLException e) {
+            System.err.println("Erreur getMarqueById : " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Récupérer une marque par son identifiant (null si absente) ; l'erreur de lecture est propagée */
+    public static Marque loadMarqueById(int id) throws SQLException {
         String sql = "SELECT * FROM MARQUE WHERE id_marque = ?";
 
         try (Connection conn = DBConnection.getConnection();
@@ -165,8 +203,6 @@ public class Marque {
                     return m;
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("Erreur getMarqueById : " + e.getMessage());
         }
         return null;
     }
@@ -0,0 +1,20 @@
+package models;
+
+/**
+ * Comportement des insertions en masse face à une clé déjà présente
+ * (matricule d'un véhicule, clé composée d'une possession)
+ */
+public enum ModeDoublon {
+    /**
+     * Le doublon n'est pas inséré (résultat false) ; un doublon enregistré entre-temps par un autre
+     * client fait rejouer le lot une fois (la contrainte d'unicité le refuse), puis est refusé à son tour
+     */
+    REJETER,
+    /**
+     * Comme REJETER (résultat false, lot rejoué une fois sur doublon concurrent) ; pour un véhicule,
+     * l'identifiant de la ligne existante est en plus renseigné
+     */
+    IGNORER,
+    /** La ligne existante est mise à jour avec les nouvelles valeurs (résultat true) */
+    METTRE_A_JOUR
+}
@@ -13,7 +13,7 @@ import java.util.Objects;
  * 1. Comprendre la notion de "modèle" dans le pattern MVC (représentation des données).
  * 2. Manipuler les clés étrangères (idMarque -> MARQUE).
  * 3. Effectuer des opérations CRUD via JDBC.
- * 4. Gérer les doublons avant insertion ou modification.
+ * 4. Gérer les doublons par la base (contrainte UNIQUE sur (id_marque, nom_modele)).
  * 5. Vérifier l'intégrité référentielle avant suppression (ex: présence de véhicules liés).
  * 6. Utiliser PreparedStatement pour sécuriser les requêtes SQL.
  * 7. Manipuler des objets et listes pour l’affichage dans une JTable.
@@ -50,8 +50,18 @@ public class Modele {
 
     // ================== DAO / CRUD ==================
 
-    /** Récupérer tous les modèles */
+    /** Récupérer tous les modèles (liste vide en cas d'erreur) */
     public static List<Modele> getAllModeles() {
+        try {
+            return loadAllModeles();
+        } catch (SQLException e) {
+            System.err.println("Erreur getAllModeles : " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /** Récupérer tous les modèles ; l'erreur est propagée (une liste vide veut dire : aucun modèle) */
+    public static List<Modele> loadAllModeles() throws SQLException {
         List<Modele> modeles = new ArrayList<>();
         String sql = "SELECT * FROM MODELE";
 
@@ -66,8 +76,6 @@ public class Modele {
                 m.setIdMarque(rs.getInt("id_marque"));
                 modeles.add(m);
             }
-        } catch (SQLException e) {
-            System.err.println("Erreur getAllModeles : " + e.getMessage());
         }
         return modeles;
     }
@@ -93,10 +101,8 @@ public class Modele {
         return false;
     }
 
-    /** Ajouter un modèle */
+    /** Ajouter un modèle (false s'il existe déjà pour cette marque) */
     public static boolean addModele(String nom, int idMarque) {
-        if (exists(nom, idMarque, null)) return false;
-
         String sql = "INSERT INTO MODELE (nom_modele, id_marque) VALUES (?, ?)";
 
         try (Connection conn = DBConnection.getConnection();
@@ -105,15 +111,37 @@ public class Modele {
             ps.setInt(2, idMarque);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
-            System.err.println("Erreur addModele : " + e.getMessage());
+            if (DBConnection.isDuplicateKey(e)) System.err.println("Erreur addModele : le modèle existe déjà pour cette marque.");
+            else System.err.println("Erreur addModele : " + e.getMessage());
             return false;
         }
     }
 
-    /** Modifier un modèle */
-    public static boolean updateModele(int id, String nom, int idMarque) {
-        if (exists(nom, idMarque, id)) return false;
+    /**
+     * Ajouter un modèle et renseigner l'identifiant généré
+     * @return true si l'ajout a réussi (m.getIdModele() contient alors le nouvel identifiant)
+     */
+    public static boolean addModele(Modele m) {
+        String sql = "INSERT INTO MODELE (nom_modele, id_marque) VALUES (?, ?)";
 
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, m.getNomModele());
+            ps.setInt(2, m.getIdMarque());
+            if (ps.executeUpdate() == 0) return false;
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) m.setIdModele(keys.getInt(1));
+            }
+            return true;
+        } catch (SQLException e) {
+            if (DBConnection.isDuplicateKey(e)) System.err.println("Erreur addModele : le modèle existe déjà pour cette marque.");
+            else System.err.println("Erreur addModele : " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** Modifier un modèle (false si un autre modèle de la marque porte déjà ce nom) */
+    public static boolean updateModele(int id, String nom, int idMarque) {
         String sql = "UPDATE MODELE SET nom_modele = ?, id_marque = ? WHERE id_modele = ?";
 
         try (Connection conn = DBConnection.getConnection();
@@ -123,7 +151,8 @@ public class Modele {
             ps.setInt(3, id);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
-            System.err.println("Erreur updateModele : " + e.getMessage());
+            if (DBConnection.isDuplicateKey(e)) System.err.println("Erreur updateModele : le modèle existe déjà pour cette marque.");
+            else System.err.println("Erreur updateModele : " + e.getMessage());
             return false;
         }
     }
@@ -162,6 +191,16 @@ public class Modele {
 
     /** Récupérer un modèle par son identifiant */
     public static Modele getModeleById(int id) {
+        try {
+            return loadModeleById(id);
+        } catch (SQLException e) {
+            System.err.println("Erreur getModeleById : " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Récupérer un modèle par son identifiant (null si absent) ; l'erreur de lecture est propagée */
+    public static Modele loadModeleById(int id) throws SQLException {
         String sql = "SELECT * FROM MODELE WHERE id_modele = ?";
 
         try (Connection conn = DBConnection.getConnection();
@@ -176,8 +215,6 @@ public class Modele {
                     return m;
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("Erreur getModeleById : " + e.getMessage());
         }
         return null;
     }
@@ -1,9 +1,21 @@
 package models;
 
 import config.DBConnection;
+import index.OwnershipIndex;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 /**
  * Classe représentant la possession d’un véhicule par un propriétaire
@@ -15,7 +27,11 @@ import java.util.List;
  * 4. Effectuer des opérations CRUD via JDBC (INSERT, UPDATE, DELETE, SELECT).
  * 5. Utiliser PreparedStatement pour sécuriser les requêtes SQL.
  * 6. Retourner des listes d’objets pour affichage dans une JTable.
- * 7. Vérifier l'existence d'un enregistrement avant modification/suppression (logique métier).
+ * 7. Laisser la base garantir l'unicité (clé primaire composée) : une seule requête par opération.
+ * 8. Retrouver le propriétaire d'un véhicule à une date (requête servie par l'index
+ *    idx_posseder_vehicule_debut).
+ * 9. Refuser une période incohérente (fin avant début) ou qui chevauche celle d'un autre
+ *    propriétaire du même véhicule, à l'unité comme en masse, avec le motif de chaque refus.
  */
 public class Posseder {
 
@@ -43,6 +59,25 @@ public class Posseder {
 
     // ================== DAO / CRUD ==================
 
+    /** Motif d'un refus pour clé déjà présente en base (à distinguer d'une clé répétée dans la liste) */
+    public static final String MOTIF_DEJA_ENREGISTREE = "possession déjà enregistrée";
+
+    /** Motif d'un refus pour clé (propriétaire, véhicule) présente plusieurs fois dans la liste */
+    private static final String MOTIF_REPETEE = "possession répétée dans la liste";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO POSSEDER (id_proprietaire, id_vehicule, date_debut_propriete, date_fin_propriete) VALUES (?, ?, ?, ?)";
+
+    /** Construire une possession à partir de la position courante du ResultSet */
+    private static Posseder mapRow(ResultSet rs) throws SQLException {
+        Posseder p = new Posseder();
+        p.setIdProprietaire(rs.getInt("id_proprietaire"));
+        p.setIdVehicule(rs.getInt("id_vehicule"));
+        p.setDateDebut(rs.getDate("date_debut_propriete"));
+        p.setDateFin(rs.getDate("date_fin_propriete"));
+        return p;
+    }
+
     /**
      * Récupérer toutes les possessions
      * --------------------------------
@@ -61,14 +96,7 @@ public class Posseder {
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                Posseder p = new Posseder();
-                p.setIdProprietaire(rs.getInt("id_proprietaire"));
-                p.setIdVehicule(rs.getInt("id_vehicule"));
-                p.setDateDebut(rs.getDate("date_debut_propriete"));
-                p.setDateFin(rs.getDate("date_fin_propriete"));
-                liste.add(p);
-            }
+            while (rs.next()) liste.add(mapRow(rs));
 
         } catch (SQLException e) {
             System.err.println("Erreur getAllPossessions : " + e.getMessage());
@@ -77,6 +105,93 @@ public class Posseder {
         return liste;
     }
 
+    /**
+     * Parcourir toutes les possessions en flux
+     * ----------------------------------------
+     * Objectifs pédagogiques :
+     * - Lire un gros résultat par paquets (curseur) sans tout charger en mémoire.
+     *
+     * param consumer traitement appliqué à chaque possession
+     * return nombre de possessions parcourues
+     */
+    public static int forEachPossession(Consumer<Posseder> consumer) {
+        try {
+            return streamPossessions(consumer);
+        } catch (SQLException e) {
+            System.err.println("Erreur forEachPossession : " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Parcourir toutes les possessions en flux, en propageant l'erreur
+     * ----------------------------------------------------------------
+     * Objectifs pédagogiques :
+     * - Distinguer "aucune possession" d'une lecture interrompue : un index construit
+     *   à partir d'un parcours incomplet ne doit pas être utilisé.
+     *
+     * param consumer traitement appliqué à chaque possession
+     * return nombre de possessions parcourues
+     */
+    public static int streamPossessions(Consumer<Posseder> consumer) throws SQLException {
+        String sql = "SELECT * FROM POSSEDER ORDER BY id_proprietaire, id_vehicule";
+        int count = 0;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = DBConnection.prepareStreaming(conn, sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                consumer.accept(mapRow(rs));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Compter les possessions
+     * -----------------------
+     * return nombre total de lignes de POSSEDER
+     */
+    public static int countPossessions() {
+        String sql = "SELECT COUNT(*) FROM POSSEDER";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            if (rs.next()) return rs.getInt(1);
+
+        } catch (SQLException e) {
+            System.err.println("Erreur countPossessions : " + e.getMessage());
+        }
+        return 0;
+    }
+
+    /**
+     * Clé composée de la possession à une position donnée
+     * ---------------------------------------------------
+     * param offset position dans l'ordre (id_proprietaire, id_vehicule)
+     * return tableau {idProprietaire, idVehicule}, ou null si hors limites
+     */
+    public static int[] getKeyAt(int offset) {
+        String sql = "SELECT id_proprietaire, id_vehicule FROM POSSEDER ORDER BY id_proprietaire, id_vehicule LIMIT 1 OFFSET ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, offset);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return new int[]{rs.getInt(1), rs.getInt(2)};
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur getKeyAt : " + e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Vérifie si une possession existe déjà
      * --------------------------------------
@@ -103,13 +218,98 @@ public class Posseder {
         return false;
     }
 
+    /**
+     * Propriétaire d'un véhicule à une date
+     * -------------------------------------
+     * Objectifs pédagogiques :
+     * - Chercher une période contenant une date (début <= date, fin absente ou >= date).
+     * - Index (id_vehicule, date_debut_propriete) : seules les périodes du véhicule
+     *   commencées avant la date sont lues, de la plus récente à la plus ancienne.
+     * - Le jour d'une vente, le nouveau propriétaire (début le plus récent) est retenu.
+     *
+     * param idVehicule identifiant du véhicule
+     * param date date recherchée
+     * return id_proprietaire, ou -1 si personne ne possédait le véhicule ce jour-là
+     */
+    public static int getOwnerAt(int idVehicule, Date date) {
+        try {
+            return loadOwnerAt(idVehicule, date);
+        } catch (SQLException e) {
+            System.err.println("Erreur getOwnerAt : " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /** Comme getOwnerAt, mais l'erreur est propagée (-1 signifie alors vraiment : aucun propriétaire) */
+    public static int loadOwnerAt(int idVehicule, Date date) throws SQLException {
+        String sql = "SELECT id_proprietaire FROM POSSEDER WHERE id_vehicule=? AND date_debut_propriete<=? "
+                + "AND (date_fin_propriete IS NULL OR date_fin_propriete>=?) "
+                + "ORDER BY date_debut_propriete DESC LIMIT 1";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, idVehicule);
+            ps.setDate(2, date);
+            ps.setDate(3, date);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+
+    /**
+     * Récupérer une possession par sa clé composée
+     * --------------------------------------------
+     * Objectifs pédagogiques :
+     * - Cibler un enregistrement unique grâce à la clé primaire composée.
+     *
+     * param idProprietaire identifiant du propriétaire
+     * param idVehicule identifiant du véhicule
+     * return la possession correspondante, ou null si non trouvée
+     */
+    public static Posseder getPossession(int idProprietaire, int idVehicule) {
+        try {
+            return loadPossession(idProprietaire, idVehicule);
+        } catch (SQLException e) {
+            System.err.println("Erreur getPossession : " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Récupérer une possession par sa clé composée, en propageant l'erreur
+     * --------------------------------------------------------------------
+     * Objectifs pédagogiques :
+     * - Distinguer "possession absente" (null) d'une lecture impossible (SQLException).
+     *
+     * param idProprietaire identifiant du propriétaire
+     * param idVehicule identifiant du véhicule
+     * return la possession correspondante, ou null si non trouvée
+     */
+    public static Posseder loadPossession(int idProprietaire, int idVehicule) throws SQLException {
+        String sql = "SELECT * FROM POSSEDER WHERE id_proprietaire=? AND id_vehicule=?";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, idProprietaire);
+            ps.setInt(2, idVehicule);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return mapRow(rs);
+            }
+        }
+        return null;
+    }
+
     /**
      * Ajouter une possession
      * ----------------------
      * Objectifs pédagogiques :
      * - Construire et exécuter une requête INSERT via PreparedStatement.
-     * - Protéger l'application contre les doublons en vérifiant l'existence avant insertion.
+     * - Détecter les doublons grâce à la clé primaire (erreur de clé dupliquée),
+     *   sans requête de vérification préalable.
      * - Manipuler les types java.sql.Date pour stocker des dates en base.
+     * - Refuser une période incohérente ou qui chevauche celle d'un autre propriétaire.
+     * - Vérifier et insérer dans la même transaction, après avoir verrouillé la ligne du véhicule
+     *   (SELECT ... FOR UPDATE) : deux ajouts concurrents sur le même véhicule sont traités
+     *   l'un après l'autre, le second voit la période du premier.
      *
      * param idProprietaire identifiant du propriétaire
      * param idVehicule identifiant du véhicule
@@ -118,25 +318,462 @@ public class Posseder {
      * return true si l'ajout a réussi, false sinon
      */
     public static boolean addPossession(int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) {
-        String sql = "INSERT INTO POSSEDER (id_proprietaire, id_vehicule, date_debut_propriete, date_fin_propriete) VALUES (?, ?, ?, ?)";
-        if (existsPossession(idProprietaire, idVehicule)) {
-            System.err.println("Erreur addPossession : la possession existe déjà.");
+        String motif = checkDates(dateDebut, dateFin);
+        if (motif != null) {
+            System.err.println("Erreur addPossession : " + motif);
             return false;
         }
-        try (Connection conn = DBConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                lockVehicules(conn, Collections.singletonList(idVehicule));
+                motif = findOverlap(conn, idProprietaire, idVehicule, dateDebut, dateFin);
+                if (motif != null) {
+                    conn.commit(); // libère le verrou
+                    System.err.println("Erreur addPossession : " + motif);
+                    return false;
+                }
+                boolean added;
+                try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+                    ps.setInt(1, idProprietaire);
+                    ps.setInt(2, idVehicule);
+                    ps.setDate(3, dateDebut);
+                    ps.setDate(4, dateFin);
+                    added = ps.executeUpdate() > 0;
+                }
+                conn.commit();
+                return added;
+            } catch (SQLException e) {
+                DBConnection.rollback(conn, e);
+                throw e;
+            }
 
-            ps.setInt(1, idProprietaire);
-            ps.setInt(2, idVehicule);
-            ps.setDate(3, dateDebut);
+        } catch (SQLException e) {
+            if (DBConnection.isDuplicateKey(e)) System.err.println("Erreur addPossession : la possession existe déjà.");
+            else System.err.println("Erreur addPossession : " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Ajouter des possessions en masse (taille de lot par défaut, doublons rejetés)
+     */
+    public static boolean[] addPossessions(List<Posseder> possessions) {
+        return addPossessions(possessions, DBConnection.DEFAULT_BATCH_SIZE, ModeDoublon.REJETER);
+    }
+
+    /**
+     * Ajouter des possessions en masse (doublons rejetés)
+     */
+    public static boolean[] addPossessions(List<Posseder> possessions, int batchSize) {
+        return addPossessions(possessions, batchSize, ModeDoublon.REJETER);
+    }
+
+    /**
+     * Ajouter des possessions en masse (sans le motif des refus)
+     */
+    public static boolean[] addPossessions(List<Posseder> possessions, int batchSize, ModeDoublon mode) {
+        return addPossessions(possessions, batchSize, mode, null);
+    }
+
+    /**
+     * Ajouter des possessions en masse
+     * --------------------------------
+     * Objectifs pédagogiques :
+     * - Envoyer les INSERT par lots JDBC (addBatch / executeBatch), une transaction par lot.
+     * - Détecter les doublons d'un lot en une seule requête ensembliste
+     *   (WHERE (id_proprietaire, id_vehicule) IN (...)) au lieu d'une requête par ligne.
+     * - METTRE_A_JOUR : ON DUPLICATE KEY UPDATE sur la clé primaire ; REJETER / IGNORER : une clé
+     *   enregistrée entre-temps est refusée par la clé primaire et le lot est rejoué une fois,
+     *   la nouvelle lecture refusant cette seule ligne (résultat false).
+     * - Les périodes sont vérifiées dans la transaction de chaque lot, après verrouillage
+     *   des véhicules du lot (SELECT ... FOR UPDATE) : les lignes refusées ne sont pas insérées
+     *   et n'annulent pas leur lot ; une période enregistrée en même temps par un autre client
+     *   est forcément vue.
+     *
+     * param possessions possessions à insérer
+     * param batchSize nombre de lignes par lot
+     * param mode traitement des clés déjà présentes
+     * param motifs tableau de même taille, rempli avec le motif de chaque refus (ou null si inutile)
+     * return pour chaque possession (même ordre) : true si elle a été insérée (ou mise à jour)
+     */
+    public static boolean[] addPossessions(List<Posseder> possessions, int batchSize, ModeDoublon mode, String[] motifs) {
+        boolean[] results = new boolean[possessions.size()];
+        String[] refus = checkDates(possessions);
+        String sql = insertSql(mode);
+        Set<Long> seen = new HashSet<>();
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            for (int start = 0; start < possessions.size(); start += batchSize) {
+                int end = Math.min(start + batchSize, possessions.size());
+                try {
+                    insertBatch(conn, sql, possessions, start, end, mode, refus, seen, motifs, results);
+                } catch (SQLException e) {
+                    // le lot entier est annulé, les lots suivants continuent
+                    System.err.println("Erreur addPossessions (lot annulé) : " + e.getMessage());
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur addPossessions : " + e.getMessage());
+        }
+        return results;
+    }
+
+    /**
+     * Ajouter des possessions en masse ; l'erreur est propagée
+     * --------------------------------------------------------
+     * Objectifs pédagogiques :
+     * - Distinguer un refus (période, doublon : résultat false et motif) d'une panne de la base
+     *   (SQLException propagée : le premier lot en échec arrête l'ajout).
+     * - Un lot encore refusé pour doublon après avoir été rejoué est un refus, pas une panne.
+     * - Les lots précédents restent enregistrés (résultat true).
+     *
+     * param possessions possessions à insérer
+     * param batchSize nombre de lignes par lot
+     * param mode traitement des clés déjà présentes
+     * param motifs tableau de même taille, rempli avec le motif de chaque refus (ou null si inutile)
+     * return pour chaque possession (même ordre) : true si elle a été insérée (ou mise à jour)
+     */
+    public static boolean[] insertPossessions(List<Posseder> possessions, int batchSize, ModeDoublon mode, String[] motifs) throws SQLException {
+        boolean[] results = new boolean[possessions.size()];
+        String sql = insertSql(mode);
+        Set<Long> seen = new HashSet<>();
+
+        String[] refus = checkDates(possessions);
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            for (int start = 0; start < possessions.size(); start += batchSize) {
+                int end = Math.min(start + batchSize, possessions.size());
+                try {
+                    insertBatch(conn, sql, possessions, start, end, mode, refus, seen, motifs, results);
+                } catch (SQLException e) {
+                    if (!DBConnection.isDuplicateKey(e)) throw e;
+                    System.err.println("Erreur insertPossessions (lot refusé) : " + e.getMessage());
+                }
+            }
+        }
+        return results;
+    }
+
+    private static String insertSql(ModeDoublon mode) {
+        if (mode == ModeDoublon.METTRE_A_JOUR) {
+            return INSERT_SQL + " ON DUPLICATE KEY UPDATE date_debut_propriete = VALUES(date_debut_propriete),"
+                 + " date_fin_propriete = VALUES(date_fin_propriete)";
+        }
+        return INSERT_SQL;
+    }
+
+    /**
+     * Insérer les possessions [start, end[ en une transaction ; refus contient les dates refusées
+     * et reçoit les chevauchements trouvés dans la transaction. Le lot est rejoué une fois si la clé
+     * primaire refuse une ligne enregistrée entre-temps (1062 : la nouvelle lecture la trouve et
+     * la refuse seule) ou en cas d'interblocage (1213).
+     */
+    private static void insertBatch(Connection conn, String sql, List<Posseder> possessions, int start, int end, ModeDoublon mode,
+                                    String[] refus, Set<Long> seen, String[] motifs, boolean[] results) throws SQLException {
+        String[] dates = Arrays.copyOfRange(refus, start, end);
+        try {
+            insertBatchOnce(conn, sql, possessions, start, end, mode, refus, seen, motifs, results);
+        } catch (SQLException e) {
+            if (!DBConnection.isDuplicateKey(e) && !DBConnection.isDeadlock(e)) throw e;
+            System.arraycopy(dates, 0, refus, start, dates.length); // chevauchements recalculés
+            insertBatchOnce(conn, sql, possessions, start, end, mode, refus, seen, motifs, results);
+        }
+    }
+
+    /** Une tentative : transaction annulée et erreur propagée en cas d'échec */
+    private static void insertBatchOnce(Connection conn, String sql, List<Posseder> possessions, int start, int end, ModeDoublon mode,
+                                        String[] refus, Set<Long> seen, String[] motifs, boolean[] results) throws SQLException {
+        List<Integer> inserted = new ArrayList<>();
+        try {
+            List<Posseder> batch = possessions.subList(start, end);
+            List<Integer> candidates = new ArrayList<>();
+            Set<Integer> vehicules = new TreeSet<>(); // ordre croissant : verrous toujours pris dans le même ordre
+            for (int i = start; i < end; i++) {
+                if (refus[i] != null) continue;
+                candidates.add(i);
+                vehicules.add(possessions.get(i).getIdVehicule());
+            }
+            // véhicules verrouillés avant la vérification : un ajout concurrent sur ces véhicules attend la fin du lot
+            lockVehicules(conn, vehicules);
+            checkOverlaps(conn, possessions, candidates, end - start, refus);
+            if (motifs != null) System.arraycopy(refus, start, motifs, start, end - start);
+            // lecture sans verrou : les clés absentes ne sont pas verrouillées (verrous d'intervalle sur la
+            // clé primaire, source d'interblocages) ; le verrou des véhicules suffit entre clients de l'application
+            Set<Long> existing = getExistingKeys(conn, batch);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    Posseder p = batch.get(i);
+                    if (refus[start + i] != null) continue; // période refusée
+                    long key = key(p.getIdProprietaire(), p.getIdVehicule());
+                    if (mode != ModeDoublon.METTRE_A_JOUR && existing.contains(key)) {
+                        if (motifs != null) motifs[start + i] = MOTIF_DEJA_ENREGISTREE;
+                        continue;
+                    }
+                    if (mode != ModeDoublon.METTRE_A_JOUR && !seen.add(key)) {
+                        if (motifs != null) motifs[start + i] = MOTIF_REPETEE;
+                        continue;
+                    }
+
+                    ps.setInt(1, p.getIdProprietaire());
+                    ps.setInt(2, p.getIdVehicule());
+                    ps.setDate(3, p.getDateDebut());
+                    ps.setDate(4, p.getDateFin());
+                    ps.addBatch();
+                    inserted.add(start + i);
+                }
+                if (inserted.isEmpty()) {
+                    conn.commit(); // libère les verrous des véhicules
+                    return;
+                }
+
+                ps.executeBatch();
+            }
+            conn.commit();
+            for (int index : inserted) results[index] = true;
+
+        } catch (SQLException e) {
+            DBConnection.rollback(conn, e);
+            for (int index : inserted) {
+                Posseder p = possessions.get(index);
+                seen.remove(key(p.getIdProprietaire(), p.getIdVehicule()));
+                if (motifs != null) motifs[index] = DBConnection.isDuplicateKey(e)
+                        ? "possession enregistrée entre-temps" : "lot annulé : " + e.getMessage();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Vérifier une période avant de l'enregistrer
+     * -------------------------------------------
+     * Objectifs pédagogiques :
+     * - Contrôler la cohérence des dates (fin postérieure ou égale au début).
+     * - Chercher en une requête une période d'un autre propriétaire qui chevauche la nouvelle
+     *   (début avant la fin de l'une, fin après le début de l'autre) ; le jour de la vente
+     *   peut être à la fois la fin de l'ancienne possession et le début de la nouvelle,
+     *   sauf si l'une des deux commence et finit ce jour-là (elle serait entièrement partagée).
+     * - Simple aperçu (formulaire) : addPossession et updatePossession refont la vérification
+     *   dans leur transaction, véhicule verrouillé.
+     *
+     * param idProprietaire propriétaire (sa propre période, en cas de modification, est ignorée)
+     * param idVehicule identifiant du véhicule
+     * param dateDebut date de début
+     * param dateFin date de fin (null = possession en cours)
+     * return le motif du refus, ou null si la période est acceptable
+     */
+    public static String checkPossession(int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) {
+        String motif = checkDates(dateDebut, dateFin);
+        if (motif != null) return motif;
+
+        try (Connection conn = DBConnection.getConnection()) {
+            return findOverlap(conn, idProprietaire, idVehicule, dateDebut, dateFin);
+        } catch (SQLException e) {
+            System.err.println("Erreur checkPossession : " + e.getMessage());
+            return "vérification impossible : " + e.getMessage();
+        }
+    }
+
+    /** Période d'un autre propriétaire qui chevauche celle-ci (une requête) : motif du refus, ou null */
+    private static String findOverlap(Connection conn, int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) throws SQLException {
+        // au moins un jour commun, puis : chevauchement strict, ou l'une des périodes ne dure qu'un jour
+        String sql = "SELECT id_proprietaire FROM POSSEDER WHERE id_vehicule=? AND id_proprietaire<>? "
+                + "AND (? IS NULL OR date_debut_propriete<=?) "
+                + "AND (date_fin_propriete IS NULL OR date_fin_propriete>=?) "
+                + "AND (? OR date_fin_propriete=date_debut_propriete "
+                + "OR ((? IS NULL OR date_debut_propriete<?) AND (date_fin_propriete IS NULL OR date_fin_propriete>?))) LIMIT 1";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, idVehicule);
+            ps.setInt(2, idProprietaire);
+            ps.setDate(3, dateFin);
             ps.setDate(4, dateFin);
+            ps.setDate(5, dateDebut);
+            ps.setBoolean(6, dateDebut.equals(dateFin));
+            ps.setDate(7, dateFin);
+            ps.setDate(8, dateFin);
+            ps.setDate(9, dateDebut);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? overlapMotif(rs.getInt(1)) : null;
+            }
+        }
+    }
 
-            return ps.executeUpdate() > 0;
+    /** Verrouiller les lignes des véhicules jusqu'à la fin de la transaction (une requête) */
+    private static void lockVehicules(Connection conn, Collection<Integer> idVehicules) throws SQLException {
+        if (idVehicules.isEmpty()) return;
+        String sql = "SELECT id_vehicule FROM VEHICULE WHERE id_vehicule IN ("
+                + DBConnection.placeholders(idVehicules.size()) + ") FOR UPDATE";
+        try (PreparedStatement ps = DBConnection.prepareUncached(conn, sql)) {
+            int i = 1;
+            for (int id : idVehicules) ps.setInt(i++, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) { /* les lignes lues sont verrouillées */ }
+            }
+        }
+    }
 
+    /**
+     * Vérifier les périodes d'un lot de possessions
+     * ---------------------------------------------
+     * Objectifs pédagogiques :
+     * - Remplacer N requêtes de vérification par une requête ensembliste par paquet
+     *   de véhicules (WHERE id_vehicule IN (...)) chargée dans un index en mémoire.
+     * - Chaque ligne est comparée aux périodes déjà enregistrées (recherche dichotomique),
+     *   puis les lignes du lot sont triées par véhicule et date de début : un seul parcours
+     *   suffit pour trouver celles qui se chevauchent entre elles (O(N log N) au total).
+     * - En cas de chevauchement dans le lot, la ligne qui commence le plus tôt est gardée.
+     * - Simple aperçu : addPossessions et insertPossessions refont la vérification dans
+     *   la transaction de chaque lot, véhicules verrouillés.
+     *
+     * param possessions possessions à vérifier
+     * param batchSize nombre de véhicules par requête
+     * return pour chaque possession (même ordre) : le motif du refus, ou null si elle est acceptable
+     */
+    public static String[] validatePossessions(List<Posseder> possessions, int batchSize) {
+        try (Connection conn = DBConnection.getConnection()) {
+            return validatePossessions(conn, possessions, batchSize);
         } catch (SQLException e) {
-            System.err.println("Erreur addPossession : " + e.getMessage());
-            return false;
+            System.err.println("Erreur validatePossessions : " + e.getMessage());
+            String[] motifs = checkDates(possessions);
+            for (int i = 0; i < motifs.length; i++) {
+                if (motifs[i] == null) motifs[i] = "vérification impossible : " + e.getMessage();
+            }
+            return motifs;
+        }
+    }
+
+    private static String[] validatePossessions(Connection conn, List<Posseder> possessions, int batchSize) throws SQLException {
+        String[] motifs = checkDates(possessions);
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < possessions.size(); i++) {
+            if (motifs[i] == null) candidates.add(i);
         }
+        checkOverlaps(conn, possessions, candidates, batchSize, motifs);
+        return motifs;
+    }
+
+    /**
+     * Chevauchements des lignes candidates avec les périodes enregistrées, puis entre elles
+     * (motif écrit dans motifs pour chaque ligne refusée). Une clé (propriétaire, véhicule)
+     * répétée dans le lot est refusée comme doublon avant la recherche de chevauchements ;
+     * un jour commun n'est admis que si aucune des deux périodes ne se réduit à ce jour.
+     */
+    private static void checkOverlaps(Connection conn, List<Posseder> possessions, List<Integer> candidates, int batchSize,
+                                      String[] motifs) throws SQLException {
+        if (candidates.isEmpty()) return;
+        Set<Integer> vehicules = new LinkedHashSet<>();
+        for (int i : candidates) vehicules.add(possessions.get(i).getIdVehicule());
+
+        // 1. Périodes déjà enregistrées pour les véhicules du lot
+        OwnershipIndex existing = new OwnershipIndex();
+        List<Integer> ids = new ArrayList<>(vehicules);
+        for (int start = 0; start < ids.size(); start += batchSize) {
+            loadPeriods(conn, ids.subList(start, Math.min(start + batchSize, ids.size())), existing);
+        }
+        List<Integer> accepted = new ArrayList<>();
+        for (int i : candidates) {
+            Posseder p = possessions.get(i);
+            int conflict = existing.findOverlap(p.getIdVehicule(), p.getIdProprietaire(), p.getDateDebut(), p.getDateFin());
+            if (conflict >= 0) motifs[i] = overlapMotif(conflict);
+            else accepted.add(i);
+        }
+
+        // 2. Clés répétées dans le lot : doublons, pas des chevauchements
+        Set<Long> keys = new HashSet<>();
+        accepted.removeIf(i -> {
+            Posseder p = possessions.get(i);
+            if (keys.add(key(p.getIdProprietaire(), p.getIdVehicule()))) return false;
+            motifs[i] = MOTIF_REPETEE;
+            return true;
+        });
+
+        // 3. Chevauchements entre lignes du lot : tri par véhicule puis date de début, un seul parcours
+        accepted.sort(Comparator.<Integer>comparingInt(i -> possessions.get(i).getIdVehicule())
+                .thenComparing(i -> possessions.get(i).getDateDebut()));
+        Map<Integer, Integer> lastByVehicule = new HashMap<>(); // véhicule -> ligne gardée qui finit le plus tard
+        for (int i : accepted) {
+            Posseder p = possessions.get(i);
+            Integer previous = lastByVehicule.get(p.getIdVehicule());
+            if (previous != null) {
+                Posseder last = possessions.get(previous);
+                Date fin = last.getDateFin();
+                boolean singleDay = fin != null && (fin.equals(last.getDateDebut()) || p.getDateDebut().equals(p.getDateFin()));
+                if (fin == null || fin.after(p.getDateDebut()) || (singleDay && fin.equals(p.getDateDebut()))) {
+                    motifs[i] = "période chevauchant celle de la ligne " + (previous + 1) + " du lot";
+                    continue;
+                }
+            }
+            lastByVehicule.put(p.getIdVehicule(), i);
+        }
+    }
+
+    /** Cohérence des dates de chaque possession (même ordre) : motif du refus, ou null */
+    private static String[] checkDates(List<Posseder> possessions) {
+        String[] motifs = new String[possessions.size()];
+        for (int i = 0; i < motifs.length; i++) {
+            Posseder p = possessions.get(i);
+            motifs[i] = checkDates(p.getDateDebut(), p.getDateFin());
+        }
+        return motifs;
+    }
+
+    /** Cohérence des dates d'une période : motif du refus, ou null */
+    private static String checkDates(Date dateDebut, Date dateFin) {
+        if (dateDebut == null) return "date de début manquante";
+        if (dateFin != null && dateFin.before(dateDebut)) return "date de fin antérieure à la date de début";
+        return null;
+    }
+
+    private static String overlapMotif(int idProprietaire) {
+        return "période chevauchant celle du propriétaire n°" + idProprietaire;
+    }
+
+    /** Charger dans l'index les périodes d'un paquet de véhicules (une seule requête) */
+    private static void loadPeriods(Connection conn, List<Integer> idVehicules, OwnershipIndex index) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT id_proprietaire, id_vehicule, date_debut_propriete, date_fin_propriete FROM POSSEDER WHERE id_vehicule IN (");
+        for (int i = 0; i < idVehicules.size(); i++) sql.append(i == 0 ? "?" : ", ?");
+        sql.append(")");
+
+        try (PreparedStatement ps = DBConnection.prepareUncached(conn, sql.toString())) {
+            int i = 1;
+            for (int id : idVehicules) ps.setInt(i++, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) index.put(rs.getInt(1), rs.getInt(2), rs.getDate(3), rs.getDate(4));
+            }
+        }
+    }
+
+    /** Clés composées déjà présentes en base pour un lot (une seule requête) */
+    private static Set<Long> getExistingKeys(Connection conn, List<Posseder> batch) throws SQLException {
+        Set<Long> keys = new HashSet<>();
+        if (batch.isEmpty()) return keys;
+
+        StringBuilder sql = new StringBuilder("SELECT id_proprietaire, id_vehicule FROM POSSEDER WHERE (id_proprietaire, id_vehicule) IN (");
+        for (int i = 0; i < batch.size(); i++) sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+        sql.append(")");
+
+        try (PreparedStatement ps = DBConnection.prepareUncached(conn, sql.toString())) {
+            int i = 1;
+            for (Posseder p : batch) {
+                ps.setInt(i++, p.getIdProprietaire());
+                ps.setInt(i++, p.getIdVehicule());
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) keys.add(key(rs.getInt(1), rs.getInt(2)));
+            }
+        }
+        return keys;
+    }
+
+    /** Clé composée (id_proprietaire, id_vehicule) sous forme d'un long */
+    private static long key(int idProprietaire, int idVehicule) {
+        return ((long) idProprietaire << 32) | (idVehicule & 0xFFFFFFFFL);
     }
 
     /**
@@ -144,8 +781,10 @@ public class Posseder {
      * ------------------------------------------
      * Objectifs pédagogiques :
      * - Comprendre la logique de mise à jour (UPDATE) ciblée par clé composée.
-     * - Vérifier l'existence avant modification pour éviter les erreurs métier.
+     * - Le nombre de lignes modifiées indique si la possession existait (pas de SELECT préalable).
      * - Adapter les paramètres pour correspondre au contrôleur (idProprietaire, idVehicule, dateDebut, dateFin).
+     * - Refuser des dates incohérentes ou qui chevauchent la période d'un autre propriétaire,
+     *   vérifiées dans la transaction de la modification, véhicule verrouillé (comme addPossession).
      *
      * param idProprietaire identifiant du propriétaire (clé composée)
      * param idVehicule identifiant du véhicule (clé composée)
@@ -154,25 +793,40 @@ public class Posseder {
      * return true si la modification a réussi, false sinon
      */
     public static boolean updatePossession(int idProprietaire, int idVehicule, Date dateDebut, Date dateFin) {
-        String sql = "UPDATE POSSEDER SET date_debut_propriete=?, date_fin_propriete=? WHERE id_proprietaire =? AND id_vehicule =? ";
-        if (!existsPossession(idProprietaire, idVehicule)) {
-            System.err.println("Erreur updatePossession : la possession à modifier n'existe pas");
+        String motif = checkDates(dateDebut, dateFin);
+        if (motif != null) {
+            System.err.println("Erreur updatePossession : " + motif);
             return false;
         }
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement ps = conn.prepareStatement(sql)) {
-
-                ps.setDate(1, dateDebut);   
-                ps.setDate(2, dateFin);
-                ps.setInt(3, idProprietaire);
-                ps.setInt(4, idVehicule);
-
-                return ps.executeUpdate() > 0;
-
+        String sql = "UPDATE POSSEDER SET date_debut_propriete=?, date_fin_propriete=? WHERE id_proprietaire =? AND id_vehicule =? ";
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                lockVehicules(conn, Collections.singletonList(idVehicule));
+                motif = findOverlap(conn, idProprietaire, idVehicule, dateDebut, dateFin);
+                int updated = 0;
+                if (motif == null) {
+                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                        ps.setDate(1, dateDebut);
+                        ps.setDate(2, dateFin);
+                        ps.setInt(3, idProprietaire);
+                        ps.setInt(4, idVehicule);
+                        updated = ps.executeUpdate();
+                    }
+                }
+                conn.commit(); // libère le verrou
+                if (motif != null) System.err.println("Erreur updatePossession : " + motif);
+                else if (updated == 0) System.err.println("Erreur updatePossession : la possession à modifier n'existe pas");
+                return updated > 0;
             } catch (SQLException e) {
-                System.err.println("Erreur updatePossession : " + e.getMessage());
-                return false;
+                DBConnection.rollback(conn, e);
+                throw e;
             }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur updatePossession : " + e.getMessage());
+            return false;
+        }
     }
 
     /**
@@ -180,7 +834,7 @@ public class Posseder {
      * ------------------------
      * Objectifs pédagogiques :
      * - Expliquer la suppression conditionnelle via DELETE.
-     * - Vérifier l'existence avant suppression pour montrer une bonne pratique métier.
+     * - Le nombre de lignes supprimées indique si la possession existait (pas de SELECT préalable).
      *
      * param idProprietaire identifiant du propriétaire
      * param idVehicule identifiant du véhicule
@@ -189,30 +843,18 @@ public class Posseder {
     public static boolean deletePossession(int idProprietaire, int idVehicule) {
         String sql = "DELETE FROM POSSEDER WHERE id_proprietaire = ? AND id_vehicule = ?";
 
-        if (!existsPossession(idProprietaire, idVehicule)) {
-            System.err.println("Erreur deletePossession : la possession à supprimer n'existe pas");
-            return false;
-        }
-
-        try (Connection conn = DBConnection.getConnection()) {
-            conn.setAutoCommit(false);
-
-            try (PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.setInt(1, idProprietaire);
-                ps.setInt(2, idVehicule);
-
-                int result = ps.executeUpdate();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
 
-                conn.commit();
-                return result > 0;
+            ps.setInt(1, idProprietaire);
+            ps.setInt(2, idVehicule);
 
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            }
+            if (ps.executeUpdate() > 0) return true;
+            System.err.println("Erreur deletePossession : la possession à supprimer n'existe pas");
+            return false;
 
         } catch (SQLException e) {
-            System.err.println("Erreur deletePossession (Transaction annulée) : " + e.getMessage());
+            System.err.println("Erreur deletePossession : " + e.getMessage());
             return false;
         }
     }
@@ -0,0 +1,166 @@
+package models;
+
+import config.DBConnection;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Ligne d'affichage d'une possession (projection à plat)
+ * ------------------------------------------------------
+ * Contient les identifiants (clé composée), le nom du propriétaire,
+ * le matricule du véhicule et les dates, obtenus en une seule requête
+ * (jointure POSSEDER / PROPRIETAIRE / VEHICULE).
+ */
+public class PossessionRow {
+
+    /** Jointure commune à toutes les requêtes de projection */
+    static final String SELECT_JOIN =
+            "SELECT po.id_proprietaire, po.id_vehicule, po.date_debut_propriete, po.date_fin_propriete, "
+          + "CONCAT(p.prenom, ' ', p.nom) AS nom_proprietaire, v.matricule "
+          + "FROM POSSEDER po "
+          + "LEFT JOIN PROPRIETAIRE p ON p.id_proprietaire = po.id_proprietaire "
+          + "LEFT JOIN VEHICULE v ON v.id_vehicule = po.id_vehicule";
+
+    private int idProprietaire;
+    private int idVehicule;
+    private String nomProprietaire;
+    private String matricule;
+    private Date dateDebut;
+    private Date dateFin;
+
+    // ================== GETTERS ==================
+    public int getIdProprietaire() { return idProprietaire; }
+    public int getIdVehicule() { return idVehicule; }
+    public String getNomProprietaire() { return nomProprietaire; }
+    public String getMatricule() { return matricule; }
+    public Date getDateDebut() { return dateDebut; }
+    public Date getDateFin() { return dateFin; }
+
+    /**
+     * Construire une ligne sans requête, à partir d'une possession enregistrée
+     * et de son propriétaire et de son véhicule (lus dans les caches)
+     */
+    public static PossessionRow of(Posseder p, Proprietaire proprietaire, Vehicule vehicule) {
+        PossessionRow r = new PossessionRow();
+        r.idProprietaire = p.getIdProprietaire();
+        r.idVehicule = p.getIdVehicule();
+        r.dateDebut = p.getDateDebut();
+        r.dateFin = p.getDateFin();
+        r.nomProprietaire = proprietaire != null ? proprietaire.getPrenom() + " " + proprietaire.getNom() : null;
+        r.matricule = vehicule != null ? vehicule.getMatricule() : null;
+        return r;
+    }
+
+    /** Copie de la ligne avec un propriétaire modifié (nom affiché) */
+    public PossessionRow withProprietaire(Proprietaire proprietaire) {
+        PossessionRow r = copy();
+        r.nomProprietaire = proprietaire.getPrenom() + " " + proprietaire.getNom();
+        return r;
+    }
+
+    /** Copie de la ligne avec un véhicule modifié (matricule affiché) */
+    public PossessionRow withVehicule(Vehicule vehicule) {
+        PossessionRow r = copy();
+        r.matricule = vehicule.getMatricule();
+        return r;
+    }
+
+    private PossessionRow copy() {
+        PossessionRow r = new PossessionRow();
+        r.idProprietaire = idProprietaire;
+        r.idVehicule = idVehicule;
+        r.nomProprietaire = nomProprietaire;
+        r.matricule = matricule;
+        r.dateDebut = dateDebut;
+        r.dateFin = dateFin;
+        return r;
+    }
+
+    // ================== DAO ==================
+
+    /** Construire une ligne à partir de la position courante du ResultSet */
+    static PossessionRow mapRow(ResultSet rs) throws SQLException {
+        PossessionRow r = new PossessionRow();
+        r.idProprietaire = rs.getInt("id_proprietaire");
+        r.idVehicule = rs.getInt("id_vehicule");
+        r.dateDebut = rs.getDate("date_debut_propriete");
+        r.dateFin = rs.getDate("date_fin_propriete");
+        r.nomProprietaire = rs.getString("nom_proprietaire");
+        r.matricule = rs.getString("matricule");
+        return r;
+    }
+
+    /**
+     * Parcourir toutes les possessions avec propriétaire et matricule résolus par la base
+     * @param consumer traitement appliqué à chaque ligne, dans l'ordre de la clé
+     * @return nombre de lignes parcourues
+     */
+    public static int forEachPossessionRow(Consumer<PossessionRow> consumer) {
+        try {
+            return streamPossessionRows(consumer);
+        } catch (SQLException e) {
+            System.err.println("Erreur forEachPossessionRow : " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Parcourir toutes les lignes en flux ; l'erreur est propagée
+     * (le parcours est alors incomplet : un export ne doit pas être conservé)
+     * @param consumer traitement appliqué à chaque ligne
+     * @return nombre de lignes parcourues
+     */
+    public static int streamPossessionRows(Consumer<PossessionRow> consumer) throws SQLException {
+        String sql = SELECT_JOIN + " ORDER BY po.id_proprietaire, po.id_vehicule";
+        int count = 0;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = DBConnection.prepareStreaming(conn, sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                consumer.accept(mapRow(rs));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Récupérer une page de possessions (pagination sur la clé composée)
+     * @param afterIdProprietaire propriétaire de la dernière ligne déjà lue (0 pour la première page)
+     * @param afterIdVehicule véhicule de la dernière ligne déjà lue (0 pour la première page)
+     * @param limit nombre maximum de lignes
+     */
+    public static List<PossessionRow> getPossessionRowsAfter(int afterIdProprietaire, int afterIdVehicule, int limit) {
+        try {
+            return loadPossessionRowsAfter(afterIdProprietaire, afterIdVehicule, limit);
+        } catch (SQLException e) {
+            System.err.println("Erreur getPossessionRowsAfter : " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /** Page de possessions (pagination sur la clé composée) ; l'erreur de lecture est propagée */
+    public static List<PossessionRow> loadPossessionRowsAfter(int afterIdProprietaire, int afterIdVehicule, int limit) throws SQLException {
+        List<PossessionRow> rows = new ArrayList<>();
+        String sql = SELECT_JOIN
+                + " WHERE po.id_proprietaire > ? OR (po.id_proprietaire = ? AND po.id_vehicule > ?)"
+                + " ORDER BY po.id_proprietaire, po.id_vehicule LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, afterIdProprietaire);
+            ps.setInt(2, afterIdProprietaire);
+            ps.setInt(3, afterIdVehicule);
+            ps.setInt(4, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) rows.add(mapRow(rs));
+            }
+        }
+        return rows;
+    }
+}
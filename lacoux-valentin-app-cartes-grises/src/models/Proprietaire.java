@@ -3,8 +3,12 @@ package models;
 import config.DBConnection;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * Classe représentant un propriétaire de véhicule
@@ -61,6 +65,18 @@ public class Proprietaire {
 
     // ================== DAO / CRUD ==================
 
+    /** Construire un propriétaire à partir de la position courante du ResultSet */
+    private static Proprietaire mapRow(ResultSet rs) throws SQLException {
+        Proprietaire p = new Proprietaire();
+        p.setIdProprietaire(rs.getInt("id_proprietaire"));
+        p.setNom(rs.getString("nom"));
+        p.setPrenom(rs.getString("prenom"));
+        p.setAdresse(rs.getString("adresse"));
+        p.setCp(rs.getString("cp"));
+        p.setVille(rs.getString("ville"));
+        return p;
+    }
+
     /** Récupérer tous les propriétaires */
     public static List<Proprietaire> getAllProprietaires() {
         List<Proprietaire> liste = new ArrayList<>();
@@ -70,23 +86,115 @@ public class Proprietaire {
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
+            while (rs.next()) liste.add(mapRow(rs));
+
+        } catch (SQLException e) {
+            System.err.println("Erreur getAllProprietaires : " + e.getMessage());
+        }
+        return liste;
+    }
+
+    /**
+     * Parcourir tous les propriétaires en flux (mémoire constante)
+     * @param consumer traitement appliqué à chaque propriétaire, dans l'ordre des identifiants
+     * @return nombre de propriétaires parcourus
+     */
+    public static int forEachProprietaire(Consumer<Proprietaire> consumer) {
+        try {
+            return streamProprietaires(consumer);
+        } catch (SQLException e) {
+            System.err.println("Erreur forEachProprietaire : " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Parcourir tous les propriétaires en flux ; l'erreur est propagée
+     * (le parcours est alors incomplet et ne doit pas être utilisé)
+     * @param consumer traitement appliqué à chaque propriétaire, dans l'ordre des identifiants
+     * @return nombre de propriétaires parcourus
+     */
+    public static int streamProprietaires(Consumer<Proprietaire> consumer) throws SQLException {
+        String sql = "SELECT * FROM PROPRIETAIRE ORDER BY id_proprietaire";
+        int count = 0;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = DBConnection.prepareStreaming(conn, sql);
+             ResultSet rs = ps.executeQuery()) {
+
             while (rs.next()) {
-                Proprietaire p = new Proprietaire();
-                p.setIdProprietaire(rs.getInt("id_proprietaire"));
-                p.setNom(rs.getString("nom"));
-                p.setPrenom(rs.getString("prenom"));
-                p.setAdresse(rs.getString("adresse"));
-                p.setCp(rs.getString("cp"));
-                p.setVille(rs.getString("ville"));
-                liste.add(p);
+                consumer.accept(mapRow(rs));
+                count++;
             }
+        }
+        return count;
+    }
 
+    /**
+     * Récupérer une page de propriétaires (pagination par clé)
+     * @param afterId identifiant après lequel commencer (0 pour la première page)
+     * @param limit nombre maximum de lignes
+     */
+    public static List<Proprietaire> getProprietairesAfter(int afterId, int limit) {
+        try {
+            return loadProprietairesAfter(afterId, limit);
         } catch (SQLException e) {
-            System.err.println("Erreur getAllProprietaires : " + e.getMessage());
+            System.err.println("Erreur getProprietairesAfter : " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /** Page de propriétaires (pagination par clé) ; l'erreur de lecture est propagée */
+    public static List<Proprietaire> loadProprietairesAfter(int afterId, int limit) throws SQLException {
+        List<Proprietaire> liste = new ArrayList<>();
+        String sql = "SELECT * FROM PROPRIETAIRE WHERE id_proprietaire > ? ORDER BY id_proprietaire LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) liste.add(mapRow(rs));
+            }
         }
         return liste;
     }
 
+    /** Compter les propriétaires */
+    public static int countProprietaires() {
+        String sql = "SELECT COUNT(*) FROM PROPRIETAIRE";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            if (rs.next()) return rs.getInt(1);
+
+        } catch (SQLException e) {
+            System.err.println("Erreur countProprietaires : " + e.getMessage());
+        }
+        return 0;
+    }
+
+    /** Identifiant du propriétaire à la position offset (ordre des identifiants), ou -1 */
+    public static int getIdProprietaireAt(int offset) {
+        String sql = "SELECT id_proprietaire FROM PROPRIETAIRE ORDER BY id_proprietaire LIMIT 1 OFFSET ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, offset);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur getIdProprietaireAt : " + e.getMessage());
+        }
+        return -1;
+    }
+
     /** Ajouter un propriétaire */
     public static boolean addProprietaire(String nom, String prenom, String adresse, String cp, String ville) {
         String sql = "INSERT INTO PROPRIETAIRE (nom, prenom, adresse, cp, ville) VALUES (?, ?, ?, ?, ?)";
@@ -108,6 +216,113 @@ public class Proprietaire {
         }
     }
 
+    /**
+     * Ajouter un propriétaire et renseigner l'identifiant généré
+     * @return true si l'ajout a réussi (p.getIdProprietaire() contient alors le nouvel identifiant)
+     */
+    public static boolean addProprietaire(Proprietaire p) {
+        String sql = "INSERT INTO PROPRIETAIRE (nom, prenom, adresse, cp, ville) VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            ps.setString(1, p.getNom());
+            ps.setString(2, p.getPrenom());
+            ps.setString(3, p.getAdresse());
+            ps.setString(4, p.getCp());
+            ps.setString(5, p.getVille());
+
+            if (ps.executeUpdate() == 0) return false;
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) p.setIdProprietaire(keys.getInt(1));
+            }
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Erreur addProprietaire : " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** Ajouter des propriétaires en masse (taille de lot par défaut) */
+    public static boolean[] addProprietaires(List<Proprietaire> proprietaires) {
+        return addProprietaires(proprietaires, DBConnection.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Ajouter des propriétaires en masse
+     * - les insertions sont envoyées par lots JDBC, une transaction par lot ;
+     * - l'identifiant généré est renseigné dans chaque propriétaire inséré.
+     * @return pour chaque propriétaire (même ordre) : true s'il a été inséré
+     */
+    public static boolean[] addProprietaires(List<Proprietaire> proprietaires, int batchSize) {
+        boolean[] results = new boolean[proprietaires.size()];
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            for (int start = 0; start < proprietaires.size(); start += batchSize) {
+                try {
+                    insertBatch(conn, proprietaires, start, Math.min(start + batchSize, proprietaires.size()), results);
+                } catch (SQLException e) {
+                    // le lot entier est annulé, les lots suivants continuent
+                    System.err.println("Erreur addProprietaires (lot annulé) : " + e.getMessage());
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur addProprietaires : " + e.getMessage());
+        }
+        return results;
+    }
+
+    /**
+     * Ajouter des propriétaires en masse ; l'erreur est propagée
+     * - même traitement que addProprietaires, mais le premier lot en échec arrête l'ajout ;
+     * - les lots précédents restent enregistrés (résultat true, identifiant renseigné).
+     */
+    public static boolean[] insertProprietaires(List<Proprietaire> proprietaires, int batchSize) throws SQLException {
+        boolean[] results = new boolean[proprietaires.size()];
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            for (int start = 0; start < proprietaires.size(); start += batchSize) {
+                insertBatch(conn, proprietaires, start, Math.min(start + batchSize, proprietaires.size()), results);
+            }
+        }
+        return results;
+    }
+
+    /** Insérer les propriétaires [start, end[ en une transaction (annulée et propagée en cas d'erreur) */
+    private static void insertBatch(Connection conn, List<Proprietaire> proprietaires, int start, int end, boolean[] results) throws SQLException {
+        String sql = "INSERT INTO PROPRIETAIRE (nom, prenom, adresse, cp, ville) VALUES (?, ?, ?, ?, ?)";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = start; i < end; i++) {
+                Proprietaire p = proprietaires.get(i);
+                ps.setString(1, p.getNom());
+                ps.setString(2, p.getPrenom());
+                ps.setString(3, p.getAdresse());
+                ps.setString(4, p.getCp());
+                ps.setString(5, p.getVille());
+                ps.addBatch();
+            }
+
+            ps.executeBatch();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (int i = start; i < end && keys.next(); i++) {
+                    proprietaires.get(i).setIdProprietaire(keys.getInt(1));
+                }
+            }
+            conn.commit();
+            for (int i = start; i < end; i++) results[i] = true;
+
+        } catch (SQLException e) {
+            DBConnection.rollback(conn, e);
+            throw e;
+        }
+    }
+
     /** Modifier un propriétaire */
     public static boolean updateProprietaire(int id, String nom, String prenom, String adresse, String cp, String ville) {
         String sql = "UPDATE PROPRIETAIRE SET nom=?, prenom=?, adresse=?, cp=?, ville=? WHERE id_proprietaire=?";
@@ -163,8 +378,52 @@ public class Proprietaire {
         return false;
     }
 
+    /**
+     * Récupérer plusieurs propriétaires par identifiant (une seule requête IN)
+     * @return association id_proprietaire -> propriétaire pour les identifiants trouvés
+     */
+    public static Map<Integer, Proprietaire> getProprietairesByIds(Collection<Integer> ids) {
+        try {
+            return loadProprietairesByIds(ids);
+        } catch (SQLException e) {
+            System.err.println("Erreur getProprietairesByIds : " + e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    /** Récupérer plusieurs propriétaires par identifiant ; l'erreur de lecture est propagée */
+    public static Map<Integer, Proprietaire> loadProprietairesByIds(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Proprietaire> result = new HashMap<>();
+        if (ids.isEmpty()) return result;
+        String sql = "SELECT * FROM PROPRIETAIRE WHERE id_proprietaire IN (" + DBConnection.placeholders(ids.size()) + ")";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = DBConnection.prepareUncached(conn, sql)) {
+
+            int i = 1;
+            for (int id : ids) ps.setInt(i++, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Proprietaire p = mapRow(rs);
+                    result.put(p.getIdProprietaire(), p);
+                }
+            }
+        }
+        return result;
+    }
+
     /** Récupérer un propriétaire par son ID */
     public static Proprietaire getProprietaireById(int id) {
+        try {
+            return loadProprietaireById(id);
+        } catch (SQLException e) {
+            System.err.println("Erreur getProprietaireById : " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Récupérer un propriétaire par son ID (null si absent) ; l'erreur de lecture est propagée */
+    public static Proprietaire loadProprietaireById(int id) throws SQLException {
         String sql = "SELECT * FROM PROPRIETAIRE WHERE id_proprietaire = ?";
 
         try (Connection conn = DBConnection.getConnection();
@@ -172,20 +431,8 @@ public class Proprietaire {
 
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    Proprietaire p = new Proprietaire();
-                    p.setIdProprietaire(rs.getInt("id_proprietaire"));
-                    p.setNom(rs.getString("nom"));
-                    p.setPrenom(rs.getString("prenom"));
-                    p.setAdresse(rs.getString("adresse"));
-                    p.setCp(rs.getString("cp"));
-                    p.setVille(rs.getString("ville"));
-                    return p;
-                }
+                if (rs.next()) return mapRow(rs);
             }
-
-        } catch (SQLException e) {
-            System.err.println("Erreur getProprietaireById : " + e.getMessage());
         }
 
         return null;
@@ -3,8 +3,14 @@ package models;
 import config.DBConnection;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Classe représentant un véhicule
@@ -65,6 +71,22 @@ public class Vehicule {
 
     // ================== DAO / CRUD ==================
 
+    private static final String INSERT_SQL =
+            "INSERT INTO VEHICULE (matricule, annee_sortie, poids, puissance_chevaux, puissance_fiscale, id_modele) VALUES (?, ?, ?, ?, ?, ?)";
+
+    /** Construire un véhicule à partir de la position courante du ResultSet */
+    private static Vehicule mapRow(ResultSet rs) throws SQLException {
+        Vehicule v = new Vehicule();
+        v.setIdVehicule(rs.getInt("id_vehicule"));
+        v.setMatricule(rs.getString("matricule"));
+        v.setAnneeSortie(rs.getInt("annee_sortie"));
+        v.setPoids(rs.getDouble("poids"));
+        v.setPuissanceChevaux(rs.getInt("puissance_chevaux"));
+        v.setPuissanceFiscale(rs.getInt("puissance_fiscale"));
+        v.setIdModele(rs.getInt("id_modele"));
+        return v;
+    }
+
     /** Récupérer tous les véhicules */
     public static List<Vehicule> getAllVehicules() {
         List<Vehicule> vehicules = new ArrayList<>();
@@ -74,17 +96,7 @@ public class Vehicule {
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                Vehicule v = new Vehicule();
-                v.setIdVehicule(rs.getInt("id_vehicule"));
-                v.setMatricule(rs.getString("matricule"));
-                v.setAnneeSortie(rs.getInt("annee_sortie"));
-                v.setPoids(rs.getDouble("poids"));
-                v.setPuissanceChevaux(rs.getInt("puissance_chevaux"));
-                v.setPuissanceFiscale(rs.getInt("puissance_fiscale"));
-                v.setIdModele(rs.getInt("id_modele"));
-                vehicules.add(v);
-            }
+            while (rs.next()) vehicules.add(mapRow(rs));
 
         } catch (SQLException e) {
             System.err.println("Erreur getAllVehicules : " + e.getMessage());
@@ -93,6 +105,76 @@ public class Vehicule {
         return vehicules;
     }
 
+    /**
+     * Parcourir tous les véhicules en flux (mémoire constante)
+     * @param consumer traitement appliqué à chaque véhicule, dans l'ordre des identifiants
+     * @return nombre de véhicules parcourus
+     */
+    public static int forEachVehicule(Consumer<Vehicule> consumer) {
+        try {
+            return streamVehicules(consumer);
+        } catch (SQLException e) {
+            System.err.println("Erreur forEachVehicule : " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Parcourir tous les véhicules en flux ; l'erreur est propagée
+     * (le parcours est alors incomplet : un index construit avec ne doit pas être utilisé)
+     * @param consumer traitement appliqué à chaque véhicule, dans l'ordre des identifiants
+     * @return nombre de véhicules parcourus
+     */
+    public static int streamVehicules(Consumer<Vehicule> consumer) throws SQLException {
+        String sql = "SELECT * FROM VEHICULE ORDER BY id_vehicule";
+        int count = 0;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = DBConnection.prepareStreaming(conn, sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                consumer.accept(mapRow(rs));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Compter les véhicules */
+    public static int countVehicules() {
+        String sql = "SELECT COUNT(*) FROM VEHICULE";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            if (rs.next()) return rs.getInt(1);
+
+        } catch (SQLException e) {
+            System.err.println("Erreur countVehicules : " + e.getMessage());
+        }
+        return 0;
+    }
+
+    /** Identifiant du véhicule à la position offset (ordre des identifiants), ou -1 */
+    public static int getIdVehiculeAt(int offset) {
+        String sql = "SELECT id_vehicule FROM VEHICULE ORDER BY id_vehicule LIMIT 1 OFFSET ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, offset);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur getIdVehiculeAt : " + e.getMessage());
+        }
+        return -1;
+    }
+
     /** Vérifie si un véhicule existe (par matricule) */
     public static boolean exists(String matricule, Integer excludeId) {
         String sql = "SELECT COUNT(*) FROM VEHICULE WHERE matricule = ?";
@@ -115,11 +197,9 @@ public class Vehicule {
         return false;
     }
 
-    /** Ajouter un véhicule */
+    /** Ajouter un véhicule (false si le matricule existe déjà : contrainte UNIQUE) */
     public static boolean addVehicule(String matricule, int annee, double poids, int chevaux, int fiscale, int idModele) {
-        if (exists(matricule, null)) return false;
-
-        String sql = "INSERT INTO VEHICULE (matricule, annee_sortie, poids, puissance_chevaux, puissance_fiscale, id_modele) VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = INSERT_SQL;
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -134,15 +214,236 @@ public class Vehicule {
             return ps.executeUpdate() > 0;
 
         } catch (SQLException e) {
-            System.err.println("Erreur addVehicule : " + e.getMessage());
+            if (DBConnection.isDuplicateKey(e)) System.err.println("Erreur addVehicule : le matricule existe déjà.");
+            else System.err.println("Erreur addVehicule : " + e.getMessage());
             return false;
         }
     }
 
-    /** Modifier un véhicule */
-    public static boolean updateVehicule(int id, String matricule, int annee, double poids, int chevaux, int fiscale, int idModele) {
-        if (exists(matricule, id)) return false;
+    /**
+     * Ajouter un véhicule et renseigner l'identifiant généré
+     * @return true si l'ajout a réussi (v.getIdVehicule() contient alors le nouvel identifiant)
+     */
+    public static boolean addVehicule(Vehicule v) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+            ps.setString(1, v.getMatricule());
+            ps.setInt(2, v.getAnneeSortie());
+            ps.setDouble(3, v.getPoids());
+            ps.setInt(4, v.getPuissanceChevaux());
+            ps.setInt(5, v.getPuissanceFiscale());
+            ps.setInt(6, v.getIdModele());
+
+            if (ps.executeUpdate() == 0) return false;
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) v.setIdVehicule(keys.getInt(1));
+            }
+            return true;
+
+        } catch (SQLException e) {
+            if (DBConnection.isDuplicateKey(e)) System.err.println("Erreur addVehicule : le matricule existe déjà.");
+            else System.err.println("Erreur addVehicule : " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Identifiants des véhicules déjà enregistrés pour un ensemble de matricules
+     * (une seule requête IN, à appeler par lots raisonnables)
+     * @return association matricule -> id_vehicule pour les matricules trouvés
+     */
+    public static Map<String, Integer> getIdsByMatricules(Collection<String> matricules) {
+        try {
+            return loadIdsByMatricules(matricules);
+        } catch (SQLException e) {
+            System.err.println("Erreur getIdsByMatricules : " + e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    /** Comme getIdsByMatricules, mais l'erreur est propagée (un matricule absent n'est alors jamais une panne) */
+    public static Map<String, Integer> loadIdsByMatricules(Collection<String> matricules) throws SQLException {
+        if (matricules.isEmpty()) return new HashMap<>();
+
+        try (Connection conn = DBConnection.getConnection()) {
+            return getIdsByMatricules(conn, matricules);
+        }
+    }
+
+    private static Map<String, Integer> getIdsByMatricules(Connection conn, Collection<String> matricules) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        String sql = "SELECT id_vehicule, matricule FROM VEHICULE WHERE matricule IN ("
+                + DBConnection.placeholders(matricules.size()) + ")";
+
+        try (PreparedStatement ps = DBConnection.prepareUncached(conn, sql)) {
+            int i = 1;
+            for (String m : matricules) ps.setString(i++, m);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.put(rs.getString("matricule"), rs.getInt("id_vehicule"));
+            }
+        }
+        return ids;
+    }
+
+    /** Ajouter des véhicules en masse (taille de lot par défaut, doublons rejetés) */
+    public static boolean[] addVehicules(List<Vehicule> vehicules) {
+        return addVehicules(vehicules, DBConnection.DEFAULT_BATCH_SIZE, ModeDoublon.REJETER);
+    }
+
+    /** Ajouter des véhicules en masse (doublons rejetés) */
+    public static boolean[] addVehicules(List<Vehicule> vehicules, int batchSize) {
+        return addVehicules(vehicules, batchSize, ModeDoublon.REJETER);
+    }
+
+    /**
+     * Ajouter des véhicules en masse
+     * - les doublons (déjà en base ou répétés dans la liste) sont détectés par une seule requête par lot ;
+     * - les insertions sont envoyées par lots JDBC, une transaction par lot ;
+     * - la lecture des doublons ne pose pas de verrou : un matricule enregistré entre-temps par un autre
+     *   client est refusé par la contrainte UNIQUE, et le lot est alors rejoué une fois (comme après
+     *   un interblocage) : la nouvelle lecture trouve le doublon, qui n'annule donc pas le lot ;
+     * - METTRE_A_JOUR s'appuie sur ON DUPLICATE KEY UPDATE (contrainte UNIQUE sur matricule) ;
+     * - l'identifiant est renseigné dans chaque véhicule inséré (ou mis à jour) ;
+     *   IGNORER : aussi dans un doublon ignoré, avec l'identifiant du véhicule déjà enregistré.
+     * @return pour chaque véhicule (même ordre) : true s'il a été inséré (ou mis à jour)
+     */
+    public static boolean[] addVehicules(List<Vehicule> vehicules, int batchSize, ModeDoublon mode) {
+        boolean[] results = new boolean[vehicules.size()];
+        String sql = insertSql(mode);
+        Set<String> seen = new HashSet<>();
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            for (int start = 0; start < vehicules.size(); start += batchSize) {
+                try {
+                    insertBatch(conn, sql, vehicules, start, Math.min(start + batchSize, vehicules.size()), mode, seen, results);
+                } catch (SQLException e) {
+                    // le lot entier est annulé, les lots suivants continuent
+                    System.err.println("Erreur addVehicules (lot annulé) : " + e.getMessage());
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur addVehicules : " + e.getMessage());
+        }
+        return results;
+    }
+
+    /**
+     * Ajouter des véhicules en masse ; l'erreur est propagée
+     * - même traitement que addVehicules, mais le premier lot en échec arrête l'ajout ;
+     * - exception : un lot encore refusé pour doublon après avoir été rejoué est refusé
+     *   (résultat false) sans arrêter l'ajout ;
+     * - les lots précédents restent enregistrés (résultat true, identifiant renseigné).
+     */
+    public static boolean[] insertVehicules(List<Vehicule> vehicules, int batchSize, ModeDoublon mode) throws SQLException {
+        boolean[] results = new boolean[vehicules.size()];
+        String sql = insertSql(mode);
+        Set<String> seen = new HashSet<>();
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            for (int start = 0; start < vehicules.size(); start += batchSize) {
+                try {
+                    insertBatch(conn, sql, vehicules, start, Math.min(start + batchSize, vehicules.size()), mode, seen, results);
+                } catch (SQLException e) {
+                    if (!DBConnection.isDuplicateKey(e)) throw e;
+                    System.err.println("Erreur insertVehicules (lot refusé) : " + e.getMessage());
+                }
+            }
+        }
+        return results;
+    }
+
+    private static String insertSql(ModeDoublon mode) {
+        if (mode == ModeDoublon.METTRE_A_JOUR) {
+            return INSERT_SQL + " ON DUPLICATE KEY UPDATE annee_sortie = VALUES(annee_sortie), poids = VALUES(poids),"
+                 + " puissance_chevaux = VALUES(puissance_chevaux), puissance_fiscale = VALUES(puissance_fiscale),"
+                 + " id_modele = VALUES(id_modele)";
+        }
+        return INSERT_SQL;
+    }
+
+    /**
+     * Insérer les véhicules [start, end[ en une transaction ; rejouée une fois si un autre client
+     * a enregistré l'un des matricules entre-temps (1062) ou en cas d'interblocage (1213)
+     */
+    private static void insertBatch(Connection conn, String sql, List<Vehicule> vehicules, int start, int end,
+                                    ModeDoublon mode, Set<String> seen, boolean[] results) throws SQLException {
+        try {
+            insertBatchOnce(conn, sql, vehicules, start, end, mode, seen, results);
+        } catch (SQLException e) {
+            if (!DBConnection.isDuplicateKey(e) && !DBConnection.isDeadlock(e)) throw e;
+            insertBatchOnce(conn, sql, vehicules, start, end, mode, seen, results);
+        }
+    }
+
+    /** Une tentative : transaction annulée et erreur propagée en cas d'échec */
+    private static void insertBatchOnce(Connection conn, String sql, List<Vehicule> vehicules, int start, int end,
+                                        ModeDoublon mode, Set<String> seen, boolean[] results) throws SQLException {
+        List<Integer> inserted = new ArrayList<>();
+        try {
+            List<Vehicule> batch = vehicules.subList(start, end);
+            Set<String> plates = new HashSet<>();
+            for (Vehicule v : batch) plates.add(v.getMatricule());
+            // lecture sans verrou (aucun verrou d'intervalle sur les matricules absents) :
+            // la contrainte UNIQUE reste le seul arbitre d'un doublon concurrent
+            Map<String, Integer> existing = getIdsByMatricules(conn, plates);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    Vehicule v = batch.get(i);
+                    Integer existingId = existing.get(v.getMatricule());
+                    if (mode == ModeDoublon.IGNORER && existingId != null) v.setIdVehicule(existingId);
+                    if (mode != ModeDoublon.METTRE_A_JOUR
+                            && (existingId != null || !seen.add(v.getMatricule()))) continue; // doublon
+
+                    ps.setString(1, v.getMatricule());
+                    ps.setInt(2, v.getAnneeSortie());
+                    ps.setDouble(3, v.getPoids());
+                    ps.setInt(4, v.getPuissanceChevaux());
+                    ps.setInt(5, v.getPuissanceFiscale());
+                    ps.setInt(6, v.getIdModele());
+                    ps.addBatch();
+                    inserted.add(start + i);
+                }
+                if (inserted.isEmpty()) {
+                    conn.commit();
+                    return;
+                }
+
+                ps.executeBatch();
+                if (mode != ModeDoublon.METTRE_A_JOUR) {
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (int index : inserted) {
+                            if (!keys.next()) break;
+                            vehicules.get(index).setIdVehicule(keys.getInt(1));
+                        }
+                    }
+                } else {
+                    // clés générées non fiables avec ON DUPLICATE KEY UPDATE : relecture par matricule
+                    Map<String, Integer> ids = getIdsByMatricules(conn, plates);
+                    for (int index : inserted) {
+                        Integer id = ids.get(vehicules.get(index).getMatricule());
+                        if (id != null) vehicules.get(index).setIdVehicule(id);
+                    }
+                }
+            }
+            conn.commit();
+            for (int index : inserted) results[index] = true;
 
+        } catch (SQLException e) {
+            DBConnection.rollback(conn, e);
+            for (int index : inserted) seen.remove(vehicules.get(index).getMatricule());
+            throw e;
+        }
+    }
+
+    /** Modifier un véhicule (false si le matricule est déjà pris par un autre véhicule) */
+    public static boolean updateVehicule(int id, String matricule, int annee, double poids, int chevaux, int fiscale, int idModele) {
         String sql = "UPDATE VEHICULE SET matricule=?, annee_sortie=?, poids=?, puissance_chevaux=?, puissance_fiscale=?, id_modele=? WHERE id_vehicule=?";
 
         try (Connection conn = DBConnection.getConnection();
@@ -159,7 +460,8 @@ public class Vehicule {
             return ps.executeUpdate() > 0;
 
         } catch (SQLException e) {
-            System.err.println("Erreur updateVehicule : " + e.getMessage());
+            if (DBConnection.isDuplicateKey(e)) System.err.println("Erreur updateVehicule : le matricule existe déjà.");
+            else System.err.println("Erreur updateVehicule : " + e.getMessage());
             return false;
         }
     }
@@ -199,6 +501,16 @@ public class Vehicule {
 
     /** Récupérer un véhicule par son ID */
     public static Vehicule getVehiculeById(int id) {
+        try {
+            return loadVehiculeById(id);
+        } catch (SQLException e) {
+            System.err.println("Erreur getVehiculeById : " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Récupérer un véhicule par son ID (null si absent) ; l'erreur de lecture est propagée */
+    public static Vehicule loadVehiculeById(int id) throws SQLException {
         String sql = "SELECT * FROM VEHICULE WHERE id_vehicule = ?";
 
         try (Connection conn = DBConnection.getConnection();
@@ -206,21 +518,8 @@ public class Vehicule {
 
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    Vehicule v = new Vehicule();
-                    v.setIdVehicule(rs.getInt("id_vehicule"));
-                    v.setMatricule(rs.getString("matricule"));
-                    v.setAnneeSortie(rs.getInt("annee_sortie"));
-                    v.setPoids(rs.getDouble("poids"));
-                    v.setPuissanceChevaux(rs.getInt("puissance_chevaux"));
-                    v.setPuissanceFiscale(rs.getInt("puissance_fiscale"));
-                    v.setIdModele(rs.getInt("id_modele"));
-                    return v;
-                }
+                if (rs.next()) return mapRow(rs);
             }
-
-        } catch (SQLException e) {
-            System.err.println("Erreur getVehiculeById : " + e.getMessage());
         }
 
         return null;
@@ -0,0 +1,203 @@
+package models;
+
+import config.DBConnection;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Ligne d'affichage d'un véhicule (projection à plat)
+ * ---------------------------------------------------
+ * Regroupe les champs du véhicule et les noms du modèle et de la marque,
+ * obtenus en une seule requête (jointure VEHICULE / MODELE / MARQUE)
+ * au lieu d'une requête par ligne pour le modèle puis la marque.
+ */
+public class VehiculeRow {
+
+    /** Jointure commune à toutes les requêtes de projection */
+    static final String SELECT_JOIN =
+            "SELECT v.id_vehicule, v.matricule, v.annee_sortie, v.poids, v.puissance_chevaux, v.puissance_fiscale, "
+          + "v.id_modele, mo.nom_modele, ma.id_marque, ma.nom_marque "
+          + "FROM VEHICULE v "
+          + "LEFT JOIN MODELE mo ON mo.id_modele = v.id_modele "
+          + "LEFT JOIN MARQUE ma ON ma.id_marque = mo.id_marque";
+
+    private int idVehicule;
+    private String matricule;
+    private int anneeSortie;
+    private double poids;
+    private int puissanceChevaux;
+    private int puissanceFiscale;
+    private int idModele;
+    private String nomModele;
+    private int idMarque;
+    private String nomMarque;
+
+    // ================== GETTERS ==================
+    public int getIdVehicule() { return idVehicule; }
+    public String getMatricule() { return matricule; }
+    public int getAnneeSortie() { return anneeSortie; }
+    public double getPoids() { return poids; }
+    public int getPuissanceChevaux() { return puissanceChevaux; }
+    public int getPuissanceFiscale() { return puissanceFiscale; }
+    public int getIdModele() { return idModele; }
+    public String getNomModele() { return nomModele; }
+    public int getIdMarque() { return idMarque; }
+    public String getNomMarque() { return nomMarque; }
+
+    @Override
+    public String toString() { return matricule; }
+
+    /**
+     * Construire une ligne sans requête, à partir d'un véhicule enregistré
+     * et de son modèle et de sa marque (lus dans les caches de référence)
+     */
+    public static VehiculeRow of(Vehicule v, Modele modele, Marque marque) {
+        VehiculeRow r = new VehiculeRow();
+        r.idVehicule = v.getIdVehicule();
+        r.matricule = v.getMatricule();
+        r.anneeSortie = v.getAnneeSortie();
+        r.poids = v.getPoids();
+        r.puissanceChevaux = v.getPuissanceChevaux();
+        r.puissanceFiscale = v.getPuissanceFiscale();
+        r.idModele = v.getIdModele();
+        r.nomModele = modele != null ? modele.getNomModele() : null;
+        r.idMarque = marque != null ? marque.getIdMarque() : 0;
+        r.nomMarque = marque != null ? marque.getNomMarque() : null;
+        return r;
+    }
+
+    /** Copie de la ligne avec un modèle modifié (nom ou marque) */
+    public VehiculeRow withModele(Modele modele, Marque marque) {
+        VehiculeRow r = copy();
+        r.nomModele = modele.getNomModele();
+        r.idMarque = marque != null ? marque.getIdMarque() : 0;
+        r.nomMarque = marque != null ? marque.getNomMarque() : null;
+        return r;
+    }
+
+    /** Copie de la ligne avec une marque renommée */
+    public VehiculeRow withMarque(Marque marque) {
+        VehiculeRow r = copy();
+        r.nomMarque = marque.getNomMarque();
+        return r;
+    }
+
+    private VehiculeRow copy() {
+        VehiculeRow r = new VehiculeRow();
+        r.idVehicule = idVehicule;
+        r.matricule = matricule;
+        r.anneeSortie = anneeSortie;
+        r.poids = poids;
+        r.puissanceChevaux = puissanceChevaux;
+        r.puissanceFiscale = puissanceFiscale;
+        r.idModele = idModele;
+        r.nomModele = nomModele;
+        r.idMarque = idMarque;
+        r.nomMarque = nomMarque;
+        return r;
+    }
+
+    // ================== DAO ==================
+
+    /** Construire une ligne à partir de la position courante du ResultSet */
+    static VehiculeRow mapRow(ResultSet rs) throws SQLException {
+        VehiculeRow r = new VehiculeRow();
+        r.idVehicule = rs.getInt("id_vehicule");
+        r.matricule = rs.getString("matricule");
+        r.anneeSortie = rs.getInt("annee_sortie");
+        r.poids = rs.getDouble("poids");
+        r.puissanceChevaux = rs.getInt("puissance_chevaux");
+        r.puissanceFiscale = rs.getInt("puissance_fiscale");
+        r.idModele = rs.getInt("id_modele");
+        r.nomModele = rs.getString("nom_modele");
+        r.idMarque = rs.getInt("id_marque");
+        r.nomMarque = rs.getString("nom_marque");
+        return r;
+    }
+
+    /** Récupérer tous les véhicules avec leur modèle et leur marque (une seule requête) */
+    public static List<VehiculeRow> getAllVehiculeRows() {
+        List<VehiculeRow> rows = new ArrayList<>();
+        String sql = SELECT_JOIN + " ORDER BY v.id_vehicule";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) rows.add(mapRow(rs));
+
+        } catch (SQLException e) {
+            System.err.println("Erreur getAllVehiculeRows : " + e.getMessage());
+        }
+        return rows;
+    }
+
+    /**
+     * Parcourir tous les véhicules avec modèle et marque en flux (mémoire constante)
+     * @param consumer traitement appliqué à chaque ligne, dans l'ordre des identifiants
+     * @return nombre de lignes parcourues
+     */
+    public static int forEachVehiculeRow(Consumer<VehiculeRow> consumer) {
+        try {
+            return streamVehiculeRows(consumer);
+        } catch (SQLException e) {
+            System.err.println("Erreur forEachVehiculeRow : " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Parcourir toutes les lignes en flux ; l'erreur est propagée
+     * (le parcours est alors incomplet : un export ne doit pas être conservé)
+     * @param consumer traitement appliqué à chaque ligne
+     * @return nombre de lignes parcourues
+     */
+    public static int streamVehiculeRows(Consumer<VehiculeRow> consumer) throws SQLException {
+        String sql = SELECT_JOIN + " ORDER BY v.id_vehicule";
+        int count = 0;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = DBConnection.prepareStreaming(conn, sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                consumer.accept(mapRow(rs));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Récupérer une page de véhicules (pagination par clé)
+     * @param afterId identifiant après lequel commencer (0 pour la première page)
+     * @param limit nombre maximum de lignes
+     */
+    public static List<VehiculeRow> getVehiculeRowsAfter(int afterId, int limit) {
+        try {
+            return loadVehiculeRowsAfter(afterId, limit);
+        } catch (SQLException e) {
+            System.err.println("Erreur getVehiculeRowsAfter : " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /** Page de véhicules (pagination par clé) ; l'erreur de lecture est propagée */
+    public static List<VehiculeRow> loadVehiculeRowsAfter(int afterId, int limit) throws SQLException {
+        List<VehiculeRow> rows = new ArrayList<>();
+        String sql = SELECT_JOIN + " WHERE v.id_vehicule > ? ORDER BY v.id_vehicule LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) rows.add(mapRow(rs));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,629 @@
+package server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import controllers.AsyncExecutor;
+import controllers.MarqueController;
+import controllers.ModeleController;
+import controllers.PossederController;
+import controllers.ProprietaireController;
+import controllers.VehiculeController;
+import exportation.Json;
+import models.Marque;
+import models.Modele;
+import models.Posseder;
+import models.PossessionRow;
+import models.Proprietaire;
+import models.Vehicule;
+import models.VehiculeRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API HTTP/JSON en lecture sur le registre (sans interface Swing)
+ * ---------------------------------------------------------------
+ * Serveur du JDK (com.sun.net.httpserver), un thread virtuel par requête
+ * (pool de threads classique si la JVM ne les propose pas).
+ *
+ * Ressources (GET et HEAD) :
+ *   /api/marques                      /api/marques/{id}
+ *   /api/modeles[?marque=id]          /api/modeles/{id}
+ *   /api/vehicules[?matricule=...]    /api/vehicules/{id}
+ *   /api/vehicules/{id}/proprietaire?date=AAAA-MM-JJ
+ *   /api/proprietaires[?q=...]        /api/proprietaires/{id}
+ *   /api/possessions                  /api/possessions/{idProprietaire}/{idVehicule}
+ *   /api/sante
+ *
+ * - Pagination par clé : ?after=dernier id lu (possessions : idProprietaire:idVehicule)
+ *   &limit=N ; la réponse donne l'adresse de la page suivante ("next", null à la fin).
+ * - GET conditionnel : ETag = empreinte du JSON renvoyé (les tables n'ont pas de colonne
+ *   de version : le contenu de la ligne en tient lieu) ; If-None-Match identique -> 304 sans corps.
+ * - Files bornées : au plus maxConcurrent requêtes traitées en même temps (le pool de
+ *   connexions est borné lui aussi) et queueCapacity en attente ; au-delà, 503 immédiat
+ *   avec Retry-After, sans toucher à la base.
+ * - Les recherches par identifiant, matricule et date passent par les caches et index
+ *   des contrôleurs : la plupart des lectures ne font aucune requête SQL.
+ * - Fraîcheur : le serveur n'écrit rien, les événements des autres processus ne lui
+ *   parviennent pas. Les caches par identifiant expirent (-Dcartegrise.cache.ttlMs) ; index
+ *   (matricules, périodes, recherche) et tables de référence (marques, modèles) sont relus
+ *   toutes les refreshMs (-Dcartegrise.api.refreshMs) ; 5 minutes par défaut pour les deux :
+ *   une réponse, ETag compris, a au plus ce retard (plus la durée d'une relecture). Un matricule ou une date absents de l'index sont cherchés en base :
+ *   un véhicule ou une possession ajoutés depuis ne donnent pas de 404.
+ * - Lectures par les variantes load* des contrôleurs : une ressource absente (404) ou une
+ *   liste vide se distingue d'une base illisible (503 avec Retry-After, sans ETag : une
+ *   panne ne doit jamais être mise en cache ni confirmée par un 304).
+ */
+public class ApiServer {
+
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_MAX_CONCURRENT = Integer.getInteger("cartegrise.pool.max", 10);
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+    public static final long REFRESH_MS = Long.getLong("cartegrise.api.refreshMs", 300_000L);
+
+    private static final String JSON = "application/json; charset=utf-8";
+
+    // Requête admise (true) ou refusée faute de place dans la file (false), pour le thread qui la traite
+    private static final ThreadLocal<Boolean> ADMITTED = new ThreadLocal<>();
+
+    private final MarqueController marqueController = new MarqueController();
+    private final ModeleController modeleController = new ModeleController();
+    private final VehiculeController vehiculeController = new VehiculeController();
+    private final ProprietaireController proprietaireController = new ProprietaireController();
+    private final PossederController possederController = new PossederController();
+
+    private final int port;
+    private final int maxConcurrent;
+    private final Semaphore admission;  // requêtes en cours + en attente
+    private final Semaphore processing; // requêtes en cours
+    private final LongAdder served = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private HttpServer server;
+    private ExecutorService workers;
+    private ScheduledExecutorService refresher;
+    private boolean virtualThreads;
+
+    public ApiServer(int port, int maxConcurrent, int queueCapacity) {
+        this.port = port;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.admission = new Semaphore(this.maxConcurrent + Math.max(0, queueCapacity));
+        this.processing = new Semaphore(this.maxConcurrent);
+    }
+
+    public ApiServer(int port) {
+        this(port, DEFAULT_MAX_CONCURRENT, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public int getPort() { return server != null ? server.getAddress().getPort() : port; }
+    public boolean usesVirtualThreads() { return virtualThreads; }
+    public long getRequestsServed() { return served.sum(); }
+    public long getRequestsRejected() { return rejected.sum(); }
+
+    // ================== DÉMARRAGE / ARRÊT ==================
+
+    /** Démarrer le serveur (port 0 : port libre choisi par le système) */
+    public void start() throws IOException {
+        workers = AsyncExecutor.newVirtualThreadExecutor();
+        virtualThreads = workers != null;
+        if (workers == null) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory factory = r -> {
+                Thread t = new Thread(r, "api-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+            workers = Executors.newFixedThreadPool(maxConcurrent, factory);
+        }
+
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/api/", this::handle);
+        // admission décidée dès la réception : la file d'attente ne grossit pas au-delà de sa capacité ;
+        // une requête refusée reçoit son 503 tout de suite, sur le thread de réception
+        server.setExecutor(exchange -> {
+            if (!admission.tryAcquire()) {
+                runAs(false, exchange);
+                return;
+            }
+            workers.execute(() -> {
+                try {
+                    runAs(true, exchange);
+                } finally {
+                    admission.release();
+                }
+            });
+        });
+        server.start();
+
+        if (REFRESH_MS > 0) {
+            refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "api-rafraichissement");
+                t.setDaemon(true);
+                return t;
+            });
+            refresher.scheduleWithFixedDelay(this::refresh, REFRESH_MS, REFRESH_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Relire index et tables de référence déjà chargés (modifications faites par d'autres processus) */
+    private void refresh() {
+        MarqueController.getCache().reload();
+        ModeleController.getCache().reload();
+        Runnable[] indexes = { vehiculeController::refresh, proprietaireController::refresh, possederController::refresh };
+        for (Runnable index : indexes) {
+            try {
+                index.run();
+            } catch (RuntimeException e) {
+                // l'ancienne structure reste servie, nouvel essai au prochain passage
+                System.err.println("Erreur rafraîchissement : " + e.getMessage());
+            }
+        }
+    }
+
+    private static void runAs(boolean admitted, Runnable exchange) {
+        ADMITTED.set(admitted);
+        try {
+            exchange.run();
+        } finally {
+            ADMITTED.remove();
+        }
+    }
+
+    /** Arrêter le serveur (les requêtes en cours ont delaySeconds pour se terminer) */
+    public void stop(int delaySeconds) {
+        if (server != null) server.stop(delaySeconds);
+        if (workers != null) workers.shutdown();
+        if (refresher != null) refresher.shutdownNow();
+    }
+
+    // ================== TRAITEMENT D'UNE REQUÊTE ==================
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!Boolean.TRUE.equals(ADMITTED.get())) {
+                rejected.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 503, error("serveur saturé, réessayer plus tard"));
+                return;
+            }
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                send(exchange, 405, error("méthode non autorisée : " + method));
+                return;
+            }
+
+            processing.acquireUninterruptibly();
+            try {
+                respond(exchange, route(exchange));
+                served.increment();
+            } finally {
+                processing.release();
+            }
+        } catch (BadRequest e) {
+            send(exchange, 400, error(e.getMessage()));
+        } catch (SQLException e) {
+            unavailable(exchange, e);
+        } catch (RuntimeException e) {
+            // index ou cache impossible à charger (IllegalStateException causée par une SQLException)
+            if (e.getCause() instanceof SQLException) {
+                unavailable(exchange, e);
+                return;
+            }
+            System.err.println("Erreur API " + exchange.getRequestURI() + " : " + e.getMessage());
+            send(exchange, 500, error("erreur interne"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /** Base de données illisible : 503 sans ETag, le client peut réessayer */
+    private static void unavailable(HttpExchange exchange, Exception e) throws IOException {
+        System.err.println("Erreur API " + exchange.getRequestURI() + " : " + e.getMessage());
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        send(exchange, 503, error("base de données indisponible, réessayer plus tard"));
+    }
+
+    /** Réponse JSON avec ETag, ou 304 si le client a déjà cette version */
+    private void respond(HttpExchange exchange, CharSequence json) throws IOException {
+        if (json == null) {
+            send(exchange, 404, error("ressource introuvable : " + exchange.getRequestURI().getPath()));
+            return;
+        }
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        String etag = etag(body);
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", etag);
+        headers.set("Cache-Control", "no-cache"); // le client revalide, le 304 évite de renvoyer le corps
+
+        if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        headers.set("Content-Type", JSON);
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, CharSequence json) throws IOException {
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // ================== ROUTAGE ==================
+
+    /** JSON de la ressource demandée, ou null si elle n'existe pas (SQLException : base illisible) */
+    private CharSequence route(HttpExchange exchange) throws SQLException {
+        String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String resource = path[0];
+        int depth = path.length;
+
+        switch (resource) {
+            case "sante":
+                return depth == 1 ? health() : null;
+            case "marques":
+                if (depth == 1) return marques(query);
+                return depth == 2 ? marque(toInt(path[1], "id")) : null;
+            case "modeles":
+                if (depth == 1) return modeles(query);
+                return depth == 2 ? modele(toInt(path[1], "id")) : null;
+            case "vehicules":
+                if (depth == 1) return vehicules(query);
+                if (depth == 2) return vehicule(vehiculeController.loadVehiculeById(toInt(path[1], "id")));
+                return depth == 3 && path[2].equals("proprietaire") ? proprietaireAt(toInt(path[1], "id"), query) : null;
+            case "proprietaires":
+                if (depth == 1) return proprietaires(query);
+                return depth == 2 ? proprietaire(proprietaireController.loadProprietaireById(toInt(path[1], "id"))) : null;
+            case "possessions":
+                if (depth == 1) return possessions(query);
+                return depth == 3 ? possession(toInt(path[1], "idProprietaire"), toInt(path[2], "idVehicule")) : null;
+            default:
+                return null;
+        }
+    }
+
+    private CharSequence health() {
+        StringBuilder sb = new StringBuilder();
+        return new Json.Obj(sb)
+                .field("statut", "ok")
+                .field("threads_virtuels", virtualThreads)
+                .field("requetes_servies", served.sum())
+                .field("requetes_refusees", rejected.sum())
+                .end();
+    }
+
+    // ---------- Marques et modèles (tables de référence, servies par le cache) ----------
+
+    private CharSequence marques(Map<String, String> query) throws SQLException {
+        int after = toInt(query.getOrDefault("after", "0"), "after");
+        int limit = limit(query);
+        List<Marque> page = new ArrayList<>();
+        for (Marque m : marqueController.loadAllMarques()) {
+            if (m.getIdMarque() > after) page.add(m);
+        }
+        page.sort(Comparator.comparingInt(Marque::getIdMarque));
+        boolean more = page.size() > limit;
+        if (more) page = page.subList(0, limit);
+
+        StringBuilder sb = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) sb.append(',');
+            appendMarque(sb, page.get(i));
+        }
+        String next = more ? "/api/marques?after=" + page.get(page.size() - 1).getIdMarque() + "&limit=" + limit : null;
+        return endPage(sb, next);
+    }
+
+    private CharSequence marque(int id) throws SQLException {
+        Marque m = marqueController.loadMarqueById(id);
+        return m == null ? null : appendMarque(new StringBuilder(), m);
+    }
+
+    private CharSequence modeles(Map<String, String> query) throws SQLException {
+        int after = toInt(query.getOrDefault("after", "0"), "after");
+        int limit = limit(query);
+        Integer idMarque = query.containsKey("marque") ? toInt(query.get("marque"), "marque") : null;
+        List<Modele> page = new ArrayList<>();
+        for (Modele m : modeleController.loadAllModeles()) {
+            if (m.getIdModele() > after && (idMarque == null || m.getIdMarque() == idMarque)) page.add(m);
+        }
+        page.sort(Comparator.comparingInt(Modele::getIdModele));
+        boolean more = page.size() > limit;
+        if (more) page = page.subList(0, limit);
+
+        StringBuilder sb = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) sb.append(',');
+            appendModele(sb, page.get(i));
+        }
+        String next = null;
+        if (more) {
+            next = "/api/modeles?after=" + page.get(page.size() - 1).getIdModele() + "&limit=" + limit
+                    + (idMarque != null ? "&marque=" + idMarque : "");
+        }
+        return endPage(sb, next);
+    }
+
+    private CharSequence modele(int id) throws SQLException {
+        Modele m = modeleController.loadModeleById(id);
+        return m == null ? null : appendModele(new StringBuilder(), m);
+    }
+
+    // ---------- Véhicules ----------
+
+    private CharSequence vehicules(Map<String, String> query) throws SQLException {
+        if (query.containsKey("matricule")) { // recherche exacte (index des matricules)
+            return vehicule(vehiculeController.loadByMatricule(query.get("matricule")));
+        }
+        int after = toInt(query.getOrDefault("after", "0"), "after");
+        int limit = limit(query);
+        List<VehiculeRow> page = vehiculeController.loadVehiculeRowsAfter(after, limit + 1);
+        boolean more = page.size() > limit;
+        if (more) page = page.subList(0, limit);
+
+        StringBuilder sb = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) sb.append(',');
+            appendVehicule(sb, page.get(i));
+        }
+        String next = more ? "/api/vehicules?after=" + page.get(page.size() - 1).getIdVehicule() + "&limit=" + limit : null;
+        return endPage(sb, next);
+    }
+
+    private CharSequence vehicule(Vehicule v) throws SQLException {
+        return v == null ? null : appendVehicule(new StringBuilder(), vehiculeController.loadVehiculeRow(v));
+    }
+
+    private CharSequence proprietaireAt(int idVehicule, Map<String, String> query) throws SQLException {
+        if (vehiculeController.loadVehiculeById(idVehicule) == null) return null;
+        Date date = query.containsKey("date") ? toDate(query.get("date")) : Date.valueOf(LocalDate.now());
+        Proprietaire p = possederController.loadOwnerAt(idVehicule, date);
+
+        StringBuilder sb = new StringBuilder();
+        Json.Obj obj = new Json.Obj(sb).field("id_vehicule", idVehicule).field("date", date.toString());
+        if (p == null) obj.field("proprietaire", (Object) null);
+        else obj.raw("proprietaire", appendProprietaire(new StringBuilder(), p));
+        return obj.end();
+    }
+
+    // ---------- Propriétaires ----------
+
+    private CharSequence proprietaires(Map<String, String> query) throws SQLException {
+        int limit = limit(query);
+        if (query.containsKey("q")) { // recherche approchée (index des noms), sans pagination
+            List<Proprietaire> hits = proprietaireController.loadProprietairesMatching(query.get("q"), limit);
+            StringBuilder sb = new StringBuilder("{\"items\":[");
+            for (int i = 0; i < hits.size(); i++) {
+                if (i > 0) sb.append(',');
+                appendProprietaire(sb, hits.get(i));
+            }
+            return endPage(sb, null);
+        }
+        int after = toInt(query.getOrDefault("after", "0"), "after");
+        List<Proprietaire> page = proprietaireController.loadProprietairesAfter(after, limit + 1);
+        boolean more = page.size() > limit;
+        if (more) page = page.subList(0, limit);
+
+        StringBuilder sb = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) sb.append(',');
+            appendProprietaire(sb, page.get(i));
+        }
+        String next = more ? "/api/proprietaires?after=" + page.get(page.size() - 1).getIdProprietaire() + "&limit=" + limit : null;
+        return endPage(sb, next);
+    }
+
+    private CharSequence proprietaire(Proprietaire p) {
+        return p == null ? null : appendProprietaire(new StringBuilder(), p);
+    }
+
+    // ---------- Possessions (clé composée) ----------
+
+    private CharSequence possessions(Map<String, String> query) throws SQLException {
+        int afterProprietaire = 0;
+        int afterVehicule = 0;
+        String after = query.get("after");
+        if (after != null) {
+            int colon = after.indexOf(':');
+            if (colon < 0) throw new BadRequest("after attendu au format idProprietaire:idVehicule");
+            afterProprietaire = toInt(after.substring(0, colon), "after");
+            afterVehicule = toInt(after.substring(colon + 1), "after");
+        }
+        int limit = limit(query);
+        List<PossessionRow> page = possederController.loadPossessionRowsAfter(afterProprietaire, afterVehicule, limit + 1);
+        boolean more = page.size() > limit;
+        if (more) page = page.subList(0, limit);
+
+        StringBuilder sb = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) sb.append(',');
+            appendPossession(sb, page.get(i));
+        }
+        String next = null;
+        if (more) {
+            PossessionRow last = page.get(page.size() - 1);
+            next = "/api/possessions?after=" + last.getIdProprietaire() + ":" + last.getIdVehicule() + "&limit=" + limit;
+        }
+        return endPage(sb, next);
+    }
+
+    private CharSequence possession(int idProprietaire, int idVehicule) throws SQLException {
+        Posseder p = possederController.loadPossession(idProprietaire, idVehicule);
+        return p == null ? null : appendPossession(new StringBuilder(), possederController.loadPossessionRow(p));
+    }
+
+    // ================== ÉCRITURE JSON ==================
+
+    private static StringBuilder appendMarque(StringBuilder sb, Marque m) {
+        return new Json.Obj(sb)
+                .field("id_marque", m.getIdMarque())
+                .field("nom_marque", m.getNomMarque())
+                .end();
+    }
+
+    private static StringBuilder appendModele(StringBuilder sb, Modele m) {
+        return new Json.Obj(sb)
+                .field("id_modele", m.getIdModele())
+                .field("nom_modele", m.getNomModele())
+                .field("id_marque", m.getIdMarque())
+                .end();
+    }
+
+    private static StringBuilder appendVehicule(StringBuilder sb, VehiculeRow v) {
+        return new Json.Obj(sb)
+                .field("id_vehicule", v.getIdVehicule())
+                .field("matricule", v.getMatricule())
+                .field("annee_sortie", v.getAnneeSortie())
+                .field("poids", v.getPoids())
+                .field("puissance_chevaux", v.getPuissanceChevaux())
+                .field("puissance_fiscale", v.getPuissanceFiscale())
+                .field("id_modele", v.getIdModele())
+                .field("nom_modele", v.getNomModele())
+                .field("id_marque", v.getIdMarque())
+                .field("nom_marque", v.getNomMarque())
+                .end();
+    }
+
+    private static StringBuilder appendProprietaire(StringBuilder sb, Proprietaire p) {
+        return new Json.Obj(sb)
+                .field("id_proprietaire", p.getIdProprietaire())
+                .field("nom", p.getNom())
+                .field("prenom", p.getPrenom())
+                .field("adresse", p.getAdresse())
+                .field("cp", p.getCp())
+                .field("ville", p.getVille())
+                .end();
+    }
+
+    private static StringBuilder appendPossession(StringBuilder sb, PossessionRow p) {
+        return new Json.Obj(sb)
+                .field("id_proprietaire", p.getIdProprietaire())
+                .field("proprietaire", p.getNomProprietaire())
+                .field("id_vehicule", p.getIdVehicule())
+                .field("matricule", p.getMatricule())
+                .field("date_debut_propriete", p.getDateDebut() != null ? p.getDateDebut().toString() : null)
+                .field("date_fin_propriete", p.getDateFin() != null ? p.getDateFin().toString() : null)
+                .end();
+    }
+
+    /** Fermer la liste "items" et indiquer la page suivante */
+    private static StringBuilder endPage(StringBuilder sb, String next) {
+        sb.append("],\"next\":");
+        Json.appendString(sb, next);
+        return sb.append('}');
+    }
+
+    private static StringBuilder error(String message) {
+        return new Json.Obj(new StringBuilder()).field("erreur", message).end();
+    }
+
+    // ================== ETAG ==================
+
+    /** Empreinte du corps de la réponse (SHA-256 tronqué) */
+    static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12)) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // SHA-256 est fourni par toutes les JVM
+        }
+    }
+
+    /** If-None-Match : liste d'ETag séparés par des virgules, "*" ou étiquettes faibles W/"..." */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    // ================== PARAMÈTRES ==================
+
+    /** Paramètre invalide : réponse 400 */
+    private static class BadRequest extends RuntimeException {
+        BadRequest(String message) { super(message); }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            try {
+                params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequest("paramètre mal encodé : " + name);
+            }
+        }
+        return params;
+    }
+
+    private static int limit(Map<String, String> query) {
+        int limit = toInt(query.getOrDefault("limit", String.valueOf(DEFAULT_LIMIT)), "limit");
+        if (limit < 1 || limit > MAX_LIMIT) throw new BadRequest("limit doit être compris entre 1 et " + MAX_LIMIT);
+        return limit;
+    }
+
+    private static int toInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequest(name + " invalide : " + value);
+        }
+    }
+
+    private static Date toDate(String value) {
+        try {
+            return Date.valueOf(LocalDate.parse(value));
+        } catch (DateTimeParseException e) {
+            throw new BadRequest("date invalide (AAAA-MM-JJ attendu) : " + value);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package views;
+
+import config.CancelToken;
+import controllers.AsyncExecutor;
+
+import javax.swing.SwingWorker;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Chargement d'un tableau en arrière-plan, par paquets de lignes
+ * --------------------------------------------------------------
+ * Objectifs pédagogiques BTS SIO :
+ * 1. SwingWorker : doInBackground() lit les lignes hors de l'EDT,
+ *    publish() les transmet, process() les ajoute au tableau sur l'EDT
+ *    (Swing regroupe les lignes publiées en paquets).
+ * 2. Le tableau se remplit au fur et à mesure, avec une barre de progression.
+ * 3. cancelLoad() arrête la lecture et la requête SQL en cours (Statement.cancel()
+ *    via {@link CancelToken}) : la connexion est rendue au pool aussitôt.
+ * 4. La source propage les erreurs de lecture (SQLException) : elles s'affichent
+ *    dans la barre d'état au lieu d'un tableau vide ou incomplet sans explication.
+ *
+ * @param <T> type d'une ligne
+ */
+public class ChunkedLoader<T> extends SwingWorker<Integer, T> {
+
+    /** Destination des lignes lues par la source */
+    public interface Sink<T> {
+        /** Nombre total de lignes attendu (pour la barre de progression), si connu */
+        void expect(int total);
+
+        /** Transmettre une ligne lue */
+        void accept(T row);
+    }
+
+    /** Source des lignes (exécutée en arrière-plan) */
+    public interface RowSource<T> {
+        void load(Sink<T> sink) throws SQLException;
+    }
+
+    private final String what;
+    private final RowSource<T> source;
+    private final Consumer<List<T>> onChunk;
+    private final LoadingStatusBar statusBar;
+    private final CancelToken token = new CancelToken();
+
+    private volatile int expected = -1;
+    private int loaded; // lignes ajoutées au tableau (EDT)
+
+    /**
+     * @param what nom des lignes affiché dans la barre d'état (ex : "marques")
+     * @param source lecture des lignes
+     * @param onChunk ajout d'un paquet de lignes au tableau (sur l'EDT)
+     * @param statusBar barre d'état de la vue
+     */
+    public ChunkedLoader(String what, RowSource<T> source, Consumer<List<T>> onChunk, LoadingStatusBar statusBar) {
+        this.what = what;
+        this.source = source;
+        this.onChunk = onChunk;
+        this.statusBar = statusBar;
+    }
+
+    /** Démarrer le chargement (sur l'exécuteur partagé des contrôleurs) */
+    public void start() {
+        statusBar.showBusy("Chargement des " + what + "...", this::cancelLoad);
+        AsyncExecutor.executor().execute(this);
+    }
+
+    /** Annuler le chargement et la requête SQL en cours */
+    public void cancelLoad() {
+        token.cancel();
+        cancel(false); // pas d'interruption du thread : elle pourrait casser la connexion JDBC
+    }
+
+    @Override
+    protected Integer doInBackground() throws SQLException {
+        SQLException[] error = new SQLException[1];
+        int[] count = new int[1];
+        token.bind(() -> {
+            try {
+                source.load(new Sink<T>() {
+                    @Override
+                    public void expect(int total) { expected = total; }
+
+                    @Override
+                    public void accept(T row) {
+                        token.throwIfCancelled();
+                        count[0]++;
+                        publish(row);
+                    }
+                });
+            } catch (SQLException e) {
+                error[0] = e; // relancée hors du jeton : done() l'affiche
+            }
+            return null;
+        }).get();
+        if (error[0] != null) throw error[0];
+        return count[0];
+    }
+
+    @Override
+    protected void process(List<T> chunk) {
+        if (isCancelled()) return;
+        onChunk.accept(chunk);
+        loaded += chunk.size();
+        if (isDone()) return; // dernier paquet arrivé après done() : le message final est déjà affiché
+        int total = expected;
+        String message = loaded + (total >= 0 ? " / " + total : "") + " " + what;
+        if (total > 0) statusBar.showProgress(message, loaded, total, this::cancelLoad);
+        else statusBar.showBusy(message, this::cancelLoad);
+    }
+
+    @Override
+    protected void done() {
+        if (isCancelled()) {
+            statusBar.showIdle("Chargement annulé : " + loaded + " lignes affichées");
+            return;
+        }
+        try {
+            statusBar.showIdle(get() + " " + what);
+        } catch (InterruptedException | CancellationException e) {
+            statusBar.showIdle("Chargement annulé");
+        } catch (ExecutionException e) {
+            statusBar.showIdle("Erreur de chargement : " + e.getCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package views;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Indicateur de chargement posé sur une fenêtre (glass pane)
+ * ----------------------------------------------------------
+ * Objectifs pédagogiques BTS SIO :
+ * 1. Ne jamais exécuter de requête SQL sur le thread Swing (EDT) : l'interface se figerait.
+ * 2. Les contrôleurs renvoient un CompletableFuture ; le résultat est repassé
+ *    à l'EDT par SwingUtilities.invokeLater avant de modifier les composants.
+ * 3. Pendant le chargement, un voile avec une barre de progression bloque les clics
+ *    (affiché seulement si l'opération dure plus de SHOW_DELAY_MS, pour éviter le clignotement).
+ */
+public class LoadingPanel extends JComponent {
+
+    private static final int SHOW_DELAY_MS = 200;
+
+    private final JLabel label = new JLabel("Chargement...");
+    private final Timer showTimer;
+    private int pending; // opérations en cours (manipulé uniquement sur l'EDT)
+
+    public LoadingPanel() {
+        setLayout(new GridBagLayout());
+        setOpaque(false);
+
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+
+        JPanel box = new JPanel(new BorderLayout(0, 5));
+        box.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        box.add(label, BorderLayout.NORTH);
+        box.add(progressBar, BorderLayout.CENTER);
+        add(box);
+
+        // le voile intercepte les clics destinés à la fenêtre
+        addMouseListener(new MouseAdapter() { });
+        addMouseMotionListener(new MouseAdapter() { });
+
+        showTimer = new Timer(SHOW_DELAY_MS, e -> setVisible(pending > 0));
+        showTimer.setRepeats(false);
+    }
+
+    /** Installer l'indicateur sur une fenêtre (JFrame ou JDialog) */
+    public static LoadingPanel install(RootPaneContainer window) {
+        LoadingPanel panel = new LoadingPanel();
+        window.setGlassPane(panel);
+        return panel;
+    }
+
+    /** Début d'une opération (à appeler sur l'EDT) */
+    public void start(String message) {
+        pending++;
+        label.setText(message);
+        if (!isVisible()) showTimer.restart();
+    }
+
+    /** Fin d'une opération (à appeler sur l'EDT) */
+    public void stop() {
+        if (pending > 0) pending--;
+        if (pending == 0) {
+            showTimer.stop();
+            setVisible(false);
+        }
+    }
+
+    /**
+     * Afficher l'indicateur jusqu'à la fin d'une opération asynchrone,
+     * puis traiter son résultat sur l'EDT
+     */
+    public <T> void track(String message, CompletableFuture<T> future, Consumer<T> onSuccess) {
+        start(message);
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            stop();
+            if (error == null) onSuccess.accept(result);
+            else showError(this, error);
+        }));
+    }
+
+    /** Traiter sur l'EDT le résultat d'une opération asynchrone (sans indicateur) */
+    public static <T> void onEdt(Component parent, CompletableFuture<T> future, Consumer<T> onSuccess) {
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (error == null) onSuccess.accept(result);
+            else showError(parent, error);
+        }));
+    }
+
+    private static void showError(Component parent, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        JOptionPane.showMessageDialog(parent, "Erreur : " + cause.getMessage(), "Erreur", JOptionPane.ERROR_MESSAGE);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        // voile blanc semi-transparent
+        g.setColor(new Color(255, 255, 255, 160));
+        g.fillRect(0, 0, getWidth(), getHeight());
+    }
+}
@@ -0,0 +1,66 @@
+package views;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Barre d'état d'un chargement de tableau
+ * ---------------------------------------
+ * Objectifs pédagogiques BTS SIO :
+ * 1. Informer l'utilisateur pendant un traitement long (nombre de lignes, barre de progression).
+ * 2. Permettre d'annuler le traitement (bouton "Annuler").
+ * 3. Toutes les méthodes sont appelées sur l'EDT.
+ * 4. La fenêtre qui la contient annule aussi le chargement à sa fermeture :
+ *    la requête en cours est interrompue et sa connexion rendue au pool.
+ */
+public class LoadingStatusBar extends JPanel {
+
+    private final JLabel label = new JLabel(" ");
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JButton cancelButton = new JButton("Annuler");
+    private Runnable onCancel;
+
+    public LoadingStatusBar() {
+        super(new FlowLayout(FlowLayout.LEFT));
+        progressBar.setStringPainted(false);
+        progressBar.setVisible(false);
+        cancelButton.setVisible(false);
+        cancelButton.addActionListener(e -> {
+            cancelButton.setEnabled(false);
+            if (onCancel != null) onCancel.run();
+        });
+        add(label);
+        add(progressBar);
+        add(cancelButton);
+    }
+
+    /** Chargement en cours, durée inconnue */
+    public void showBusy(String message, Runnable onCancel) {
+        show(message, onCancel);
+        progressBar.setIndeterminate(true);
+    }
+
+    /** Chargement en cours : value lignes sur max */
+    public void showProgress(String message, int value, int max, Runnable onCancel) {
+        show(message, onCancel);
+        progressBar.setIndeterminate(false);
+        progressBar.setMaximum(Math.max(max, 1));
+        progressBar.setValue(value);
+    }
+
+    /** Plus de chargement en cours */
+    public void showIdle(String message) {
+        label.setText(message);
+        progressBar.setVisible(false);
+        cancelButton.setVisible(false);
+        onCancel = null;
+    }
+
+    private void show(String message, Runnable onCancel) {
+        label.setText(message);
+        if (!progressBar.isVisible()) cancelButton.setEnabled(true); // nouveau chargement
+        this.onCancel = onCancel;
+        progressBar.setVisible(true);
+        cancelButton.setVisible(onCancel != null);
+    }
+}
@@ -1,6 +1,11 @@
 package views;
 
 import controllers.MarqueController;
+import events.DomainEvent.MarqueCreated;
+import events.DomainEvent.MarqueDeleted;
+import events.DomainEvent.MarqueEvent;
+import events.DomainEvent.MarqueUpdated;
+import events.EventBus;
 import models.Marque;
 
 import javax.swing.*;
@@ -8,7 +13,10 @@ import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableCellEditor;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Vue pour gérer la liste des marques
@@ -19,12 +27,18 @@ import java.util.List;
  * 3. Ajouter, modifier et supprimer une marque via formulaire.
  * 4. Illustrer l’utilisation de boutons avec TableCellRenderer et TableCellEditor.
  * 5. Gestion simple de la fermeture de la fenêtre via un bouton "Fermer".
+ * 6. Remplir le tableau en arrière-plan (chargement annulable) et le mettre à jour
+ *    après chaque modification, même faite dans une autre fenêtre.
  */
 public class MarqueView extends JFrame {
 
     private MarqueController marqueController;
     private DefaultTableModel tableModel;
     private JTable table;
+    private LoadingPanel loading;
+    private LoadingStatusBar statusBar;
+    private EventBus.Subscription subscription;
+    private ChunkedLoader<Marque> loader; // chargement en cours du tableau, ou null
 
     public MarqueView(MarqueController marqueController) {
         this.marqueController = marqueController;
@@ -37,11 +51,6 @@ public class MarqueView extends JFrame {
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
-        // -----------------------------
-        // Initialisation des données
-        // -----------------------------
-        List<Marque> marques = marqueController.fetchAllMarques();
-
         String[] colonnes = {"ID", "Nom", "Modifier", "Supprimer"};
         tableModel = new DefaultTableModel(colonnes, 0) {
             @Override
@@ -50,15 +59,6 @@ public class MarqueView extends JFrame {
             }
         };
 
-        for (Marque m : marques) {
-            tableModel.addRow(new Object[]{
-                    m.getIdMarque(),
-                    m.getNomMarque(),
-                    "Modifier",
-                    "Supprimer"
-            });
-        }
-
         // -----------------------------
         // Création du JTable
         // -----------------------------
@@ -84,7 +84,28 @@ public class MarqueView extends JFrame {
         JPanel bottomPanel = new JPanel();
         bottomPanel.add(addButton);
         bottomPanel.add(closeButton); // ajout du bouton Fermer
-        add(bottomPanel, BorderLayout.SOUTH);
+        statusBar = new LoadingStatusBar();
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(bottomPanel, BorderLayout.CENTER);
+        southPanel.add(statusBar, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+
+        // -----------------------------
+        // Chargement des données (en arrière-plan)
+        // -----------------------------
+        loading = LoadingPanel.install(this);
+
+        // -------- Modifications faites ici ou dans une autre fenêtre --------
+        subscription = EventBus.getDefault().subscribeOnEdt(MarqueEvent.class, this::onMarqueEvents);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                subscription.unsubscribe();
+                if (loader != null) loader.cancelLoad(); // fermeture pendant le chargement
+            }
+        });
+        refreshTable();
     }
 
     // ================== FORMULAIRE AJOUT / MODIFICATION ==================
@@ -106,15 +127,17 @@ public class MarqueView extends JFrame {
                 return; 
             }
 
-            boolean success;
-            if (marque == null) success = marqueController.createMarque(nom);
-            else success = marqueController.modifyMarque(marque.getIdMarque(), nom);
+            CompletableFuture<Marque> save;
+            if (marque == null) save = marqueController.createMarqueAsync(nom);
+            else save = marqueController.modifyMarqueAsync(marque.getIdMarque(), nom);
 
-            if (success) JOptionPane.showMessageDialog(dialog, (marque == null ? "Ajouté !" : "Modifié !"));
-            else JOptionPane.showMessageDialog(dialog, "Erreur ou doublon !");
+            saveButton.setEnabled(false); // pas de double enregistrement pendant l'attente
+            LoadingPanel.onEdt(dialog, save, saved -> {
+                if (saved != null) JOptionPane.showMessageDialog(dialog, (marque == null ? "Ajouté !" : "Modifié !"));
+                else JOptionPane.showMessageDialog(dialog, "Erreur ou doublon !");
 
-            dialog.dispose();
-            refreshTable();
+                dialog.dispose(); // la ligne est mise à jour par l'événement publié
+            });
         });
 
         dialog.add(nomLabel);
@@ -126,15 +149,50 @@ public class MarqueView extends JFrame {
 
     // ================== RAFRAÎCHIR LE TABLEAU ==================
     private void refreshTable() {
+        if (loader != null) loader.cancelLoad(); // un seul chargement à la fois
         tableModel.setRowCount(0);
-        for (Marque m : marqueController.fetchAllMarques()) {
-            tableModel.addRow(new Object[]{
-                    m.getIdMarque(),
-                    m.getNomMarque(),
-                    "Modifier",
-                    "Supprimer"
-            });
+
+        loader = new ChunkedLoader<>("marques", sink -> {
+            List<Marque> marques = marqueController.loadAllMarques();
+            sink.expect(marques.size());
+            for (Marque m : marques) sink.accept(m);
+        }, chunk -> {
+            for (Marque m : chunk) {
+                tableModel.addRow(new Object[]{
+                        m.getIdMarque(),
+                        m.getNomMarque(),
+                        "Modifier",
+                        "Supprimer"
+                });
+            }
+        }, statusBar);
+        loader.start();
+    }
+
+    // ================== ÉVÉNEMENTS (modifications faites ici ou ailleurs) ==================
+    private void onMarqueEvents(List<MarqueEvent> events) {
+        if (loader != null && !loader.isDone()) { // chargement en cours : relancé pour inclure les modifications
+            refreshTable();
+            return;
+        }
+        for (MarqueEvent e : events) {
+            int row = rowOf(e.getIdMarque());
+            if (e instanceof MarqueDeleted) {
+                if (row >= 0) tableModel.removeRow(row);
+                continue;
+            }
+            Marque m = e instanceof MarqueCreated ? ((MarqueCreated) e).getMarque() : ((MarqueUpdated) e).getMarque();
+            if (row < 0) tableModel.addRow(new Object[]{m.getIdMarque(), m.getNomMarque(), "Modifier", "Supprimer"});
+            else tableModel.setValueAt(m.getNomMarque(), row, 1);
+        }
+    }
+
+    /** Ligne du tableau d'une marque (identifiant en colonne 0), ou -1 */
+    private int rowOf(int id) {
+        for (int i = 0; i < tableModel.getRowCount(); i++) {
+            if (Integer.valueOf(id).equals(tableModel.getValueAt(i, 0))) return i;
         }
+        return -1;
     }
 
     // ================== CLASSES INTERNES POUR LES BOUTONS ==================
@@ -180,13 +238,14 @@ public class MarqueView extends JFrame {
                 if (label.equals("Supprimer")) {
                     int confirm = JOptionPane.showConfirmDialog(MarqueView.this, "Supprimer cette marque ?", "Confirmer", JOptionPane.YES_NO_OPTION);
                     if (confirm == JOptionPane.YES_OPTION) {
-                        boolean success = marqueController.removeMarque(id);
-                        JOptionPane.showMessageDialog(MarqueView.this, success ? "Supprimé !" : "Erreur !");
-                        refreshTable();
+                        loading.track("Suppression...", marqueController.removeMarqueAsync(id), success -> {
+                            JOptionPane.showMessageDialog(MarqueView.this, success ? "Supprimé !" : "Erreur !");
+                        });
                     }
                 } else if (label.equals("Modifier")) {
-                    Marque m = marqueController.findMarqueById(id);
-                    if (m != null) showMarqueForm(m);
+                    loading.track("Chargement...", marqueController.findMarqueByIdAsync(id), m -> {
+                        if (m != null) showMarqueForm(m);
+                    });
                 }
             }
             clicked = false;
@@ -2,6 +2,15 @@ package views;
 
 import controllers.ModeleController;
 import controllers.MarqueController;
+import events.DomainEvent.MarqueCreated;
+import events.DomainEvent.MarqueDeleted;
+import events.DomainEvent.MarqueEvent;
+import events.DomainEvent.MarqueUpdated;
+import events.DomainEvent.ModeleCreated;
+import events.DomainEvent.ModeleDeleted;
+import events.DomainEvent.ModeleEvent;
+import events.DomainEvent.ModeleUpdated;
+import events.EventBus;
 import models.Modele;
 import models.Marque;
 
@@ -10,7 +19,13 @@ import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableCellEditor;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Vue pour gérer la liste des modèles
@@ -23,6 +38,8 @@ import java.util.List;
  * 5. Ajouter un bouton "Fermer" pour quitter proprement la fenêtre
  * 6. Vérifier que tous les champs sont obligatoires
  * 7. Ne pas fermer le formulaire si erreur
+ * 8. Charger le tableau sans bloquer l'interface ; il se met à jour tout seul
+ *    quand un modèle ou une marque change.
  */
 public class ModeleView extends JFrame {
 
@@ -30,6 +47,12 @@ public class ModeleView extends JFrame {
     private MarqueController marqueController;
     private DefaultTableModel tableModel;
     private JTable table;
+    private LoadingPanel loading;
+    private LoadingStatusBar statusBar;
+    private ChunkedLoader<Object[]> loader; // chargement en cours du tableau, ou null
+    // noms des marques (remplis par le chargement, tenus à jour par les événements)
+    private final Map<Integer, String> nomsMarques = new ConcurrentHashMap<>();
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
 
     public ModeleView(ModeleController modeleController, MarqueController marqueController) {
         this.modeleController = modeleController;
@@ -58,7 +81,7 @@ public class ModeleView extends JFrame {
         add(scrollPane, BorderLayout.CENTER);
 
         JButton addButton = new JButton("Ajouter un modèle");
-        addButton.addActionListener(e -> showModeleForm(null));
+        addButton.addActionListener(e -> openModeleForm(null));
 
         JButton closeButton = new JButton("Fermer");
         closeButton.addActionListener(e -> dispose());
@@ -66,12 +89,36 @@ public class ModeleView extends JFrame {
         JPanel bottomPanel = new JPanel();
         bottomPanel.add(addButton);
         bottomPanel.add(closeButton);
-        add(bottomPanel, BorderLayout.SOUTH);
+        statusBar = new LoadingStatusBar();
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(bottomPanel, BorderLayout.CENTER);
+        southPanel.add(statusBar, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
 
+        loading = LoadingPanel.install(this);
+
+        // -------- Modifications faites ici ou dans une autre fenêtre --------
+        EventBus bus = EventBus.getDefault();
+        subscriptions.add(bus.subscribeOnEdt(ModeleEvent.class, this::onModeleEvents));
+        subscriptions.add(bus.subscribeOnEdt(MarqueEvent.class, this::onMarqueEvents));
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                subscriptions.forEach(EventBus.Subscription::unsubscribe);
+                if (loader != null) loader.cancelLoad(); // fermeture pendant le chargement
+            }
+        });
         refreshTable();
     }
 
-    private void showModeleForm(Modele modele) {
+    // Les marques de la liste déroulante sont lues en arrière-plan avant d'ouvrir le formulaire
+    private void openModeleForm(Modele modele) {
+        loading.track("Chargement des marques...", marqueController.fetchAllMarquesAsync(),
+                marques -> showModeleForm(modele, marques));
+    }
+
+    private void showModeleForm(Modele modele, List<Marque> marques) {
         JDialog dialog = new JDialog(this, "Formulaire modèle", true);
         dialog.setSize(350, 200);
         dialog.setLayout(new GridLayout(3, 2, 10, 10));
@@ -79,7 +126,7 @@ public class ModeleView extends JFrame {
 
         JTextField nomField = new JTextField();
         JComboBox<Marque> marqueCombo = new JComboBox<>();
-        for (Marque m : marqueController.fetchAllMarques()) marqueCombo.addItem(m);
+        for (Marque m : marques) marqueCombo.addItem(m);
 
         if (modele != null) {
             nomField.setText(modele.getNomModele());
@@ -101,21 +148,24 @@ public class ModeleView extends JFrame {
                 return; // reste sur le formulaire
             }
 
-            boolean success;
+            CompletableFuture<Modele> save;
             if (modele == null) {
-                success = modeleController.createModele(nom, selectedMarque.getIdMarque());
+                save = modeleController.createModeleAsync(nom, selectedMarque.getIdMarque());
             } else {
-                success = modeleController.modifyModele(modele.getIdModele(), nom, selectedMarque.getIdMarque());
+                save = modeleController.modifyModeleAsync(modele.getIdModele(), nom, selectedMarque.getIdMarque());
             }
 
-            if (success) {
-                JOptionPane.showMessageDialog(dialog, "Enregistré !");
-                dialog.dispose();
-                refreshTable();
-            } else {
-                JOptionPane.showMessageDialog(dialog, "Erreur ou doublon !\nVeuillez vérifier les informations.");
-                // formulaire reste ouvert pour correction
-            }
+            saveButton.setEnabled(false); // pas de double enregistrement pendant l'attente
+            LoadingPanel.onEdt(dialog, save, saved -> {
+                saveButton.setEnabled(true);
+                if (saved != null) {
+                    JOptionPane.showMessageDialog(dialog, "Enregistré !");
+                    dialog.dispose(); // la ligne est mise à jour par l'événement publié
+                } else {
+                    JOptionPane.showMessageDialog(dialog, "Erreur ou doublon !\nVeuillez vérifier les informations.");
+                    // formulaire reste ouvert pour correction
+                }
+            });
         });
 
         dialog.add(new JLabel("Nom:")); dialog.add(nomField);
@@ -126,17 +176,79 @@ public class ModeleView extends JFrame {
     }
 
     private void refreshTable() {
+        if (loader != null) loader.cancelLoad(); // un seul chargement à la fois
         tableModel.setRowCount(0);
-        for (Modele m : modeleController.fetchAllModeles()) {
-            Marque marque = marqueController.findMarqueById(m.getIdMarque());
-            tableModel.addRow(new Object[]{
-                    m.getIdModele(),
-                    m.getNomModele(),
-                    marque != null ? marque.getNomMarque() : "",
-                    "Modifier",
-                    "Supprimer"
-            });
+
+        // lignes construites en arrière-plan (nom de la marque compris)
+        loader = new ChunkedLoader<>("modèles", sink -> {
+            for (Marque marque : marqueController.loadAllMarques()) nomsMarques.put(marque.getIdMarque(), marque.getNomMarque());
+
+            List<Modele> modeles = modeleController.loadAllModeles();
+            sink.expect(modeles.size());
+            for (Modele m : modeles) {
+                sink.accept(new Object[]{
+                        m.getIdModele(),
+                        m.getNomModele(),
+                        nomsMarques.getOrDefault(m.getIdMarque(), ""),
+                        "Modifier",
+                        "Supprimer"
+                });
+            }
+        }, chunk -> {
+            for (Object[] row : chunk) tableModel.addRow(row);
+        }, statusBar);
+        loader.start();
+    }
+
+    // ================== ÉVÉNEMENTS (modifications faites ici ou ailleurs) ==================
+    private void onModeleEvents(List<ModeleEvent> events) {
+        if (loader != null && !loader.isDone()) { // chargement en cours : relancé pour inclure les modifications
+            refreshTable();
+            return;
+        }
+        for (ModeleEvent e : events) {
+            int row = rowOf(e.getIdModele());
+            if (e instanceof ModeleDeleted) {
+                if (row >= 0) tableModel.removeRow(row);
+                continue;
+            }
+            Modele m = e instanceof ModeleCreated ? ((ModeleCreated) e).getModele() : ((ModeleUpdated) e).getModele();
+            String nomMarque = nomsMarques.getOrDefault(m.getIdMarque(), "");
+            if (row < 0) {
+                tableModel.addRow(new Object[]{m.getIdModele(), m.getNomModele(), nomMarque, "Modifier", "Supprimer"});
+            } else {
+                tableModel.setValueAt(m.getNomModele(), row, 1);
+                tableModel.setValueAt(nomMarque, row, 2);
+            }
+        }
+    }
+
+    // marque renommée : les noms de marque étant uniques, les lignes portant l'ancien nom sont mises à jour
+    private void onMarqueEvents(List<MarqueEvent> events) {
+        if (loader != null && !loader.isDone()) { // chargement en cours : relancé avec les nouveaux noms
+            refreshTable();
+            return;
+        }
+        for (MarqueEvent e : events) {
+            if (e instanceof MarqueDeleted) {
+                nomsMarques.remove(e.getIdMarque());
+                continue;
+            }
+            Marque marque = e instanceof MarqueCreated ? ((MarqueCreated) e).getMarque() : ((MarqueUpdated) e).getMarque();
+            String ancien = nomsMarques.put(marque.getIdMarque(), marque.getNomMarque());
+            if (ancien == null || ancien.equals(marque.getNomMarque())) continue;
+            for (int i = 0; i < tableModel.getRowCount(); i++) {
+                if (ancien.equals(tableModel.getValueAt(i, 2))) tableModel.setValueAt(marque.getNomMarque(), i, 2);
+            }
+        }
+    }
+
+    /** Ligne du tableau d'un modèle (identifiant en colonne 0), ou -1 */
+    private int rowOf(int id) {
+        for (int i = 0; i < tableModel.getRowCount(); i++) {
+            if (Integer.valueOf(id).equals(tableModel.getValueAt(i, 0))) return i;
         }
+        return -1;
     }
 
     class ButtonRenderer extends JButton implements TableCellRenderer {
@@ -180,13 +292,14 @@ public class ModeleView extends JFrame {
                 if (label.equals("Supprimer")) {
                     int confirm = JOptionPane.showConfirmDialog(ModeleView.this, "Supprimer ce modèle ?", "Confirmer", JOptionPane.YES_NO_OPTION);
                     if (confirm == JOptionPane.YES_OPTION) {
-                        boolean success = modeleController.removeModele(id);
-                        JOptionPane.showMessageDialog(ModeleView.this, success ? "Supprimé !" : "Erreur !");
-                        refreshTable();
+                        loading.track("Suppression...", modeleController.removeModeleAsync(id), success -> {
+                            JOptionPane.showMessageDialog(ModeleView.this, success ? "Supprimé !" : "Erreur !");
+                        });
                     }
                 } else if (label.equals("Modifier")) {
-                    Modele m = modeleController.findModeleById(id);
-                    if (m != null) showModeleForm(m);
+                    loading.track("Chargement...", modeleController.findModeleByIdAsync(id), m -> {
+                        if (m != null) openModeleForm(m);
+                    });
                 }
             }
             clicked = false;
@@ -0,0 +1,449 @@
+package views;
+
+import config.CancelToken;
+import controllers.AsyncExecutor;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Modèle de JTable "virtuel" chargé page par page
+ * -----------------------------------------------
+ * - Seul le nombre total de lignes est lu à l'ouverture.
+ * - Les lignes sont chargées par pages quand le JTable les affiche,
+ *   avec une pagination par clé (WHERE cle > ? ORDER BY cle LIMIT ?).
+ * - Les requêtes (comptage, pages) s'exécutent en arrière-plan ({@link AsyncExecutor}) :
+ *   une ligne pas encore chargée s'affiche vide, puis le tableau est
+ *   rafraîchi (fireTableRowsUpdated) à l'arrivée de la page.
+ *   Le modèle ne doit être manipulé que depuis l'EDT.
+ * - Chaque chargement a son {@link CancelToken} : cancelLoads() interrompt les requêtes
+ *   en cours (Statement.cancel()), dispose() le fait à la fermeture de la fenêtre.
+ * - Seules les maxCachedPages pages les plus récemment affichées restent en mémoire.
+ * - Après un ajout, une modification ou une suppression, la vue appelle rowInserted,
+ *   rowUpdated ou rowRemoved : seule la ligne concernée est modifiée dans la page
+ *   en mémoire (fireTableRowsInserted / Updated / Deleted), sans relire le tableau.
+ *   Les pages situées après la ligne sont décalées : elles sont oubliées et
+ *   relues seulement si elles sont de nouveau affichées.
+ * - patchAsync() prépare une rafale de mises à jour en arrière-plan (lignes construites
+ *   depuis les caches) et les applique sur l'EDT dans l'ordre d'arrivée ;
+ *   au-delà de MAX_ROW_PATCHES lignes, la vue relit plutôt le tableau (reload()).
+ *
+ * La clé de la dernière ligne de chaque page visitée est mémorisée pour
+ * enchaîner la page suivante ; pour un saut direct (barre de défilement),
+ * la clé de départ est demandée à la source (keyAt).
+ *
+ * @param <T> type d'une ligne
+ * @param <K> type de la clé de pagination (ordre de tri)
+ */
+public abstract class PagedTableModel<T, K> extends AbstractTableModel {
+
+    /** Source des lignes (en pratique : un contrôleur) */
+    public interface PageSource<T, K> {
+        /** Nombre total de lignes */
+        int count();
+
+        /** Charger au plus limit lignes de clé strictement supérieure à after (null : première page) */
+        List<T> loadPage(K after, int limit);
+
+        /** Clé de la ligne à la position index (dans l'ordre de tri), ou null si hors limites */
+        K keyAt(int index);
+
+        /** Clé d'une ligne */
+        K keyOf(T row);
+
+        /** Comparer deux clés dans l'ordre de tri (par défaut : clés Comparable) */
+        @SuppressWarnings("unchecked")
+        default int compareKeys(K a, K b) {
+            return ((Comparable<K>) a).compareTo(b);
+        }
+    }
+
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int DEFAULT_MAX_CACHED_PAGES = 20;
+    /** Au-delà, relire le tableau coûte moins que de le modifier ligne à ligne */
+    public static final int MAX_ROW_PATCHES = 200;
+
+    private final String[] columns;
+    private final PageSource<T, K> source;
+    private final int pageSize;
+    private final int maxCachedPages;
+
+    private int rowCount;
+    private final LinkedHashMap<Integer, List<T>> pages;
+    // anchors[p] = clé de la dernière ligne avant la page p
+    private final Map<Integer, K> anchors = new HashMap<>();
+    // pages en cours de chargement (évite de demander deux fois la même) et leur jeton d'annulation
+    private final Map<Integer, CancelToken> loading = new HashMap<>();
+    private CancelToken countToken; // comptage en cours, ou null
+    private boolean disposed;
+    private Runnable loadListener;
+    // incrémenté par reload() : les résultats des chargements plus anciens sont ignorés
+    private int generation;
+    // dernière rafale de mises à jour préparée en arrière-plan (les suivantes s'y enchaînent)
+    private CompletableFuture<Void> patches = CompletableFuture.completedFuture(null);
+
+    /** Page chargée en arrière-plan, avec la clé qui la précède */
+    private static final class LoadedPage<T, K> {
+        final K after;
+        final List<T> rows;
+
+        LoadedPage(K after, List<T> rows) {
+            this.after = after;
+            this.rows = rows;
+        }
+    }
+
+    protected PagedTableModel(String[] columns, PageSource<T, K> source) {
+        this(columns, source, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    protected PagedTableModel(String[] columns, PageSource<T, K> source, int pageSize, int maxCachedPages) {
+        this.columns = columns;
+        this.source = source;
+        this.pageSize = pageSize;
+        this.maxCachedPages = maxCachedPages;
+        this.pages = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > PagedTableModel.this.maxCachedPages;
+            }
+        };
+        reload();
+    }
+
+    /** Valeur affichée dans une colonne pour une ligne */
+    protected abstract Object valueAt(T row, int column);
+
+    // ================== TableModel ==================
+
+    @Override
+    public int getRowCount() { return rowCount; }
+
+    @Override
+    public int getColumnCount() { return columns.length; }
+
+    @Override
+    public String getColumnName(int column) { return columns[column]; }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        T row = getRow(rowIndex);
+        return row == null ? null : valueAt(row, columnIndex);
+    }
+
+    // ================== ACCÈS AUX LIGNES ==================
+
+    /**
+     * Ligne à la position index, ou null si sa page n'est pas encore chargée
+     * (le chargement est alors lancé) ou si la ligne n'existe plus
+     */
+    public T getRow(int index) {
+        if (index < 0 || index >= rowCount) return null;
+        int pageIndex = index / pageSize;
+        List<T> page = pages.get(pageIndex);
+        if (page == null) {
+            if (!disposed) requestPage(pageIndex);
+            return null;
+        }
+        int offset = index % pageSize;
+        return offset < page.size() ? page.get(offset) : null;
+    }
+
+    // ================== MISES À JOUR D'UNE LIGNE ==================
+
+    /**
+     * Une ligne a été modifiée (sa clé ne change pas) : elle est remplacée
+     * dans sa page si celle-ci est en mémoire, sinon elle sera lue à son affichage
+     */
+    public void rowUpdated(T row) {
+        replaceLoaded(source.keyOf(row), row);
+    }
+
+    private boolean replaceLoaded(K key, T row) {
+        for (Map.Entry<Integer, List<T>> e : pages.entrySet()) {
+            int offset = indexOfKey(e.getValue(), key);
+            if (offset < 0) continue;
+            List<T> page = new ArrayList<>(e.getValue());
+            page.set(offset, row);
+            e.setValue(page);
+            int index = e.getKey() * pageSize + offset;
+            fireTableRowsUpdated(index, index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Modifier les lignes en mémoire qui dépendent d'une autre table
+     * (ex : nom d'une marque renommée) ; les pages non chargées seront lues à jour
+     * @param update renvoie la ligne modifiée, ou la même ligne si elle n'est pas concernée
+     */
+    public void updateLoadedRows(UnaryOperator<T> update) {
+        for (Map.Entry<Integer, List<T>> e : pages.entrySet()) {
+            List<T> page = null;
+            for (int i = 0; i < e.getValue().size(); i++) {
+                T row = e.getValue().get(i);
+                T updated = update.apply(row);
+                if (updated == row) continue;
+                if (page == null) page = new ArrayList<>(e.getValue());
+                page.set(i, updated);
+                int index = e.getKey() * pageSize + i;
+                fireTableRowsUpdated(index, index);
+            }
+            if (page != null) e.setValue(page);
+        }
+    }
+
+    /**
+     * Préparer des mises à jour en arrière-plan (ex : lignes construites depuis les caches),
+     * puis les appliquer sur l'EDT ; les rafales successives sont appliquées dans l'ordre
+     * @param prepare renvoie les mises à jour à exécuter sur l'EDT (rowInserted, rowUpdated...)
+     */
+    public void patchAsync(Supplier<List<Runnable>> prepare) {
+        patches = patches
+                .thenApplyAsync(done -> prepare.get(), AsyncExecutor.executor())
+                .thenAcceptAsync(updates -> {
+                    if (!disposed) updates.forEach(Runnable::run);
+                }, SwingUtilities::invokeLater)
+                .exceptionally(error -> {
+                    System.err.println("Erreur mise à jour des lignes : " + error.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Une ligne a été ajoutée : elle est insérée à sa place si celle-ci est connue
+     * (dans une page en mémoire, ou à la fin du tableau), sinon seul le nombre de lignes change
+     */
+    public void rowInserted(T row) {
+        if (disposed) return;
+        K key = source.keyOf(row);
+        if (replaceLoaded(key, row)) return; // déjà affichée (événement reçu après un rechargement)
+        cancelPageLoads();
+
+        int pageIndex = -1;
+        int offset = -1;
+        for (Map.Entry<Integer, List<T>> e : pages.entrySet()) {
+            int o = insertionPoint(e.getKey(), e.getValue(), key);
+            if (o >= 0) {
+                pageIndex = e.getKey();
+                offset = o;
+                break;
+            }
+        }
+        if (pageIndex < 0) { // à la fin du tableau ?
+            int last = rowCount == 0 ? 0 : (rowCount - 1) / pageSize;
+            List<T> lastPage = pages.get(last);
+            if (lastPage != null && lastPage.size() == rowCount - last * pageSize
+                    && (lastPage.isEmpty() || source.compareKeys(lastKey(lastPage), key) < 0)) {
+                pageIndex = lastPage.size() < pageSize ? last : last + 1;
+                offset = lastPage.size() < pageSize ? lastPage.size() : 0;
+                if (pageIndex > last) {
+                    anchors.put(pageIndex, lastKey(lastPage));
+                    pages.put(pageIndex, new ArrayList<>());
+                }
+            }
+        }
+
+        rowCount++;
+        if (pageIndex < 0) { // position inconnue
+            forgetFrom(key, -1);
+            fireTableDataChanged();
+            return;
+        }
+        List<T> page = new ArrayList<>(pages.get(pageIndex));
+        page.add(offset, row);
+        if (page.size() > pageSize) page.remove(pageSize); // la dernière ligne passe à la page suivante
+        forgetFrom(key, pageIndex);
+        pages.put(pageIndex, page);
+        if (page.size() == pageSize) anchors.put(pageIndex + 1, lastKey(page));
+        int index = pageIndex * pageSize + offset;
+        fireTableRowsInserted(index, index);
+    }
+
+    /**
+     * Une ligne a été supprimée : elle est retirée de sa page si celle-ci est en mémoire
+     * (la page est ensuite complétée en arrière-plan), sinon seul le nombre de lignes change
+     */
+    public void rowRemoved(K key) {
+        if (disposed) return;
+        cancelPageLoads();
+        for (Map.Entry<Integer, List<T>> e : pages.entrySet()) {
+            int offset = indexOfKey(e.getValue(), key);
+            if (offset < 0) continue;
+            int pageIndex = e.getKey();
+            List<T> page = new ArrayList<>(e.getValue());
+            page.remove(offset);
+            int index = pageIndex * pageSize + offset;
+            boolean followed = rowCount > (pageIndex + 1) * pageSize; // des lignes suivaient cette page
+            rowCount--;
+            forgetFrom(key, pageIndex);
+            pages.put(pageIndex, page);
+            fireTableRowsDeleted(index, index);
+            if (followed) requestPage(pageIndex); // compléter la page avec la première ligne suivante
+            return;
+        }
+        if (rowCount > 0) rowCount--;
+        forgetFrom(key, -1);
+        fireTableDataChanged();
+    }
+
+    /** Position d'une clé dans une page, ou -1 */
+    private int indexOfKey(List<T> page, K key) {
+        for (int i = 0; i < page.size(); i++) {
+            if (Objects.deepEquals(source.keyOf(page.get(i)), key)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Position où insérer une clé dans une page chargée, ou -1 si la clé n'y a pas sa place
+     * (ou si la ligne précédente n'est pas connue)
+     */
+    private int insertionPoint(int pageIndex, List<T> page, K key) {
+        if (page.isEmpty() || source.compareKeys(key, lastKey(page)) > 0) return -1;
+        int offset = 0;
+        while (source.compareKeys(source.keyOf(page.get(offset)), key) < 0) offset++;
+        if (offset > 0 || pageIndex == 0) return offset;
+        K anchor = anchors.get(pageIndex); // avant la première ligne : la ligne précédente doit être connue
+        return anchor != null && source.compareKeys(anchor, key) < 0 ? 0 : -1;
+    }
+
+    /**
+     * Oublier les pages et les ancres décalées par l'ajout ou la suppression d'une clé
+     * (celles qui contiennent ou suivent cette clé), sauf la page keep
+     */
+    private void forgetFrom(K key, int keep) {
+        pages.entrySet().removeIf(e -> e.getKey() != keep
+                && (e.getValue().isEmpty() || source.compareKeys(lastKey(e.getValue()), key) >= 0));
+        anchors.entrySet().removeIf(e -> e.getValue() == null || source.compareKeys(e.getValue(), key) >= 0);
+    }
+
+    private K lastKey(List<T> page) {
+        return source.keyOf(page.get(page.size() - 1));
+    }
+
+    /** Annuler les pages en cours de chargement (leur clé de départ peut être décalée) */
+    private void cancelPageLoads() {
+        for (CancelToken token : loading.values()) token.cancel();
+        loading.clear();
+        fireLoadStateChanged();
+    }
+
+    /** Tout recharger (nombre de lignes et pages), en arrière-plan */
+    public void reload() {
+        if (disposed) return;
+        cancelLoads();
+        pages.clear();
+        anchors.clear();
+        int gen = ++generation;
+
+        CancelToken token = new CancelToken();
+        countToken = token;
+        fireLoadStateChanged();
+        AsyncExecutor.supply(token.bind(source::count)).whenComplete((count, error) -> SwingUtilities.invokeLater(() -> {
+            if (gen != generation || token.isCancelled()) return; // annulé, ou un reload() plus récent a été demandé
+            countToken = null;
+            if (error != null) {
+                System.err.println("Erreur reload : " + error.getMessage());
+            } else {
+                rowCount = count;
+                fireTableDataChanged();
+            }
+            fireLoadStateChanged();
+        }));
+    }
+
+    /** Annuler les chargements en cours (les pages seront redemandées à leur prochain affichage) */
+    public void cancelLoads() {
+        if (countToken != null) countToken.cancel();
+        countToken = null;
+        for (CancelToken token : loading.values()) token.cancel();
+        loading.clear();
+        fireLoadStateChanged();
+    }
+
+    /** Fermeture de la vue : annuler les chargements en cours et n'en plus lancer */
+    public void dispose() {
+        disposed = true;
+        generation++;
+        cancelLoads();
+        pages.clear();
+    }
+
+    /** Un chargement (comptage ou page) est-il en cours ? */
+    public boolean isLoading() {
+        return countToken != null || !loading.isEmpty();
+    }
+
+    /** Être prévenu (sur l'EDT) quand un chargement commence ou se termine */
+    public void setLoadListener(Runnable listener) {
+        this.loadListener = listener;
+    }
+
+    private void fireLoadStateChanged() {
+        if (loadListener != null) loadListener.run();
+    }
+
+    private void requestPage(int pageIndex) {
+        if (loading.containsKey(pageIndex)) return;
+        CancelToken token = new CancelToken();
+        loading.put(pageIndex, token);
+        fireLoadStateChanged();
+        int gen = generation;
+
+        // clé de départ déjà connue en mémoire ? sinon elle sera demandée à la source
+        boolean anchorKnown = pageIndex == 0 || anchors.containsKey(pageIndex) || previousPageFull(pageIndex);
+        K knownAnchor = anchorKnown ? anchorOf(pageIndex) : null;
+
+        AsyncExecutor.supply(token.bind(() -> {
+            K after = anchorKnown ? knownAnchor : source.keyAt(pageIndex * pageSize - 1);
+            // clé introuvable (lignes supprimées entre-temps) : page vide jusqu'au prochain reload()
+            List<T> rows = (pageIndex > 0 && after == null) ? List.<T>of() : source.loadPage(after, pageSize);
+            return new LoadedPage<>(after, rows);
+        })).whenComplete((loaded, error) -> SwingUtilities.invokeLater(() -> {
+            // annulé (résultat incomplet), ou un reload() plus récent a été demandé
+            if (gen != generation || loading.get(pageIndex) != token) return;
+            loading.remove(pageIndex);
+            fireLoadStateChanged();
+            if (error != null) {
+                System.err.println("Erreur chargement page " + pageIndex + " : " + error.getMessage());
+                pages.put(pageIndex, List.of()); // pas de nouvelle tentative avant reload()
+                return;
+            }
+            if (pageIndex > 0) anchors.put(pageIndex, loaded.after);
+            pages.put(pageIndex, loaded.rows);
+            if (loaded.rows.size() == pageSize) {
+                anchors.put(pageIndex + 1, source.keyOf(loaded.rows.get(pageSize - 1)));
+            }
+
+            int first = pageIndex * pageSize;
+            int last = Math.min(first + pageSize, rowCount) - 1;
+            if (first <= last) fireTableRowsUpdated(first, last);
+        }));
+    }
+
+    private boolean previousPageFull(int pageIndex) {
+        List<T> previous = pages.get(pageIndex - 1);
+        return previous != null && previous.size() == pageSize;
+    }
+
+    /** Clé de départ connue en mémoire (page 0, ancre mémorisée ou page précédente chargée) */
+    private K anchorOf(int pageIndex) {
+        if (pageIndex == 0) return null;
+        if (anchors.containsKey(pageIndex)) return anchors.get(pageIndex);
+        List<T> previous = pages.get(pageIndex - 1);
+        K key = source.keyOf(previous.get(previous.size() - 1));
+        anchors.put(pageIndex, key);
+        return key;
+    }
+}
@@ -3,18 +3,30 @@ package views;
 import controllers.PossederController;
 import controllers.ProprietaireController;
 import controllers.VehiculeController;
+import events.DomainEvent.PossessionCreated;
+import events.DomainEvent.PossessionDeleted;
+import events.DomainEvent.PossessionEvent;
+import events.DomainEvent.PossessionUpdated;
+import events.DomainEvent.ProprietaireUpdated;
+import events.DomainEvent.VehiculeUpdated;
+import events.EventBus;
 import models.Posseder;
+import models.PossessionRow;
 import models.Proprietaire;
 import models.Vehicule;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableCellEditor;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Vue pour gérer les possessions
@@ -28,14 +40,23 @@ import java.util.List;
  * 5. Validation stricte du format de date : JJ/MM/AAAA
  * 6. Gérer les boutons Modifier / Supprimer dans JTable
  * 7. Formulaire reste ouvert si erreur ou doublon
+ * 8. Afficher les possessions sans figer la fenêtre, et les garder à jour quand
+ *    un propriétaire ou un véhicule est modifié ailleurs (bus d'événements).
  */
 public class PossederView extends JFrame {
 
+    // Formateur partagé (thread-safe) pour l'affichage des dates du tableau
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     private PossederController possederController;
     private ProprietaireController proprietaireController;
     private VehiculeController vehiculeController;
-    private DefaultTableModel tableModel;
+    // Chaque ligne du tableau porte sa clé composée (id_proprietaire, id_vehicule)
+    private PagedTableModel<PossessionRow, int[]> tableModel;
     private JTable table;
+    private LoadingPanel loading;
+    private LoadingStatusBar statusBar;
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
 
     // ================== CONSTRUCTEUR ==================
     public PossederView(PossederController pc, ProprietaireController prc, VehiculeController vc) {
@@ -51,7 +72,42 @@ public class PossederView extends JFrame {
 
         // -------- Colonnes du tableau --------
         String[] colonnes = {"Propriétaire", "Véhicule", "Date début", "Date fin", "Modifier", "Supprimer"};
-        tableModel = new DefaultTableModel(colonnes, 0) {
+        // Tableau virtuel : pagination sur la clé composée (id_proprietaire, id_vehicule)
+        tableModel = new PagedTableModel<PossessionRow, int[]>(colonnes, new PagedTableModel.PageSource<PossessionRow, int[]>() {
+            @Override
+            public int count() { return possederController.countPossessions(); }
+
+            @Override
+            public List<PossessionRow> loadPage(int[] after, int limit) {
+                return after == null
+                        ? possederController.fetchPossessionRowsAfter(0, 0, limit)
+                        : possederController.fetchPossessionRowsAfter(after[0], after[1], limit);
+            }
+
+            @Override
+            public int[] keyAt(int index) { return possederController.findPossessionKeyAt(index); }
+
+            @Override
+            public int[] keyOf(PossessionRow row) { return new int[]{row.getIdProprietaire(), row.getIdVehicule()}; }
+
+            @Override
+            public int compareKeys(int[] a, int[] b) {
+                int c = Integer.compare(a[0], b[0]);
+                return c != 0 ? c : Integer.compare(a[1], b[1]);
+            }
+        }) {
+            @Override
+            protected Object valueAt(PossessionRow p, int column) {
+                switch (column) {
+                    case 0: return p.getNomProprietaire() != null ? p.getNomProprietaire() : "Inconnu";
+                    case 1: return p.getMatricule() != null ? p.getMatricule() : "Inconnu";
+                    case 2: return DATE_FORMAT.format(p.getDateDebut().toLocalDate());
+                    case 3: return p.getDateFin() != null ? DATE_FORMAT.format(p.getDateFin().toLocalDate()) : "";
+                    case 4: return "Modifier";
+                    default: return "Supprimer";
+                }
+            }
+
             @Override
             public boolean isCellEditable(int row, int column) {
                 return column >= 4; // seules les colonnes Modifier et Supprimer sont éditables
@@ -70,17 +126,47 @@ public class PossederView extends JFrame {
 
         // -------- Panneau des boutons --------
         JButton addButton = new JButton("Ajouter une possession");
-        addButton.addActionListener(e -> showPossederForm(null));
+        addButton.addActionListener(e -> openPossederForm(null));
         JPanel bottomPanel = new JPanel();
         bottomPanel.add(addButton);
-        add(bottomPanel, BorderLayout.SOUTH);
-
-        // -------- Remplissage initial du tableau --------
-        refreshTable();
+        statusBar = new LoadingStatusBar();
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(bottomPanel, BorderLayout.CENTER);
+        southPanel.add(statusBar, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+
+        loading = LoadingPanel.install(this);
+
+        // -------- Chargements en cours --------
+        tableModel.setLoadListener(this::updateStatus);
+        tableModel.addTableModelListener(e -> updateStatus());
+        updateStatus();
+
+        // -------- Modifications faites ici ou dans une autre fenêtre --------
+        EventBus bus = EventBus.getDefault();
+        subscriptions.add(bus.subscribeOnEdt(PossessionEvent.class, this::onPossessionEvents));
+        subscriptions.add(bus.subscribeOnEdt(ProprietaireUpdated.class, this::onProprietairesUpdated));
+        subscriptions.add(bus.subscribeOnEdt(VehiculeUpdated.class, this::onVehiculesUpdated));
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                subscriptions.forEach(EventBus.Subscription::unsubscribe);
+                tableModel.dispose(); // requêtes en cours annulées, connexions rendues au pool
+            }
+        });
     }
 
     // ================== FORMULAIRE AJOUT / MODIFICATION ==================
-    private void showPossederForm(Posseder p) {
+    // Propriétaires et véhicules des listes déroulantes : lus en parallèle, en arrière-plan
+    private void openPossederForm(Posseder p) {
+        CompletableFuture<List<Proprietaire>> proprietaires = proprietaireController.fetchAllProprietairesAsync();
+        CompletableFuture<List<Vehicule>> vehicules = vehiculeController.fetchAllVehiculesAsync();
+        loading.track("Chargement des propriétaires et véhicules...", CompletableFuture.allOf(proprietaires, vehicules),
+                done -> showPossederForm(p, proprietaires.join(), vehicules.join()));
+    }
+
+    private void showPossederForm(Posseder p, List<Proprietaire> proprietaires, List<Vehicule> vehicules) {
         // Création d'une fenêtre modale pour le formulaire
         JDialog dialog = new JDialog(this, "Formulaire possession", true);
         dialog.setSize(400, 300);
@@ -88,15 +174,20 @@ public class PossederView extends JFrame {
         dialog.setLocationRelativeTo(this);
 
         // -------- Champs du formulaire --------
-        JComboBox<Proprietaire> proprietaireBox = new JComboBox<>(proprietaireController.fetchAllProprietaires().toArray(new Proprietaire[0]));
-        JComboBox<Vehicule> vehiculeBox = new JComboBox<>(vehiculeController.fetchAllVehicules().toArray(new Vehicule[0]));
+        JComboBox<Proprietaire> proprietaireBox = new JComboBox<>(proprietaires.toArray(new Proprietaire[0]));
+        JComboBox<Vehicule> vehiculeBox = new JComboBox<>(vehicules.toArray(new Vehicule[0]));
         JTextField dateDebutField = new JTextField();
         JTextField dateFinField = new JTextField(); // facultatif
 
         // Pré-remplir les champs si modification
         if (p != null) {
-            proprietaireBox.setSelectedItem(proprietaireController.findProprietaireById(p.getIdProprietaire()));
-            vehiculeBox.setSelectedItem(vehiculeController.findVehiculeById(p.getIdVehicule()));
+            // sélection parmi les listes déjà chargées (pas de requête supplémentaire)
+            for (Proprietaire pr : proprietaires) {
+                if (pr.getIdProprietaire() == p.getIdProprietaire()) proprietaireBox.setSelectedItem(pr);
+            }
+            for (Vehicule v : vehicules) {
+                if (v.getIdVehicule() == p.getIdVehicule()) vehiculeBox.setSelectedItem(v);
+            }
             dateDebutField.setText(new java.text.SimpleDateFormat("dd/MM/yyyy").format(p.getDateDebut()));
             if (p.getDateFin() != null) dateFinField.setText(new java.text.SimpleDateFormat("dd/MM/yyyy").format(p.getDateFin()));
         }
@@ -126,23 +217,37 @@ public class PossederView extends JFrame {
                     java.util.Date utilDateFin = sdf.parse(dateFinField.getText().trim());
                     dateFin = new java.sql.Date(utilDateFin.getTime());
                 }
+                if (dateFin != null && dateFin.before(dateDebut)) {
+                    JOptionPane.showMessageDialog(dialog, "La date de fin doit être postérieure à la date de début !");
+                    return; // formulaire reste ouvert
+                }
+                java.sql.Date debut = dateDebut;
+                java.sql.Date fin = dateFin;
 
-                // Tentative d'enregistrement
-                boolean success;
+                // Tentative d'enregistrement (en arrière-plan) ;
+                // la ligne du tableau est mise à jour par l'événement publié par le contrôleur
+                CompletableFuture<Posseder> save;
                 if (p == null) {
-                    success = possederController.createPossession(pr.getIdProprietaire(), v.getIdVehicule(), dateDebut, dateFin);
+                    save = possederController.createPossessionAsync(pr.getIdProprietaire(), v.getIdVehicule(), dateDebut, dateFin);
                 } else {
-                    success = possederController.modifyPossession(pr.getIdProprietaire(), v.getIdVehicule(), dateDebut, dateFin);
+                    save = possederController.modifyPossessionAsync(pr.getIdProprietaire(), v.getIdVehicule(), dateDebut, dateFin);
                 }
 
-                if (success) {
-                    JOptionPane.showMessageDialog(dialog, "Enregistré !");
-                    dialog.dispose();
-                    refreshTable();
-                } else {
-                    JOptionPane.showMessageDialog(dialog, "Erreur ou doublon ! Veuillez vérifier les informations.");
-                    // formulaire reste ouvert
-                }
+                saveButton.setEnabled(false); // pas de double enregistrement pendant l'attente
+                LoadingPanel.onEdt(dialog, save, saved -> {
+                    saveButton.setEnabled(true);
+                    if (saved != null) {
+                        JOptionPane.showMessageDialog(dialog, "Enregistré !");
+                        dialog.dispose();
+                    } else {
+                        // motif du refus (chevauchement avec un autre propriétaire...), relu seulement en cas d'échec
+                        LoadingPanel.onEdt(dialog, possederController.checkPossessionAsync(pr.getIdProprietaire(), v.getIdVehicule(), debut, fin), motif ->
+                                JOptionPane.showMessageDialog(dialog, motif != null
+                                        ? "Enregistrement refusé : " + motif
+                                        : "Erreur ou doublon ! Veuillez vérifier les informations."));
+                        // formulaire reste ouvert
+                    }
+                });
 
             } catch (ParseException ex) {
                 // Date non conforme au format JJ/MM/AAAA
@@ -161,21 +266,49 @@ public class PossederView extends JFrame {
         dialog.setVisible(true);
     }
 
-    // ================== RAFRAÎCHIR LE TABLEAU ==================
-    private void refreshTable() {
-        tableModel.setRowCount(0); // vide le tableau
-        for (Posseder p : possederController.fetchAllPossessions()) {
-            Proprietaire pr = proprietaireController.findProprietaireById(p.getIdProprietaire());
-            Vehicule v = vehiculeController.findVehiculeById(p.getIdVehicule());
-            tableModel.addRow(new Object[]{
-                    pr != null ? pr.toString() : "Inconnu",
-                    v != null ? v.toString() : "Inconnu",
-                    new java.text.SimpleDateFormat("dd/MM/yyyy").format(p.getDateDebut()),
-                    p.getDateFin() != null ? new java.text.SimpleDateFormat("dd/MM/yyyy").format(p.getDateFin()) : "",
-                    "Modifier",
-                    "Supprimer"
-            });
+    // ================== ÉVÉNEMENTS (modifications faites ici ou ailleurs) ==================
+    private void onPossessionEvents(List<PossessionEvent> events) {
+        if (events.size() > PagedTableModel.MAX_ROW_PATCHES) {
+            tableModel.reload();
+            return;
         }
+        // lignes d'affichage construites en arrière-plan (propriétaire et véhicule lus dans les caches)
+        tableModel.patchAsync(() -> {
+            List<Runnable> updates = new ArrayList<>();
+            for (PossessionEvent e : events) {
+                if (e instanceof PossessionDeleted) {
+                    int[] key = {e.getIdProprietaire(), e.getIdVehicule()};
+                    updates.add(() -> tableModel.rowRemoved(key));
+                } else if (e instanceof PossessionCreated) {
+                    PossessionRow row = possederController.toPossessionRow(((PossessionCreated) e).getPossession());
+                    updates.add(() -> tableModel.rowInserted(row));
+                } else {
+                    PossessionRow row = possederController.toPossessionRow(((PossessionUpdated) e).getPossession());
+                    updates.add(() -> tableModel.rowUpdated(row));
+                }
+            }
+            return updates;
+        });
+    }
+
+    private void onProprietairesUpdated(List<ProprietaireUpdated> events) {
+        for (ProprietaireUpdated e : events) {
+            Proprietaire pr = e.getProprietaire();
+            tableModel.updateLoadedRows(r -> r.getIdProprietaire() == pr.getIdProprietaire() ? r.withProprietaire(pr) : r);
+        }
+    }
+
+    private void onVehiculesUpdated(List<VehiculeUpdated> events) {
+        for (VehiculeUpdated e : events) {
+            Vehicule v = e.getVehicule();
+            tableModel.updateLoadedRows(r -> r.getIdVehicule() == v.getIdVehicule() ? r.withVehicule(v) : r);
+        }
+    }
+
+    // ================== BARRE D'ÉTAT ==================
+    private void updateStatus() {
+        if (tableModel.isLoading()) statusBar.showBusy("Chargement des possessions...", tableModel::cancelLoads);
+        else statusBar.showIdle(tableModel.getRowCount() + " possessions");
     }
 
     // ================== CLASSES INTERNES POUR LES BOUTONS ==================
@@ -216,29 +349,21 @@ public class PossederView extends JFrame {
         @Override
         public Object getCellEditorValue() {
             if (clicked) {
-                String propName = (String) table.getValueAt(row, 0);
-                String vehName = (String) table.getValueAt(row, 1);
-
-                Proprietaire pr = proprietaireController.fetchAllProprietaires()
-                        .stream().filter(p -> p.toString().equals(propName)).findFirst().orElse(null);
-                Vehicule v = vehiculeController.fetchAllVehicules()
-                        .stream().filter(veh -> veh.toString().equals(vehName)).findFirst().orElse(null);
-
-                if (pr == null || v == null) return label;
+                // La ligne porte directement la clé composée (id_proprietaire, id_vehicule)
+                PossessionRow r = tableModel.getRow(table.convertRowIndexToModel(row));
+                if (r == null) return label;
 
                 if (label.equals("Supprimer")) {
                     int confirm = JOptionPane.showConfirmDialog(PossederView.this, "Supprimer cette possession ?", "Confirmer", JOptionPane.YES_NO_OPTION);
                     if (confirm == JOptionPane.YES_OPTION) {
-                        boolean success = possederController.removePossession(pr.getIdProprietaire(), v.getIdVehicule());
-                        JOptionPane.showMessageDialog(PossederView.this, success ? "Supprimé !" : "Erreur !");
-                        refreshTable();
+                        loading.track("Suppression...", possederController.removePossessionAsync(r.getIdProprietaire(), r.getIdVehicule()), success -> {
+                            JOptionPane.showMessageDialog(PossederView.this, success ? "Supprimé !" : "Erreur !");
+                        });
                     }
                 } else if (label.equals("Modifier")) {
-                    Posseder p = possederController.fetchAllPossessions()
-                            .stream().filter(pos -> pos.getIdProprietaire() == pr.getIdProprietaire() &&
-                                                    pos.getIdVehicule() == v.getIdVehicule())
-                            .findFirst().orElse(null);
-                    if (p != null) showPossederForm(p);
+                    loading.track("Chargement...", possederController.findPossessionAsync(r.getIdProprietaire(), r.getIdVehicule()), p -> {
+                        if (p != null) openPossederForm(p);
+                    });
                 }
             }
             clicked = false;
@@ -1,14 +1,21 @@
 package views;
 
 import controllers.ProprietaireController;
+import events.DomainEvent.ProprietaireCreated;
+import events.DomainEvent.ProprietaireDeleted;
+import events.DomainEvent.ProprietaireEvent;
+import events.DomainEvent.ProprietaireUpdated;
+import events.EventBus;
 import models.Proprietaire;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableCellEditor;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Vue pour gérer la liste des propriétaires
@@ -20,12 +27,18 @@ import java.util.List;
  * 4. Tous les champs sont obligatoires : Nom, Prénom, Adresse, CP, Ville
  * 5. Ajouter un bouton "Fermer" pour quitter proprement la fenêtre
  * 6. Formulaire reste ouvert si erreur
+ * 7. Rechercher un propriétaire (nom, prénom, ville, code postal), même mal orthographié
+ * 8. Lire la liste par pages sans bloquer la fenêtre, et la tenir à jour
+ *    grâce au bus d'événements.
  */
 public class ProprietaireView extends JFrame {
 
     private ProprietaireController proprietaireController;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<Proprietaire, Integer> tableModel;
     private JTable table;
+    private LoadingPanel loading;
+    private LoadingStatusBar statusBar;
+    private EventBus.Subscription subscription;
 
     // ================== CONSTRUCTEUR ==================
     public ProprietaireView(ProprietaireController proprietaireController) {
@@ -39,7 +52,39 @@ public class ProprietaireView extends JFrame {
 
         // -------- Définition des colonnes du tableau --------
         String[] colonnes = {"ID", "Nom", "Prénom", "Adresse", "CP", "Ville", "Modifier", "Supprimer"};
-        tableModel = new DefaultTableModel(colonnes, 0) {
+        // Tableau virtuel : les propriétaires sont chargés par pages pendant le défilement
+        tableModel = new PagedTableModel<Proprietaire, Integer>(colonnes, new PagedTableModel.PageSource<Proprietaire, Integer>() {
+            @Override
+            public int count() { return proprietaireController.countProprietaires(); }
+
+            @Override
+            public List<Proprietaire> loadPage(Integer after, int limit) {
+                return proprietaireController.fetchProprietairesAfter(after == null ? 0 : after, limit);
+            }
+
+            @Override
+            public Integer keyAt(int index) {
+                int id = proprietaireController.findIdProprietaireAt(index);
+                return id < 0 ? null : id;
+            }
+
+            @Override
+            public Integer keyOf(Proprietaire row) { return row.getIdProprietaire(); }
+        }) {
+            @Override
+            protected Object valueAt(Proprietaire p, int column) {
+                switch (column) {
+                    case 0: return p.getIdProprietaire();
+                    case 1: return p.getNom();
+                    case 2: return p.getPrenom();
+                    case 3: return p.getAdresse();
+                    case 4: return p.getCp();
+                    case 5: return p.getVille();
+                    case 6: return "Modifier";
+                    default: return "Supprimer";
+                }
+            }
+
             @Override
             public boolean isCellEditable(int row, int column) {
                 return column >= 6; // seules les colonnes Modifier / Supprimer sont éditables
@@ -56,6 +101,18 @@ public class ProprietaireView extends JFrame {
         JScrollPane scrollPane = new JScrollPane(table);
         add(scrollPane, BorderLayout.CENTER);
 
+        // -------- Recherche --------
+        JTextField searchField = new JTextField(20);
+        JButton searchButton = new JButton("Rechercher");
+        searchButton.addActionListener(e -> searchProprietaire(searchField.getText()));
+        searchField.addActionListener(e -> searchProprietaire(searchField.getText())); // touche Entrée
+
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        topPanel.add(new JLabel("Nom, prénom, ville ou CP :"));
+        topPanel.add(searchField);
+        topPanel.add(searchButton);
+        add(topPanel, BorderLayout.NORTH);
+
         // -------- Panneau des boutons --------
         JButton addButton = new JButton("Ajouter un propriétaire");
         addButton.addActionListener(e -> showProprietaireForm(null));
@@ -66,10 +123,57 @@ public class ProprietaireView extends JFrame {
         JPanel bottomPanel = new JPanel();
         bottomPanel.add(addButton);
         bottomPanel.add(closeButton);
-        add(bottomPanel, BorderLayout.SOUTH);
+        statusBar = new LoadingStatusBar();
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(bottomPanel, BorderLayout.CENTER);
+        southPanel.add(statusBar, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+
+        loading = LoadingPanel.install(this);
+
+        // -------- Chargements en cours --------
+        tableModel.setLoadListener(this::updateStatus);
+        tableModel.addTableModelListener(e -> updateStatus());
+        updateStatus();
+
+        // -------- Modifications faites ici ou dans une autre fenêtre --------
+        subscription = EventBus.getDefault().subscribeOnEdt(ProprietaireEvent.class, this::onProprietaireEvents);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                subscription.unsubscribe();
+                tableModel.dispose(); // requêtes en cours annulées, connexions rendues au pool
+            }
+        });
+    }
+
+    // ================== RECHERCHE ==================
+    private void searchProprietaire(String saisie) {
+        if (saisie.trim().isEmpty()) return;
 
-        // -------- Remplissage initial du tableau --------
-        refreshTable();
+        loading.track("Recherche...", proprietaireController.searchProprietairesAsync(saisie, 20), this::showResultats);
+    }
+
+    private void showResultats(List<Proprietaire> resultats) {
+        if (resultats.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Aucun propriétaire trouvé.");
+            return;
+        }
+        // libellé complet pour distinguer les homonymes
+        String[] libelles = new String[resultats.size()];
+        for (int i = 0; i < libelles.length; i++) {
+            Proprietaire p = resultats.get(i);
+            libelles[i] = p.getPrenom() + " " + p.getNom() + " - " + p.getCp() + " " + p.getVille();
+        }
+        String choix = (String) JOptionPane.showInputDialog(this, "Propriétaires trouvés :", "Recherche",
+                JOptionPane.PLAIN_MESSAGE, null, libelles, libelles[0]);
+        for (int i = 0; i < libelles.length; i++) {
+            if (libelles[i].equals(choix)) {
+                showProprietaireForm(resultats.get(i));
+                return;
+            }
+        }
     }
 
     // ================== FORMULAIRE AJOUT / MODIFICATION ==================
@@ -110,20 +214,23 @@ public class ProprietaireView extends JFrame {
                 return; // formulaire reste ouvert
             }
 
-            boolean success;
+            CompletableFuture<Proprietaire> save;
             if (p == null)
-                success = proprietaireController.createProprietaire(nom, prenom, adresse, cp, ville);
+                save = proprietaireController.createProprietaireAsync(nom, prenom, adresse, cp, ville);
             else
-                success = proprietaireController.modifyProprietaire(p.getIdProprietaire(), nom, prenom, adresse, cp, ville);
-
-            if (success) {
-                JOptionPane.showMessageDialog(dialog, "Enregistré !");
-                dialog.dispose(); // fermer le formulaire
-                refreshTable();
-            } else {
-                JOptionPane.showMessageDialog(dialog, "Erreur ou doublon ! Veuillez vérifier les informations.");
-                // formulaire reste ouvert
-            }
+                save = proprietaireController.modifyProprietaireAsync(p.getIdProprietaire(), nom, prenom, adresse, cp, ville);
+
+            saveButton.setEnabled(false); // pas de double enregistrement pendant l'attente
+            LoadingPanel.onEdt(dialog, save, saved -> {
+                saveButton.setEnabled(true);
+                if (saved != null) {
+                    JOptionPane.showMessageDialog(dialog, "Enregistré !");
+                    dialog.dispose(); // fermer le formulaire (la ligne est mise à jour par l'événement publié)
+                } else {
+                    JOptionPane.showMessageDialog(dialog, "Erreur ou doublon ! Veuillez vérifier les informations.");
+                    // formulaire reste ouvert
+                }
+            });
         });
 
         // -------- Ajout des composants au formulaire --------
@@ -137,23 +244,25 @@ public class ProprietaireView extends JFrame {
         dialog.setVisible(true);
     }
 
-    // ================== RAFRAÎCHIR LE TABLEAU ==================
-    private void refreshTable() {
-        tableModel.setRowCount(0);
-        for (Proprietaire p : proprietaireController.fetchAllProprietaires()) {
-            tableModel.addRow(new Object[]{
-                    p.getIdProprietaire(),
-                    p.getNom(),
-                    p.getPrenom(),
-                    p.getAdresse(),
-                    p.getCp(),
-                    p.getVille(),
-                    "Modifier",
-                    "Supprimer"
-            });
+    // ================== ÉVÉNEMENTS (modifications faites ici ou ailleurs) ==================
+    private void onProprietaireEvents(List<ProprietaireEvent> events) {
+        if (events.size() > PagedTableModel.MAX_ROW_PATCHES) {
+            tableModel.reload();
+            return;
+        }
+        for (ProprietaireEvent e : events) {
+            if (e instanceof ProprietaireCreated) tableModel.rowInserted(((ProprietaireCreated) e).getProprietaire());
+            else if (e instanceof ProprietaireUpdated) tableModel.rowUpdated(((ProprietaireUpdated) e).getProprietaire());
+            else if (e instanceof ProprietaireDeleted) tableModel.rowRemoved(e.getIdProprietaire());
         }
     }
 
+    // ================== BARRE D'ÉTAT ==================
+    private void updateStatus() {
+        if (tableModel.isLoading()) statusBar.showBusy("Chargement des propriétaires...", tableModel::cancelLoads);
+        else statusBar.showIdle(tableModel.getRowCount() + " propriétaires");
+    }
+
     // ================== CLASSES INTERNES POUR LES BOUTONS ==================
     class ButtonRenderer extends JButton implements TableCellRenderer {
         public ButtonRenderer() { setOpaque(true); }
@@ -191,19 +300,21 @@ public class ProprietaireView extends JFrame {
 
         @Override
         public Object getCellEditorValue() {
-            if (clicked) {
+            // ligne pas encore chargée : rien à faire
+            if (clicked && table.getValueAt(row, 0) != null) {
                 int id = (int) table.getValueAt(row, 0);
                 if (label.equals("Supprimer")) {
                     int confirm = JOptionPane.showConfirmDialog(ProprietaireView.this,
                             "Supprimer ce propriétaire ?", "Confirmer", JOptionPane.YES_NO_OPTION);
                     if (confirm == JOptionPane.YES_OPTION) {
-                        boolean success = proprietaireController.removeProprietaire(id);
-                        JOptionPane.showMessageDialog(ProprietaireView.this, success ? "Supprimé !" : "Erreur !");
-                        refreshTable();
+                        loading.track("Suppression...", proprietaireController.removeProprietaireAsync(id), success -> {
+                            JOptionPane.showMessageDialog(ProprietaireView.this, success ? "Supprimé !" : "Erreur !");
+                        });
                     }
                 } else if (label.equals("Modifier")) {
-                    Proprietaire p = proprietaireController.findProprietaireById(id);
-                    if (p != null) showProprietaireForm(p);
+                    loading.track("Chargement...", proprietaireController.findProprietaireByIdAsync(id), p -> {
+                        if (p != null) showProprietaireForm(p);
+                    });
                 }
             }
             clicked = false;
@@ -3,15 +3,27 @@ package views;
 import controllers.VehiculeController;
 import controllers.ModeleController;
 import controllers.MarqueController;
+import events.DomainEvent.MarqueUpdated;
+import events.DomainEvent.ModeleUpdated;
+import events.DomainEvent.VehiculeCreated;
+import events.DomainEvent.VehiculeDeleted;
+import events.DomainEvent.VehiculeEvent;
+import events.DomainEvent.VehiculeUpdated;
+import events.EventBus;
+import models.Marque;
 import models.Vehicule;
+import models.VehiculeRow;
 import models.Modele;
-import models.Marque;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableCellEditor;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Vue pour gérer les véhicules
@@ -23,6 +35,9 @@ import java.awt.*;
  * 4. Champs obligatoires : Matricule et Modèle.
  * 5. Gestion des erreurs de saisie : formulaire reste ouvert si erreur.
  * 6. Ajouter un bouton "Fermer" pour quitter proprement la fenêtre.
+ * 7. Rechercher un véhicule par matricule (complet ou début) sans parcourir le tableau.
+ * 8. Garder la fenêtre réactive : le tableau est lu par pages en arrière-plan et suit
+ *    les modifications faites ici ou dans une autre fenêtre (bus d'événements).
  */
 public class VehiculeView extends JFrame {
 
@@ -30,8 +45,11 @@ public class VehiculeView extends JFrame {
     private ModeleController modeleController;
     private MarqueController marqueController;
 
-    private DefaultTableModel tableModel;
+    private PagedTableModel<VehiculeRow, Integer> tableModel;
     private JTable table;
+    private LoadingPanel loading;
+    private LoadingStatusBar statusBar;
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
 
     // ================== CONSTRUCTEUR ==================
     public VehiculeView(VehiculeController vehiculeController,
@@ -47,7 +65,41 @@ public class VehiculeView extends JFrame {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
         String[] colonnes = {"ID", "Matricule", "Année", "Poids", "Chevaux", "Fiscale", "Modèle", "Marque", "Modifier", "Supprimer"};
-        tableModel = new DefaultTableModel(colonnes, 0) {
+        // Tableau virtuel : les véhicules sont chargés par pages pendant le défilement
+        tableModel = new PagedTableModel<VehiculeRow, Integer>(colonnes, new PagedTableModel.PageSource<VehiculeRow, Integer>() {
+            @Override
+            public int count() { return vehiculeController.countVehicules(); }
+
+            @Override
+            public List<VehiculeRow> loadPage(Integer after, int limit) {
+                return vehiculeController.fetchVehiculeRowsAfter(after == null ? 0 : after, limit);
+            }
+
+            @Override
+            public Integer keyAt(int index) {
+                int id = vehiculeController.findIdVehiculeAt(index);
+                return id < 0 ? null : id;
+            }
+
+            @Override
+            public Integer keyOf(VehiculeRow row) { return row.getIdVehicule(); }
+        }) {
+            @Override
+            protected Object valueAt(VehiculeRow v, int column) {
+                switch (column) {
+                    case 0: return v.getIdVehicule();
+                    case 1: return v.getMatricule();
+                    case 2: return v.getAnneeSortie();
+                    case 3: return v.getPoids();
+                    case 4: return v.getPuissanceChevaux();
+                    case 5: return v.getPuissanceFiscale();
+                    case 6: return v.getNomModele() != null ? v.getNomModele() : "";
+                    case 7: return v.getNomMarque() != null ? v.getNomMarque() : "";
+                    case 8: return "Modifier";
+                    default: return "Supprimer";
+                }
+            }
+
             @Override
             public boolean isCellEditable(int row, int column) {
                 return column >= 8;
@@ -63,9 +115,21 @@ public class VehiculeView extends JFrame {
         JScrollPane scrollPane = new JScrollPane(table);
         add(scrollPane, BorderLayout.CENTER);
 
+        // -------- Recherche par matricule --------
+        JTextField searchField = new JTextField(15);
+        JButton searchButton = new JButton("Rechercher");
+        searchButton.addActionListener(e -> searchByMatricule(searchField.getText()));
+        searchField.addActionListener(e -> searchByMatricule(searchField.getText())); // touche Entrée
+
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        topPanel.add(new JLabel("Matricule :"));
+        topPanel.add(searchField);
+        topPanel.add(searchButton);
+        add(topPanel, BorderLayout.NORTH);
+
         // -------- Panneau des boutons --------
         JButton addButton = new JButton("Ajouter un véhicule");
-        addButton.addActionListener(e -> showVehiculeForm(null));
+        addButton.addActionListener(e -> openVehiculeForm(null));
 
         JButton closeButton = new JButton("Fermer");
         closeButton.addActionListener(e -> dispose());
@@ -73,13 +137,42 @@ public class VehiculeView extends JFrame {
         JPanel bottomPanel = new JPanel();
         bottomPanel.add(addButton);
         bottomPanel.add(closeButton);
-        add(bottomPanel, BorderLayout.SOUTH);
-
-        refreshTable();
+        statusBar = new LoadingStatusBar();
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(bottomPanel, BorderLayout.CENTER);
+        southPanel.add(statusBar, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+
+        loading = LoadingPanel.install(this);
+
+        // -------- Chargements en cours --------
+        tableModel.setLoadListener(this::updateStatus);
+        tableModel.addTableModelListener(e -> updateStatus());
+        updateStatus();
+
+        // -------- Modifications faites ici ou dans une autre fenêtre --------
+        EventBus bus = EventBus.getDefault();
+        subscriptions.add(bus.subscribeOnEdt(VehiculeEvent.class, this::onVehiculeEvents));
+        subscriptions.add(bus.subscribeOnEdt(ModeleUpdated.class, this::onModelesUpdated));
+        subscriptions.add(bus.subscribeOnEdt(MarqueUpdated.class, this::onMarquesUpdated));
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                subscriptions.forEach(EventBus.Subscription::unsubscribe);
+                tableModel.dispose(); // requêtes en cours annulées, connexions rendues au pool
+            }
+        });
     }
 
     // ================== FORMULAIRE AJOUT / MODIFICATION ==================
-    private void showVehiculeForm(Vehicule vehicule) {
+    // Les modèles de la liste déroulante sont lus en arrière-plan avant d'ouvrir le formulaire
+    private void openVehiculeForm(Vehicule vehicule) {
+        loading.track("Chargement des modèles...", modeleController.fetchAllModelesAsync(),
+                modeles -> showVehiculeForm(vehicule, modeles));
+    }
+
+    private void showVehiculeForm(Vehicule vehicule, List<Modele> modeles) {
         JDialog dialog = new JDialog(this, "Formulaire véhicule", true);
         dialog.setSize(400, 350);
         dialog.setLayout(new GridLayout(7, 2, 10, 10));
@@ -92,7 +185,7 @@ public class VehiculeView extends JFrame {
         JTextField fiscaleField = new JTextField();
 
         JComboBox<Modele> modeleCombo = new JComboBox<>();
-        for (Modele m : modeleController.fetchAllModeles()) modeleCombo.addItem(m);
+        for (Modele m : modeles) modeleCombo.addItem(m);
 
         // Pré-remplissage si modification
         if (vehicule != null) {
@@ -126,21 +219,25 @@ public class VehiculeView extends JFrame {
                 int chevaux = Integer.parseInt(chevauxField.getText().trim());
                 int fiscale = Integer.parseInt(fiscaleField.getText().trim());
 
-                boolean success;
+                // la ligne du tableau est mise à jour par l'événement publié par le contrôleur
+                CompletableFuture<Vehicule> save;
                 if (vehicule == null) {
-                    success = vehiculeController.createVehicule(matricule, annee, poids, chevaux, fiscale, selectedModele.getIdModele());
+                    save = vehiculeController.createVehiculeAsync(matricule, annee, poids, chevaux, fiscale, selectedModele.getIdModele());
                 } else {
-                    success = vehiculeController.modifyVehicule(vehicule.getIdVehicule(), matricule, annee, poids, chevaux, fiscale, selectedModele.getIdModele());
+                    save = vehiculeController.modifyVehiculeAsync(vehicule.getIdVehicule(), matricule, annee, poids, chevaux, fiscale, selectedModele.getIdModele());
                 }
 
-                if (success) {
-                    JOptionPane.showMessageDialog(dialog, "Enregistré !");
-                    dialog.dispose();
-                    refreshTable();
-                } else {
-                    JOptionPane.showMessageDialog(dialog, "Erreur ou doublon ! Vérifiez les informations.");
-                    // formulaire reste ouvert
-                }
+                saveButton.setEnabled(false); // pas de double enregistrement pendant l'attente
+                LoadingPanel.onEdt(dialog, save, saved -> {
+                    saveButton.setEnabled(true);
+                    if (saved != null) {
+                        JOptionPane.showMessageDialog(dialog, "Enregistré !");
+                        dialog.dispose();
+                    } else {
+                        JOptionPane.showMessageDialog(dialog, "Erreur ou doublon ! Vérifiez les informations.");
+                        // formulaire reste ouvert
+                    }
+                });
 
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(dialog, "Erreur : saisie numérique invalide !");
@@ -159,26 +256,77 @@ public class VehiculeView extends JFrame {
         dialog.setVisible(true);
     }
 
-    // ================== RAFRAÎCHIR LE TABLEAU ==================
-    private void refreshTable() {
-        tableModel.setRowCount(0);
-        for (Vehicule v : vehiculeController.fetchAllVehicules()) {
-            Modele m = modeleController.findModeleById(v.getIdModele());
-            Marque marque = m != null ? marqueController.findMarqueById(m.getIdMarque()) : null;
-
-            tableModel.addRow(new Object[]{
-                    v.getIdVehicule(),
-                    v.getMatricule(),
-                    v.getAnneeSortie(),
-                    v.getPoids(),
-                    v.getPuissanceChevaux(),
-                    v.getPuissanceFiscale(),
-                    m != null ? m.getNomModele() : "",
-                    marque != null ? marque.getNomMarque() : "",
-                    "Modifier",
-                    "Supprimer"
-            });
+    // ================== RECHERCHE PAR MATRICULE ==================
+    private void searchByMatricule(String saisie) {
+        if (saisie.trim().isEmpty()) return;
+
+        // 1. Matricule complet, sinon 2. début de matricule (premiers résultats)
+        CompletableFuture<List<Vehicule>> recherche = vehiculeController.findByMatriculeAsync(saisie)
+                .thenCompose(exact -> exact != null
+                        ? CompletableFuture.completedFuture(List.of(exact))
+                        : vehiculeController.findByMatriculePrefixAsync(saisie, 20));
+
+        loading.track("Recherche...", recherche, resultats -> {
+            if (resultats.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Aucun véhicule pour ce matricule.");
+            } else if (resultats.size() == 1) {
+                openVehiculeForm(resultats.get(0));
+            } else {
+                Vehicule choix = (Vehicule) JOptionPane.showInputDialog(this, "Véhicules trouvés :", "Recherche",
+                        JOptionPane.PLAIN_MESSAGE, null, resultats.toArray(), resultats.get(0));
+                if (choix != null) openVehiculeForm(choix);
+            }
+        });
+    }
+
+    // ================== ÉVÉNEMENTS (modifications faites ici ou ailleurs) ==================
+    private void onVehiculeEvents(List<VehiculeEvent> events) {
+        if (events.size() > PagedTableModel.MAX_ROW_PATCHES) {
+            tableModel.reload();
+            return;
         }
+        // lignes d'affichage construites en arrière-plan (modèle et marque lus dans les caches)
+        tableModel.patchAsync(() -> {
+            List<Runnable> updates = new ArrayList<>();
+            for (VehiculeEvent e : events) {
+                if (e instanceof VehiculeDeleted) {
+                    updates.add(() -> tableModel.rowRemoved(e.getIdVehicule()));
+                } else if (e instanceof VehiculeCreated) {
+                    VehiculeRow row = vehiculeController.toVehiculeRow(((VehiculeCreated) e).getVehicule());
+                    updates.add(() -> tableModel.rowInserted(row));
+                } else {
+                    VehiculeRow row = vehiculeController.toVehiculeRow(((VehiculeUpdated) e).getVehicule());
+                    updates.add(() -> tableModel.rowUpdated(row));
+                }
+            }
+            return updates;
+        });
+    }
+
+    private void onModelesUpdated(List<ModeleUpdated> events) {
+        tableModel.patchAsync(() -> {
+            List<Runnable> updates = new ArrayList<>();
+            for (ModeleUpdated e : events) {
+                Modele modele = e.getModele();
+                Marque marque = marqueController.findMarqueById(modele.getIdMarque()); // le modèle a pu changer de marque
+                updates.add(() -> tableModel.updateLoadedRows(
+                        r -> r.getIdModele() == modele.getIdModele() ? r.withModele(modele, marque) : r));
+            }
+            return updates;
+        });
+    }
+
+    private void onMarquesUpdated(List<MarqueUpdated> events) {
+        for (MarqueUpdated e : events) {
+            Marque marque = e.getMarque();
+            tableModel.updateLoadedRows(r -> r.getIdMarque() == marque.getIdMarque() ? r.withMarque(marque) : r);
+        }
+    }
+
+    // ================== BARRE D'ÉTAT ==================
+    private void updateStatus() {
+        if (tableModel.isLoading()) statusBar.showBusy("Chargement des véhicules...", tableModel::cancelLoads);
+        else statusBar.showIdle(tableModel.getRowCount() + " véhicules");
     }
 
     // ---------------------------
@@ -220,18 +368,20 @@ public class VehiculeView extends JFrame {
 
         @Override
         public Object getCellEditorValue() {
-            if (clicked) {
+            // ligne pas encore chargée : rien à faire
+            if (clicked && table.getValueAt(row, 0) != null) {
                 int id = (int) table.getValueAt(row, 0);
                 if (label.equals("Supprimer")) {
                     int confirm = JOptionPane.showConfirmDialog(VehiculeView.this, "Supprimer ce véhicule ?", "Confirmer", JOptionPane.YES_NO_OPTION);
                     if (confirm == JOptionPane.YES_OPTION) {
-                        boolean success = vehiculeController.removeVehicule(id);
-                        JOptionPane.showMessageDialog(VehiculeView.this, success ? "Supprimé !" : "Erreur !");
-                        refreshTable();
+                        loading.track("Suppression...", vehiculeController.removeVehiculeAsync(id), success -> {
+                            JOptionPane.showMessageDialog(VehiculeView.this, success ? "Supprimé !" : "Erreur !");
+                        });
                     }
                 } else if (label.equals("Modifier")) {
-                    Vehicule v = vehiculeController.findVehiculeById(id);
-                    if (v != null) showVehiculeForm(v);
+                    loading.track("Chargement...", vehiculeController.findVehiculeByIdAsync(id), v -> {
+                        if (v != null) openVehiculeForm(v);
+                    });
                 }
             }
             clicked = false;